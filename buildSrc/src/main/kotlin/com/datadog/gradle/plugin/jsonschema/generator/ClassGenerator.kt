@@ -69,6 +69,7 @@ class ClassGenerator(
         typeBuilder.primaryConstructor(generateConstructor(definition, rootTypeName))
 
         typeBuilder.addFunction(generateClassSerializer(definition))
+        typeBuilder.addFunction(generateClassWriter(definition))
 
         if (!definition.isConstantClass()) {
             typeBuilder.addType(generateCompanionObject(definition, rootTypeName))
@@ -286,6 +287,166 @@ class ClassGenerator(
         endControlFlow()
     }
 
+    private fun generateClassWriter(definition: TypeDefinition.Class): FunSpec {
+        val funBuilder = FunSpec.builder(Identifier.FUN_WRITE_TO)
+            .addParameter(Identifier.PARAM_JSON_WRITER, ClassNameRef.JsonWriter)
+
+        if (definition.parentType != null) {
+            funBuilder.addModifiers(KModifier.OVERRIDE)
+        }
+
+        funBuilder.addStatement("%L.beginObject()", Identifier.PARAM_JSON_WRITER)
+
+        definition.properties.forEach { p ->
+            funBuilder.appendPropertyWriting(p)
+        }
+
+        if (definition.additionalProperties != null) {
+            funBuilder.appendAdditionalPropertiesWriting(
+                definition.additionalProperties,
+                definition.properties.isNotEmpty()
+            )
+        }
+
+        funBuilder.addStatement("%L.endObject()", Identifier.PARAM_JSON_WRITER)
+
+        return funBuilder.build()
+    }
+
+    private fun FunSpec.Builder.appendPropertyWriting(
+        property: TypeProperty
+    ) {
+        val propertyName = property.name.variableName()
+        val isNullable =
+            property.optional && property.type !is TypeDefinition.Constant && property.type !is TypeDefinition.Null
+        val refName = if (isNullable) {
+            beginControlFlow("%L?.let·{·%LNonNull·->", propertyName, propertyName)
+            "${propertyName}NonNull"
+        } else {
+            propertyName
+        }
+
+        addStatement("%L.name(%S)", Identifier.PARAM_JSON_WRITER, property.name)
+        when (property.type) {
+            is TypeDefinition.Constant -> appendConstantWriting(property.type, property.name)
+            is TypeDefinition.Primitive -> addStatement(
+                "%L.value(%L)",
+                Identifier.PARAM_JSON_WRITER,
+                refName
+            )
+            is TypeDefinition.Null -> addStatement(
+                "%L.nullValue()",
+                Identifier.PARAM_JSON_WRITER
+            )
+            is TypeDefinition.Array -> appendArrayWriting(property.type, refName)
+            is TypeDefinition.Class,
+            is TypeDefinition.OneOfClass,
+            is TypeDefinition.Enum -> addStatement(
+                "%L.%L(%L)",
+                refName,
+                Identifier.FUN_WRITE_TO,
+                Identifier.PARAM_JSON_WRITER
+            )
+        }
+
+        if (isNullable) {
+            endControlFlow()
+        }
+    }
+
+    private fun FunSpec.Builder.appendConstantWriting(
+        type: TypeDefinition.Constant,
+        name: String
+    ) {
+        val constantValue = type.value
+        if (constantValue is String || constantValue is Number) {
+            addStatement("%L.value(%L)", Identifier.PARAM_JSON_WRITER, name.variableName())
+        } else {
+            throw IllegalStateException(
+                "Unable to generate writer for constant $constantValue with type $type"
+            )
+        }
+    }
+
+    private fun FunSpec.Builder.appendArrayWriting(
+        propertyType: TypeDefinition.Array,
+        propertyName: String
+    ) {
+        addStatement("%L.beginArray()", Identifier.PARAM_JSON_WRITER)
+
+        when (propertyType.items) {
+            is TypeDefinition.Null -> addStatement(
+                "%L.forEach { %L.nullValue() }",
+                propertyName,
+                Identifier.PARAM_JSON_WRITER
+            )
+            is TypeDefinition.Primitive,
+            is TypeDefinition.Constant -> addStatement(
+                "%L.forEach { %L.value(it) }",
+                propertyName,
+                Identifier.PARAM_JSON_WRITER
+            )
+            is TypeDefinition.Class,
+            is TypeDefinition.OneOfClass,
+            is TypeDefinition.Enum -> addStatement(
+                "%L.forEach { it.%L(%L) }",
+                propertyName,
+                Identifier.FUN_WRITE_TO,
+                Identifier.PARAM_JSON_WRITER
+            )
+            is TypeDefinition.Array -> throw UnsupportedOperationException(
+                "Unable to write an array of arrays: $propertyType"
+            )
+        }
+
+        addStatement("%L.endArray()", Identifier.PARAM_JSON_WRITER)
+    }
+
+    private fun FunSpec.Builder.appendAdditionalPropertiesWriting(
+        additionalProperties: TypeDefinition,
+        hasKnownProperties: Boolean
+    ) {
+        beginControlFlow("%L.forEach { (k, v) ->", Identifier.PARAM_ADDITIONAL_PROPS)
+
+        if (hasKnownProperties) {
+            beginControlFlow("if (k !in %L)", Identifier.PARAM_RESERVED_PROPS)
+        }
+
+        addStatement("%L.name(k)", Identifier.PARAM_JSON_WRITER)
+        when (additionalProperties) {
+            is TypeDefinition.Primitive -> addStatement(
+                "%L.value(v)",
+                Identifier.PARAM_JSON_WRITER
+            )
+            is TypeDefinition.Class -> addStatement(
+                "v.%M(%L)",
+                MemberName(Identifier.PACKAGE_UTILS, Identifier.FUN_WRITE_JSON),
+                Identifier.PARAM_JSON_WRITER
+            )
+            is TypeDefinition.Enum -> addStatement(
+                "v.%L(%L)",
+                Identifier.FUN_WRITE_TO,
+                Identifier.PARAM_JSON_WRITER
+            )
+            is TypeDefinition.Null -> addStatement("%L.nullValue()", Identifier.PARAM_JSON_WRITER)
+            is TypeDefinition.Array -> throw IllegalStateException(
+                "Unable to generate custom writer for Array type $additionalProperties"
+            )
+            is TypeDefinition.Constant -> throw IllegalStateException(
+                "Unable to generate custom writer for constant type $additionalProperties"
+            )
+            else -> throw IllegalStateException(
+                "Unable to generate custom writer for unknown type $additionalProperties"
+            )
+        }
+
+        if (hasKnownProperties) {
+            endControlFlow()
+        }
+
+        endControlFlow()
+    }
+
     private fun generateConstructor(
         definition: TypeDefinition.Class,
         rootTypeName: String
@@ -16,6 +16,7 @@ object ClassNameRef {
     val JsonParser = ClassName.bestGuess("com.google.gson.JsonParser")
     val JsonParseException = ClassName.bestGuess("com.google.gson.JsonParseException")
     val JsonPrimitive = ClassName.bestGuess("com.google.gson.JsonPrimitive")
+    val JsonWriter = ClassName.bestGuess("com.google.gson.stream.JsonWriter")
     val IllegalStateException = ClassName.bestGuess("java.lang.IllegalStateException")
     val NumberFormatException = ClassName.bestGuess("java.lang.NumberFormatException")
     val NullPointerException = ClassName.bestGuess("java.lang.NullPointerException")
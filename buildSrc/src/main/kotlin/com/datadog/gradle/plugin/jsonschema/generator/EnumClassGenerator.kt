@@ -67,6 +67,7 @@ class EnumClassGenerator(
         }
 
         enumBuilder.addFunction(generateEnumSerializer(definition))
+        enumBuilder.addFunction(generateEnumWriter())
 
         enumBuilder.addType(generateCompanionObject(definition, rootTypeName))
 
@@ -119,6 +120,17 @@ class EnumClassGenerator(
         return funBuilder.build()
     }
 
+    private fun generateEnumWriter(): FunSpec {
+        return FunSpec.builder(Identifier.FUN_WRITE_TO)
+            .addParameter(Identifier.PARAM_JSON_WRITER, ClassNameRef.JsonWriter)
+            .addStatement(
+                "%L.value(%L)",
+                Identifier.PARAM_JSON_WRITER,
+                Identifier.PARAM_JSON_VALUE
+            )
+            .build()
+    }
+
     private fun generateEnumDeserializer(
         definition: TypeDefinition.Enum,
         rootTypeName: String
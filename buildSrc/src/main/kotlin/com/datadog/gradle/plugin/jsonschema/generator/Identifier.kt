@@ -10,6 +10,8 @@ object Identifier {
 
     const val FUN_TO_JSON = "toJson"
     const val FUN_TO_JSON_ELT = "toJsonElement"
+    const val FUN_WRITE_TO = "writeTo"
+    const val FUN_WRITE_JSON = "writeJson"
     const val FUN_FROM_JSON = "fromJson"
     const val FUN_FROM_JSON_OBJ = "fromJsonObject"
 
@@ -17,6 +19,7 @@ object Identifier {
     const val PARAM_JSON_ARRAY = "jsonArray"
     const val PARAM_JSON_OBJ = "jsonObject"
     const val PARAM_JSON_VALUE = "jsonValue"
+    const val PARAM_JSON_WRITER = "writer"
     const val PARAM_ADDITIONAL_PROPS = "additionalProperties"
     const val PARAM_COLLECTION = "collection"
 
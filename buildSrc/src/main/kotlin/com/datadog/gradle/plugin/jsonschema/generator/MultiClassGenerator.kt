@@ -59,6 +59,7 @@ class MultiClassGenerator(
         }
 
         typeBuilder.addFunction(generateMultiClassSerializer())
+        typeBuilder.addFunction(generateMultiClassWriter())
 
         typeBuilder.addType(generateCompanionObject(definition, rootTypeName))
 
@@ -75,6 +76,13 @@ class MultiClassGenerator(
             .returns(ClassNameRef.JsonElement).build()
     }
 
+    private fun generateMultiClassWriter(): FunSpec {
+        return FunSpec.builder(Identifier.FUN_WRITE_TO)
+            .addModifiers(KModifier.ABSTRACT)
+            .addParameter(Identifier.PARAM_JSON_WRITER, ClassNameRef.JsonWriter)
+            .build()
+    }
+
     private fun generateCompanionObject(
         definition: TypeDefinition.OneOfClass,
         rootTypeName: String
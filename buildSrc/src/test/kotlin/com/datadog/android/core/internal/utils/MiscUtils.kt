@@ -11,6 +11,7 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonNull
 import com.google.gson.JsonObject
 import com.google.gson.JsonPrimitive
+import com.google.gson.stream.JsonWriter
 import java.util.Date
 
 // Placeholder functions needed for Deserializer code generator. These functions are needed for
@@ -40,6 +41,34 @@ internal fun Any?.toJsonElement(): JsonElement {
     }
 }
 
+internal fun Any?.writeJson(writer: JsonWriter) {
+    val element = toJsonElement()
+    when {
+        element.isJsonNull -> writer.nullValue()
+        element.isJsonArray -> {
+            writer.beginArray()
+            element.asJsonArray.forEach { it.writeJson(writer) }
+            writer.endArray()
+        }
+        element.isJsonObject -> {
+            writer.beginObject()
+            element.asJsonObject.entrySet().forEach {
+                writer.name(it.key)
+                it.value.writeJson(writer)
+            }
+            writer.endObject()
+        }
+        else -> {
+            val primitive = element.asJsonPrimitive
+            when {
+                primitive.isBoolean -> writer.value(primitive.asBoolean)
+                primitive.isNumber -> writer.value(primitive.asNumber)
+                else -> writer.value(primitive.asString)
+            }
+        }
+    }
+}
+
 internal fun Any?.fromJsonElement(): Any? {
     return when (this) {
         is JsonNull -> null
@@ -13,6 +13,7 @@ import com.google.gson.JsonArray
 import com.google.gson.JsonElement
 import com.google.gson.JsonNull
 import com.google.gson.JsonObject
+import com.google.gson.stream.JsonWriter
 import fr.xgouchet.elmyr.junit4.ForgeRule
 import org.assertj.core.api.Assertions.assertThat
 import org.everit.json.schema.loader.SchemaLoader
@@ -23,6 +24,7 @@ import org.junit.Rule
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.junit.runners.Parameterized
+import java.io.StringWriter
 import java.util.Date
 
 @RunWith(Parameterized::class)
@@ -97,6 +99,32 @@ class ModelValidationTest(
         }
     }
 
+    @Test
+    fun `validate model streaming serialization`() {
+        val type = Class.forName("com.example.model.${outputInfo.className}")
+        val toJson = type.getMethod("toJson")
+        val writeTo = type.getMethod("writeTo", JsonWriter::class.java)
+        repeat(10) {
+            val entity = forge.getForgery(type)
+            val json = toJson.invoke(entity).toString()
+            val stringWriter = StringWriter()
+            val jsonWriter = JsonWriter(stringWriter)
+            jsonWriter.isLenient = true
+            writeTo.invoke(entity, jsonWriter)
+            jsonWriter.flush()
+
+            assertThat(stringWriter.toString())
+                .overridingErrorMessage(
+                    "Streamed json was not the same " +
+                        "as the serialized one for type: [$type] and test iteration: [$it]\n" +
+                        " -    input: $entity \n" +
+                        " -     json: $json \n" +
+                        " - streamed: $stringWriter"
+                )
+                .isEqualTo(json)
+        }
+    }
+
     private val numberTypeComparator = Comparator<Number> { t1, t2 ->
         when (t2) {
             is Long -> t2.compareTo(t1.toLong())
@@ -5,12 +5,14 @@ import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
 import com.google.gson.JsonPrimitive
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.Boolean
 import kotlin.Long
 import kotlin.String
+import kotlin.Unit
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
 
@@ -20,6 +22,8 @@ import kotlin.jvm.Throws
 public sealed class Animal {
     public abstract fun toJson(): JsonElement
 
+    public abstract fun writeTo(writer: JsonWriter): Unit
+
     public data class Fish(
         public val water: Water,
         public val size: Long? = null,
@@ -33,6 +37,17 @@ public sealed class Animal {
             return json
         }
 
+        public override fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            writer.name("water")
+            water.writeTo(writer)
+            size?.let { sizeNonNull ->
+                writer.name("size")
+                writer.value(sizeNonNull)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -86,6 +101,15 @@ public sealed class Animal {
             return json
         }
 
+        public override fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            writer.name("food")
+            food.writeTo(writer)
+            writer.name("can_fly")
+            writer.value(canFly)
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -181,6 +205,10 @@ public sealed class Animal {
 
         public fun toJson(): JsonElement = JsonPrimitive(jsonValue)
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.value(jsonValue)
+        }
+
         public companion object {
             @JvmStatic
             public fun fromJson(jsonString: String): Water = values().first {
@@ -203,6 +231,10 @@ public sealed class Animal {
 
         public fun toJson(): JsonElement = JsonPrimitive(jsonValue)
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.value(jsonValue)
+        }
+
         public companion object {
             @JvmStatic
             public fun fromJson(jsonString: String): Food = values().first {
@@ -5,10 +5,12 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.String
+import kotlin.Unit
 import kotlin.collections.ArrayList
 import kotlin.collections.List
 import kotlin.jvm.JvmStatic
@@ -33,6 +35,23 @@ public data class Article(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        writer.name("title")
+        writer.value(title)
+        tags?.let { tagsNonNull ->
+            writer.name("tags")
+            writer.beginArray()
+            tagsNonNull.forEach { writer.value(it) }
+            writer.endArray()
+        }
+        writer.name("authors")
+        writer.beginArray()
+        authors.forEach { writer.value(it) }
+        writer.endArray()
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -5,6 +5,7 @@ import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
 import com.google.gson.JsonPrimitive
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
@@ -12,6 +13,7 @@ import kotlin.Boolean
 import kotlin.Long
 import kotlin.Number
 import kotlin.String
+import kotlin.Unit
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
 
@@ -40,6 +42,29 @@ public data class Bike(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        writer.name("productId")
+        writer.value(productId)
+        writer.name("productName")
+        writer.value(productName)
+        type?.let { typeNonNull ->
+            writer.name("type")
+            writer.value(typeNonNull)
+        }
+        writer.name("price")
+        writer.value(price)
+        frameMaterial?.let { frameMaterialNonNull ->
+            writer.name("frameMaterial")
+            frameMaterialNonNull.writeTo(writer)
+        }
+        writer.name("inStock")
+        writer.value(inStock)
+        writer.name("color")
+        color.writeTo(writer)
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -98,6 +123,10 @@ public data class Bike(
 
         public fun toJson(): JsonElement = JsonPrimitive(jsonValue)
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.value(jsonValue)
+        }
+
         public companion object {
             @JvmStatic
             public fun fromJson(jsonString: String): FrameMaterial = values().first {
@@ -119,6 +148,10 @@ public data class Bike(
 
         public fun toJson(): JsonElement = JsonPrimitive(jsonValue)
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.value(jsonValue)
+        }
+
         public companion object {
             @JvmStatic
             public fun fromJson(jsonString: String): Color = values().first {
@@ -4,12 +4,14 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.Long
 import kotlin.Number
 import kotlin.String
+import kotlin.Unit
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
 
@@ -28,6 +30,19 @@ public data class Book(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        writer.name("bookId")
+        writer.value(bookId)
+        writer.name("title")
+        writer.value(title)
+        writer.name("price")
+        writer.value(price)
+        writer.name("author")
+        author.writeTo(writer)
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -86,6 +101,17 @@ public data class Book(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            writer.name("firstName")
+            writer.value(firstName)
+            writer.name("lastName")
+            writer.value(lastName)
+            writer.name("contact")
+            contact.writeTo(writer)
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -146,6 +172,19 @@ public data class Book(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            phone?.let { phoneNonNull ->
+                writer.name("phone")
+                writer.value(phoneNonNull)
+            }
+            email?.let { emailNonNull ->
+                writer.name("email")
+                writer.value(emailNonNull)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
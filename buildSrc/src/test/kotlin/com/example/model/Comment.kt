@@ -4,6 +4,7 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
@@ -11,6 +12,7 @@ import kotlin.Array
 import kotlin.Boolean
 import kotlin.Long
 import kotlin.String
+import kotlin.Unit
 import kotlin.collections.MutableMap
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
@@ -38,6 +40,27 @@ public data class Comment(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        message?.let { messageNonNull ->
+            writer.name("message")
+            writer.value(messageNonNull)
+        }
+        ratings?.let { ratingsNonNull ->
+            writer.name("ratings")
+            ratingsNonNull.writeTo(writer)
+        }
+        flags?.let { flagsNonNull ->
+            writer.name("flags")
+            flagsNonNull.writeTo(writer)
+        }
+        tags?.let { tagsNonNull ->
+            writer.name("tags")
+            tagsNonNull.writeTo(writer)
+        }
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -102,6 +125,19 @@ public data class Comment(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            writer.name("global")
+            writer.value(global)
+            additionalProperties.forEach { (k, v) ->
+                if (k !in RESERVED_PROPERTIES) {
+                    writer.name(k)
+                    writer.value(v)
+                }
+            }
+            writer.endObject()
+        }
+
         public companion object {
             internal val RESERVED_PROPERTIES: Array<String> = arrayOf("global")
 
@@ -162,6 +198,15 @@ public data class Comment(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            additionalProperties.forEach { (k, v) ->
+                writer.name(k)
+                writer.value(v)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -217,6 +262,15 @@ public data class Comment(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            additionalProperties.forEach { (k, v) ->
+                writer.name(k)
+                writer.value(v)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -1,10 +1,12 @@
 package com.example.model
 
 import com.datadog.android.core.`internal`.utils.toJsonElement
+import com.datadog.android.core.`internal`.utils.writeJson
 import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
@@ -12,6 +14,7 @@ import kotlin.Any
 import kotlin.Array
 import kotlin.Long
 import kotlin.String
+import kotlin.Unit
 import kotlin.collections.MutableMap
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
@@ -41,6 +44,29 @@ public data class Company(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        name?.let { nameNonNull ->
+            writer.name("name")
+            writer.value(nameNonNull)
+        }
+        ratings?.let { ratingsNonNull ->
+            writer.name("ratings")
+            ratingsNonNull.writeTo(writer)
+        }
+        information?.let { informationNonNull ->
+            writer.name("information")
+            informationNonNull.writeTo(writer)
+        }
+        additionalProperties.forEach { (k, v) ->
+            if (k !in RESERVED_PROPERTIES) {
+                writer.name(k)
+                v.writeJson(writer)
+            }
+        }
+        writer.endObject()
+    }
+
     public companion object {
         internal val RESERVED_PROPERTIES: Array<String> = arrayOf("name", "ratings", "information")
 
@@ -110,6 +136,19 @@ public data class Company(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            writer.name("global")
+            writer.value(global)
+            additionalProperties.forEach { (k, v) ->
+                if (k !in RESERVED_PROPERTIES) {
+                    writer.name(k)
+                    writer.value(v)
+                }
+            }
+            writer.endObject()
+        }
+
         public companion object {
             internal val RESERVED_PROPERTIES: Array<String> = arrayOf("global")
 
@@ -180,6 +219,25 @@ public data class Company(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            date?.let { dateNonNull ->
+                writer.name("date")
+                writer.value(dateNonNull)
+            }
+            priority?.let { priorityNonNull ->
+                writer.name("priority")
+                writer.value(priorityNonNull)
+            }
+            additionalProperties.forEach { (k, v) ->
+                if (k !in RESERVED_PROPERTIES) {
+                    writer.name(k)
+                    v.writeJson(writer)
+                }
+            }
+            writer.endObject()
+        }
+
         public companion object {
             internal val RESERVED_PROPERTIES: Array<String> = arrayOf("date", "priority")
 
@@ -5,10 +5,12 @@ import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
 import com.google.gson.JsonPrimitive
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.String
+import kotlin.Unit
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
 
@@ -27,6 +29,19 @@ public data class Conflict(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        type?.let { typeNonNull ->
+            writer.name("type")
+            typeNonNull.writeTo(writer)
+        }
+        user?.let { userNonNull ->
+            writer.name("user")
+            userNonNull.writeTo(writer)
+        }
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -83,6 +98,15 @@ public data class Conflict(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            id?.let { idNonNull ->
+                writer.name("id")
+                writer.value(idNonNull)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -139,6 +163,19 @@ public data class Conflict(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            name?.let { nameNonNull ->
+                writer.name("name")
+                writer.value(nameNonNull)
+            }
+            type?.let { typeNonNull ->
+                writer.name("type")
+                typeNonNull.writeTo(writer)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -193,6 +230,10 @@ public data class Conflict(
 
         public fun toJson(): JsonElement = JsonPrimitive(jsonValue)
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.value(jsonValue)
+        }
+
         public companion object {
             @JvmStatic
             public fun fromJson(jsonString: String): UserType = values().first {
@@ -5,11 +5,13 @@ import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
 import com.google.gson.JsonPrimitive
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.Long
 import kotlin.String
+import kotlin.Unit
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
 
@@ -28,6 +30,19 @@ public data class DateTime(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        date?.let { dateNonNull ->
+            writer.name("date")
+            dateNonNull.writeTo(writer)
+        }
+        time?.let { timeNonNull ->
+            writer.name("time")
+            timeNonNull.writeTo(writer)
+        }
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -92,6 +107,23 @@ public data class DateTime(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            year?.let { yearNonNull ->
+                writer.name("year")
+                writer.value(yearNonNull)
+            }
+            month?.let { monthNonNull ->
+                writer.name("month")
+                monthNonNull.writeTo(writer)
+            }
+            day?.let { dayNonNull ->
+                writer.name("day")
+                writer.value(dayNonNull)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -156,6 +188,23 @@ public data class DateTime(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            hour?.let { hourNonNull ->
+                writer.name("hour")
+                writer.value(hourNonNull)
+            }
+            minute?.let { minuteNonNull ->
+                writer.name("minute")
+                writer.value(minuteNonNull)
+            }
+            seconds?.let { secondsNonNull ->
+                writer.name("seconds")
+                writer.value(secondsNonNull)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -218,6 +267,10 @@ public data class DateTime(
 
         public fun toJson(): JsonElement = JsonPrimitive(jsonValue)
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.value(jsonValue)
+        }
+
         public companion object {
             @JvmStatic
             public fun fromJson(jsonString: String): Month = values().first {
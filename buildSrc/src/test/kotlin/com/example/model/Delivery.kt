@@ -4,10 +4,12 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.String
+import kotlin.Unit
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
 
@@ -22,6 +24,15 @@ public data class Delivery(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        writer.name("item")
+        writer.value(item)
+        writer.name("customer")
+        customer.writeTo(writer)
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -84,6 +95,23 @@ public data class Delivery(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            name?.let { nameNonNull ->
+                writer.name("name")
+                writer.value(nameNonNull)
+            }
+            billingAddress?.let { billingAddressNonNull ->
+                writer.name("billing_address")
+                billingAddressNonNull.writeTo(writer)
+            }
+            shippingAddress?.let { shippingAddressNonNull ->
+                writer.name("shipping_address")
+                shippingAddressNonNull.writeTo(writer)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -144,6 +172,17 @@ public data class Delivery(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            writer.name("street_address")
+            writer.value(streetAddress)
+            writer.name("city")
+            writer.value(city)
+            writer.name("state")
+            writer.value(state)
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -5,6 +5,7 @@ import com.google.gson.JsonNull
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
@@ -13,6 +14,7 @@ import kotlin.Long
 import kotlin.Nothing
 import kotlin.Number
 import kotlin.String
+import kotlin.Unit
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
 
@@ -51,6 +53,39 @@ public data class Demo(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        writer.name("s")
+        writer.value(s)
+        writer.name("i")
+        writer.value(i)
+        writer.name("n")
+        writer.value(n)
+        writer.name("b")
+        writer.value(b)
+        writer.name("l")
+        writer.nullValue()
+        ns?.let { nsNonNull ->
+            writer.name("ns")
+            writer.value(nsNonNull)
+        }
+        ni?.let { niNonNull ->
+            writer.name("ni")
+            writer.value(niNonNull)
+        }
+        nn?.let { nnNonNull ->
+            writer.name("nn")
+            writer.value(nnNonNull)
+        }
+        nb?.let { nbNonNull ->
+            writer.name("nb")
+            writer.value(nbNonNull)
+        }
+        writer.name("nl")
+        writer.nullValue()
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -6,12 +6,14 @@ import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
 import com.google.gson.JsonPrimitive
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.Boolean
 import kotlin.Long
 import kotlin.String
+import kotlin.Unit
 import kotlin.collections.ArrayList
 import kotlin.collections.List
 import kotlin.jvm.JvmStatic
@@ -34,6 +36,21 @@ public data class Household(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        pets?.let { petsNonNull ->
+            writer.name("pets")
+            writer.beginArray()
+            petsNonNull.forEach { it.writeTo(writer) }
+            writer.endArray()
+        }
+        situation?.let { situationNonNull ->
+            writer.name("situation")
+            situationNonNull.writeTo(writer)
+        }
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -89,6 +106,8 @@ public data class Household(
     public sealed class Animal {
         public abstract fun toJson(): JsonElement
 
+        public abstract fun writeTo(writer: JsonWriter): Unit
+
         public data class Fish(
             public val water: Water,
             public val size: Long? = null,
@@ -102,6 +121,17 @@ public data class Household(
                 return json
             }
 
+            public override fun writeTo(writer: JsonWriter): Unit {
+                writer.beginObject()
+                writer.name("water")
+                water.writeTo(writer)
+                size?.let { sizeNonNull ->
+                    writer.name("size")
+                    writer.value(sizeNonNull)
+                }
+                writer.endObject()
+            }
+
             public companion object {
                 @JvmStatic
                 @Throws(JsonParseException::class)
@@ -155,6 +185,15 @@ public data class Household(
                 return json
             }
 
+            public override fun writeTo(writer: JsonWriter): Unit {
+                writer.beginObject()
+                writer.name("food")
+                food.writeTo(writer)
+                writer.name("can_fly")
+                writer.value(canFly)
+                writer.endObject()
+            }
+
             public companion object {
                 @JvmStatic
                 @Throws(JsonParseException::class)
@@ -245,6 +284,8 @@ public data class Household(
     public sealed class Situation {
         public abstract fun toJson(): JsonElement
 
+        public abstract fun writeTo(writer: JsonWriter): Unit
+
         public data class Marriage(
             public val spouses: List<String>,
         ) : Situation() {
@@ -256,6 +297,15 @@ public data class Household(
                 return json
             }
 
+            public override fun writeTo(writer: JsonWriter): Unit {
+                writer.beginObject()
+                writer.name("spouses")
+                writer.beginArray()
+                spouses.forEach { writer.value(it) }
+                writer.endArray()
+                writer.endObject()
+            }
+
             public companion object {
                 @JvmStatic
                 @Throws(JsonParseException::class)
@@ -314,6 +364,15 @@ public data class Household(
                 return json
             }
 
+            public override fun writeTo(writer: JsonWriter): Unit {
+                writer.beginObject()
+                writer.name("roommates")
+                writer.beginArray()
+                roommates.forEach { writer.value(it) }
+                writer.endArray()
+                writer.endObject()
+            }
+
             public companion object {
                 @JvmStatic
                 @Throws(JsonParseException::class)
@@ -415,6 +474,10 @@ public data class Household(
 
         public fun toJson(): JsonElement = JsonPrimitive(jsonValue)
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.value(jsonValue)
+        }
+
         public companion object {
             @JvmStatic
             public fun fromJson(jsonString: String): Water = values().first {
@@ -437,6 +500,10 @@ public data class Household(
 
         public fun toJson(): JsonElement = JsonPrimitive(jsonValue)
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.value(jsonValue)
+        }
+
         public companion object {
             @JvmStatic
             public fun fromJson(jsonString: String): Food = values().first {
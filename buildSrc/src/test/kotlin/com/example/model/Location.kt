@@ -2,7 +2,9 @@ package com.example.model
 
 import com.google.gson.JsonElement
 import com.google.gson.JsonObject
+import com.google.gson.stream.JsonWriter
 import kotlin.String
+import kotlin.Unit
 
 public class Location() {
     public val planet: String = "earth"
@@ -15,4 +17,13 @@ public class Location() {
         json.addProperty("solar_system", solarSystem)
         return json
     }
+
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        writer.name("planet")
+        writer.value(planet)
+        writer.name("solar_system")
+        writer.value(solarSystem)
+        writer.endObject()
+    }
 }
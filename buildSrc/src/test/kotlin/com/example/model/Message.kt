@@ -5,11 +5,13 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.Boolean
 import kotlin.String
+import kotlin.Unit
 import kotlin.collections.ArrayList
 import kotlin.collections.List
 import kotlin.jvm.JvmStatic
@@ -50,6 +52,39 @@ public data class Message(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        writer.name("destination")
+        writer.beginArray()
+        destination.forEach { writer.value(it) }
+        writer.endArray()
+        writer.name("origin")
+        writer.value(origin)
+        subject?.let { subjectNonNull ->
+            writer.name("subject")
+            writer.value(subjectNonNull)
+        }
+        message?.let { messageNonNull ->
+            writer.name("message")
+            writer.value(messageNonNull)
+        }
+        labels?.let { labelsNonNull ->
+            writer.name("labels")
+            writer.beginArray()
+            labelsNonNull.forEach { writer.value(it) }
+            writer.endArray()
+        }
+        read?.let { readNonNull ->
+            writer.name("read")
+            writer.value(readNonNull)
+        }
+        important?.let { importantNonNull ->
+            writer.name("important")
+            writer.value(importantNonNull)
+        }
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
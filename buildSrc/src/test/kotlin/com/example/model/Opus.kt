@@ -6,11 +6,13 @@ import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
 import com.google.gson.JsonPrimitive
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.Long
 import kotlin.String
+import kotlin.Unit
 import kotlin.collections.ArrayList
 import kotlin.collections.List
 import kotlin.jvm.JvmStatic
@@ -48,6 +50,29 @@ public data class Opus(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        title?.let { titleNonNull ->
+            writer.name("title")
+            writer.value(titleNonNull)
+        }
+        composer?.let { composerNonNull ->
+            writer.name("composer")
+            writer.value(composerNonNull)
+        }
+        artists?.let { artistsNonNull ->
+            writer.name("artists")
+            writer.beginArray()
+            artistsNonNull.forEach { it.writeTo(writer) }
+            writer.endArray()
+        }
+        duration?.let { durationNonNull ->
+            writer.name("duration")
+            writer.value(durationNonNull)
+        }
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -117,6 +142,19 @@ public data class Opus(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            name?.let { nameNonNull ->
+                writer.name("name")
+                writer.value(nameNonNull)
+            }
+            role?.let { roleNonNull ->
+                writer.name("role")
+                roleNonNull.writeTo(writer)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -180,6 +218,10 @@ public data class Opus(
 
         public fun toJson(): JsonElement = JsonPrimitive(jsonValue)
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.value(jsonValue)
+        }
+
         public companion object {
             @JvmStatic
             public fun fromJson(jsonString: String): Role = values().first {
@@ -4,11 +4,13 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.Long
 import kotlin.String
+import kotlin.Unit
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
 
@@ -31,6 +33,23 @@ public data class Person(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        firstName?.let { firstNameNonNull ->
+            writer.name("firstName")
+            writer.value(firstNameNonNull)
+        }
+        lastName?.let { lastNameNonNull ->
+            writer.name("lastName")
+            writer.value(lastNameNonNull)
+        }
+        age?.let { ageNonNull ->
+            writer.name("age")
+            writer.value(ageNonNull)
+        }
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -4,10 +4,12 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.String
+import kotlin.Unit
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
 
@@ -36,6 +38,29 @@ public data class UserMerged(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        email?.let { emailNonNull ->
+            writer.name("email")
+            writer.value(emailNonNull)
+        }
+        phone?.let { phoneNonNull ->
+            writer.name("phone")
+            writer.value(phoneNonNull)
+        }
+        info?.let { infoNonNull ->
+            writer.name("info")
+            infoNonNull.writeTo(writer)
+        }
+        firstname?.let { firstnameNonNull ->
+            writer.name("firstname")
+            writer.value(firstnameNonNull)
+        }
+        writer.name("lastname")
+        writer.value(lastname)
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -97,6 +122,19 @@ public data class UserMerged(
             return json
         }
 
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            notes?.let { notesNonNull ->
+                writer.name("notes")
+                writer.value(notesNonNull)
+            }
+            source?.let { sourceNonNull ->
+                writer.name("source")
+                writer.value(sourceNonNull)
+            }
+            writer.endObject()
+        }
+
         public companion object {
             @JvmStatic
             @Throws(JsonParseException::class)
@@ -4,12 +4,14 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.Long
 import kotlin.Number
 import kotlin.String
+import kotlin.Unit
 import kotlin.jvm.JvmStatic
 import kotlin.jvm.Throws
 
@@ -32,6 +34,21 @@ public data class Version(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        writer.name("version")
+        writer.value(version)
+        writer.name("delta")
+        writer.value(delta)
+        writer.name("id")
+        id.writeTo(writer)
+        date?.let { dateNonNull ->
+            writer.name("date")
+            dateNonNull.writeTo(writer)
+        }
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
@@ -83,6 +100,13 @@ public data class Version(
             json.addProperty("serialNumber", serialNumber)
             return json
         }
+
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            writer.name("serialNumber")
+            writer.value(serialNumber)
+            writer.endObject()
+        }
     }
 
     public class Date() {
@@ -96,5 +120,14 @@ public data class Version(
             json.addProperty("month", month)
             return json
         }
+
+        public fun writeTo(writer: JsonWriter): Unit {
+            writer.beginObject()
+            writer.name("year")
+            writer.value(year)
+            writer.name("month")
+            writer.value(month)
+            writer.endObject()
+        }
     }
 }
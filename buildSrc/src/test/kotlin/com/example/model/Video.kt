@@ -5,10 +5,12 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import com.google.gson.JsonParseException
 import com.google.gson.JsonParser
+import com.google.gson.stream.JsonWriter
 import java.lang.IllegalStateException
 import java.lang.NullPointerException
 import java.lang.NumberFormatException
 import kotlin.String
+import kotlin.Unit
 import kotlin.collections.HashSet
 import kotlin.collections.Set
 import kotlin.jvm.JvmStatic
@@ -35,6 +37,25 @@ public data class Video(
         return json
     }
 
+    public fun writeTo(writer: JsonWriter): Unit {
+        writer.beginObject()
+        writer.name("title")
+        writer.value(title)
+        tags?.let { tagsNonNull ->
+            writer.name("tags")
+            writer.beginArray()
+            tagsNonNull.forEach { writer.value(it) }
+            writer.endArray()
+        }
+        links?.let { linksNonNull ->
+            writer.name("links")
+            writer.beginArray()
+            linksNonNull.forEach { writer.value(it) }
+            writer.endArray()
+        }
+        writer.endObject()
+    }
+
     public companion object {
         @JvmStatic
         @Throws(JsonParseException::class)
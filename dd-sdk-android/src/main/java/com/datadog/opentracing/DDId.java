@@ -0,0 +1,171 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.opentracing;
+
+import java.math.BigInteger;
+
+/**
+ * An unsigned 64-bit trace or span id, backed by a primitive long.
+ *
+ * <p>Using a primitive instead of a {@link BigInteger} keeps the span creation and propagation
+ * allocation light. The decimal and hexadecimal representations are computed lazily and cached,
+ * taking advantage of the immutability of the id.
+ */
+public final class DDId {
+
+  public static final DDId ZERO = new DDId(0L, "0");
+  public static final DDId MAX = new DDId(-1L, "18446744073709551615");
+
+  private static final int HEX_RADIX = 16;
+  private static final int DECIMAL_RADIX = 10;
+  private static final int HEX_DIGIT_BITS = 4;
+  // a value using any of those top bits would overflow when shifted by one more hex digit
+  private static final int HEX_OVERFLOW_SHIFT = Long.SIZE - HEX_DIGIT_BITS;
+  // the unsigned value of MAX divided by 10
+  private static final long MAX_DIV_10 = 1844674407370955161L;
+  private static final int MAX_LAST_DIGIT = 5;
+
+  private final long id;
+
+  // cached representations, benign data races only lead to computing them more than once
+  private String decimalString;
+  private String hexString;
+
+  private DDId(final long id, final String decimalString) {
+    this.id = id;
+    this.decimalString = decimalString;
+  }
+
+  /**
+   * @param id the id bits, read as an unsigned value
+   * @return the matching {@link DDId}
+   */
+  public static DDId from(final long id) {
+    if (id == 0L) {
+      return ZERO;
+    } else if (id == -1L) {
+      return MAX;
+    }
+    return new DDId(id, null);
+  }
+
+  /**
+   * @param value the unsigned decimal representation of the id
+   * @return the matching {@link DDId}
+   * @throws NumberFormatException if the value is not an unsigned 64-bit decimal number
+   */
+  public static DDId from(final String value) throws NumberFormatException {
+    final int length = value.length();
+    if (length == 0) {
+      throw new NumberFormatException("Invalid unsigned 64-bit id: " + value);
+    }
+
+    long result = 0L;
+    for (int i = 0; i < length; i++) {
+      final int digit = Character.digit(value.charAt(i), DECIMAL_RADIX);
+      if (digit < 0
+          || isUnsignedGreaterThan(result, MAX_DIV_10)
+          || (result == MAX_DIV_10 && digit > MAX_LAST_DIGIT)) {
+        throw new NumberFormatException("Invalid unsigned 64-bit id: " + value);
+      }
+      result = result * DECIMAL_RADIX + digit;
+    }
+
+    if (result == 0L) {
+      return ZERO;
+    }
+    // the value can only be cached as is if it has no leading zero
+    return new DDId(result, value.charAt(0) == '0' ? null : value);
+  }
+
+  /**
+   * @param value the hexadecimal representation of the id
+   * @return the matching {@link DDId}
+   * @throws NumberFormatException if the value is not an unsigned 64-bit hexadecimal number
+   */
+  public static DDId fromHex(final String value) throws NumberFormatException {
+    final int length = value.length();
+    if (length == 0) {
+      throw new NumberFormatException("Invalid unsigned 64-bit hexadecimal id: " + value);
+    }
+
+    long result = 0L;
+    for (int i = 0; i < length; i++) {
+      final int digit = Character.digit(value.charAt(i), HEX_RADIX);
+      if (digit < 0 || (result >>> HEX_OVERFLOW_SHIFT) != 0L) {
+        throw new NumberFormatException("Invalid unsigned 64-bit hexadecimal id: " + value);
+      }
+      result = (result << HEX_DIGIT_BITS) | digit;
+    }
+
+    return from(result);
+  }
+
+  /** @return the id bits, as a (possibly negative) long */
+  public long toLong() {
+    return id;
+  }
+
+  /** @return the id as a positive {@link BigInteger} */
+  public BigInteger toBigInteger() {
+    if (id >= 0) {
+      return BigInteger.valueOf(id);
+    }
+    return BigInteger.valueOf(id & Long.MAX_VALUE).setBit(Long.SIZE - 1);
+  }
+
+  /** @return the unsigned decimal representation of the id */
+  @Override
+  public String toString() {
+    String value = decimalString;
+    if (value == null) {
+      value = toUnsignedDecimalString(id);
+      decimalString = value;
+    }
+    return value;
+  }
+
+  /** @return the lower case hexadecimal representation of the id, without leading zeros */
+  public String toHexString() {
+    String value = hexString;
+    if (value == null) {
+      value = Long.toHexString(id);
+      hexString = value;
+    }
+    return value;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof DDId)) {
+      return false;
+    }
+    return id == ((DDId) o).id;
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) (id ^ (id >>> 32));
+  }
+
+  private static boolean isUnsignedGreaterThan(final long a, final long b) {
+    return (a + Long.MIN_VALUE) > (b + Long.MIN_VALUE);
+  }
+
+  private static String toUnsignedDecimalString(final long value) {
+    if (value >= 0) {
+      return Long.toString(value);
+    }
+    // Long.toUnsignedString is not available before API 26
+    final long quotient = (value >>> 1) / 5;
+    final long remainder = value - quotient * DECIMAL_RADIX;
+    return Long.toString(quotient) + remainder;
+  }
+}
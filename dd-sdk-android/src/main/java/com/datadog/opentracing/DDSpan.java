@@ -145,7 +145,7 @@ public class DDSpan implements Span, MutableSpan {
    * @return true if root, false otherwise
    */
   public final boolean isRootSpan() {
-    return BigInteger.ZERO.equals(context.getParentId());
+    return DDId.ZERO.equals(context.getParentDDId());
   }
 
   @Override
@@ -344,16 +344,40 @@ public class DDSpan implements Span, MutableSpan {
     return context.getServiceName();
   }
 
+  /**
+   * @deprecated use {@link #getTraceDDId()} instead, which doesn't allocate a {@link BigInteger}
+   */
+  @Deprecated
   public BigInteger getTraceId() {
-    return context.getTraceId();
+    return context.getTraceDDId().toBigInteger();
+  }
+
+  public DDId getTraceDDId() {
+    return context.getTraceDDId();
   }
 
+  /**
+   * @deprecated use {@link #getSpanDDId()} instead, which doesn't allocate a {@link BigInteger}
+   */
+  @Deprecated
   public BigInteger getSpanId() {
-    return context.getSpanId();
+    return context.getSpanDDId().toBigInteger();
   }
 
+  public DDId getSpanDDId() {
+    return context.getSpanDDId();
+  }
+
+  /**
+   * @deprecated use {@link #getParentDDId()} instead, which doesn't allocate a {@link BigInteger}
+   */
+  @Deprecated
   public BigInteger getParentId() {
-    return context.getParentId();
+    return context.getParentDDId().toBigInteger();
+  }
+
+  public DDId getParentDDId() {
+    return context.getParentDDId();
   }
 
   @Override
@@ -43,9 +43,9 @@ public class DDSpanContext implements io.opentracing.SpanContext {
   private final Map<String, String> baggageItems;
 
   // Not Shared with other span contexts
-  private final BigInteger traceId;
-  private final BigInteger spanId;
-  private final BigInteger parentId;
+  private final DDId traceId;
+  private final DDId spanId;
+  private final DDId parentId;
 
   /** Tags are associated to the current span, they will not propagate to the children span */
   private final Map<String, Object> tags = new ConcurrentHashMap<>();
@@ -79,9 +79,9 @@ public class DDSpanContext implements io.opentracing.SpanContext {
   private final Map<String, String> serviceNameMappings;
 
   public DDSpanContext(
-      final BigInteger traceId,
-      final BigInteger spanId,
-      final BigInteger parentId,
+      final DDId traceId,
+      final DDId spanId,
+      final DDId parentId,
       final String serviceName,
       final String operationName,
       final String resourceName,
@@ -136,7 +136,15 @@ public class DDSpanContext implements io.opentracing.SpanContext {
     this.tags.put(DDTags.THREAD_ID, threadId);
   }
 
+  /**
+   * @deprecated use {@link #getTraceDDId()} instead, which doesn't allocate a {@link BigInteger}
+   */
+  @Deprecated
   public BigInteger getTraceId() {
+    return traceId.toBigInteger();
+  }
+
+  public DDId getTraceDDId() {
     return traceId;
   }
 
@@ -145,11 +153,27 @@ public class DDSpanContext implements io.opentracing.SpanContext {
     return traceId.toString();
   }
 
+  /**
+   * @deprecated use {@link #getParentDDId()} instead, which doesn't allocate a {@link BigInteger}
+   */
+  @Deprecated
   public BigInteger getParentId() {
+    return parentId.toBigInteger();
+  }
+
+  public DDId getParentDDId() {
     return parentId;
   }
 
+  /**
+   * @deprecated use {@link #getSpanDDId()} instead, which doesn't allocate a {@link BigInteger}
+   */
+  @Deprecated
   public BigInteger getSpanId() {
+    return spanId.toBigInteger();
+  }
+
+  public DDId getSpanDDId() {
     return spanId;
   }
 
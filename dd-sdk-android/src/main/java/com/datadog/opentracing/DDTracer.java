@@ -16,6 +16,7 @@ import com.datadog.opentracing.propagation.TagContext;
 import com.datadog.opentracing.scopemanager.ContextualScopeManager;
 import com.datadog.opentracing.scopemanager.ScopeContext;
 import com.datadog.trace.api.Config;
+import com.datadog.trace.api.IdGenerationStrategy;
 import com.datadog.trace.api.Tracer;
 import com.datadog.trace.api.interceptor.MutableSpan;
 import com.datadog.trace.api.interceptor.TraceInterceptor;
@@ -113,9 +114,10 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
     // On Android, the same zygote is reused for every single application,
     // meaning that the ThreadLocalRandom reuses the same exact state,
     // resulting in conflicting TraceIds.
-    // To avoid this we will use a SecureRandom instance here to generate the trace id.
+    // To avoid this we will use a SecureRandom instance here to generate (or seed the per thread
+    // generators of) the trace id.
 
-    private final Random random;
+    private final IdGenerator idGenerator;
 
     protected DDTracer(final Config config, final Writer writer, final Random random) {
         this(
@@ -125,7 +127,7 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
                 HttpCodec.createInjector(Config.get()),
                 HttpCodec.createExtractor(Config.get(), config.getHeaderTags()),
                 new ContextualScopeManager(Config.get().getScopeDepthLimit(), createScopeEventFactory()),
-                random,
+                createIdGenerator(config.getIdGenerationStrategy(), random),
                 config.getLocalRootSpanTags(),
                 config.getMergedSpanTags(),
                 config.getServiceMapping(),
@@ -142,7 +144,7 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
             final HttpCodec.Injector injector,
             final HttpCodec.Extractor extractor,
             final ScopeManager scopeManager,
-            final Random random,
+            final IdGenerator idGenerator,
             final Map<String, String> localRootSpanTags,
             final Map<String, String> defaultSpanTags,
             final Map<String, String> serviceNameMappings,
@@ -154,7 +156,7 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
         assert serviceNameMappings != null;
         assert taggedHeaders != null;
 
-        this.random = random;
+        this.idGenerator = idGenerator;
         this.serviceName = serviceName;
         if (writer == null) {
             this.writer = new LoggingWriter();
@@ -352,7 +354,7 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
     public String getTraceId() {
         final Span activeSpan = activeSpan();
         if (activeSpan instanceof DDSpan) {
-            return ((DDSpan) activeSpan).getTraceId().toString();
+            return ((DDSpan) activeSpan).getTraceDDId().toString();
         }
         return "0";
     }
@@ -361,7 +363,7 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
     public String getSpanId() {
         final Span activeSpan = activeSpan();
         if (activeSpan instanceof DDSpan) {
-            return ((DDSpan) activeSpan).getSpanId().toString();
+            return ((DDSpan) activeSpan).getSpanDDId().toString();
         }
         return "0";
     }
@@ -416,6 +418,15 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
         return new DDNoopScopeEventFactory();
     }
 
+    private static IdGenerator createIdGenerator(
+            final IdGenerationStrategy strategy, final Random random) {
+        if (strategy == IdGenerationStrategy.FAST_RANDOM) {
+            return new ThreadLocalIdGenerator(random);
+        } else {
+            return new SharedRandomIdGenerator(random);
+        }
+    }
+
     /**
      * Spans are built using this builder
      */
@@ -575,17 +586,8 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
             return this;
         }
 
-        private BigInteger generateNewId() {
-            // It is **extremely** unlikely to generate the value "0" but we still need to handle that
-            // case
-            BigInteger value;
-            do {
-                synchronized (random) {
-                    value = new StringCachingBigInteger(63, random);
-                }
-            } while (value.signum() == 0);
-
-            return value;
+        private DDId generateNewId() {
+            return idGenerator.generateId();
         }
 
         /**
@@ -595,9 +597,9 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
          * @return the context
          */
         private DDSpanContext buildSpanContext() {
-            final BigInteger traceId;
-            final BigInteger spanId = generateNewId();
-            final BigInteger parentSpanId;
+            final DDId traceId;
+            final DDId spanId = generateNewId();
+            final DDId parentSpanId;
             final Map<String, String> baggage;
             final PendingTrace parentTrace;
             final int samplingPriority;
@@ -618,8 +620,8 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
             // root span, parentContext will be null at this point.
             if (parentContext instanceof DDSpanContext) {
                 final DDSpanContext ddsc = (DDSpanContext) parentContext;
-                traceId = ddsc.getTraceId();
-                parentSpanId = ddsc.getSpanId();
+                traceId = ddsc.getTraceDDId();
+                parentSpanId = ddsc.getSpanDDId();
                 baggage = ddsc.getBaggageItems();
                 parentTrace = ddsc.getTrace();
                 samplingPriority = PrioritySampling.UNSET;
@@ -632,14 +634,14 @@ public class DDTracer implements io.opentracing.Tracer, Closeable, Tracer {
                 if (parentContext instanceof ExtractedContext) {
                     // Propagate external trace
                     final ExtractedContext extractedContext = (ExtractedContext) parentContext;
-                    traceId = extractedContext.getTraceId();
-                    parentSpanId = extractedContext.getSpanId();
+                    traceId = extractedContext.getTraceDDId();
+                    parentSpanId = extractedContext.getSpanDDId();
                     samplingPriority = extractedContext.getSamplingPriority();
                     baggage = extractedContext.getBaggage();
                 } else {
                     // Start a new trace
                     traceId = generateNewId();
-                    parentSpanId = BigInteger.ZERO;
+                    parentSpanId = DDId.ZERO;
                     samplingPriority = PrioritySampling.UNSET;
                     baggage = null;
                 }
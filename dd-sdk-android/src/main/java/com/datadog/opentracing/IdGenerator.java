@@ -4,10 +4,11 @@
  * Copyright 2016-Present Datadog, Inc.
  */
 
-package com.datadog.android.core.internal.utils
+package com.datadog.opentracing;
 
-import java.math.BigInteger
+/** Generates the positive 63-bit ids used for traces and spans. */
+interface IdGenerator {
 
-internal fun BigInteger.toHexString(): String {
-    return toLong().toString(16)
+  /** @return a new non-zero 63-bit id */
+  DDId generateId();
 }
@@ -14,7 +14,6 @@ import java.io.Closeable;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.math.BigInteger;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -26,7 +25,7 @@ public class PendingTrace extends LinkedList<DDSpan> {
   private static final AtomicReference<SpanCleaner> SPAN_CLEANER = new AtomicReference<>();
 
   private final DDTracer tracer;
-  private final BigInteger traceId;
+  private final DDId traceId;
 
   // TODO: consider moving these time fields into DDTracer to ensure that traces have precise
   // relative time
@@ -58,7 +57,7 @@ public class PendingTrace extends LinkedList<DDSpan> {
   /** Ensure a trace is never written multiple times */
   private final AtomicBoolean isWritten = new AtomicBoolean(false);
 
-  PendingTrace(final DDTracer tracer, final BigInteger traceId) {
+  PendingTrace(final DDTracer tracer, final DDId traceId) {
     this.tracer = tracer;
     this.traceId = traceId;
 
@@ -86,7 +85,7 @@ public class PendingTrace extends LinkedList<DDSpan> {
     if (traceId == null || span.context() == null) {
       return;
     }
-    if (!traceId.equals(span.context().getTraceId())) {
+    if (!traceId.equals(span.context().getTraceDDId())) {
       return;
     }
     rootSpan.compareAndSet(null, new WeakReference<>(span));
@@ -104,7 +103,7 @@ public class PendingTrace extends LinkedList<DDSpan> {
     if (traceId == null || span.context() == null) {
       return;
     }
-    if (!traceId.equals(span.context().getTraceId())) {
+    if (!traceId.equals(span.context().getTraceDDId())) {
       return;
     }
     synchronized (span) {
@@ -133,7 +132,7 @@ public class PendingTrace extends LinkedList<DDSpan> {
     if (traceId == null || span.context() == null) {
       return;
     }
-    if (!traceId.equals(span.getTraceId())) {
+    if (!traceId.equals(span.getTraceDDId())) {
       return;
     }
 
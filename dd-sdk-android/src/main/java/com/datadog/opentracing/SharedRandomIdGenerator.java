@@ -0,0 +1,34 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.opentracing;
+
+import java.util.Random;
+
+/** An {@link IdGenerator} drawing all the ids from a single {@link Random} shared by all threads. */
+class SharedRandomIdGenerator implements IdGenerator {
+
+  private final Random random;
+
+  SharedRandomIdGenerator(final Random random) {
+    this.random = random;
+  }
+
+  @Override
+  public DDId generateId() {
+    // It is **extremely** unlikely to generate the value "0" but we still need to handle that
+    // case
+    long value;
+    do {
+      synchronized (random) {
+        // keep 63 bits to only generate positive ids
+        value = random.nextLong() >>> 1;
+      }
+    } while (value == 0L);
+
+    return DDId.from(value);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.opentracing;
+
+import java.util.Random;
+
+/**
+ * An {@link IdGenerator} which doesn't take any lock on the hot path: each thread uses its own
+ * SplitMix64 generator, seeded from the given (secure) {@link Random}, and reseeded from it
+ * every {@link #RESEED_INTERVAL} ids.
+ *
+ * <p>The seed source is only used when a thread generates its first id, and then once per
+ * reseed interval, so the threads barely contend on it. The per-thread seed also avoids the
+ * identical {@code ThreadLocalRandom} states inherited from the Android zygote.
+ */
+class ThreadLocalIdGenerator implements IdGenerator {
+
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  // visible for testing
+  static final int RESEED_INTERVAL = 1 << 16;
+
+  private final Random seedSource;
+
+  // each thread state holds the generator seed, and the number of ids left before a reseed
+  private final ThreadLocal<long[]> states =
+      new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+          return new long[] {nextSeed(), RESEED_INTERVAL};
+        }
+      };
+
+  ThreadLocalIdGenerator(final Random seedSource) {
+    this.seedSource = seedSource;
+  }
+
+  @Override
+  public DDId generateId() {
+    final long[] state = states.get();
+    if (--state[1] < 0) {
+      state[0] = nextSeed();
+      state[1] = RESEED_INTERVAL - 1;
+    }
+    long value;
+    do {
+      state[0] += GOLDEN_GAMMA;
+      // keep 63 bits to only generate positive ids
+      value = mix(state[0]) >>> 1;
+    } while (value == 0L);
+
+    return DDId.from(value);
+  }
+
+  private long nextSeed() {
+    synchronized (seedSource) {
+      return seedSource.nextLong();
+    }
+  }
+
+  private static long mix(final long seed) {
+    long z = seed;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
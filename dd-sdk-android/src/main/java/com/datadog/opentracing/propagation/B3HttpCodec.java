@@ -8,12 +8,12 @@ package com.datadog.opentracing.propagation;
 
 import static com.datadog.opentracing.propagation.HttpCodec.validateUInt64BitsID;
 
+import com.datadog.opentracing.DDId;
 import com.datadog.opentracing.DDSpanContext;
 import com.datadog.trace.api.sampling.PrioritySampling;
 import io.opentracing.SpanContext;
 import io.opentracing.propagation.TextMapExtract;
 import io.opentracing.propagation.TextMapInject;
-import java.math.BigInteger;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
@@ -44,8 +44,8 @@ class B3HttpCodec {
     @Override
     public void inject(final DDSpanContext context, final TextMapInject carrier) {
       try {
-        carrier.put(TRACE_ID_KEY, context.getTraceId().toString(HEX_RADIX).toLowerCase(Locale.US));
-        carrier.put(SPAN_ID_KEY, context.getSpanId().toString(HEX_RADIX).toLowerCase(Locale.US));
+        carrier.put(TRACE_ID_KEY, context.getTraceDDId().toHexString());
+        carrier.put(SPAN_ID_KEY, context.getSpanDDId().toHexString());
 
         if (context.lockSamplingPriority()) {
           carrier.put(
@@ -75,8 +75,8 @@ class B3HttpCodec {
     public SpanContext extract(final TextMapExtract carrier) {
       try {
         Map<String, String> tags = Collections.emptyMap();
-        BigInteger traceId = BigInteger.ZERO;
-        BigInteger spanId = BigInteger.ZERO;
+        DDId traceId = DDId.ZERO;
+        DDId spanId = DDId.ZERO;
         int samplingPriority = PrioritySampling.UNSET;
 
         for (final Map.Entry<String, String> entry : carrier) {
@@ -91,7 +91,7 @@ class B3HttpCodec {
             final String trimmedValue;
             final int length = value.length();
             if (length > 32) {
-              traceId = BigInteger.ZERO;
+              traceId = DDId.ZERO;
               continue;
             } else if (length > 16) {
               trimmedValue = value.substring(length - 16);
@@ -113,7 +113,7 @@ class B3HttpCodec {
           }
         }
 
-        if (!BigInteger.ZERO.equals(traceId)) {
+        if (!DDId.ZERO.equals(traceId)) {
           final ExtractedContext context =
               new ExtractedContext(
                   traceId,
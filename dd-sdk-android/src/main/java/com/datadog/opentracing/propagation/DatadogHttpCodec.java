@@ -8,12 +8,12 @@ package com.datadog.opentracing.propagation;
 
 import static com.datadog.opentracing.propagation.HttpCodec.validateUInt64BitsID;
 
+import com.datadog.opentracing.DDId;
 import com.datadog.opentracing.DDSpanContext;
 import com.datadog.trace.api.sampling.PrioritySampling;
 import io.opentracing.SpanContext;
 import io.opentracing.propagation.TextMapExtract;
 import io.opentracing.propagation.TextMapInject;
-import java.math.BigInteger;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
@@ -36,8 +36,8 @@ class DatadogHttpCodec {
 
     @Override
     public void inject(final DDSpanContext context, final TextMapInject carrier) {
-      carrier.put(TRACE_ID_KEY, context.getTraceId().toString());
-      carrier.put(SPAN_ID_KEY, context.getSpanId().toString());
+      carrier.put(TRACE_ID_KEY, context.getTraceDDId().toString());
+      carrier.put(SPAN_ID_KEY, context.getSpanDDId().toString());
       final String origin = context.getOrigin();
       if (origin != null) {
         carrier.put(ORIGIN_KEY, origin);
@@ -67,8 +67,8 @@ class DatadogHttpCodec {
       try {
         Map<String, String> baggage = Collections.emptyMap();
         Map<String, String> tags = Collections.emptyMap();
-        BigInteger traceId = BigInteger.ZERO;
-        BigInteger spanId = BigInteger.ZERO;
+        DDId traceId = DDId.ZERO;
+        DDId spanId = DDId.ZERO;
         int samplingPriority = PrioritySampling.UNSET;
         String origin = null;
 
@@ -103,7 +103,7 @@ class DatadogHttpCodec {
           }
         }
 
-        if (!BigInteger.ZERO.equals(traceId)) {
+        if (!DDId.ZERO.equals(traceId)) {
           final ExtractedContext context =
               new ExtractedContext(traceId, spanId, samplingPriority, origin, baggage, tags);
           context.lockSamplingPriority();
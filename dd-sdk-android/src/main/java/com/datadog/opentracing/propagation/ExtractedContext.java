@@ -6,6 +6,7 @@
 
 package com.datadog.opentracing.propagation;
 
+import com.datadog.opentracing.DDId;
 import java.math.BigInteger;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -14,15 +15,15 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Propagated data resulting from calling tracer.extract with header data from an incoming request.
  */
 public class ExtractedContext extends TagContext {
-  private final BigInteger traceId;
-  private final BigInteger spanId;
+  private final DDId traceId;
+  private final DDId spanId;
   private final int samplingPriority;
   private final Map<String, String> baggage;
   private final AtomicBoolean samplingPriorityLocked = new AtomicBoolean(false);
 
   public ExtractedContext(
-      final BigInteger traceId,
-      final BigInteger spanId,
+      final DDId traceId,
+      final DDId spanId,
       final int samplingPriority,
       final String origin,
       final Map<String, String> baggage,
@@ -43,11 +44,27 @@ public class ExtractedContext extends TagContext {
     samplingPriorityLocked.set(true);
   }
 
+  /**
+   * @deprecated use {@link #getTraceDDId()} instead, which doesn't allocate a {@link BigInteger}
+   */
+  @Deprecated
   public BigInteger getTraceId() {
+    return traceId.toBigInteger();
+  }
+
+  public DDId getTraceDDId() {
     return traceId;
   }
 
+  /**
+   * @deprecated use {@link #getSpanDDId()} instead, which doesn't allocate a {@link BigInteger}
+   */
+  @Deprecated
   public BigInteger getSpanId() {
+    return spanId.toBigInteger();
+  }
+
+  public DDId getSpanDDId() {
     return spanId;
   }
 
@@ -8,12 +8,12 @@ package com.datadog.opentracing.propagation;
 
 import static com.datadog.opentracing.propagation.HttpCodec.validateUInt64BitsID;
 
+import com.datadog.opentracing.DDId;
 import com.datadog.opentracing.DDSpanContext;
 import com.datadog.trace.api.sampling.PrioritySampling;
 import io.opentracing.SpanContext;
 import io.opentracing.propagation.TextMapExtract;
 import io.opentracing.propagation.TextMapInject;
-import java.math.BigInteger;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
@@ -39,9 +39,9 @@ public class HaystackHttpCodec {
 
     @Override
     public void inject(final DDSpanContext context, final TextMapInject carrier) {
-      carrier.put(TRACE_ID_KEY, context.getTraceId().toString());
-      carrier.put(SPAN_ID_KEY, context.getSpanId().toString());
-      carrier.put(PARENT_ID_KEY, context.getParentId().toString());
+      carrier.put(TRACE_ID_KEY, context.getTraceDDId().toString());
+      carrier.put(SPAN_ID_KEY, context.getSpanDDId().toString());
+      carrier.put(PARENT_ID_KEY, context.getParentDDId().toString());
 
       for (final Map.Entry<String, String> entry : context.baggageItems()) {
         carrier.put(OT_BAGGAGE_PREFIX + entry.getKey(), HttpCodec.encode(entry.getValue()));
@@ -65,8 +65,8 @@ public class HaystackHttpCodec {
       try {
         Map<String, String> baggage = Collections.emptyMap();
         Map<String, String> tags = Collections.emptyMap();
-        BigInteger traceId = BigInteger.ZERO;
-        BigInteger spanId = BigInteger.ZERO;
+        DDId traceId = DDId.ZERO;
+        DDId spanId = DDId.ZERO;
         final int samplingPriority = PrioritySampling.SAMPLER_KEEP;
         final String origin = null; // Always null
 
@@ -97,7 +97,7 @@ public class HaystackHttpCodec {
           }
         }
 
-        if (!BigInteger.ZERO.equals(traceId)) {
+        if (!DDId.ZERO.equals(traceId)) {
           final ExtractedContext context =
               new ExtractedContext(traceId, spanId, samplingPriority, origin, baggage, tags);
           context.lockSamplingPriority();
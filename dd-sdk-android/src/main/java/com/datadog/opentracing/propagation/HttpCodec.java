@@ -6,15 +6,13 @@
 
 package com.datadog.opentracing.propagation;
 
+import com.datadog.opentracing.DDId;
 import com.datadog.opentracing.DDSpanContext;
-import com.datadog.opentracing.DDTracer;
-import com.datadog.opentracing.StringCachingBigInteger;
 import com.datadog.trace.api.Config;
 import io.opentracing.SpanContext;
 import io.opentracing.propagation.TextMapExtract;
 import io.opentracing.propagation.TextMapInject;
 import java.io.UnsupportedEncodingException;
-import java.math.BigInteger;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.ArrayList;
@@ -118,16 +116,14 @@ public class HttpCodec {
    * @throws IllegalArgumentException if value cannot be converted to integer or doesn't conform to
    *     required boundaries
    */
-  static BigInteger validateUInt64BitsID(final String value, final int radix)
+  static DDId validateUInt64BitsID(final String value, final int radix)
       throws IllegalArgumentException {
-    final BigInteger parsedValue = new StringCachingBigInteger(value, radix);
-    if (parsedValue.compareTo(DDTracer.TRACE_ID_MIN) < 0
-        || parsedValue.compareTo(DDTracer.TRACE_ID_MAX) > 0) {
+    try {
+      return radix == 16 ? DDId.fromHex(value) : DDId.from(value);
+    } catch (final NumberFormatException e) {
       throw new IllegalArgumentException(
-          "ID out of range, must be between 0 and 2^64-1, got: " + value);
+          "ID out of range, must be between 0 and 2^64-1, got: " + value, e);
     }
-
-    return parsedValue;
   }
 
   /** URL encode value */
@@ -81,6 +81,7 @@ public class Config {
     public static final String SPLIT_BY_TAGS = "trace.split-by-tags";
     public static final String SCOPE_DEPTH_LIMIT = "trace.scope.depth.limit";
     public static final String PARTIAL_FLUSH_MIN_SPANS = "trace.partial.flush.min.spans";
+    public static final String ID_GENERATION_STRATEGY = "trace.id.generation.strategy";
     public static final String RUNTIME_CONTEXT_FIELD_INJECTION =
             "trace.runtime.context.field.injection";
     public static final String PROPAGATION_STYLE_EXTRACT = "propagation.style.extract";
@@ -169,6 +170,8 @@ public class Config {
     private static final String DEFAULT_SPLIT_BY_TAGS = "";
     private static final int DEFAULT_SCOPE_DEPTH_LIMIT = 100;
     private static final int DEFAULT_PARTIAL_FLUSH_MIN_SPANS = 1000;
+    private static final IdGenerationStrategy DEFAULT_ID_GENERATION_STRATEGY =
+            IdGenerationStrategy.SECURE_RANDOM;
     private static final String DEFAULT_PROPAGATION_STYLE_EXTRACT = PropagationStyle.DATADOG.name();
     private static final String DEFAULT_PROPAGATION_STYLE_INJECT = PropagationStyle.DATADOG.name();
     private static final boolean DEFAULT_JMX_FETCH_ENABLED = true;
@@ -249,6 +252,7 @@ public class Config {
     private final Set<String> splitByTags;
     private final Integer scopeDepthLimit;
     private final Integer partialFlushMinSpans;
+    private final IdGenerationStrategy idGenerationStrategy;
     private final boolean runtimeContextFieldInjection;
     private final Set<PropagationStyle> propagationStylesToExtract;
     private final Set<PropagationStyle> propagationStylesToInject;
@@ -383,6 +387,11 @@ public class Config {
         partialFlushMinSpans =
                 getIntegerSettingFromEnvironment(PARTIAL_FLUSH_MIN_SPANS, DEFAULT_PARTIAL_FLUSH_MIN_SPANS);
 
+        idGenerationStrategy =
+                parseIdGenerationStrategy(
+                        getSettingFromEnvironment(ID_GENERATION_STRATEGY, null),
+                        DEFAULT_ID_GENERATION_STRATEGY);
+
         runtimeContextFieldInjection =
                 getBooleanSettingFromEnvironment(
                         RUNTIME_CONTEXT_FIELD_INJECTION, DEFAULT_RUNTIME_CONTEXT_FIELD_INJECTION);
@@ -549,6 +558,10 @@ public class Config {
         partialFlushMinSpans =
                 getPropertyIntegerValue(properties, PARTIAL_FLUSH_MIN_SPANS, parent.partialFlushMinSpans);
 
+        idGenerationStrategy =
+                parseIdGenerationStrategy(
+                        properties.getProperty(ID_GENERATION_STRATEGY), parent.idGenerationStrategy);
+
         runtimeContextFieldInjection =
                 getPropertyBooleanValue(
                         properties, RUNTIME_CONTEXT_FIELD_INJECTION, parent.runtimeContextFieldInjection);
@@ -1072,6 +1085,18 @@ public class Config {
         return valueOf(properties.getProperty(name), Double.class, defaultValue);
     }
 
+    private static IdGenerationStrategy parseIdGenerationStrategy(
+            final String value, final IdGenerationStrategy defaultValue) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return IdGenerationStrategy.valueOf(value.trim().toUpperCase(Locale.US));
+        } catch (final IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
+
     private static Set<PropagationStyle> getPropagationStyleSetFromPropertyValue(
             final Properties properties, final String name) {
         final String value = properties.getProperty(name);
@@ -1420,6 +1445,10 @@ public class Config {
         return partialFlushMinSpans;
     }
 
+    public IdGenerationStrategy getIdGenerationStrategy() {
+        return idGenerationStrategy;
+    }
+
     public boolean isRuntimeContextFieldInjection() {
         return runtimeContextFieldInjection;
     }
@@ -1609,6 +1638,7 @@ public class Config {
                 ", splitByTags=" + splitByTags +
                 ", scopeDepthLimit=" + scopeDepthLimit +
                 ", partialFlushMinSpans=" + partialFlushMinSpans +
+                ", idGenerationStrategy=" + idGenerationStrategy +
                 ", runtimeContextFieldInjection=" + runtimeContextFieldInjection +
                 ", propagationStylesToExtract=" + propagationStylesToExtract +
                 ", propagationStylesToInject=" + propagationStylesToInject +
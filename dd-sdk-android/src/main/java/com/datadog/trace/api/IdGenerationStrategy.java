@@ -0,0 +1,22 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.trace.api;
+
+/** The strategies available to generate the trace and span ids. */
+public enum IdGenerationStrategy {
+  /**
+   * Ids are generated from a single shared {@link java.security.SecureRandom}, which all the
+   * tracing threads synchronize on.
+   */
+  SECURE_RANDOM,
+
+  /**
+   * Ids are generated without any lock, from a fast per-thread generator seeded from a {@link
+   * java.security.SecureRandom}.
+   */
+  FAST_RANDOM
+}
@@ -9,24 +9,25 @@ package com.datadog.trace.common.sampling;
 import com.datadog.opentracing.DDSpan;
 import com.datadog.opentracing.DDTracer;
 import java.math.BigDecimal;
-import java.math.BigInteger;
 
 /**
  * This implements the deterministic sampling algorithm used by the Datadog Agent as well as the
  * tracers for other languages
  */
 public class DeterministicSampler implements RateSampler {
-  private static final BigInteger KNUTH_FACTOR = new BigInteger("1111111111111111111");
+  private static final long KNUTH_FACTOR = 1111111111111111111L;
   private static final BigDecimal TRACE_ID_MAX_AS_BIG_DECIMAL =
       new BigDecimal(DDTracer.TRACE_ID_MAX);
-  private static final BigInteger MODULUS = new BigInteger("2").pow(64);
 
-  private final BigInteger cutoff;
+  // the unsigned cutoff, shifted by Long.MIN_VALUE so that it can be compared as a signed long
+  private final long shiftedCutoff;
   private final double rate;
 
   public DeterministicSampler(final double rate) {
     this.rate = rate;
-    cutoff = new BigDecimal(rate).multiply(TRACE_ID_MAX_AS_BIG_DECIMAL).toBigInteger();
+    final long cutoff =
+        new BigDecimal(rate).multiply(TRACE_ID_MAX_AS_BIG_DECIMAL).toBigInteger().longValue();
+    shiftedCutoff = cutoff + Long.MIN_VALUE;
 
   }
 
@@ -38,7 +39,9 @@ public class DeterministicSampler implements RateSampler {
     } else if (rate == 0) {
       sampled = false;
     } else {
-      sampled = span.getTraceId().multiply(KNUTH_FACTOR).mod(MODULUS).compareTo(cutoff) < 0;
+      // the long multiplication overflow is the modulo 2^64 of the unsigned product
+      final long hash = span.getTraceDDId().toLong() * KNUTH_FACTOR;
+      sampled = (hash + Long.MIN_VALUE) < shiftedCutoff;
     }
 
 
@@ -15,6 +15,8 @@ import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.configuration.Credentials
 import com.datadog.android.core.configuration.UploadFrequency
 import com.datadog.android.core.internal.CoreFeature
+import com.datadog.android.core.internal.PreInitQueue
+import com.datadog.android.core.internal.StartupTimings
 import com.datadog.android.core.internal.lifecycle.ProcessLifecycleCallback
 import com.datadog.android.core.internal.lifecycle.ProcessLifecycleMonitor
 import com.datadog.android.core.internal.utils.devLogger
@@ -43,12 +45,16 @@ import java.util.concurrent.atomic.AtomicBoolean
 object Datadog {
 
     internal val initialized = AtomicBoolean(false)
+    private val initializationLock = Any()
     internal val startupTimeNs: Long = System.nanoTime()
 
     internal var libraryVerbosity = Int.MAX_VALUE
         private set
     internal var isDebug = false
 
+    // keeps the calls made while the SDK is initialized in the background
+    internal val preInitQueue = PreInitQueue(devLogger)
+
     // region Initialization
 
     /**
@@ -71,7 +77,7 @@ object Datadog {
         configuration: Configuration,
         trackingConsent: TrackingConsent
     ) {
-        if (initialized.get()) {
+        if (initialized.get() || preInitQueue.isPending()) {
             devLogger.w(MESSAGE_ALREADY_INITIALIZED)
             return
         }
@@ -90,31 +96,37 @@ object Datadog {
             setVerbosity(Log.VERBOSE)
         }
 
-        // always initialize Core Features first
-        CoreFeature.initialize(appContext, credentials, mutableConfig.coreConfig, trackingConsent)
-
-        applyAdditionalConfiguration(mutableConfig.additionalConfig)
-
-        initializeLogsFeature(mutableConfig.logsConfig, appContext)
-        initializeTracingFeature(mutableConfig.tracesConfig, appContext)
-        initializeRumFeature(mutableConfig.rumConfig, appContext)
-        initializeCrashReportFeature(mutableConfig.crashReportConfig, appContext)
-
-        CoreFeature.ndkCrashHandler.handleNdkCrash(
-            LogsFeature.persistenceStrategy.getWriter(),
-            RumFeature.persistenceStrategy.getWriter()
-        )
-
-        setupLifecycleMonitorCallback(appContext)
-
-        initialized.set(true)
-
-        setupShutdownHook()
-        sendConfigurationTelemetryEvent(configuration)
+        val startupTimings = CoreFeature.startupTimings
+        if (mutableConfig.coreConfig.asyncInitialization) {
+            startupTimings.measure(StartupTimings.SDK_FEATURE_NAME, StartupTimings.PHASE_TOTAL) {
+                CoreFeature.preInitialize(appContext, credentials, mutableConfig.coreConfig)
+                val generation = preInitQueue.start()
+                val initRunnable = Runnable {
+                    initializeInBackground(configuration, generation) {
+                        initializeFeatures(appContext, credentials, mutableConfig, trackingConsent)
+                    }
+                }
+                @Suppress("UnsafeThirdPartyFunctionCall") // NPE cannot happen here
+                val initThread = Thread(initRunnable, INITIALIZATION_THREAD)
+                @Suppress("UnsafeThirdPartyFunctionCall") // the thread was just created
+                initThread.start()
+            }
+        } else {
+            startupTimings.measure(StartupTimings.SDK_FEATURE_NAME, StartupTimings.PHASE_TOTAL) {
+                initializeFeatures(appContext, credentials, mutableConfig, trackingConsent)
+            }
+            initialized.set(true)
+            setupShutdownHook()
+            sendInitializationTelemetryEvents(configuration)
+        }
     }
 
     /**
      * Checks if the Datadog SDK was already initialized.
+     *
+     * When the SDK is initialized on a background thread (see
+     * [Configuration.Builder.setAsyncInitializationEnabled]), this returns true once the
+     * background initialization is done.
      * @return true if the SDK was initialized, false otherwise
      */
     @JvmStatic
@@ -122,6 +134,20 @@ object Datadog {
         return initialized.get()
     }
 
+    /**
+     * Returns the time spent by the SDK in each phase of its initialization, for the SDK itself
+     * ("sdk"), its core ("core"), and each enabled feature ("logs", "rum", ...).
+     *
+     * The "total" phase of each feature covers all its other phases. Each phase also tells whether
+     * it ran on the main thread, which lets you measure the cost of the SDK on your app's
+     * cold start. The same summary is sent to Datadog as an internal telemetry event.
+     * @return the list of the initialization phases, in the order they ended
+     */
+    @JvmStatic
+    fun getStartupTimings(): List<DatadogStartupTiming> {
+        return CoreFeature.startupTimings.getTimings()
+    }
+
     // endregion
 
     // region Global methods
@@ -141,16 +167,15 @@ object Datadog {
 
     // Stop all Datadog work (for test purposes).
     internal fun stop() {
-        if (initialized.get()) {
-            LogsFeature.stop()
-            TracingFeature.stop()
-            RumFeature.stop()
-            CrashReportsFeature.stop()
-            CoreFeature.stop()
-            WebViewLogsFeature.stop()
-            WebViewRumFeature.stop()
-            isDebug = false
-            initialized.set(false)
+        synchronized(initializationLock) {
+            if (initialized.get()) {
+                stopFeatures()
+                isDebug = false
+                initialized.set(false)
+            }
+            // also cancels any initialization running in the background
+            preInitQueue.clear()
+            CoreFeature.startupTimings.clear()
         }
     }
 
@@ -170,6 +195,7 @@ object Datadog {
                 it.stopKeepAliveCallback()
                 it.drainExecutorService()
             }
+            RumFeature.flushPendingViewEvents()
             // We need to drain and shutdown the executors first to make sure we avoid duplicated
             // data due to async operations.
             CoreFeature.drainAndShutdownExecutors()
@@ -205,7 +231,9 @@ object Datadog {
      */
     @JvmStatic
     fun setTrackingConsent(consent: TrackingConsent) {
-        CoreFeature.trackingConsentProvider.setConsent(consent)
+        preInitQueue.runWhenReady {
+            CoreFeature.trackingConsentProvider.setConsent(consent)
+        }
     }
 
     /**
@@ -225,14 +253,15 @@ object Datadog {
         email: String? = null,
         extraInfo: Map<String, Any?> = emptyMap()
     ) {
-        CoreFeature.userInfoProvider.setUserInfo(
-            UserInfo(
-                id,
-                name,
-                email,
-                extraInfo.toMutableMap()
-            )
+        val userInfo = UserInfo(
+            id,
+            name,
+            email,
+            extraInfo.toMutableMap()
         )
+        preInitQueue.runWhenReady {
+            CoreFeature.userInfoProvider.setUserInfo(userInfo)
+        }
     }
 
     /**
@@ -249,9 +278,10 @@ object Datadog {
     fun addUserExtraInfo(
         extraInfo: Map<String, Any?> = emptyMap()
     ) {
-        CoreFeature.userInfoProvider.addUserProperties(
-            extraInfo
-        )
+        val properties = extraInfo.toMap()
+        preInitQueue.runWhenReady {
+            CoreFeature.userInfoProvider.addUserProperties(properties)
+        }
     }
 
     /**
@@ -283,6 +313,74 @@ object Datadog {
 
     // region Internal Initialization
 
+    private fun initializeFeatures(
+        appContext: Context,
+        credentials: Credentials,
+        configuration: Configuration,
+        trackingConsent: TrackingConsent
+    ) {
+        // always initialize Core Features first
+        CoreFeature.initialize(appContext, credentials, configuration.coreConfig, trackingConsent)
+
+        applyAdditionalConfiguration(configuration.additionalConfig)
+
+        initializeLogsFeature(configuration.logsConfig, appContext)
+        initializeTracingFeature(configuration.tracesConfig, appContext)
+        initializeRumFeature(configuration.rumConfig, appContext)
+        initializeCrashReportFeature(configuration.crashReportConfig, appContext)
+
+        CoreFeature.ndkCrashHandler.handleNdkCrash(
+            LogsFeature.persistenceStrategy.getWriter(),
+            RumFeature.persistenceStrategy.getWriter()
+        )
+
+        setupLifecycleMonitorCallback(appContext)
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun initializeInBackground(
+        configuration: Configuration,
+        generation: Int,
+        initialization: () -> Unit
+    ) {
+        try {
+            CoreFeature.startupTimings.measure(
+                StartupTimings.SDK_FEATURE_NAME,
+                StartupTimings.PHASE_TOTAL,
+                initialization
+            )
+            val completed = synchronized(initializationLock) {
+                if (preInitQueue.isCurrent(generation)) {
+                    initialized.set(true)
+                    true
+                } else {
+                    // stop() was called while the features were being initialized
+                    stopFeatures()
+                    false
+                }
+            }
+            if (completed) {
+                setupShutdownHook()
+                sendInitializationTelemetryEvents(configuration)
+            }
+        } catch (e: Exception) {
+            devLogger.e(ERROR_ASYNC_INITIALIZATION_FAILED, e)
+        } finally {
+            // always let the calls made in the meantime go through, even if we failed
+            preInitQueue.markReady(generation)
+        }
+    }
+
+    private fun stopFeatures() {
+        LogsFeature.stop()
+        TracingFeature.stop()
+        RumFeature.stop()
+        CrashReportsFeature.stop()
+        CoreFeature.stop()
+        WebViewLogsFeature.stop()
+        WebViewRumFeature.stop()
+    }
+
     private fun initializeLogsFeature(
         configuration: Configuration.Feature.Logs?,
         appContext: Context
@@ -410,10 +508,13 @@ object Datadog {
     }
 
     @Suppress("FunctionMaxLength")
-    private fun sendConfigurationTelemetryEvent(configuration: Configuration) {
+    private fun sendInitializationTelemetryEvents(configuration: Configuration) {
         val runnable = Runnable {
             val monitor = GlobalRum.get() as? AdvancedRumMonitor
             monitor?.sendConfigurationTelemetryEvent(configuration)
+            CoreFeature.startupTimings.toTelemetryMessage()?.let {
+                monitor?.sendDebugTelemetryEvent(it)
+            }
         }
         CoreFeature.uploadExecutorService.scheduleSafe(
             "Configuration telemetry",
@@ -447,6 +548,9 @@ object Datadog {
         MESSAGE_SDK_INITIALIZATION_GUIDE
 
     internal const val SHUTDOWN_THREAD = "datadog_shutdown"
+    internal const val INITIALIZATION_THREAD = "datadog_initialization"
+    internal const val ERROR_ASYNC_INITIALIZATION_FAILED =
+        "The Datadog library failed to initialize in the background."
     internal const val ENV_NAME_VALIDATION_REG_EX = "[a-zA-Z0-9_:./-]{0,195}[a-zA-Z0-9_./-]"
     internal const val MESSAGE_ENV_NAME_NOT_VALID =
         "The environment name should contain maximum 196 of the following allowed characters " +
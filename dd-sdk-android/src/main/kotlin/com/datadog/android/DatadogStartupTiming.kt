@@ -0,0 +1,22 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android
+
+/**
+ * The time spent by the Datadog SDK in one phase of its initialization.
+ * @param feature the name of the feature being initialized (e.g.: "core", "logs", "rum")
+ * @param phase the name of the initialization phase (e.g.: "persistence", "total")
+ * @param durationNs the duration of the phase, in nanoseconds
+ * @param isMainThread whether the phase ran on the main thread
+ * @see Datadog.getStartupTimings
+ */
+data class DatadogStartupTiming(
+    val feature: String,
+    val phase: String,
+    val durationNs: Long,
+    val isMainThread: Boolean
+)
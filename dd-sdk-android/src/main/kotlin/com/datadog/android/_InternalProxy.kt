@@ -52,6 +52,10 @@ class _InternalProxy internal constructor(telemetry: Telemetry) {
         CoreFeature.packageVersionProvider.version = version
     }
 
+    fun getPipelineMetrics(): Map<String, Map<String, Long>> {
+        return CoreFeature.pipelineMetrics.snapshot()
+    }
+
     companion object {
         @Suppress("FunctionMaxLength")
         fun setTelemetryConfigurationEventMapper(
@@ -0,0 +1,26 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.configuration
+
+/**
+ * Defines what happens to an event when the in-memory buffer of events waiting to be written
+ * to disk is full.
+ */
+enum class BufferOverflowPolicy {
+
+    /** Drop the event being written, keeping the ones already waiting in the buffer. */
+    DROP_NEWEST,
+
+    /** Drop the oldest event waiting in the buffer to make room for the event being written. */
+    DROP_OLDEST,
+
+    /**
+     * Block the calling thread until there is room in the buffer. To avoid freezing the
+     * application, the event is dropped if the buffer is still full after a short delay.
+     */
+    BLOCK
+}
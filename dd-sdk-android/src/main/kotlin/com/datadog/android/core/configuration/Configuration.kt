@@ -74,7 +74,16 @@ internal constructor(
         val proxy: Proxy?,
         val proxyAuth: Authenticator,
         val securityConfig: SecurityConfig,
-        val webViewTrackingHosts: List<String>
+        val webViewTrackingHosts: List<String>,
+        val persistentFileChannel: Boolean,
+        val batchPreCompression: Boolean,
+        val maxInFlightUploads: Int,
+        val bufferOverflowPolicy: BufferOverflowPolicy,
+        val asyncInitialization: Boolean,
+        val uploadSchedulingPolicy: UploadSchedulingPolicy,
+        val multiplexedUploads: Boolean,
+        val backgroundUploadMaxDurationMs: Long,
+        val backgroundUploadMaxBytes: Long
     )
 
     internal sealed class Feature {
@@ -399,6 +408,138 @@ internal constructor(
             return this
         }
 
+        /**
+         * Enables/Disables keeping the batch file currently being written open between
+         * consecutive writes, instead of opening and closing it for every single event.
+         *
+         * By default the batch file is opened and closed for every event. Enabling this
+         * reduces the cost of persisting events when your application tracks a lot of them.
+         *
+         * @param enabled whether the batch file being written should be kept open.
+         */
+        fun setPersistentFileChannelEnabled(enabled: Boolean): Builder {
+            coreConfig = coreConfig.copy(persistentFileChannel = enabled)
+            return this
+        }
+
+        /**
+         * Enables/Disables compressing batch files ahead of their upload.
+         *
+         * By default batches are compressed on the fly when they are uploaded. Enabling this
+         * compresses each batch once, as soon as no more events are written to it, so that
+         * retried uploads don't pay for the compression again.
+         *
+         * Note: batches can't be compressed ahead of time when their content is encrypted, so
+         * this setting is ignored (and a warning is logged) when a local data encryption is set
+         * in the [SecurityConfig].
+         *
+         * @param enabled whether batch files should be compressed ahead of their upload.
+         */
+        fun setBatchPreCompressionEnabled(enabled: Boolean): Builder {
+            coreConfig = coreConfig.copy(batchPreCompression = enabled)
+            return this
+        }
+
+        /**
+         * Defines how many batches of a given feature can be uploaded concurrently.
+         *
+         * By default a single batch is uploaded at a time. Raising this limit lets the SDK drain
+         * the data accumulated while the device was offline much faster, by sending several
+         * batches in parallel over the same HTTP connection pool.
+         *
+         * @param maxInFlightUploads the maximum number of concurrent batch uploads (values lower
+         * than 1 are treated as 1).
+         */
+        fun setMaxInFlightUploads(maxInFlightUploads: Int): Builder {
+            coreConfig = coreConfig.copy(maxInFlightUploads = maxInFlightUploads)
+            return this
+        }
+
+        /**
+         * Defines what to do when events are produced faster than they can be written to disk.
+         *
+         * Events are kept in a bounded in-memory buffer until they are written. By default, the
+         * events produced while this buffer is full are dropped
+         * ([BufferOverflowPolicy.DROP_NEWEST]).
+         *
+         * @param policy the [BufferOverflowPolicy] to apply when the buffer is full.
+         */
+        fun setBufferOverflowPolicy(policy: BufferOverflowPolicy): Builder {
+            coreConfig = coreConfig.copy(bufferOverflowPolicy = policy)
+            return this
+        }
+
+        /**
+         * Defines how the SDK schedules the upload of the data stored on disk.
+         *
+         * By default, batches are uploaded one at a time around the configured
+         * [UploadFrequency] ([UploadSchedulingPolicy.FIXED]). The
+         * [UploadSchedulingPolicy.ADAPTIVE] policy drains a large backlog faster on a good
+         * network, and uploads less often on metered or weak networks.
+         *
+         * @param policy the [UploadSchedulingPolicy] to use.
+         */
+        fun setUploadSchedulingPolicy(policy: UploadSchedulingPolicy): Builder {
+            coreConfig = coreConfig.copy(uploadSchedulingPolicy = policy)
+            return this
+        }
+
+        /**
+         * Enables/Disables uploading the data of all the features together.
+         *
+         * By default, each feature (Logs, RUM, Traces, Crash Reports, …) uploads its batches on
+         * its own schedule, which can wake the device's radio up several times in a short
+         * period. When enabled, a single upload task uploads the batches of all the features
+         * back to back (crash reports first, then RUM, Logs and Traces), following the
+         * [UploadSchedulingPolicy].
+         *
+         * @param enabled whether the features' uploads should be grouped together.
+         */
+        fun setMultiplexedUploadsEnabled(enabled: Boolean): Builder {
+            coreConfig = coreConfig.copy(multiplexedUploads = enabled)
+            return this
+        }
+
+        /**
+         * Defines how much data can be uploaded each time the SDK uploads in the background
+         * (using WorkManager, when the application is not running).
+         *
+         * When either limit is reached, the upload stops and is resumed later where it left
+         * off, so that a large backlog doesn't keep the device busy for too long.
+         *
+         * @param maxDurationMs the maximum duration of a single background upload, in
+         * milliseconds (default is 5 minutes).
+         * @param maxBytes the maximum number of bytes uploaded by a single background upload
+         * (default is 10 MB).
+         */
+        fun setBackgroundUploadBudget(maxDurationMs: Long, maxBytes: Long): Builder {
+            coreConfig = coreConfig.copy(
+                backgroundUploadMaxDurationMs = maxDurationMs,
+                backgroundUploadMaxBytes = maxBytes
+            )
+            return this
+        }
+
+        /**
+         * Enables/Disables initializing the SDK on a background thread.
+         *
+         * By default, [Datadog.initialize] sets up everything on the calling thread (usually
+         * the main thread, in your `Application.onCreate()`), including disk and system
+         * services accesses. When enabled, only the in-memory setup is done on the calling
+         * thread, and the rest of the initialization happens on a background thread. The
+         * `Logger`, `AndroidTracer` and [RumMonitor] instances built in the meantime keep the
+         * events they receive in a bounded queue, replayed as soon as the SDK is ready.
+         *
+         * Note that the RUM events tracked automatically (e.g.: Activity views, user
+         * interactions) are only tracked once the SDK is ready.
+         *
+         * @param enabled whether the SDK should be initialized on a background thread.
+         */
+        fun setAsyncInitializationEnabled(enabled: Boolean): Builder {
+            coreConfig = coreConfig.copy(asyncInitialization = enabled)
+            return this
+        }
+
         /**
          * Sets the sampling rate for RUM Sessions.
          *
@@ -658,6 +799,8 @@ internal constructor(
         internal const val DEFAULT_SAMPLING_RATE: Float = 100f
         internal const val DEFAULT_TELEMETRY_SAMPLING_RATE: Float = 20f
         internal const val DEFAULT_LONG_TASK_THRESHOLD_MS = 100L
+        internal const val DEFAULT_BACKGROUND_UPLOAD_MAX_DURATION_MS = 5L * 60L * 1000L
+        internal const val DEFAULT_BACKGROUND_UPLOAD_MAX_BYTES = 10L * 1024L * 1024L
 
         internal val DEFAULT_CORE_CONFIG = Core(
             needsClearTextHttp = false,
@@ -668,7 +811,16 @@ internal constructor(
             proxy = null,
             proxyAuth = Authenticator.NONE,
             securityConfig = SecurityConfig.DEFAULT,
-            webViewTrackingHosts = emptyList()
+            webViewTrackingHosts = emptyList(),
+            persistentFileChannel = false,
+            batchPreCompression = false,
+            maxInFlightUploads = 1,
+            bufferOverflowPolicy = BufferOverflowPolicy.DROP_NEWEST,
+            asyncInitialization = false,
+            uploadSchedulingPolicy = UploadSchedulingPolicy.FIXED,
+            multiplexedUploads = false,
+            backgroundUploadMaxDurationMs = DEFAULT_BACKGROUND_UPLOAD_MAX_DURATION_MS,
+            backgroundUploadMaxBytes = DEFAULT_BACKGROUND_UPLOAD_MAX_BYTES
         )
         internal val DEFAULT_LOGS_CONFIG = Feature.Logs(
             endpointUrl = DatadogEndpoint.LOGS_US1,
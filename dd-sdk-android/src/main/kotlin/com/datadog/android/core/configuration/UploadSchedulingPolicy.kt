@@ -0,0 +1,26 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.configuration
+
+/**
+ * Defines how the SDK decides when to upload the batches of data stored on disk.
+ */
+enum class UploadSchedulingPolicy {
+
+    /**
+     * Uploads one batch at a time, slowly adjusting the delay between uploads around the
+     * configured [UploadFrequency] depending on the success of the previous uploads.
+     */
+    FIXED,
+
+    /**
+     * Adapts the uploads to the amount of data waiting to be sent and to the quality of the
+     * network: several batches are sent in a row when the backlog is large and the network is
+     * fast and unmetered, while uploads are spaced out on metered or weak networks.
+     */
+    ADAPTIVE
+}
@@ -15,13 +15,20 @@ import android.os.Process
 import com.datadog.android.BuildConfig
 import com.datadog.android.DatadogEndpoint
 import com.datadog.android.core.configuration.BatchSize
+import com.datadog.android.core.configuration.BufferOverflowPolicy
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.configuration.Credentials
 import com.datadog.android.core.configuration.UploadFrequency
+import com.datadog.android.core.configuration.UploadSchedulingPolicy
+import com.datadog.android.core.internal.data.upload.MultiplexedUploadRunnable
+import com.datadog.android.core.internal.data.upload.UploadSchedulingStrategy
+import com.datadog.android.core.internal.metrics.PipelineMetrics
+import com.datadog.android.core.internal.metrics.PipelineMetricsReporter
 import com.datadog.android.core.internal.net.CurlInterceptor
 import com.datadog.android.core.internal.net.FirstPartyHostDetector
 import com.datadog.android.core.internal.net.GzipRequestInterceptor
 import com.datadog.android.core.internal.net.RotatingDnsResolver
+import com.datadog.android.core.internal.net.UploadBackOffController
 import com.datadog.android.core.internal.net.info.BroadcastReceiverNetworkInfoProvider
 import com.datadog.android.core.internal.net.info.CallbackNetworkInfoProvider
 import com.datadog.android.core.internal.net.info.NetworkInfoDeserializer
@@ -48,6 +55,7 @@ import com.datadog.android.core.internal.time.NoOpTimeProvider
 import com.datadog.android.core.internal.time.TimeProvider
 import com.datadog.android.core.internal.utils.devLogger
 import com.datadog.android.core.internal.utils.sdkLogger
+import com.datadog.android.core.internal.utils.telemetry
 import com.datadog.android.log.internal.domain.LogGenerator
 import com.datadog.android.log.internal.user.DatadogUserInfoProvider
 import com.datadog.android.log.internal.user.MutableUserInfoProvider
@@ -72,6 +80,7 @@ import okhttp3.TlsVersion
 import java.lang.ref.WeakReference
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.LinkedBlockingDeque
+import java.util.concurrent.ScheduledExecutorService
 import java.util.concurrent.ScheduledThreadPoolExecutor
 import java.util.concurrent.ThreadPoolExecutor
 import java.util.concurrent.TimeUnit
@@ -92,6 +101,9 @@ internal object CoreFeature {
     internal const val DEFAULT_SDK_VERSION = BuildConfig.SDK_VERSION_NAME
     internal const val DEFAULT_APP_VERSION = "?"
 
+    internal const val WARNING_PRE_COMPRESSION_ENCRYPTION =
+        "Batch pre-compression is disabled because a local data encryption is set."
+
     internal val RESTRICTED_CIPHER_SUITES = arrayOf(
         // TLS 1.3
 
@@ -150,10 +162,26 @@ internal object CoreFeature {
     internal var variant: String = ""
     internal var batchSize: BatchSize = BatchSize.MEDIUM
     internal var uploadFrequency: UploadFrequency = UploadFrequency.AVERAGE
+    internal var persistentFileChannel: Boolean = false
+    internal var batchPreCompression: Boolean = false
+    internal var maxInFlightUploads: Int = 1
+    internal var bufferOverflowPolicy: BufferOverflowPolicy = BufferOverflowPolicy.DROP_NEWEST
+    internal var asyncInitialization: Boolean = false
+    internal var uploadSchedulingPolicy: UploadSchedulingPolicy = UploadSchedulingPolicy.FIXED
+    internal var multiplexedUploads: Boolean = false
+    internal var uploadMultiplexer: MultiplexedUploadRunnable? = null
+    internal var backgroundUploadMaxDurationMs: Long =
+        Configuration.DEFAULT_BACKGROUND_UPLOAD_MAX_DURATION_MS
+    internal var backgroundUploadMaxBytes: Long = Configuration.DEFAULT_BACKGROUND_UPLOAD_MAX_BYTES
     internal var ndkCrashHandler: NdkCrashHandler = NoOpNdkCrashHandler()
+    internal val startupTimings = StartupTimings()
+    internal val pipelineMetrics = PipelineMetrics()
+    internal val uploadBackOffController = UploadBackOffController()
 
     internal lateinit var uploadExecutorService: ScheduledThreadPoolExecutor
     internal lateinit var persistenceExecutorService: ExecutorService
+    internal var uploadDrainExecutorService: ExecutorService? = null
+    internal var batchCompressionExecutorService: ScheduledExecutorService? = null
     internal var localDataEncryption: Encryption? = null
     internal lateinit var webViewTrackingHosts: List<String>
     internal lateinit var androidInfoProvider: AndroidInfoProvider
@@ -170,27 +198,67 @@ internal object CoreFeature {
         if (initialized.get()) {
             return
         }
-        readConfigurationSettings(configuration)
-        readApplicationInformation(appContext, credentials)
-        resolveProcessInfo(appContext)
-        initializeClockSync(appContext)
-        setupOkHttpClient(configuration)
-        firstPartyHostDetector.addKnownHosts(configuration.firstPartyHosts)
-        webViewTrackingHosts = configuration.webViewTrackingHosts
-        androidInfoProvider = DefaultAndroidInfoProvider(appContext)
-        setupExecutors()
-        // Time Provider
-        timeProvider = KronosTimeProvider(kronosClock)
-        // BIG NOTE !!
-        // Please do not move the block bellow.
-        // The NDK crash handler `prepareData` function needs to be called exactly at this moment
-        // to make sure it is the first task that goes in the persistence ExecutorService.
-        // Because all our persisting components are working asynchronously this will avoid
-        // having corrupted data (data from previous process over - written in this process into the
-        // ndk crash folder before the crash was actually handled)
-        prepareNdkCrashData(appContext)
-        setupInfoProviders(appContext, consent)
-        initialized.set(true)
+        measurePhase(StartupTimings.PHASE_TOTAL) {
+            readConfigurationSettings(configuration)
+            readCredentials(appContext, credentials)
+            readApplicationVersion(appContext)
+            resolveProcessInfo(appContext)
+            measurePhase(StartupTimings.PHASE_CLOCK_SYNC) {
+                initializeClockSync(appContext)
+            }
+            measurePhase(StartupTimings.PHASE_NETWORK) {
+                setupOkHttpClient(configuration)
+            }
+            firstPartyHostDetector.addKnownHosts(configuration.firstPartyHosts)
+            webViewTrackingHosts = configuration.webViewTrackingHosts
+            androidInfoProvider = DefaultAndroidInfoProvider(appContext)
+            measurePhase(StartupTimings.PHASE_EXECUTORS) {
+                setupExecutors()
+            }
+            PipelineMetricsReporter(pipelineMetrics, uploadExecutorService, telemetry).schedule()
+            // Time Provider
+            timeProvider = KronosTimeProvider(kronosClock)
+            // BIG NOTE !!
+            // Please do not move the block bellow.
+            // The NDK crash handler `prepareData` function needs to be called exactly at this
+            // moment to make sure it is the first task that goes in the persistence
+            // ExecutorService. Because all our persisting components are working asynchronously
+            // this will avoid having corrupted data (data from previous process over - written in
+            // this process into the ndk crash folder before the crash was actually handled)
+            measurePhase(StartupTimings.PHASE_NDK_CRASH_DATA) {
+                prepareNdkCrashData(appContext)
+            }
+            measurePhase(StartupTimings.PHASE_INFO_PROVIDERS) {
+                setupInfoProviders(appContext, consent)
+            }
+            if (multiplexedUploads) {
+                uploadMultiplexer = MultiplexedUploadRunnable(
+                    uploadExecutorService,
+                    networkInfoProvider,
+                    systemInfoProvider,
+                    UploadSchedulingStrategy.create(uploadSchedulingPolicy, uploadFrequency)
+                )
+            }
+            initialized.set(true)
+        }
+    }
+
+    /**
+     * Reads the settings which don't require any disk or system service access, so that they
+     * are available while the rest of the initialization runs on a background thread.
+     */
+    fun preInitialize(
+        appContext: Context,
+        credentials: Credentials,
+        configuration: Configuration.Core
+    ) {
+        if (initialized.get()) {
+            return
+        }
+        measurePhase(StartupTimings.PHASE_PRE_INITIALIZE) {
+            readConfigurationSettings(configuration)
+            readCredentials(appContext, credentials)
+        }
     }
 
     fun stop() {
@@ -215,6 +283,9 @@ internal object CoreFeature {
                 sdkLogger.e("Trying to shut down Kronos when it is already not running", ise)
             }
 
+            pipelineMetrics.clear()
+            uploadBackOffController.clear()
+            uploadMultiplexer = null
             initialized.set(false)
             ndkCrashHandler = NoOpNdkCrashHandler()
             trackingConsentProvider = NoOpConsentProvider()
@@ -252,6 +323,10 @@ internal object CoreFeature {
 
     // region Internal
 
+    private inline fun <R> measurePhase(phase: String, block: () -> R): R {
+        return startupTimings.measure(StartupTimings.CORE_FEATURE_NAME, phase, block)
+    }
+
     private fun prepareNdkCrashData(appContext: Context) {
         if (isMainProcess) {
             ndkCrashHandler = DatadogNdkCrashHandler(
@@ -306,8 +381,17 @@ internal object CoreFeature {
         }
     }
 
-    private fun readApplicationInformation(appContext: Context, credentials: Credentials) {
+    private fun readCredentials(appContext: Context, credentials: Credentials) {
         packageName = appContext.packageName
+        clientToken = credentials.clientToken
+        serviceName = credentials.serviceName ?: appContext.packageName
+        rumApplicationId = credentials.rumApplicationId
+        envName = credentials.envName
+        variant = credentials.variant
+        contextRef = WeakReference(appContext)
+    }
+
+    private fun readApplicationVersion(appContext: Context) {
         packageVersionProvider = DefaultAppVersionProvider(
             getPackageInfo(appContext)?.let {
                 // we need to use the deprecated method because getLongVersionCode method is only
@@ -316,12 +400,6 @@ internal object CoreFeature {
                 it.versionName ?: it.versionCode.toString()
             } ?: DEFAULT_APP_VERSION
         )
-        clientToken = credentials.clientToken
-        serviceName = credentials.serviceName ?: appContext.packageName
-        rumApplicationId = credentials.rumApplicationId
-        envName = credentials.envName
-        variant = credentials.variant
-        contextRef = WeakReference(appContext)
     }
 
     private fun getPackageInfo(appContext: Context): PackageInfo? {
@@ -343,7 +421,28 @@ internal object CoreFeature {
     private fun readConfigurationSettings(configuration: Configuration.Core) {
         batchSize = configuration.batchSize
         uploadFrequency = configuration.uploadFrequency
+        persistentFileChannel = configuration.persistentFileChannel
         localDataEncryption = configuration.securityConfig.localDataEncryption
+        // compressed batches are written outside of the encryption layer
+        if (configuration.batchPreCompression && localDataEncryption != null) {
+            devLogger.w(WARNING_PRE_COMPRESSION_ENCRYPTION)
+        }
+        batchPreCompression = configuration.batchPreCompression && localDataEncryption == null
+        maxInFlightUploads = configuration.maxInFlightUploads.coerceAtLeast(1)
+        bufferOverflowPolicy = configuration.bufferOverflowPolicy
+        asyncInitialization = configuration.asyncInitialization
+        uploadSchedulingPolicy = configuration.uploadSchedulingPolicy
+        multiplexedUploads = configuration.multiplexedUploads
+        backgroundUploadMaxDurationMs = if (configuration.backgroundUploadMaxDurationMs > 0) {
+            configuration.backgroundUploadMaxDurationMs
+        } else {
+            Configuration.DEFAULT_BACKGROUND_UPLOAD_MAX_DURATION_MS
+        }
+        backgroundUploadMaxBytes = if (configuration.backgroundUploadMaxBytes > 0) {
+            configuration.backgroundUploadMaxBytes
+        } else {
+            Configuration.DEFAULT_BACKGROUND_UPLOAD_MAX_BYTES
+        }
     }
 
     private fun setupInfoProviders(
@@ -450,6 +549,22 @@ internal object CoreFeature {
             TimeUnit.MILLISECONDS,
             LinkedBlockingDeque()
         )
+        if (maxInFlightUploads > 1) {
+            // the upload thread sends one batch itself, the others are sent in parallel
+            @Suppress("UnsafeThirdPartyFunctionCall") // pool size is > 0, workQueue can't be null
+            uploadDrainExecutorService = ThreadPoolExecutor(
+                maxInFlightUploads - 1,
+                maxInFlightUploads - 1,
+                THREAD_POOL_MAX_KEEP_ALIVE_MS,
+                TimeUnit.MILLISECONDS,
+                LinkedBlockingDeque()
+            ).apply { allowCoreThreadTimeOut(true) }
+        }
+        if (batchPreCompression) {
+            // sealed batches are compressed aside, not to delay the writes
+            @Suppress("UnsafeThirdPartyFunctionCall") // pool size can't be <= 0
+            batchCompressionExecutorService = ScheduledThreadPoolExecutor(CORE_DEFAULT_POOL_SIZE)
+        }
     }
 
     private fun resolveProcessInfo(appContext: Context) {
@@ -470,6 +585,10 @@ internal object CoreFeature {
     private fun shutDownExecutors() {
         uploadExecutorService.shutdownNow()
         persistenceExecutorService.shutdownNow()
+        uploadDrainExecutorService?.shutdownNow()
+        uploadDrainExecutorService = null
+        batchCompressionExecutorService?.shutdownNow()
+        batchCompressionExecutorService = null
 
         try {
             uploadExecutorService.awaitTermination(1, TimeUnit.SECONDS)
@@ -0,0 +1,162 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal
+
+import com.datadog.android.log.Logger
+import java.util.LinkedList
+import java.util.Locale
+
+/**
+ * A bounded queue of actions waiting for the SDK to be ready, used while the SDK is initialized
+ * on a background thread.
+ *
+ * Once [markReady] is called, the pending actions are replayed in order on the calling thread,
+ * and any action given afterwards runs immediately. When the queue is full, the newest actions
+ * are dropped, and the drops are reported when the SDK is ready.
+ */
+internal class PreInitQueue(
+    private val internalLogger: Logger,
+    private val capacity: Int = DEFAULT_CAPACITY
+) {
+
+    private val pendingActions = LinkedList<() -> Unit>()
+
+    @Volatile
+    private var pending = false
+
+    @Volatile
+    private var ready = true
+
+    private var droppedActions = 0
+
+    // incremented each time the queue is started or cleared, guarded by pendingActions
+    private var generation = 0
+
+    /**
+     * Starts buffering the actions until [markReady] is called.
+     * @return the generation of this initialization, to give back to [isCurrent] and [markReady]
+     */
+    fun start(): Int {
+        synchronized(pendingActions) {
+            pendingActions.clear()
+            droppedActions = 0
+            ready = false
+            pending = true
+            generation++
+            return generation
+        }
+    }
+
+    /**
+     * @param generation the generation returned by [start]
+     * @return true if the queue is still pending for the given generation, i.e. it was neither
+     * cleared nor started again since
+     */
+    fun isCurrent(generation: Int): Boolean {
+        synchronized(pendingActions) {
+            return pending && this.generation == generation
+        }
+    }
+
+    /**
+     * @return true if the SDK initialization is still running in the background
+     */
+    fun isPending(): Boolean {
+        return pending
+    }
+
+    /**
+     * @return true if the actions given to [runWhenReady] run immediately
+     */
+    fun isReady(): Boolean {
+        return ready
+    }
+
+    /**
+     * Runs the given action immediately if the SDK is ready, or keeps it to be run once it is.
+     * @param action the action to run
+     */
+    fun runWhenReady(action: () -> Unit) {
+        if (!ready) {
+            synchronized(pendingActions) {
+                if (!ready) {
+                    if (pendingActions.size < capacity) {
+                        pendingActions.add(action)
+                    } else {
+                        droppedActions++
+                    }
+                    return
+                }
+            }
+        }
+        action()
+    }
+
+    /**
+     * Replays all the pending actions, in order, and lets the next actions run immediately.
+     */
+    fun markReady() {
+        markReady(synchronized(pendingActions) { generation })
+    }
+
+    /**
+     * Replays all the pending actions, in order, and lets the next actions run immediately.
+     * Does nothing if the queue was cleared or started again since the given generation.
+     * @param generation the generation returned by [start]
+     */
+    fun markReady(generation: Int) {
+        while (true) {
+            val actions = synchronized(pendingActions) {
+                if (this.generation != generation) {
+                    return
+                }
+                if (pendingActions.isEmpty()) {
+                    ready = true
+                    pending = false
+                    reportDroppedActions()
+                    return
+                }
+                val actions = pendingActions.toList()
+                pendingActions.clear()
+                actions
+            }
+            // actions given while replaying are queued, and replayed in the next round
+            actions.forEach { it() }
+        }
+    }
+
+    /**
+     * Drops all the pending actions, and lets the next actions run immediately.
+     */
+    fun clear() {
+        synchronized(pendingActions) {
+            pendingActions.clear()
+            droppedActions = 0
+            ready = true
+            pending = false
+            generation++
+        }
+    }
+
+    // region Internal
+
+    private fun reportDroppedActions() {
+        if (droppedActions > 0) {
+            internalLogger.w(WARNING_DROPPED_ACTIONS.format(Locale.US, droppedActions, capacity))
+            droppedActions = 0
+        }
+    }
+
+    // endregion
+
+    companion object {
+        internal const val DEFAULT_CAPACITY = 1024
+
+        internal const val WARNING_DROPPED_ACTIONS = "%d call(s) made while the SDK was being " +
+            "initialized were dropped (only the first %d calls are kept)."
+    }
+}
@@ -10,9 +10,14 @@ package com.datadog.android.core.internal
 
 import android.content.Context
 import com.datadog.android.core.configuration.Configuration
+import com.datadog.android.core.internal.data.upload.DataUploadRunnable
 import com.datadog.android.core.internal.data.upload.DataUploadScheduler
+import com.datadog.android.core.internal.data.upload.MultiplexedUploadRunnable
+import com.datadog.android.core.internal.data.upload.MultiplexedUploadScheduler
 import com.datadog.android.core.internal.data.upload.NoOpUploadScheduler
+import com.datadog.android.core.internal.data.upload.UploadPriority
 import com.datadog.android.core.internal.data.upload.UploadScheduler
+import com.datadog.android.core.internal.metrics.FeatureMetrics
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.net.NoOpDataUploader
 import com.datadog.android.core.internal.persistence.NoOpPersistenceStrategy
@@ -47,26 +52,36 @@ internal abstract class SdkFeature<T : Any, C : Configuration.Feature> {
             return
         }
 
-        persistenceStrategy = createPersistenceStrategy(context, configuration)
-
-        setupUploader(configuration)
-
-        registerPlugins(
-            configuration.plugins,
-            DatadogPluginConfig(
-                context = context,
-                envName = CoreFeature.envName,
-                serviceName = CoreFeature.serviceName,
-                trackingConsent = CoreFeature.trackingConsentProvider.getConsent()
-            ),
-            CoreFeature.trackingConsentProvider
-        )
-
-        onInitialize(context, configuration)
-
-        initialized.set(true)
-
-        onPostInitialized(context)
+        measurePhase(StartupTimings.PHASE_TOTAL) {
+            persistenceStrategy = measurePhase(StartupTimings.PHASE_PERSISTENCE) {
+                createPersistenceStrategy(context, configuration)
+            }
+
+            measurePhase(StartupTimings.PHASE_UPLOAD) {
+                setupUploader(configuration)
+            }
+
+            measurePhase(StartupTimings.PHASE_PLUGINS) {
+                registerPlugins(
+                    configuration.plugins,
+                    DatadogPluginConfig(
+                        context = context,
+                        envName = CoreFeature.envName,
+                        serviceName = CoreFeature.serviceName,
+                        trackingConsent = CoreFeature.trackingConsentProvider.getConsent()
+                    ),
+                    CoreFeature.trackingConsentProvider
+                )
+            }
+
+            measurePhase(StartupTimings.PHASE_SETUP) {
+                onInitialize(context, configuration)
+            }
+
+            initialized.set(true)
+
+            onPostInitialized(context)
+        }
     }
 
     fun isInitialized(): Boolean {
@@ -75,12 +90,14 @@ internal abstract class SdkFeature<T : Any, C : Configuration.Feature> {
 
     fun clearAllData() {
         persistenceStrategy.getReader().dropAll()
+        persistenceStrategy.close()
     }
 
     fun stop() {
         if (initialized.get()) {
             unregisterPlugins()
             uploadScheduler.stopScheduling()
+            persistenceStrategy.close()
             persistenceStrategy = NoOpPersistenceStrategy()
             uploadScheduler = NoOpUploadScheduler()
 
@@ -103,6 +120,22 @@ internal abstract class SdkFeature<T : Any, C : Configuration.Feature> {
 
     // region Abstract
 
+    /**
+     * The name of this feature, used to name its storage folders and its startup timings.
+     */
+    abstract val featureName: String
+
+    /**
+     * The metrics of this feature's event pipeline.
+     */
+    internal val featureMetrics: FeatureMetrics
+        get() = CoreFeature.pipelineMetrics.forFeature(featureName)
+
+    /**
+     * The priority of this feature's batches when the uploads are multiplexed.
+     */
+    abstract val uploadPriority: UploadPriority
+
     open fun onInitialize(context: Context, configuration: C) {}
 
     open fun onPostInitialized(context: Context) {}
@@ -144,20 +177,48 @@ internal abstract class SdkFeature<T : Any, C : Configuration.Feature> {
     private fun setupUploader(configuration: C) {
         uploadScheduler = if (CoreFeature.isMainProcess) {
             uploader = createUploader(configuration)
-            DataUploadScheduler(
-                persistenceStrategy.getReader(),
-                uploader,
-                CoreFeature.networkInfoProvider,
-                CoreFeature.systemInfoProvider,
-                CoreFeature.uploadFrequency,
-                CoreFeature.uploadExecutorService
-            )
+            val uploadMultiplexer = CoreFeature.uploadMultiplexer
+            if (uploadMultiplexer == null) {
+                DataUploadScheduler(
+                    persistenceStrategy.getReader(),
+                    uploader,
+                    CoreFeature.networkInfoProvider,
+                    CoreFeature.systemInfoProvider,
+                    CoreFeature.uploadFrequency,
+                    CoreFeature.uploadExecutorService,
+                    CoreFeature.uploadDrainExecutorService,
+                    CoreFeature.maxInFlightUploads,
+                    CoreFeature.uploadSchedulingPolicy
+                )
+            } else {
+                createMultiplexedUploadScheduler(uploadMultiplexer)
+            }
         } else {
             NoOpUploadScheduler()
         }
         uploadScheduler.startScheduling()
     }
 
+    private fun createMultiplexedUploadScheduler(
+        uploadMultiplexer: MultiplexedUploadRunnable
+    ): UploadScheduler {
+        val laneRunnable = DataUploadRunnable(
+            CoreFeature.uploadExecutorService,
+            persistenceStrategy.getReader(),
+            uploader,
+            CoreFeature.networkInfoProvider,
+            CoreFeature.systemInfoProvider,
+            CoreFeature.uploadFrequency,
+            CoreFeature.uploadDrainExecutorService,
+            CoreFeature.maxInFlightUploads,
+            uploadMultiplexer.schedulingStrategy
+        )
+        return MultiplexedUploadScheduler(
+            uploadMultiplexer,
+            MultiplexedUploadRunnable.Lane(featureName, uploadPriority, laneRunnable)
+        )
+    }
+
     /**
      * Since SDK v1.12.0, the Android SDK stores batch files in the cache directory instead
      * of the files directory. This migration ensures we don't lose any important data when
@@ -170,11 +231,18 @@ internal abstract class SdkFeature<T : Any, C : Configuration.Feature> {
     ) {
         val fileHandler = BatchFileHandler(internalLogger)
         val config = FilePersistenceConfig()
+        // the migration runs on the persistence executor, so it's timed by the operations
         val migrator = CacheFileMigrator(
             fileHandler,
             CoreFeature.persistenceExecutorService,
             internalLogger
-        )
+        ) { durationNs ->
+            CoreFeature.startupTimings.record(
+                featureName,
+                StartupTimings.PHASE_MIGRATION,
+                durationNs
+            )
+        }
         val filesDir = File(
             context.filesDir,
             FeatureFileOrchestrator.GRANTED_DIR.format(Locale.US, featureName)
@@ -189,6 +257,10 @@ internal abstract class SdkFeature<T : Any, C : Configuration.Feature> {
         migrator.migrateData(null, previousOrchestrator, true, newOrchestrator)
     }
 
+    private inline fun <R> measurePhase(phase: String, block: () -> R): R {
+        return CoreFeature.startupTimings.measure(featureName, phase, block)
+    }
+
     // Used for nightly tests only
     internal fun flushStoredData() {
         persistenceStrategy.getFlusher().flush(uploader)
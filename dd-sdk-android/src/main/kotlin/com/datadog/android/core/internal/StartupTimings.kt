@@ -0,0 +1,110 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal
+
+import android.os.Looper
+import com.datadog.android.DatadogStartupTiming
+import java.util.Locale
+
+/**
+ * Records the time spent in each phase of the SDK initialization.
+ *
+ * Measuring a phase only costs two [System.nanoTime] calls and one list insertion, so the
+ * timings are always recorded.
+ */
+internal class StartupTimings {
+
+    private val timings = mutableListOf<DatadogStartupTiming>()
+
+    /**
+     * Runs the given block and records its duration.
+     * @param feature the name of the feature being initialized
+     * @param phase the name of the initialization phase
+     * @param block the phase to run
+     */
+    inline fun <R> measure(feature: String, phase: String, block: () -> R): R {
+        val startNs = System.nanoTime()
+        try {
+            return block()
+        } finally {
+            record(feature, phase, System.nanoTime() - startNs)
+        }
+    }
+
+    fun record(feature: String, phase: String, durationNs: Long) {
+        val timing = DatadogStartupTiming(feature, phase, durationNs, isMainThread())
+        synchronized(timings) {
+            timings.add(timing)
+        }
+    }
+
+    fun getTimings(): List<DatadogStartupTiming> {
+        return synchronized(timings) { timings.toList() }
+    }
+
+    fun clear() {
+        synchronized(timings) { timings.clear() }
+    }
+
+    /**
+     * @return a summary of the recorded timings, with the main thread and background time of
+     * each feature, or null if nothing was recorded
+     */
+    fun toTelemetryMessage(): String? {
+        val totals = getTimings().filter { it.phase == PHASE_TOTAL }
+        if (totals.isEmpty()) return null
+
+        val features = totals.map { it.feature }.distinct()
+        val details = features.joinToString(", ") { feature ->
+            val featureTotals = totals.filter { it.feature == feature }
+            val mainThreadNs = featureTotals.filter { it.isMainThread }.sumOf { it.durationNs }
+            val backgroundNs = featureTotals.filter { !it.isMainThread }.sumOf { it.durationNs }
+            FEATURE_SUMMARY_FORMAT.format(
+                Locale.US,
+                feature,
+                mainThreadNs.toMillis(),
+                backgroundNs.toMillis()
+            )
+        }
+        return TELEMETRY_MESSAGE_PREFIX + details
+    }
+
+    // region Internal
+
+    private fun isMainThread(): Boolean {
+        return Looper.getMainLooper()?.thread == Thread.currentThread()
+    }
+
+    private fun Long.toMillis(): Double {
+        return this / NS_IN_MS
+    }
+
+    // endregion
+
+    companion object {
+        internal const val PHASE_TOTAL = "total"
+        internal const val PHASE_PRE_INITIALIZE = "pre_initialize"
+        internal const val PHASE_PERSISTENCE = "persistence"
+        internal const val PHASE_UPLOAD = "upload"
+        internal const val PHASE_PLUGINS = "plugins"
+        internal const val PHASE_SETUP = "setup"
+        internal const val PHASE_MIGRATION = "migration"
+        internal const val PHASE_CLOCK_SYNC = "clock_sync"
+        internal const val PHASE_NETWORK = "network"
+        internal const val PHASE_EXECUTORS = "executors"
+        internal const val PHASE_NDK_CRASH_DATA = "ndk_crash_data"
+        internal const val PHASE_INFO_PROVIDERS = "info_providers"
+
+        internal const val SDK_FEATURE_NAME = "sdk"
+        internal const val CORE_FEATURE_NAME = "core"
+
+        private const val NS_IN_MS = 1_000_000.0
+
+        internal const val TELEMETRY_MESSAGE_PREFIX = "SDK startup timings (main/background): "
+        internal const val FEATURE_SUMMARY_FORMAT = "%s=%.3fms/%.3fms"
+    }
+}
@@ -10,15 +10,13 @@ import com.datadog.android.core.internal.utils.devLogger
 import com.datadog.android.core.internal.utils.toMutableMap
 import java.util.Locale
 
-internal typealias StringTransform = (String) -> String?
-
 internal class DatadogDataConstraints : DataConstraints {
 
     // region DataConstraints
 
     override fun validateTags(tags: List<String>): List<String> {
         val convertedTags = tags.mapNotNull {
-            val tag = convertTag(it)
+            val tag = resolveTag(it)
             if (tag == null) {
                 devLogger.e("\"$it\" is an invalid tag, and was ignored.")
             } else if (tag != it) {
@@ -75,8 +73,7 @@ internal class DatadogDataConstraints : DataConstraints {
 
     override fun validateTimings(timings: Map<String, Long>): MutableMap<String, Long> {
         return timings.mapKeys { entry ->
-            val sanitizedKey =
-                entry.key.replace(Regex("[^a-zA-Z0-9\\-_.@$]"), "_")
+            val sanitizedKey = timingKeysCache.getOrPut(entry.key) { convertTimingKey(it) }
             if (sanitizedKey != entry.key) {
                 devLogger.w(
                     CUSTOM_TIMING_KEY_REPLACED_WARNING.format(
@@ -107,27 +104,47 @@ internal class DatadogDataConstraints : DataConstraints {
 
     // region Internal/Tag
 
+    private val tagsCache = SanitizedStringCache(MAX_CACHED_TAGS)
+
+    private fun resolveTag(rawTag: String?): String? {
+        // We need this in case the tags are added from JAVA code and a null tag may be passed.
+        @Suppress("SENSELESS_COMPARISON")
+        if (rawTag == null) return null
+        val tag = tagsCache.getOrPut(rawTag) { convertTag(it) ?: INVALID_TAG }
+        return if (tag == INVALID_TAG) null else tag
+    }
+
     @Suppress("UnsafeThirdPartyFunctionCall") // substring IndexOutOfBounds is impossible here
-    private val tagTransforms = listOf<StringTransform>(
+    private fun convertTag(rawTag: String): String? {
         // Tags must be lowercase
-        { it.lowercase(Locale.US) },
+        val lowercaseTag = if (needsLowercase(rawTag)) rawTag.lowercase(Locale.US) else rawTag
         // Tags must start with a letter
-        { if (it.getOrNull(0) !in 'a'..'z') null else it },
-        // Tags convert illegal characters to underscode
-        { it.replace(Regex("[^a-z0-9_:./-]"), "_") },
+        if (lowercaseTag.isEmpty() || lowercaseTag[0] !in 'a'..'z') return null
+        // Tags convert illegal characters to underscore
+        var tag = replaceIllegalCharacters(lowercaseTag) { isLegalTagCharacter(it) }
         // Tags cannot end with a colon
-        { if (it.endsWith(':')) it.substring(0, it.lastIndex) else it },
+        if (tag.endsWith(':')) tag = tag.substring(0, tag.lastIndex)
         // Tags can be up to 200 characters long
-        { if (it.length > MAX_TAG_LENGTH) it.substring(0, MAX_TAG_LENGTH) else it },
+        if (tag.length > MAX_TAG_LENGTH) tag = tag.substring(0, MAX_TAG_LENGTH)
         // Dismiss tags with reserved keys
-        { if (isKeyReserved(it)) null else it }
-    )
+        return if (isKeyReserved(tag)) null else tag
+    }
 
-    private fun convertTag(rawTag: String?): String? {
-        return tagTransforms.fold(rawTag) { tag, transform ->
-            @Suppress("UnsafeThirdPartyFunctionCall") // internal safe call
-            if (tag == null) null else transform.invoke(tag)
+    private fun needsLowercase(tag: String): Boolean {
+        for (character in tag) {
+            if (character in 'A'..'Z' || character > MAX_ASCII_CHARACTER) return true
         }
+        return false
+    }
+
+    private fun isLegalTagCharacter(character: Char): Boolean {
+        return character in 'a'..'z' ||
+            character in '0'..'9' ||
+            character == '_' ||
+            character == ':' ||
+            character == '.' ||
+            character == '/' ||
+            character == '-'
     }
 
     @Suppress("UnsafeThirdPartyFunctionCall") // substring IndexOutOfBounds is impossible here
@@ -147,15 +164,102 @@ internal class DatadogDataConstraints : DataConstraints {
 
     private fun convertAttributeKey(rawKey: String, prefixDotCount: Int): String {
         var dotCount = prefixDotCount
-        val mapped = rawKey.map {
-            if (it == '.') {
+        var convertedKey: CharArray? = null
+        rawKey.forEachIndexed { index, character ->
+            if (character == '.') {
                 dotCount++
-                if (dotCount > MAX_DEPTH_LEVEL) '_' else it
+                if (dotCount > MAX_DEPTH_LEVEL) {
+                    val chars = convertedKey ?: rawKey.toCharArray().also { convertedKey = it }
+                    chars[index] = '_'
+                }
+            }
+        }
+        return convertedKey?.let { String(it) } ?: rawKey
+    }
+
+    // endregion
+
+    // region Internal/Timing
+
+    private val timingKeysCache = SanitizedStringCache(MAX_CACHED_TIMING_KEYS)
+
+    private fun convertTimingKey(rawKey: String): String {
+        return replaceIllegalCharacters(rawKey) { isLegalTimingKeyCharacter(it) }
+    }
+
+    private fun isLegalTimingKeyCharacter(character: Char): Boolean {
+        return character in 'a'..'z' ||
+            character in 'A'..'Z' ||
+            character in '0'..'9' ||
+            character == '-' ||
+            character == '_' ||
+            character == '.' ||
+            character == '@' ||
+            character == '$'
+    }
+
+    // endregion
+
+    // region Internal
+
+    /**
+     * Replaces each illegal character (or surrogate pair) with an underscore, in a single pass.
+     * @return the given value if all its characters are legal
+     */
+    @Suppress("UnsafeThirdPartyFunctionCall") // String.get IndexOutOfBounds is impossible here
+    private inline fun replaceIllegalCharacters(
+        value: String,
+        isLegal: (Char) -> Boolean
+    ): String {
+        var index = 0
+        while (index < value.length && isLegal(value[index])) {
+            index++
+        }
+        if (index == value.length) return value
+
+        val chars = value.toCharArray()
+        var length = index
+        while (index < value.length) {
+            val character = value[index]
+            if (isLegal(character)) {
+                chars[length] = character
             } else {
-                it
+                chars[length] = '_'
+                if (character.isHighSurrogate() &&
+                    index + 1 < value.length &&
+                    value[index + 1].isLowSurrogate()
+                ) {
+                    index++
+                }
+            }
+            length++
+            index++
+        }
+        return String(chars, 0, length)
+    }
+
+    /**
+     * A bounded, least recently used, cache of already sanitized strings, as the same tags and
+     * keys are usually validated again and again for each event.
+     */
+    private class SanitizedStringCache(private val maxSize: Int) {
+
+        private val entries = object : LinkedHashMap<String, String>(maxSize, LOAD_FACTOR, true) {
+            override fun removeEldestEntry(
+                eldest: MutableMap.MutableEntry<String, String>?
+            ): Boolean {
+                return size > maxSize
             }
         }
-        return String(mapped.toCharArray())
+
+        fun getOrPut(rawValue: String, sanitize: (String) -> String): String {
+            val cachedValue = synchronized(entries) { entries[rawValue] }
+            if (cachedValue != null) return cachedValue
+
+            val sanitizedValue = sanitize(rawValue)
+            synchronized(entries) { entries[rawValue] = sanitizedValue }
+            return sanitizedValue
+        }
     }
 
     // endregion
@@ -168,6 +272,14 @@ internal class DatadogDataConstraints : DataConstraints {
         private const val MAX_ATTR_COUNT = 128
         private const val MAX_DEPTH_LEVEL = 9
 
+        private const val MAX_CACHED_TAGS = 256
+        private const val MAX_CACHED_TIMING_KEYS = 128
+        private const val LOAD_FACTOR = 0.75f
+        private const val MAX_ASCII_CHARACTER = '\u007F'
+
+        // Valid tags always start with a letter, so this can't be a converted tag
+        private const val INVALID_TAG = ""
+
         internal const val CUSTOM_TIMING_KEY_REPLACED_WARNING = "Invalid timing name: %s," +
             " sanitized to: %s"
 
@@ -0,0 +1,148 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.data.upload
+
+import com.datadog.android.core.configuration.UploadFrequency
+import com.datadog.android.core.internal.persistence.Backlog
+import com.datadog.android.core.model.NetworkInfo
+import java.util.concurrent.TimeUnit
+
+/**
+ * Adapts the uploads to the backlog and to the quality of the network link:
+ * - on a fast unmetered link, a large backlog is drained with several rounds per run, and
+ * runs are only spaced by the minimum delay;
+ * - on a metered link, runs are never closer than the default delay;
+ * - on a weak link (poor signal, low bandwidth or slow observed throughput), or when an
+ * upload fails, the delay backs off quickly towards the maximum.
+ */
+internal class AdaptiveUploadSchedulingStrategy(
+    uploadFrequency: UploadFrequency
+) : UploadSchedulingStrategy {
+
+    override val initialDelayMs: Long =
+        FixedUploadSchedulingStrategy.DEFAULT_DELAY_FACTOR * uploadFrequency.baseStepMs
+    override val minDelayMs: Long =
+        FixedUploadSchedulingStrategy.MIN_DELAY_FACTOR * uploadFrequency.baseStepMs
+    override val maxDelayMs: Long =
+        FixedUploadSchedulingStrategy.MAX_DELAY_FACTOR * uploadFrequency.baseStepMs
+    override val requiresBacklog: Boolean = true
+
+    // exponentially weighted moving average of the observed upload throughput, only sampled on
+    // large enough runs: the time spent on small batches is mostly the request latency
+    internal var throughputBytesPerMs: Double? = null
+
+    // region UploadSchedulingStrategy
+
+    override fun getBurstSize(networkInfo: NetworkInfo, backlog: Backlog): Int {
+        return if (resolveLinkQuality(networkInfo) == LinkQuality.GOOD && isLarge(backlog)) {
+            backlog.batchCount.coerceIn(1, MAX_BURST_SIZE)
+        } else {
+            1
+        }
+    }
+
+    override fun getNextDelayMs(currentDelayMs: Long, cycle: UploadCycle): Long {
+        updateThroughput(cycle)
+
+        val linkQuality = resolveLinkQuality(cycle.networkInfo)
+        val sentBatches = cycle.results.count { !it }
+        val remainingBacklog = Backlog(
+            (cycle.backlog.batchCount - sentBatches).coerceAtLeast(0),
+            (cycle.backlog.byteCount - cycle.uploadedBytes).coerceAtLeast(0L)
+        )
+        val nextDelayMs = when {
+            cycle.results.any { it } -> currentDelayMs * RETRY_BACKOFF_FACTOR
+            linkQuality == LinkQuality.WEAK -> maxDelayMs
+            cycle.results.isEmpty() -> increaseDelay(currentDelayMs)
+            linkQuality == LinkQuality.METERED -> {
+                maxOf(initialDelayMs, decreaseDelay(currentDelayMs))
+            }
+            linkQuality == LinkQuality.GOOD && isLarge(remainingBacklog) -> minDelayMs
+            else -> decreaseDelay(currentDelayMs)
+        }
+        return nextDelayMs.coerceIn(minDelayMs, maxDelayMs)
+    }
+
+    // endregion
+
+    // region Internal
+
+    private fun updateThroughput(cycle: UploadCycle) {
+        val durationMs = TimeUnit.NANOSECONDS.toMillis(cycle.uploadDurationNs)
+        if (cycle.uploadedBytes < MIN_THROUGHPUT_SAMPLE_BYTES || durationMs <= 0L) return
+
+        val sample = cycle.uploadedBytes.toDouble() / durationMs
+        val previous = throughputBytesPerMs
+        throughputBytesPerMs = if (previous == null) {
+            sample
+        } else {
+            previous + THROUGHPUT_SMOOTHING * (sample - previous)
+        }
+    }
+
+    private fun resolveLinkQuality(networkInfo: NetworkInfo): LinkQuality {
+        val bandwidthKbps = networkInfo.upKbps ?: networkInfo.downKbps
+        val strength = networkInfo.strength
+        val observedThroughput = throughputBytesPerMs
+        val isWeak = networkInfo.connectivity == NetworkInfo.Connectivity.NETWORK_2G ||
+            (strength != null && strength < WEAK_SIGNAL_STRENGTH) ||
+            (bandwidthKbps != null && bandwidthKbps < WEAK_BANDWIDTH_KBPS) ||
+            (observedThroughput != null && observedThroughput < WEAK_THROUGHPUT_BYTES_PER_MS)
+
+        return when {
+            isWeak -> LinkQuality.WEAK
+            networkInfo.connectivity !in UNMETERED_CONNECTIVITIES -> LinkQuality.METERED
+            bandwidthKbps == null || bandwidthKbps >= GOOD_BANDWIDTH_KBPS -> LinkQuality.GOOD
+            else -> LinkQuality.AVERAGE
+        }
+    }
+
+    private fun decreaseDelay(delayMs: Long): Long {
+        return delayMs * FixedUploadSchedulingStrategy.DECREASE_PERCENT / 100
+    }
+
+    private fun increaseDelay(delayMs: Long): Long {
+        return delayMs * FixedUploadSchedulingStrategy.INCREASE_PERCENT / 100
+    }
+
+    private fun isLarge(backlog: Backlog): Boolean {
+        return backlog.batchCount >= LARGE_BACKLOG_BATCH_COUNT ||
+            backlog.byteCount >= LARGE_BACKLOG_BYTE_COUNT
+    }
+
+    // endregion
+
+    internal enum class LinkQuality {
+        GOOD,
+        AVERAGE,
+        METERED,
+        WEAK
+    }
+
+    companion object {
+        internal const val RETRY_BACKOFF_FACTOR = 2
+
+        internal const val MAX_BURST_SIZE = 8
+        internal const val LARGE_BACKLOG_BATCH_COUNT = 4
+        internal const val LARGE_BACKLOG_BYTE_COUNT = 1024L * 1024L
+
+        // signal strength in dBm
+        internal const val WEAK_SIGNAL_STRENGTH = -90L
+        internal const val WEAK_BANDWIDTH_KBPS = 256L
+        internal const val GOOD_BANDWIDTH_KBPS = 2048L
+
+        // 16 KB/s
+        internal const val WEAK_THROUGHPUT_BYTES_PER_MS = 16.0
+        internal const val THROUGHPUT_SMOOTHING = 0.3
+        internal const val MIN_THROUGHPUT_SAMPLE_BYTES = 64L * 1024L
+
+        internal val UNMETERED_CONNECTIVITIES = setOf(
+            NetworkInfo.Connectivity.NETWORK_WIFI,
+            NetworkInfo.Connectivity.NETWORK_ETHERNET
+        )
+    }
+}
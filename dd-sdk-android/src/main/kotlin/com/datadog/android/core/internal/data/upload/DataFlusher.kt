@@ -7,27 +7,28 @@
 package com.datadog.android.core.internal.data.upload
 
 import com.datadog.android.core.internal.net.DataUploader
+import com.datadog.android.core.internal.persistence.Batch
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.file.FileHandler
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
-import com.datadog.android.core.internal.utils.join
+import com.datadog.android.core.internal.persistence.file.batch.BatchFileCompressor
+import com.datadog.android.core.internal.persistence.file.writeDecoratedData
 
 internal class DataFlusher(
     internal val fileOrchestrator: FileOrchestrator,
     internal val decoration: PayloadDecoration,
-    internal val handler: FileHandler
+    internal val handler: FileHandler,
+    internal val compressor: BatchFileCompressor? = null
 ) : Flusher {
 
     override fun flush(uploader: DataUploader) {
         val toUploadFiles = fileOrchestrator.getFlushableFiles()
         toUploadFiles.forEach {
-            val batch = handler.readData(it)
-                .join(
-                    separator = decoration.separatorBytes,
-                    prefix = decoration.prefixBytes,
-                    suffix = decoration.suffixBytes
-                )
+            val batch = Batch(it.name) { sink ->
+                handler.writeDecoratedData(it, decoration, sink)
+            }
             uploader.upload(batch)
+            compressor?.delete(it)
             handler.delete(it)
         }
     }
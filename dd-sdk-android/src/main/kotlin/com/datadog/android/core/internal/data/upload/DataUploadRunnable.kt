@@ -9,15 +9,22 @@ package com.datadog.android.core.internal.data.upload
 import com.datadog.android.core.configuration.UploadFrequency
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.net.info.NetworkInfoProvider
+import com.datadog.android.core.internal.persistence.Backlog
 import com.datadog.android.core.internal.persistence.Batch
 import com.datadog.android.core.internal.persistence.DataReader
+import com.datadog.android.core.internal.system.SystemInfo
 import com.datadog.android.core.internal.system.SystemInfoProvider
 import com.datadog.android.core.internal.utils.scheduleSafe
+import com.datadog.android.core.internal.utils.sdkLogger
+import com.datadog.android.core.internal.utils.submitSafe
 import com.datadog.android.core.model.NetworkInfo
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Future
 import java.util.concurrent.ScheduledThreadPoolExecutor
 import java.util.concurrent.TimeUnit
-import kotlin.math.max
-import kotlin.math.min
+import java.util.concurrent.atomic.AtomicBoolean
 
 internal class DataUploadRunnable(
     private val threadPoolExecutor: ScheduledThreadPoolExecutor,
@@ -25,88 +32,189 @@ internal class DataUploadRunnable(
     private val dataUploader: DataUploader,
     private val networkInfoProvider: NetworkInfoProvider,
     private val systemInfoProvider: SystemInfoProvider,
-    uploadFrequency: UploadFrequency
+    uploadFrequency: UploadFrequency,
+    private val drainExecutorService: ExecutorService? = null,
+    internal val maxInFlightUploads: Int = 1,
+    internal val schedulingStrategy: UploadSchedulingStrategy =
+        FixedUploadSchedulingStrategy(uploadFrequency)
 ) : UploadRunnable {
 
-    internal var currentDelayIntervalMs = DEFAULT_DELAY_FACTOR * uploadFrequency.baseStepMs
-    internal var minDelayMs = MIN_DELAY_FACTOR * uploadFrequency.baseStepMs
-    internal var maxDelayMs = MAX_DELAY_FACTOR * uploadFrequency.baseStepMs
+    internal var currentDelayIntervalMs = schedulingStrategy.initialDelayMs
+    internal val minDelayMs: Long
+        get() = schedulingStrategy.minDelayMs
+    internal val maxDelayMs: Long
+        get() = schedulingStrategy.maxDelayMs
 
     //  region Runnable
 
     override fun run() {
-        val batch = if (isNetworkAvailable() && isSystemReady()) {
-            reader.lockAndReadNext()
-        } else {
-            null
-        }
-
-        if (batch != null) {
-            consumeBatch(batch)
+        val networkInfo = networkInfoProvider.getLatestNetworkInfo()
+        val cycle = if (canUpload(networkInfo, systemInfoProvider.getLatestSystemInfo())) {
+            uploadIfAllowed(networkInfo)
         } else {
-            increaseInterval()
+            UploadCycle(networkInfo)
         }
 
-        scheduleNextUpload()
+        currentDelayIntervalMs = schedulingStrategy.getNextDelayMs(currentDelayIntervalMs, cycle)
+        scheduleNextUpload(maxOf(currentDelayIntervalMs, cycle.backOffMs))
     }
 
     // endregion
 
-    // region Internal
-
-    private fun isNetworkAvailable(): Boolean {
-        val networkInfo = networkInfoProvider.getLatestNetworkInfo()
-        return networkInfo.connectivity != NetworkInfo.Connectivity.NETWORK_NOT_CONNECTED
+    /**
+     * Uploads the batches available in the reader, unless the intake is backed off. This is
+     * also called by the [MultiplexedUploadRunnable] for each of its lanes, in which case this
+     * runnable is never scheduled itself.
+     * @param networkInfo the current network information
+     * @return the outcome of the uploads
+     */
+    internal fun uploadIfAllowed(networkInfo: NetworkInfo): UploadCycle {
+        val backOffMs = dataUploader.requestUpload()
+        return if (backOffMs > 0) {
+            UploadCycle(networkInfo, backOffMs = backOffMs)
+        } else {
+            uploadBatches(networkInfo)
+        }
     }
 
-    private fun isSystemReady(): Boolean {
-        val systemInfo = systemInfoProvider.getLatestSystemInfo()
-        val hasEnoughPower = systemInfo.batteryFullOrCharging ||
-            systemInfo.onExternalPowerSource ||
-            systemInfo.batteryLevel > LOW_BATTERY_THRESHOLD
-        return hasEnoughPower && !systemInfo.powerSaveMode
-    }
+    // region Internal
 
-    private fun scheduleNextUpload() {
+    private fun scheduleNextUpload(delayMs: Long) {
         threadPoolExecutor.remove(this)
         threadPoolExecutor.scheduleSafe(
             "Data upload",
-            currentDelayIntervalMs,
+            delayMs,
             TimeUnit.MILLISECONDS,
             this
         )
     }
 
-    private fun consumeBatch(batch: Batch) {
-        val status = dataUploader.upload(batch.data)
+    /**
+     * Uploads up to as many rounds of batches as allowed by the [schedulingStrategy], stopping
+     * early when there's nothing left to upload or when a batch needs to be retried.
+     */
+    private fun uploadBatches(networkInfo: NetworkInfo): UploadCycle {
+        val backlog = if (schedulingStrategy.requiresBacklog) reader.getBacklog() else Backlog()
+        val burstSize = schedulingStrategy.getBurstSize(networkInfo, backlog)
+        val results = mutableListOf<Boolean>()
+        var uploadedBytes = 0L
+        val startNs = System.nanoTime()
+        var round = 0
+        while (round < burstSize) {
+            val batches = lockAndReadBatches()
+            if (batches.isEmpty()) break
+
+            val roundResults = consumeBatches(batches)
+            results.addAll(roundResults)
+            uploadedBytes += batches.sumOf { it.size }
+            if (roundResults.any { it }) break
+            round++
+        }
+        return UploadCycle(
+            networkInfo,
+            backlog,
+            results,
+            uploadedBytes,
+            System.nanoTime() - startNs
+        )
+    }
+
+    /**
+     * Locks as many batches as can be uploaded at once. Locked batches are never returned twice
+     * by the reader, so each of them is only sent once.
+     */
+    private fun lockAndReadBatches(): List<Batch> {
+        val limit = if (drainExecutorService == null) 1 else maxInFlightUploads
+        val batches = mutableListOf<Batch>()
+        while (batches.size < limit) {
+            val batch = reader.lockAndReadNext() ?: break
+            batches.add(batch)
+        }
+        return batches
+    }
+
+    /**
+     * Uploads the first batch on the current thread, and the other ones (if any) in parallel
+     * on the drain executor.
+     * @return whether each batch should be retried
+     */
+    private fun consumeBatches(batches: List<Batch>): List<Boolean> {
+        val pendingUploads = batches.drop(1).map { batch ->
+            val claimed = AtomicBoolean(false)
+            val future = drainExecutorService?.submitSafe(
+                "Data upload",
+                Callable { claimed.compareAndSet(false, true) && consumeBatch(batch) }
+            )
+            PendingUpload(batch, claimed, future)
+        }
+
+        val results = mutableListOf(consumeBatch(batches.first()))
+        pendingUploads.forEach { results.add(awaitUpload(it)) }
+        return results
+    }
+
+    private fun awaitUpload(upload: PendingUpload): Boolean {
+        val future = upload.future ?: return consumeBatch(upload.batch)
+        return try {
+            @Suppress("UnsafeThirdPartyFunctionCall") // exceptions are caught below
+            future.get()
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+            future.cancel(true)
+            if (upload.claimed.compareAndSet(false, true)) {
+                // the upload never started, the batch is still locked in the reader
+                reader.release(upload.batch)
+            }
+            sdkLogger.e(ERROR_UPLOAD_INTERRUPTED, e)
+            true
+        } catch (e: ExecutionException) {
+            sdkLogger.e(ERROR_UPLOAD_FAILED, e)
+            true
+        }
+    }
+
+    /**
+     * @return whether the batch should be retried
+     */
+    private fun consumeBatch(batch: Batch): Boolean {
+        val status = dataUploader.upload(batch)
 
         if (status.shouldRetry) {
             reader.release(batch)
-            increaseInterval()
         } else {
             reader.drop(batch)
-            decreaseInterval()
         }
+        return status.shouldRetry
     }
 
-    private fun decreaseInterval() {
-        currentDelayIntervalMs = max(minDelayMs, currentDelayIntervalMs * DECREASE_PERCENT / 100)
-    }
-
-    private fun increaseInterval() {
-        currentDelayIntervalMs = min(maxDelayMs, currentDelayIntervalMs * INCREASE_PERCENT / 100)
-    }
+    /**
+     * A batch uploaded on the drain executor. Either the upload task or the thread waiting for
+     * it claims the batch, so that it's released exactly once when the wait is interrupted.
+     */
+    private class PendingUpload(
+        val batch: Batch,
+        val claimed: AtomicBoolean,
+        val future: Future<Boolean>?
+    )
 
     // endregion
 
     companion object {
         internal const val LOW_BATTERY_THRESHOLD = 10
 
-        internal const val MIN_DELAY_FACTOR = 1
-        internal const val DEFAULT_DELAY_FACTOR = 5
-        internal const val MAX_DELAY_FACTOR = 10
+        /**
+         * @return whether the device is connected, and has enough power to upload data
+         */
+        internal fun canUpload(networkInfo: NetworkInfo, systemInfo: SystemInfo): Boolean {
+            val isNetworkAvailable =
+                networkInfo.connectivity != NetworkInfo.Connectivity.NETWORK_NOT_CONNECTED
+            val hasEnoughPower = systemInfo.batteryFullOrCharging ||
+                systemInfo.onExternalPowerSource ||
+                systemInfo.batteryLevel > LOW_BATTERY_THRESHOLD
+            return isNetworkAvailable && hasEnoughPower && !systemInfo.powerSaveMode
+        }
 
-        const val DECREASE_PERCENT = 90
-        const val INCREASE_PERCENT = 110
+        internal const val ERROR_UPLOAD_INTERRUPTED = "Interrupted while waiting for a batch upload"
+        internal const val ERROR_UPLOAD_FAILED = "Unable to upload batch in parallel"
     }
 }
@@ -7,11 +7,13 @@
 package com.datadog.android.core.internal.data.upload
 
 import com.datadog.android.core.configuration.UploadFrequency
+import com.datadog.android.core.configuration.UploadSchedulingPolicy
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.net.info.NetworkInfoProvider
 import com.datadog.android.core.internal.persistence.DataReader
 import com.datadog.android.core.internal.system.SystemInfoProvider
 import com.datadog.android.core.internal.utils.scheduleSafe
+import java.util.concurrent.ExecutorService
 import java.util.concurrent.ScheduledThreadPoolExecutor
 import java.util.concurrent.TimeUnit
 
@@ -21,7 +23,10 @@ internal class DataUploadScheduler(
     networkInfoProvider: NetworkInfoProvider,
     systemInfoProvider: SystemInfoProvider,
     uploadFrequency: UploadFrequency,
-    private val scheduledThreadPoolExecutor: ScheduledThreadPoolExecutor
+    private val scheduledThreadPoolExecutor: ScheduledThreadPoolExecutor,
+    drainExecutorService: ExecutorService? = null,
+    maxInFlightUploads: Int = 1,
+    uploadSchedulingPolicy: UploadSchedulingPolicy = UploadSchedulingPolicy.FIXED
 ) : UploadScheduler {
 
     private val runnable = DataUploadRunnable(
@@ -30,7 +35,10 @@ internal class DataUploadScheduler(
         dataUploader,
         networkInfoProvider,
         systemInfoProvider,
-        uploadFrequency
+        uploadFrequency,
+        drainExecutorService,
+        maxInFlightUploads,
+        UploadSchedulingStrategy.create(uploadSchedulingPolicy, uploadFrequency)
     )
 
     override fun startScheduling() {
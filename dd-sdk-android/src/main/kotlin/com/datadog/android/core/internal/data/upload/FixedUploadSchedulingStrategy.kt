@@ -0,0 +1,65 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.data.upload
+
+import com.datadog.android.core.configuration.UploadFrequency
+import com.datadog.android.core.internal.persistence.Backlog
+import com.datadog.android.core.model.NetworkInfo
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * Uploads a single round of batches per run, and moves the delay between runs by ±10% around
+ * the [UploadFrequency], depending on whether the uploaded batches need to be retried.
+ */
+internal class FixedUploadSchedulingStrategy(
+    uploadFrequency: UploadFrequency
+) : UploadSchedulingStrategy {
+
+    override val initialDelayMs: Long = DEFAULT_DELAY_FACTOR * uploadFrequency.baseStepMs
+    override val minDelayMs: Long = MIN_DELAY_FACTOR * uploadFrequency.baseStepMs
+    override val maxDelayMs: Long = MAX_DELAY_FACTOR * uploadFrequency.baseStepMs
+    override val requiresBacklog: Boolean = false
+
+    // region UploadSchedulingStrategy
+
+    override fun getBurstSize(networkInfo: NetworkInfo, backlog: Backlog): Int {
+        return 1
+    }
+
+    override fun getNextDelayMs(currentDelayMs: Long, cycle: UploadCycle): Long {
+        if (cycle.results.isEmpty()) {
+            return increaseDelay(currentDelayMs)
+        }
+        return cycle.results.fold(currentDelayMs) { delayMs, shouldRetry ->
+            if (shouldRetry) increaseDelay(delayMs) else decreaseDelay(delayMs)
+        }
+    }
+
+    // endregion
+
+    // region Internal
+
+    private fun decreaseDelay(delayMs: Long): Long {
+        return max(minDelayMs, delayMs * DECREASE_PERCENT / 100)
+    }
+
+    private fun increaseDelay(delayMs: Long): Long {
+        return min(maxDelayMs, delayMs * INCREASE_PERCENT / 100)
+    }
+
+    // endregion
+
+    companion object {
+        internal const val MIN_DELAY_FACTOR = 1
+        internal const val DEFAULT_DELAY_FACTOR = 5
+        internal const val MAX_DELAY_FACTOR = 10
+
+        const val DECREASE_PERCENT = 90
+        const val INCREASE_PERCENT = 110
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.data.upload
+
+import com.datadog.android.core.internal.net.info.NetworkInfoProvider
+import com.datadog.android.core.internal.persistence.Backlog
+import com.datadog.android.core.internal.system.SystemInfoProvider
+import com.datadog.android.core.internal.utils.scheduleSafe
+import com.datadog.android.core.model.NetworkInfo
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.ScheduledThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+/**
+ * A single upload timer shared by all the features: at each run, it drains the batches of every
+ * registered [Lane] back to back, by order of [UploadPriority], so that the radio wakes up once
+ * per run instead of once per feature, and the uploads reuse the same pooled connections.
+ */
+internal class MultiplexedUploadRunnable(
+    private val threadPoolExecutor: ScheduledThreadPoolExecutor,
+    private val networkInfoProvider: NetworkInfoProvider,
+    private val systemInfoProvider: SystemInfoProvider,
+    internal val schedulingStrategy: UploadSchedulingStrategy
+) : UploadRunnable {
+
+    // sorted by priority
+    internal val lanes = CopyOnWriteArrayList<Lane>()
+
+    internal var currentDelayIntervalMs = schedulingStrategy.initialDelayMs
+
+    // region Runnable
+
+    override fun run() {
+        val networkInfo = networkInfoProvider.getLatestNetworkInfo()
+        val systemInfo = systemInfoProvider.getLatestSystemInfo()
+        val cycle = if (DataUploadRunnable.canUpload(networkInfo, systemInfo)) {
+            uploadAllLanes(networkInfo)
+        } else {
+            UploadCycle(networkInfo)
+        }
+
+        currentDelayIntervalMs = schedulingStrategy.getNextDelayMs(currentDelayIntervalMs, cycle)
+        synchronized(lanes) {
+            if (lanes.isNotEmpty()) {
+                scheduleNextUpload()
+            }
+        }
+    }
+
+    // endregion
+
+    /**
+     * Adds a lane to drain at each run, and starts the timer if it's the first one.
+     */
+    fun registerLane(lane: Lane) {
+        synchronized(lanes) {
+            if (lane in lanes) return
+
+            val wasEmpty = lanes.isEmpty()
+            val index = lanes.indexOfFirst { it.priority > lane.priority }
+            if (index < 0) {
+                lanes.add(lane)
+            } else {
+                lanes.add(index, lane)
+            }
+            if (wasEmpty) {
+                scheduleNextUpload()
+            }
+        }
+    }
+
+    /**
+     * Removes a lane, and stops the timer if it was the last one.
+     */
+    fun unregisterLane(lane: Lane) {
+        synchronized(lanes) {
+            lanes.remove(lane)
+            if (lanes.isEmpty()) {
+                threadPoolExecutor.remove(this)
+            }
+        }
+    }
+
+    // region Internal
+
+    private fun scheduleNextUpload() {
+        threadPoolExecutor.remove(this)
+        threadPoolExecutor.scheduleSafe(
+            "Data upload",
+            currentDelayIntervalMs,
+            TimeUnit.MILLISECONDS,
+            this
+        )
+    }
+
+    /**
+     * Drains each lane in turn. A lane whose intake is backed off, or which has a batch to
+     * retry, doesn't prevent the next lanes from being drained.
+     *
+     * The uploads of a lane with a batch to retry are left out of the merged outcome: the
+     * failing intake is backed off on its own by the upload back-off controller, and it
+     * shouldn't slow down the shared timer of the healthy lanes.
+     * @return the merged outcome of all the lanes
+     */
+    private fun uploadAllLanes(networkInfo: NetworkInfo): UploadCycle {
+        var batchCount = 0
+        var byteCount = 0L
+        val results = mutableListOf<Boolean>()
+        var uploadedBytes = 0L
+        var uploadDurationNs = 0L
+        lanes.forEach { lane ->
+            val laneCycle = lane.runnable.uploadIfAllowed(networkInfo)
+            batchCount += laneCycle.backlog.batchCount
+            byteCount += laneCycle.backlog.byteCount
+            if (laneCycle.results.none { it }) {
+                results.addAll(laneCycle.results)
+                uploadedBytes += laneCycle.uploadedBytes
+                uploadDurationNs += laneCycle.uploadDurationNs
+            }
+        }
+        return UploadCycle(
+            networkInfo,
+            Backlog(batchCount, byteCount),
+            results,
+            uploadedBytes,
+            uploadDurationNs
+        )
+    }
+
+    // endregion
+
+    /**
+     * The batches of a single feature.
+     * @param name the name of the feature
+     * @param priority the priority of the feature's batches
+     * @param runnable the runnable reading and uploading the feature's batches (never scheduled
+     * on its own)
+     */
+    internal class Lane(
+        val name: String,
+        val priority: UploadPriority,
+        val runnable: DataUploadRunnable
+    )
+}
@@ -0,0 +1,25 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.data.upload
+
+/**
+ * Schedules the upload of a feature's batches as a lane of the shared
+ * [MultiplexedUploadRunnable], instead of on a timer of its own.
+ */
+internal class MultiplexedUploadScheduler(
+    internal val uploadRunnable: MultiplexedUploadRunnable,
+    internal val lane: MultiplexedUploadRunnable.Lane
+) : UploadScheduler {
+
+    override fun startScheduling() {
+        uploadRunnable.registerLane(lane)
+    }
+
+    override fun stopScheduling() {
+        uploadRunnable.unregisterLane(lane)
+    }
+}
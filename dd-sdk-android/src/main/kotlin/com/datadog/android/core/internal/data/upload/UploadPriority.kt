@@ -0,0 +1,18 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.data.upload
+
+/**
+ * The order in which the features' batches are uploaded when uploads are multiplexed (see
+ * [MultiplexedUploadRunnable]): the first values are uploaded first.
+ */
+internal enum class UploadPriority {
+    CRASH_REPORTS,
+    RUM,
+    LOGS,
+    TRACES
+}
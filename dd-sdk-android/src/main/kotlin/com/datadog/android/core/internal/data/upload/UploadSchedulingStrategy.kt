@@ -0,0 +1,92 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.data.upload
+
+import com.datadog.android.core.configuration.UploadFrequency
+import com.datadog.android.core.configuration.UploadSchedulingPolicy
+import com.datadog.android.core.internal.persistence.Backlog
+import com.datadog.android.core.model.NetworkInfo
+
+/**
+ * Decides how many batches the [DataUploadRunnable] uploads at each run, and how long it
+ * waits between two runs.
+ *
+ * Implementations are only called from the upload thread, and don't need to be thread safe.
+ */
+internal interface UploadSchedulingStrategy {
+
+    /** The delay before the first run, in milliseconds. */
+    val initialDelayMs: Long
+
+    /** The shortest delay between two runs, in milliseconds. */
+    val minDelayMs: Long
+
+    /** The longest delay between two runs, in milliseconds. */
+    val maxDelayMs: Long
+
+    /**
+     * Whether this strategy looks at the backlog. Computing the backlog requires listing the
+     * batch files, so it is left empty when this is false.
+     */
+    val requiresBacklog: Boolean
+
+    /**
+     * @param networkInfo the current network information
+     * @param backlog the data waiting to be uploaded (empty unless [requiresBacklog] is true)
+     * @return the maximum number of upload rounds to run back to back in the current run (at
+     * least 1). Each round uploads as many batches as allowed in parallel, and the run stops
+     * as soon as a batch needs to be retried or there's nothing left to upload.
+     */
+    fun getBurstSize(networkInfo: NetworkInfo, backlog: Backlog): Int
+
+    /**
+     * @param currentDelayMs the delay used before the current run, in milliseconds
+     * @param cycle the outcome of the current run
+     * @return the delay before the next run, in milliseconds
+     */
+    fun getNextDelayMs(currentDelayMs: Long, cycle: UploadCycle): Long
+
+    companion object {
+
+        /**
+         * @param policy the scheduling policy chosen in the configuration
+         * @param uploadFrequency the upload frequency chosen in the configuration
+         * @return a new strategy implementing the given policy
+         */
+        fun create(
+            policy: UploadSchedulingPolicy,
+            uploadFrequency: UploadFrequency
+        ): UploadSchedulingStrategy {
+            return when (policy) {
+                UploadSchedulingPolicy.FIXED -> FixedUploadSchedulingStrategy(uploadFrequency)
+                UploadSchedulingPolicy.ADAPTIVE -> AdaptiveUploadSchedulingStrategy(uploadFrequency)
+            }
+        }
+    }
+}
+
+/**
+ * The outcome of a single run of the [DataUploadRunnable].
+ *
+ * @param networkInfo the network information at the beginning of the run
+ * @param backlog the data waiting to be uploaded at the beginning of the run (empty if no
+ * upload was attempted, or if the strategy doesn't require it)
+ * @param results whether each batch uploaded during the run should be retried, in upload order
+ * (empty if nothing was uploaded)
+ * @param uploadedBytes the number of bytes sent during the run
+ * @param uploadDurationNs the time spent uploading, in nanoseconds
+ * @param backOffMs the remaining back-off of the intake when the uploads were skipped because of
+ * it, in milliseconds (0 otherwise)
+ */
+internal data class UploadCycle(
+    val networkInfo: NetworkInfo,
+    val backlog: Backlog = Backlog(),
+    val results: List<Boolean> = emptyList(),
+    val uploadedBytes: Long = 0L,
+    val uploadDurationNs: Long = 0L,
+    val backOffMs: Long = 0L
+)
@@ -10,11 +10,14 @@ import android.content.Context
 import androidx.work.Worker
 import androidx.work.WorkerParameters
 import com.datadog.android.Datadog
+import com.datadog.android.core.internal.CoreFeature
+import com.datadog.android.core.internal.SdkFeature
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.net.UploadStatus
 import com.datadog.android.core.internal.persistence.Batch
 import com.datadog.android.core.internal.persistence.DataReader
 import com.datadog.android.core.internal.utils.devLogger
+import com.datadog.android.core.internal.utils.scheduleUploadWorkerContinuation
 import com.datadog.android.core.internal.utils.sdkLogger
 import com.datadog.android.error.internal.CrashReportsFeature
 import com.datadog.android.log.internal.LogsFeature
@@ -22,6 +25,7 @@ import com.datadog.android.rum.internal.RumFeature
 import com.datadog.android.tracing.internal.TracingFeature
 import com.datadog.android.webview.internal.log.WebViewLogsFeature
 import com.datadog.android.webview.internal.rum.WebViewRumFeature
+import java.util.concurrent.TimeUnit
 
 internal class UploadWorker(
     appContext: Context,
@@ -36,52 +40,51 @@ internal class UploadWorker(
             return Result.success()
         }
 
-        // Upload Crash reports
-        uploadAllBatches(
-            CrashReportsFeature.persistenceStrategy.getReader(),
-            CrashReportsFeature.uploader
-        )
-
-        // Upload Logs
-        uploadAllBatches(
-            LogsFeature.persistenceStrategy.getReader(),
-            LogsFeature.uploader
-        )
-
-        // Upload Traces
-        uploadAllBatches(
-            TracingFeature.persistenceStrategy.getReader(),
-            TracingFeature.uploader
-        )
-
-        // Upload RUM
-        uploadAllBatches(
-            RumFeature.persistenceStrategy.getReader(),
-            RumFeature.uploader
-        )
-
-        // Upload WebView RUM
-        uploadAllBatches(
-            WebViewRumFeature.persistenceStrategy.getReader(),
-            WebViewRumFeature.uploader
-        )
-
-        // Upload WebView Logs
-        uploadAllBatches(
-            WebViewLogsFeature.persistenceStrategy.getReader(),
-            WebViewLogsFeature.uploader
+        val budget = UploadBudget(
+            TimeUnit.MILLISECONDS.toNanos(CoreFeature.backgroundUploadMaxDurationMs),
+            CoreFeature.backgroundUploadMaxBytes
         )
+        val features = getFeaturesToUpload(inputData.getString(KEY_NEXT_FEATURE))
+        features.forEach { feature ->
+            val completed = uploadAllBatches(
+                feature.persistenceStrategy.getReader(),
+                feature.uploader,
+                budget
+            )
+            if (!completed) {
+                if (!isStopped) {
+                    // the budget is exhausted, resume with the current feature in a later run
+                    scheduleUploadWorkerContinuation(applicationContext, feature.featureName)
+                }
+                return Result.success()
+            }
+        }
 
         return Result.success()
     }
 
+    /**
+     * Uploads the batches of a feature, until there are none left or the run has to stop.
+     * The uploaded batches are dropped, so a later run naturally resumes with the next batch.
+     * @return false if the run stopped before all the batches were read
+     */
     private fun uploadAllBatches(
         reader: DataReader,
-        uploader: DataUploader
-    ) {
+        uploader: DataUploader,
+        budget: UploadBudget
+    ): Boolean {
         val failedBatches = mutableListOf<Batch>()
-        var batch: Batch?
+        var completed = true
+        var batch: Batch? = null
         do {
+            if (isStopped || budget.isExhausted()) {
+                completed = false
+                break
+            }
+            if (uploader.requestUpload() > 0) {
+                // the intake is backed off, the remaining batches will be sent later
+                break
+            }
             batch = reader.lockAndReadNext()
             if (batch != null) {
                 if (consumeBatch(batch, uploader)) {
@@ -89,39 +92,90 @@ internal class UploadWorker(
                 } else {
                     failedBatches.add(batch)
                 }
+                budget.consume(batch.size)
             }
         } while (batch != null)
 
         failedBatches.forEach {
             reader.release(it)
         }
+        return completed
     }
 
     // endregion
 
     // region Internal
 
+    /**
+     * @return true if the batch can be dropped
+     */
     private fun consumeBatch(
         batch: Batch,
         uploader: DataUploader
     ): Boolean {
-        val status = uploader.upload(batch.data)
+        val status = uploader.upload(batch)
+        val byteSize = if (batch.isWritten) batch.size.toInt() else null
         status.logStatus(
             uploader.javaClass.simpleName,
-            batch.data.size,
+            byteSize,
             devLogger,
             ignoreInfo = false,
             sendToTelemetry = false
         )
         status.logStatus(
             uploader.javaClass.simpleName,
-            batch.data.size,
+            byteSize,
             sdkLogger,
             ignoreInfo = true,
             sendToTelemetry = true
         )
-        return status == UploadStatus.SUCCESS
+        // an unreadable batch would fail again on the next run
+        return status == UploadStatus.SUCCESS || status == UploadStatus.INVALID_BATCH_ERROR
+    }
+
+    /**
+     * Lists the features in upload order, starting with the given one when resuming
+     * a previous run.
+     */
+    private fun getFeaturesToUpload(nextFeatureName: String?): List<SdkFeature<*, *>> {
+        val features = listOf<SdkFeature<*, *>>(
+            CrashReportsFeature,
+            LogsFeature,
+            TracingFeature,
+            RumFeature,
+            WebViewRumFeature,
+            WebViewLogsFeature
+        )
+        val startIndex = features.indexOfFirst { it.featureName == nextFeatureName }
+        return if (startIndex > 0) {
+            features.subList(startIndex, features.size) + features.subList(0, startIndex)
+        } else {
+            features
+        }
     }
 
     // endregion
+
+    /**
+     * Limits the wall-clock duration and the amount of data of a single run.
+     */
+    private class UploadBudget(
+        private val maxDurationNs: Long,
+        private val maxBytes: Long
+    ) {
+        private val startNs = System.nanoTime()
+        private var uploadedBytes = 0L
+
+        fun consume(bytes: Long) {
+            uploadedBytes += bytes
+        }
+
+        fun isExhausted(): Boolean {
+            return uploadedBytes >= maxBytes || System.nanoTime() - startNs >= maxDurationNs
+        }
+    }
+
+    companion object {
+        internal const val KEY_NEXT_FEATURE = "_dd.upload.next_feature"
+    }
 }
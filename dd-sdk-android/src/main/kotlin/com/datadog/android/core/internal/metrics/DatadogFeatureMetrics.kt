@@ -0,0 +1,123 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.metrics
+
+import com.datadog.android.core.internal.net.UploadStatus
+import java.util.Locale
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * A [FeatureMetrics] keeping counters in memory. Recording a metric only updates an atomic
+ * counter, so it can be done on any thread, including on the hot path of the event pipeline.
+ */
+@Suppress("TooManyFunctions")
+internal class DatadogFeatureMetrics : FeatureMetrics {
+
+    private val eventsEnqueued = AtomicLong(0L)
+    private val eventsDropped = AtomicLong(0L)
+    private val eventsSerialized = AtomicLong(0L)
+    private val serializationTimeNs = AtomicLong(0L)
+    private val bytesWritten = AtomicLong(0L)
+    private val batchesCreated = AtomicLong(0L)
+    private val batchesDeleted = AtomicLong(0L)
+    private val batchesEvicted = AtomicLong(0L)
+    private val uploadStatuses = AtomicLongArray(UploadStatus.values().size)
+    private val uploadLatencies = AtomicLongArray(UPLOAD_LATENCY_BOUNDS_MS.size + 1)
+
+    // region FeatureMetrics
+
+    override fun onEventsEnqueued(count: Int) {
+        eventsEnqueued.addAndGet(count.toLong())
+    }
+
+    override fun onEventsDropped(count: Int) {
+        eventsDropped.addAndGet(count.toLong())
+    }
+
+    override fun onEventSerialized(durationNs: Long) {
+        eventsSerialized.incrementAndGet()
+        serializationTimeNs.addAndGet(durationNs)
+    }
+
+    override fun onBytesWritten(byteCount: Long) {
+        bytesWritten.addAndGet(byteCount)
+    }
+
+    override fun onBatchCreated() {
+        batchesCreated.incrementAndGet()
+    }
+
+    override fun onBatchDeleted() {
+        batchesDeleted.incrementAndGet()
+    }
+
+    override fun onBatchEvicted() {
+        batchesEvicted.incrementAndGet()
+    }
+
+    override fun onBatchUploaded(status: UploadStatus, latencyNs: Long) {
+        uploadStatuses.incrementAndGet(status.ordinal)
+        uploadLatencies.incrementAndGet(latencyBucket(latencyNs))
+    }
+
+    // endregion
+
+    /**
+     * @return the current value of each metric, by metric name
+     */
+    fun snapshot(): Map<String, Long> {
+        val snapshot = linkedMapOf(
+            METRIC_EVENTS_ENQUEUED to eventsEnqueued.get(),
+            METRIC_EVENTS_DROPPED to eventsDropped.get(),
+            METRIC_EVENTS_SERIALIZED to eventsSerialized.get(),
+            METRIC_SERIALIZATION_TIME_NS to serializationTimeNs.get(),
+            METRIC_BYTES_WRITTEN to bytesWritten.get(),
+            METRIC_BATCHES_CREATED to batchesCreated.get(),
+            METRIC_BATCHES_DELETED to batchesDeleted.get(),
+            METRIC_BATCHES_EVICTED to batchesEvicted.get()
+        )
+        UploadStatus.values().forEach {
+            snapshot[METRIC_UPLOAD_STATUS.format(Locale.US, it.name.lowercase(Locale.US))] =
+                uploadStatuses.get(it.ordinal)
+        }
+        UPLOAD_LATENCY_BOUNDS_MS.forEachIndexed { index, boundMs ->
+            snapshot[METRIC_UPLOAD_LATENCY_BUCKET.format(Locale.US, boundMs)] =
+                uploadLatencies.get(index)
+        }
+        snapshot[METRIC_UPLOAD_LATENCY_OVERFLOW] =
+            uploadLatencies.get(UPLOAD_LATENCY_BOUNDS_MS.size)
+        return snapshot
+    }
+
+    // region Internal
+
+    private fun latencyBucket(latencyNs: Long): Int {
+        val latencyMs = TimeUnit.NANOSECONDS.toMillis(latencyNs)
+        val index = UPLOAD_LATENCY_BOUNDS_MS.indexOfFirst { latencyMs <= it }
+        return if (index < 0) UPLOAD_LATENCY_BOUNDS_MS.size else index
+    }
+
+    // endregion
+
+    companion object {
+        internal val UPLOAD_LATENCY_BOUNDS_MS = longArrayOf(100, 250, 500, 1000, 2500, 5000, 10000)
+
+        internal const val METRIC_EVENTS_ENQUEUED = "events_enqueued"
+        internal const val METRIC_EVENTS_DROPPED = "events_dropped"
+        internal const val METRIC_EVENTS_SERIALIZED = "events_serialized"
+        internal const val METRIC_SERIALIZATION_TIME_NS = "serialization_time_ns"
+        internal const val METRIC_BYTES_WRITTEN = "bytes_written"
+        internal const val METRIC_BATCHES_CREATED = "batches_created"
+        internal const val METRIC_BATCHES_DELETED = "batches_deleted"
+        internal const val METRIC_BATCHES_EVICTED = "batches_evicted"
+        internal const val METRIC_UPLOAD_STATUS = "upload_status_%s"
+        internal const val METRIC_UPLOAD_LATENCY_BUCKET = "upload_latency_le_%dms"
+        internal const val METRIC_UPLOAD_LATENCY_OVERFLOW = "upload_latency_gt_10000ms"
+    }
+}
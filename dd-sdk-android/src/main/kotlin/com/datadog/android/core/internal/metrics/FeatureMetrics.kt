@@ -0,0 +1,63 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.metrics
+
+import com.datadog.android.core.internal.net.UploadStatus
+import com.datadog.tools.annotation.NoOpImplementation
+
+/**
+ * Collects the metrics of the event pipeline (persistence and upload) of a single feature.
+ */
+@NoOpImplementation
+internal interface FeatureMetrics {
+
+    /**
+     * Called when events are handed to the persistence pipeline.
+     * @param count the number of events
+     */
+    fun onEventsEnqueued(count: Int)
+
+    /**
+     * Called when events are dropped before reaching the disk (e.g.: full buffer).
+     * @param count the number of events
+     */
+    fun onEventsDropped(count: Int)
+
+    /**
+     * Called when an event was serialized.
+     * @param durationNs the time spent serializing the event, in nanoseconds
+     */
+    fun onEventSerialized(durationNs: Long)
+
+    /**
+     * Called when events were written in a batch file.
+     * @param byteCount the number of bytes written
+     */
+    fun onBytesWritten(byteCount: Long)
+
+    /**
+     * Called when a new batch file is created.
+     */
+    fun onBatchCreated()
+
+    /**
+     * Called when an obsolete batch file is deleted.
+     */
+    fun onBatchDeleted()
+
+    /**
+     * Called when a batch file is deleted to free some disk space, before being uploaded.
+     */
+    fun onBatchEvicted()
+
+    /**
+     * Called when a batch upload request completed.
+     * @param status the status of the upload
+     * @param latencyNs the duration of the upload request, in nanoseconds
+     */
+    fun onBatchUploaded(status: UploadStatus, latencyNs: Long)
+}
@@ -0,0 +1,56 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.metrics
+
+/**
+ * The registry of the event pipeline metrics of all the features.
+ */
+internal class PipelineMetrics {
+
+    private val featureMetrics = mutableMapOf<String, DatadogFeatureMetrics>()
+
+    /**
+     * @param featureName the name of the feature (e.g.: "logs", "rum")
+     * @return the metrics of the given feature
+     */
+    fun forFeature(featureName: String): FeatureMetrics {
+        return synchronized(featureMetrics) {
+            featureMetrics.getOrPut(featureName) { DatadogFeatureMetrics() }
+        }
+    }
+
+    /**
+     * @return the current value of each metric, by feature name and metric name
+     */
+    fun snapshot(): Map<String, Map<String, Long>> {
+        val metrics = synchronized(featureMetrics) { featureMetrics.toMap() }
+        return metrics.mapValues { it.value.snapshot() }
+    }
+
+    fun clear() {
+        synchronized(featureMetrics) { featureMetrics.clear() }
+    }
+
+    /**
+     * @return a summary of the non zero metrics of each feature, or null if all the metrics
+     * are zero
+     */
+    fun toTelemetryMessage(): String? {
+        val details = snapshot()
+            .mapValues { (_, metrics) -> metrics.filterValues { it != 0L } }
+            .filterValues { it.isNotEmpty() }
+        if (details.isEmpty()) return null
+
+        return TELEMETRY_MESSAGE_PREFIX + details.entries.joinToString("; ") { (feature, metrics) ->
+            "$feature=" + metrics.entries.joinToString(",") { "${it.key}:${it.value}" }
+        }
+    }
+
+    companion object {
+        internal const val TELEMETRY_MESSAGE_PREFIX = "Event pipeline metrics: "
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.metrics
+
+import com.datadog.android.core.internal.utils.scheduleSafe
+import com.datadog.android.telemetry.internal.Telemetry
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Periodically sends the [PipelineMetrics] as a debug telemetry event.
+ */
+internal class PipelineMetricsReporter(
+    private val pipelineMetrics: PipelineMetrics,
+    private val executorService: ScheduledExecutorService,
+    private val telemetry: Telemetry,
+    private val reportIntervalMs: Long = DEFAULT_REPORT_INTERVAL_MS
+) : Runnable {
+
+    override fun run() {
+        pipelineMetrics.toTelemetryMessage()?.let { telemetry.debug(it) }
+        schedule()
+    }
+
+    fun schedule() {
+        executorService.scheduleSafe(
+            "Pipeline metrics telemetry",
+            reportIntervalMs,
+            TimeUnit.MILLISECONDS,
+            this
+        )
+    }
+
+    companion object {
+        internal val DEFAULT_REPORT_INTERVAL_MS = TimeUnit.MINUTES.toMillis(15)
+    }
+}
@@ -6,12 +6,20 @@
 
 package com.datadog.android.core.internal.net
 
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
+import com.datadog.android.core.internal.persistence.Batch
+import com.datadog.android.core.internal.persistence.InvalidBatchException
 import com.datadog.android.core.internal.system.AndroidInfoProvider
 import com.datadog.android.core.internal.utils.devLogger
 import com.datadog.android.log.Logger
 import okhttp3.Call
+import okhttp3.HttpUrl
+import okhttp3.MediaType
 import okhttp3.Request
 import okhttp3.RequestBody
+import okio.BufferedSink
+import java.io.IOException
 import java.util.Locale
 import java.util.UUID
 
@@ -23,7 +31,9 @@ internal abstract class DataOkHttpUploaderV2(
     internal val callFactory: Call.Factory,
     internal val contentType: String,
     internal val androidInfoProvider: AndroidInfoProvider,
-    internal val internalLogger: Logger
+    internal val internalLogger: Logger,
+    internal val featureMetrics: FeatureMetrics = NoOpFeatureMetrics(),
+    internal val backOffController: UploadBackOffController = UploadBackOffController()
 ) : DataUploader {
 
     internal enum class TrackType(val trackName: String) {
@@ -38,6 +48,10 @@ internal abstract class DataOkHttpUploaderV2(
     internal val source: String = sanitizeHeaderValue(rawSource)
     internal val sdkVersion: String = sanitizeHeaderValue(rawSdkVersion)
 
+    // the back-off is shared by all the uploaders targeting the same host
+    private val intakeHost: String
+        get() = HttpUrl.parse(intakeUrl)?.host() ?: intakeUrl
+
     private val userAgent by lazy {
         sanitizeHeaderValue(System.getProperty(SYSTEM_UA))
             .ifBlank {
@@ -51,18 +65,27 @@ internal abstract class DataOkHttpUploaderV2(
     // region DataUploader
 
     @Suppress("TooGenericExceptionCaught")
-    override fun upload(data: ByteArray): UploadStatus {
+    override fun upload(batch: Batch): UploadStatus {
         val requestId = UUID.randomUUID().toString()
+        val startNs = System.nanoTime()
         val uploadStatus = try {
-            executeUploadRequest(data, requestId)
+            executeUploadRequest(batch, requestId)
+        } catch (e: InvalidBatchException) {
+            // the batch itself is unreadable, retrying it later won't help
+            internalLogger.e("Unable to read batch data.", e)
+            UploadStatus.INVALID_BATCH_ERROR
         } catch (e: Throwable) {
+            // network failures were already reported to the back-off controller
             internalLogger.e("Unable to upload batch data.", e)
             UploadStatus.NETWORK_ERROR
         }
+        featureMetrics.onBatchUploaded(uploadStatus, System.nanoTime() - startNs)
+
+        val byteSize = if (batch.isWritten) batch.size.toInt() else null
 
         uploadStatus.logStatus(
             uploaderName,
-            data.size,
+            byteSize,
             devLogger,
             ignoreInfo = false,
             sendToTelemetry = false,
@@ -70,7 +93,7 @@ internal abstract class DataOkHttpUploaderV2(
         )
         uploadStatus.logStatus(
             uploaderName,
-            data.size,
+            byteSize,
             internalLogger,
             ignoreInfo = true,
             sendToTelemetry = true,
@@ -80,32 +103,59 @@ internal abstract class DataOkHttpUploaderV2(
         return uploadStatus
     }
 
+    override fun requestUpload(): Long {
+        return backOffController.requestUpload(intakeHost)
+    }
+
     // endregion
 
     // region Internal
 
-    @Suppress("UnsafeThirdPartyFunctionCall") // Called within a try/catch block
+    @Suppress(
+        "UnsafeThirdPartyFunctionCall", // Called within a try/catch block
+        "ThrowingInternalException"
+    )
     private fun executeUploadRequest(
-        data: ByteArray,
+        batch: Batch,
         requestId: String
     ): UploadStatus {
         if (clientToken.isBlank()) {
             return UploadStatus.INVALID_TOKEN_ERROR
         }
-        val request = buildRequest(data, requestId)
+        val request = buildRequest(batch, requestId)
         val call = callFactory.newCall(request)
-        val response = call.execute()
+        val response = try {
+            call.execute()
+        } catch (e: InvalidBatchException) {
+            throw e
+        } catch (e: IOException) {
+            // only the network failures count for the back-off shared by all the features,
+            // a local failure (e.g.: reading the batch) says nothing about the intake
+            backOffController.onUploadResult(intakeHost, UploadStatus.NETWORK_ERROR, null)
+            throw e
+        }
         response.close()
-        return responseCodeToUploadStatus(response.code())
+        val uploadStatus = responseCodeToUploadStatus(response.code())
+        val retryAfterMs = UploadBackOffController.parseRetryAfterMs(
+            response.header(UploadBackOffController.HEADER_RETRY_AFTER),
+            response.header(UploadBackOffController.HEADER_RATE_LIMIT_REMAINING),
+            response.header(UploadBackOffController.HEADER_RATE_LIMIT_RESET),
+            System.currentTimeMillis()
+        )
+        backOffController.onUploadResult(intakeHost, uploadStatus, retryAfterMs)
+        return uploadStatus
     }
 
     @Suppress("UnsafeThirdPartyFunctionCall") // Called within a try/catch block
-    private fun buildRequest(data: ByteArray, requestId: String): Request {
+    private fun buildRequest(batch: Batch, requestId: String): Request {
         val builder = Request.Builder()
             .url(buildUrl())
-            .post(RequestBody.create(null, data))
+            .post(BatchRequestBody(batch))
 
         buildHeaders(builder, requestId)
+        if (batch.isCompressed) {
+            builder.addHeader(HEADER_CONTENT_ENCODING, CONTENT_ENCODING_GZIP)
+        }
 
         return builder.build()
     }
@@ -161,6 +211,29 @@ internal abstract class DataOkHttpUploaderV2(
 
     // endregion
 
+    /**
+     * A [RequestBody] streaming the batch content straight into the request sink, without
+     * loading the whole batch in memory.
+     */
+    internal class BatchRequestBody(
+        internal val batch: Batch
+    ) : RequestBody() {
+
+        override fun contentType(): MediaType? {
+            // the Content-Type header is set explicitly on the request
+            return null
+        }
+
+        override fun contentLength(): Long {
+            return -1 // We don't know the length before reading the batch content
+        }
+
+        @Throws(IOException::class)
+        override fun writeTo(sink: BufferedSink) {
+            batch.writeTo(sink)
+        }
+    }
+
     companion object {
 
         const val SYSTEM_UA = "http.agent"
@@ -183,12 +256,14 @@ internal abstract class DataOkHttpUploaderV2(
         internal const val HEADER_REQUEST_ID = "DD-REQUEST-ID"
         internal const val HEADER_CONTENT_TYPE = "Content-Type"
         internal const val HEADER_USER_AGENT = "User-Agent"
+        internal const val HEADER_CONTENT_ENCODING = "Content-Encoding"
 
         internal const val QUERY_PARAM_SOURCE = "ddsource"
         internal const val QUERY_PARAM_TAGS = "ddtags"
 
         internal const val CONTENT_TYPE_JSON = "application/json"
         internal const val CONTENT_TYPE_TEXT_UTF8 = "text/plain;charset=UTF-8"
+        internal const val CONTENT_ENCODING_GZIP = "gzip"
 
         private const val UPLOAD_URL = "%s/api/v2/%s"
 
@@ -6,10 +6,19 @@
 
 package com.datadog.android.core.internal.net
 
+import com.datadog.android.core.internal.persistence.Batch
 import com.datadog.tools.annotation.NoOpImplementation
 
 @NoOpImplementation
 internal interface DataUploader {
 
-    fun upload(data: ByteArray): UploadStatus
+    fun upload(batch: Batch): UploadStatus
+
+    /**
+     * Asks whether batches can be uploaded now, or if the intake is backed off (e.g.: because
+     * it is rate limiting or failing).
+     * @return 0 if batches can be uploaded now, or the time to wait before the next upload,
+     * in milliseconds
+     */
+    fun requestUpload(): Long
 }
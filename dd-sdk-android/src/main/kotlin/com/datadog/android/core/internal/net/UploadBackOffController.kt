@@ -0,0 +1,172 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.net
+
+import java.security.SecureRandom
+import java.text.ParseException
+import java.text.SimpleDateFormat
+import java.util.Locale
+import java.util.Random
+import java.util.TimeZone
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * Keeps track of the upload failures for each intake host, shared by all the features'
+ * uploaders, so that when a host is rate limiting or failing, none of the features upload to
+ * it until the back-off window is over.
+ *
+ * - each retryable failure backs off the host with a jittered exponential delay, extended to
+ * the server's `Retry-After` (or rate limit reset) when there is one;
+ * - after [CIRCUIT_BREAKER_THRESHOLD] consecutive failures, the circuit opens: the host is
+ * backed off for [MAX_BACK_OFF_MS], after which a single probe upload is let through. A
+ * successful upload closes the circuit, a failed one opens it again.
+ */
+internal class UploadBackOffController(
+    private val random: Random = SecureRandom(),
+    private val elapsedTimeMsProvider: () -> Long = {
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime())
+    }
+) {
+
+    private val hostStates = ConcurrentHashMap<String, HostState>()
+
+    /**
+     * Asks whether an upload to the given host can go ahead. When the circuit of the host is
+     * open and its back-off is over, only the first caller is allowed to upload (the probe),
+     * the others have to wait for the probe's result.
+     * @param host the intake host
+     * @return 0 if the upload can go ahead, or the remaining back-off in milliseconds
+     */
+    fun requestUpload(host: String): Long {
+        val state = hostStates[host] ?: return 0L
+        synchronized(state) {
+            val nowMs = elapsedTimeMsProvider()
+            val remainingMs = state.blockedUntilMs - nowMs
+            if (remainingMs > 0) {
+                return remainingMs
+            }
+            if (state.isCircuitOpen) {
+                state.blockedUntilMs = nowMs + PROBE_TIMEOUT_MS
+            }
+            return 0L
+        }
+    }
+
+    /**
+     * Updates the back-off of the given host with the result of an upload.
+     * @param host the intake host
+     * @param status the status of the upload
+     * @param retryAfterMs the delay requested by the server before the next upload, if any
+     */
+    fun onUploadResult(host: String, status: UploadStatus, retryAfterMs: Long?) {
+        if (status == UploadStatus.SUCCESS) {
+            hostStates.remove(host)
+            return
+        }
+        if (!status.shouldRetry) {
+            // the batch was rejected, the host itself is fine
+            return
+        }
+
+        val state = hostStates.getOrPut(host) { HostState() }
+        synchronized(state) {
+            state.consecutiveFailures++
+            val backOffMs = if (state.consecutiveFailures >= CIRCUIT_BREAKER_THRESHOLD) {
+                state.isCircuitOpen = true
+                MAX_BACK_OFF_MS
+            } else {
+                computeJitteredBackOffMs(state.consecutiveFailures)
+            }
+            val serverBackOffMs = retryAfterMs?.coerceIn(0L, MAX_RETRY_AFTER_MS) ?: 0L
+            state.blockedUntilMs = elapsedTimeMsProvider() + maxOf(backOffMs, serverBackOffMs)
+        }
+    }
+
+    fun clear() {
+        hostStates.clear()
+    }
+
+    // region Internal
+
+    /**
+     * Uses an "equal jitter": half of the exponential delay is kept, and the other half is
+     * random, so that the features (and the devices) don't all retry at the same time.
+     */
+    private fun computeJitteredBackOffMs(failures: Int): Long {
+        val exponent = (failures - 1).coerceIn(0, MAX_BACK_OFF_EXPONENT)
+        val backOffMs = (BASE_BACK_OFF_MS shl exponent).coerceAtMost(MAX_BACK_OFF_MS)
+        val halfBackOffMs = backOffMs / 2
+        return halfBackOffMs + (random.nextDouble() * halfBackOffMs).toLong()
+    }
+
+    // endregion
+
+    private class HostState {
+        var consecutiveFailures: Int = 0
+        var blockedUntilMs: Long = 0L
+        var isCircuitOpen: Boolean = false
+    }
+
+    companion object {
+        internal const val BASE_BACK_OFF_MS = 5_000L
+        internal const val MAX_BACK_OFF_MS = 300_000L
+        internal const val MAX_RETRY_AFTER_MS = 3_600_000L
+        internal const val PROBE_TIMEOUT_MS = 30_000L
+        internal const val CIRCUIT_BREAKER_THRESHOLD = 5
+        private const val MAX_BACK_OFF_EXPONENT = 16
+
+        internal const val HEADER_RETRY_AFTER = "Retry-After"
+        internal const val HEADER_RATE_LIMIT_REMAINING = "X-RateLimit-Remaining"
+        internal const val HEADER_RATE_LIMIT_RESET = "X-RateLimit-Reset"
+
+        private const val HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz"
+
+        /**
+         * Reads the delay requested by the server, either from the `Retry-After` header
+         * (as a number of seconds or as an HTTP date), or from the rate limit headers when the
+         * quota is exhausted.
+         * @param retryAfter the value of the `Retry-After` header
+         * @param rateLimitRemaining the value of the `X-RateLimit-Remaining` header
+         * @param rateLimitReset the value of the `X-RateLimit-Reset` header (in seconds)
+         * @param currentTimeMs the current wall clock time, used to read HTTP dates
+         * @return the requested delay in milliseconds, or null if there is none
+         */
+        internal fun parseRetryAfterMs(
+            retryAfter: String?,
+            rateLimitRemaining: String?,
+            rateLimitReset: String?,
+            currentTimeMs: Long
+        ): Long? {
+            val retryAfterValue = retryAfter?.trim()
+            if (!retryAfterValue.isNullOrEmpty()) {
+                val seconds = retryAfterValue.toLongOrNull()
+                return if (seconds != null) {
+                    TimeUnit.SECONDS.toMillis(seconds.coerceAtLeast(0L))
+                } else {
+                    parseHttpDate(retryAfterValue)?.let { (it - currentTimeMs).coerceAtLeast(0L) }
+                }
+            }
+
+            if (rateLimitRemaining?.trim()?.toLongOrNull() == 0L) {
+                val resetSeconds = rateLimitReset?.trim()?.toLongOrNull() ?: return null
+                return TimeUnit.SECONDS.toMillis(resetSeconds.coerceAtLeast(0L))
+            }
+            return null
+        }
+
+        private fun parseHttpDate(value: String): Long? {
+            val dateFormat = SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US)
+            dateFormat.timeZone = TimeZone.getTimeZone("GMT")
+            return try {
+                dateFormat.parse(value)?.time
+            } catch (e: ParseException) {
+                null
+            }
+        }
+    }
+}
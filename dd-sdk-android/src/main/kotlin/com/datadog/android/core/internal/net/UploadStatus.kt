@@ -18,20 +18,25 @@ internal enum class UploadStatus(val shouldRetry: Boolean) {
     HTTP_CLIENT_ERROR(shouldRetry = false),
     HTTP_SERVER_ERROR(shouldRetry = true),
     HTTP_CLIENT_RATE_LIMITING(shouldRetry = true),
+    INVALID_BATCH_ERROR(shouldRetry = false),
     UNKNOWN_ERROR(shouldRetry = false);
 
+    /**
+     * @param byteSize the size of the batch, or null if its content was never fully read
+     */
     fun logStatus(
         context: String,
-        byteSize: Int,
+        byteSize: Int?,
         logger: Logger,
         ignoreInfo: Boolean,
         sendToTelemetry: Boolean,
         requestId: String? = null
     ) {
+        val sizeInfo = if (byteSize == null) "" else " [$byteSize bytes]"
         val batchInfo = if (requestId == null) {
-            "Batch [$byteSize bytes] ($context)"
+            "Batch$sizeInfo ($context)"
         } else {
-            "Batch $requestId [$byteSize bytes] ($context)"
+            "Batch $requestId$sizeInfo ($context)"
         }
         when (this) {
             NETWORK_ERROR -> logger.e(
@@ -67,6 +72,15 @@ internal enum class UploadStatus(val shouldRetry: Boolean) {
             HTTP_SERVER_ERROR -> logger.e(
                 "$batchInfo failed because of a server processing error; we will retry later."
             )
+            INVALID_BATCH_ERROR -> {
+                val message = "$batchInfo failed because its content couldn't be read; " +
+                    "the batch was dropped."
+                if (sendToTelemetry) {
+                    logger.errorWithTelemetry(message)
+                } else {
+                    logger.e(message)
+                }
+            }
             UNKNOWN_ERROR -> logger.e(
                 "$batchInfo failed because of an unknown error; the batch was dropped."
             )
@@ -7,12 +7,13 @@
 package com.datadog.android.core.internal.net.info
 
 import com.datadog.android.core.internal.persistence.Serializer
+import com.datadog.android.core.internal.utils.buildJsonString
 import com.datadog.android.core.model.NetworkInfo
 
 internal class NetworkInfoSerializer :
     Serializer<NetworkInfo> {
 
     override fun serialize(model: NetworkInfo): String {
-        return model.toJson().asJsonObject.toString()
+        return buildJsonString { model.writeTo(it) }
     }
 }
@@ -0,0 +1,18 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence
+
+/**
+ * Describes the data persisted and waiting to be uploaded.
+ *
+ * @param batchCount the number of batches waiting to be uploaded
+ * @param byteCount the total size in bytes of those batches
+ */
+internal data class Backlog(
+    val batchCount: Int = 0,
+    val byteCount: Long = 0L
+)
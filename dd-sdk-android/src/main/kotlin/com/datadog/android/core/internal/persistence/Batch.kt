@@ -6,10 +6,70 @@
 
 package com.datadog.android.core.internal.persistence
 
+import okio.BufferedSink
+import java.io.IOException
+
 /**
  * Represent a batch of logs read from a persisted location.
+ *
+ * The content of the batch is not held in memory, it is only read from the persisted location
+ * when written to a [BufferedSink] (e.g.: the body of an upload request).
+ *
+ * @param id the unique identifier of this batch
+ * @param isCompressed whether the content of this batch is already gzip compressed
+ * @param contentWriter writes the content of this batch to the given sink, and returns
+ * the number of bytes written
  */
-internal data class Batch(
+internal class Batch(
     val id: String,
-    val data: ByteArray
-)
+    val isCompressed: Boolean = false,
+    private val contentWriter: (BufferedSink) -> Long
+) {
+
+    /**
+     * The size in bytes of the content of this batch, as of the last call to [writeTo].
+     */
+    @Volatile
+    var size: Long = 0L
+        private set
+
+    /**
+     * Whether the content of this batch was fully written at least once. When it wasn't (e.g.:
+     * the upload failed while the content was being read), [size] is meaningless.
+     */
+    @Volatile
+    var isWritten: Boolean = false
+        private set
+
+    /**
+     * Writes the content of this batch to the given sink.
+     * @param sink the sink to write to
+     * @return the number of bytes written
+     * @throws InvalidBatchException if the persisted content of the batch can't be read
+     * @throws IOException if the sink can't be written to
+     */
+    @Throws(IOException::class)
+    fun writeTo(sink: BufferedSink): Long {
+        val bytesWritten = contentWriter(sink)
+        size = bytesWritten
+        isWritten = true
+        return bytesWritten
+    }
+
+    override fun toString(): String {
+        return "Batch(id=$id, isCompressed=$isCompressed)"
+    }
+
+    companion object {
+
+        /**
+         * Creates a [Batch] with a content already loaded in memory.
+         */
+        fun fromBytes(id: String, data: ByteArray): Batch {
+            return Batch(id) { sink ->
+                sink.write(data)
+                data.size.toLong()
+            }
+        }
+    }
+}
@@ -33,4 +33,9 @@ internal interface DataReader {
      * Drop all available data.
      */
     fun dropAll()
+
+    /**
+     * @return a description of the data waiting to be read
+     */
+    fun getBacklog(): Backlog
 }
@@ -0,0 +1,49 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence
+
+import com.datadog.android.core.internal.PreInitQueue
+
+/**
+ * A [DataWriter] used while the SDK is initialized on a background thread: the actual writer
+ * is only resolved once the SDK is ready, and the data written until then is kept in the
+ * [PreInitQueue].
+ */
+internal class DeferredDataWriter<T : Any>(
+    private val preInitQueue: PreInitQueue,
+    writerFactory: () -> DataWriter<T>
+) : DataWriter<T> {
+
+    @Volatile
+    internal var delegate: DataWriter<T> = NoOpDataWriter()
+        private set
+
+    init {
+        preInitQueue.runWhenReady { delegate = writerFactory() }
+    }
+
+    // region DataWriter
+
+    override fun write(element: T) {
+        if (preInitQueue.isReady()) {
+            delegate.write(element)
+        } else {
+            preInitQueue.runWhenReady { delegate.write(element) }
+        }
+    }
+
+    override fun write(data: List<T>) {
+        if (preInitQueue.isReady()) {
+            delegate.write(data)
+        } else {
+            val dataCopy = data.toList()
+            preInitQueue.runWhenReady { delegate.write(dataCopy) }
+        }
+    }
+
+    // endregion
+}
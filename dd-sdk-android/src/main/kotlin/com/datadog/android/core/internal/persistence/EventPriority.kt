@@ -0,0 +1,20 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence
+
+/**
+ * The priority of a persisted event. Events of each priority are written in separate batch
+ * files: the high priority batches are uploaded first, and evicted last when the disk space
+ * allocated to a feature is exhausted.
+ */
+internal enum class EventPriority {
+    /** Events that must not be lost (e.g.: crashes and errors). */
+    HIGH,
+
+    /** Any other event. */
+    NORMAL
+}
@@ -0,0 +1,16 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence
+
+import java.io.IOException
+
+/**
+ * Thrown while writing a [Batch] when its persisted content can't be read or is corrupted.
+ * Unlike any other [IOException] thrown while uploading a batch, retrying won't help: such a
+ * batch has to be dropped.
+ */
+internal class InvalidBatchException(message: String) : IOException(message)
@@ -21,4 +21,9 @@ internal interface PersistenceStrategy<T : Any> {
     fun getReader(): DataReader
 
     fun getFlusher(): Flusher
+
+    /**
+     * Releases the resources kept open by this strategy (e.g. an open batch file channel).
+     */
+    fun close()
 }
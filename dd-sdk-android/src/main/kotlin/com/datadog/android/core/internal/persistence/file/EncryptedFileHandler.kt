@@ -34,6 +34,27 @@ internal class EncryptedFileHandler(
         )
     }
 
+    override fun writeAllData(
+        file: File,
+        data: List<ByteArray>,
+        append: Boolean
+    ): Boolean {
+        val encryptedData = data.map {
+            val encryptedEvent = encryption.encrypt(it)
+            if (it.isNotEmpty() && encryptedEvent.isEmpty()) {
+                devLogger.e(BAD_ENCRYPTION_RESULT_MESSAGE)
+                return false
+            }
+            encryptedEvent
+        }
+
+        return delegate.writeAllData(
+            file,
+            encryptedData,
+            append
+        )
+    }
+
     override fun readData(
         file: File
     ): List<ByteArray> {
@@ -43,6 +64,15 @@ internal class EncryptedFileHandler(
             }
     }
 
+    override fun streamData(
+        file: File,
+        consumer: (ByteArray) -> Unit
+    ): Boolean {
+        return delegate.streamData(file) {
+            consumer(encryption.decrypt(it))
+        }
+    }
+
     companion object {
         internal const val BAD_ENCRYPTION_RESULT_MESSAGE = "Encryption of non-empty data produced" +
             " empty result, aborting write operation."
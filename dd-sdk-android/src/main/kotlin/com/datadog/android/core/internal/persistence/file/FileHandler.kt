@@ -26,6 +26,19 @@ internal interface FileHandler {
         append: Boolean
     ): Boolean
 
+    /**
+     * Writes several events as [ByteArray] into a file, in a single operation.
+     * @param file the file to write to
+     * @param data the events to write, in order
+     * @param append whether to append data at the end of the file or overwrite
+     * @return whether the write operation was successful (for all the events)
+     */
+    fun writeAllData(
+        file: File,
+        data: List<ByteArray>,
+        append: Boolean
+    ): Boolean
+
     /**
      * Reads data from the given file.
      *  @param file the file to read from
@@ -35,6 +48,18 @@ internal interface FileHandler {
         file: File
     ): List<ByteArray>
 
+    /**
+     * Reads data from the given file, one event at a time, so that the whole file content
+     * doesn't need to be loaded in memory.
+     *  @param file the file to read from
+     *  @param consumer called with each event stored in the file, in order
+     *  @return whether the file could be read
+     */
+    fun streamData(
+        file: File,
+        consumer: (ByteArray) -> Unit
+    ): Boolean
+
     /**
      * Deletes the file or directory (recursively if needed).
      * @param target the target [File] to delete
@@ -46,4 +71,10 @@ internal interface FileHandler {
      * Move the children files from `srcDir` to the `destDir`.
      */
     fun moveFiles(srcDir: File, destDir: File): Boolean
+
+    /**
+     * Releases the resources kept open between operations, if any.
+     * The handler can still be used afterwards.
+     */
+    fun close()
 }
@@ -0,0 +1,72 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file
+
+import com.datadog.android.core.internal.persistence.InvalidBatchException
+import com.datadog.android.core.internal.persistence.PayloadDecoration
+import okio.BufferedSink
+import java.io.File
+import java.io.IOException
+import java.util.Locale
+
+internal const val ERROR_STREAM_FILE = "Unable to read data from file: %s"
+
+/**
+ * Writes the events stored in the given file to the sink, decorated with the given
+ * [PayloadDecoration]. Events are read and written one at a time, so that at most one event
+ * is held in memory.
+ * @param file the file to read the events from
+ * @param decoration the decoration to write around and between the events
+ * @param sink the sink to write to
+ * @return the number of bytes written
+ * @throws InvalidBatchException if the file can't be read
+ * @throws IOException if the sink can't be written to
+ */
+@Throws(IOException::class)
+@Suppress(
+    "UnsafeThirdPartyFunctionCall", // write to is expected to throw IOExceptions
+    "ThrowingInternalException"
+)
+internal fun FileHandler.writeDecoratedData(
+    file: File,
+    decoration: PayloadDecoration,
+    sink: BufferedSink
+): Long {
+    var bytesWritten = 0L
+    var isFirstEvent = true
+    var writeError: IOException? = null
+
+    sink.write(decoration.prefixBytes)
+    bytesWritten += decoration.prefixBytes.size
+
+    val isRead = streamData(file) { event ->
+        // once the sink failed, skip the remaining events
+        if (writeError == null) {
+            try {
+                if (!isFirstEvent) {
+                    sink.write(decoration.separatorBytes)
+                    bytesWritten += decoration.separatorBytes.size
+                }
+                sink.write(event)
+                bytesWritten += event.size
+                isFirstEvent = false
+            } catch (e: IOException) {
+                writeError = e
+            }
+        }
+    }
+
+    writeError?.let { throw it }
+    if (!isRead) {
+        throw InvalidBatchException(ERROR_STREAM_FILE.format(Locale.US, file.path))
+    }
+
+    sink.write(decoration.suffixBytes)
+    bytesWritten += decoration.suffixBytes.size
+
+    return bytesWritten
+}
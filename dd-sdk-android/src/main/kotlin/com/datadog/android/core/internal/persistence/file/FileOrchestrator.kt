@@ -6,6 +6,7 @@
 
 package com.datadog.android.core.internal.persistence.file
 
+import com.datadog.android.core.internal.persistence.EventPriority
 import com.datadog.tools.annotation.NoOpImplementation
 import java.io.File
 
@@ -26,9 +27,40 @@ internal interface FileOrchestrator {
      */
     fun getWritableFile(dataSize: Int): File?
 
+    /**
+     * Same as [getWritableFile], for data with the given priority: data of each priority is
+     * written in separate files.
+     * @param dataSize the size of the data to write (in bytes)
+     * @param priority the priority of the data to write
+     * @return a File with enough space to write `dataSize` bytes, or null if no space is available
+     * or the disk can't be written to.
+     */
+    fun getWritableFile(dataSize: Int, priority: EventPriority): File?
+
+    /**
+     * Finds a file to write several items at once, rotating to a new file only when the next
+     * item doesn't fit in the current one.
+     * @param dataSizes the size of each item to write (in bytes), in order
+     * @return a File along with the number of leading items it has room for (at least 1), or
+     * null if the first item can't be written (no space is available or the disk can't be
+     * written to).
+     */
+    fun getWritableFileForItems(dataSizes: List<Int>): Pair<File, Int>?
+
+    /**
+     * Same as [getWritableFileForItems], for items with the given priority: data of each
+     * priority is written in separate files.
+     * @param dataSizes the size of each item to write (in bytes), in order
+     * @param priority the priority of the items to write
+     * @return a File along with the number of leading items it has room for (at least 1), or
+     * null if the first item can't be written.
+     */
+    fun getWritableFileForItems(dataSizes: List<Int>, priority: EventPriority): Pair<File, Int>?
+
     /**
      * @param excludeFiles a set of files to exclude from the readable files
-     * @return a File that can be read from, or null is no file is available yet.
+     * @return a File that can be read from (files with a higher priority first), or null is no
+     * file is available yet.
      */
     fun getReadableFile(excludeFiles: Set<File>): File?
 
@@ -0,0 +1,108 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.advanced
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * A bounded lock-free queue backed by a ring buffer (based on Dmitry Vyukov's bounded MPMC
+ * queue).
+ *
+ * Each slot holds a sequence number telling whether it is ready to be written or read for a given
+ * lap of the ring, so that producers and consumers only contend on a single CAS and never
+ * allocate. Any thread can [offer] and [poll] safely, which lets producers evict the oldest
+ * element when the buffer is full.
+ *
+ * @param requestedCapacity the minimum capacity, rounded up to the next power of two
+ */
+internal class BoundedRingBuffer<T : Any>(requestedCapacity: Int) {
+
+    internal val capacity: Int = roundToPowerOfTwo(requestedCapacity)
+
+    private val mask = capacity - 1L
+
+    @Suppress("UnsafeThirdPartyFunctionCall") // capacity is > 0
+    private val elements = AtomicReferenceArray<T?>(capacity)
+
+    @Suppress("UnsafeThirdPartyFunctionCall") // capacity is > 0
+    private val sequences = AtomicLongArray(capacity).apply {
+        for (i in 0 until capacity) {
+            set(i, i.toLong())
+        }
+    }
+
+    private val tail = AtomicLong(0L)
+    private val head = AtomicLong(0L)
+
+    /**
+     * @param element the element to add
+     * @return true if the element was added, false if the buffer is full
+     */
+    fun offer(element: T): Boolean {
+        var position = tail.get()
+        while (true) {
+            val index = (position and mask).toInt()
+            val difference = sequences.get(index) - position
+            if (difference == 0L) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element)
+                    sequences.lazySet(index, position + 1)
+                    return true
+                }
+                position = tail.get()
+            } else if (difference < 0L) {
+                return false
+            } else {
+                position = tail.get()
+            }
+        }
+    }
+
+    /**
+     * @return the oldest element, or null if the buffer is empty
+     */
+    fun poll(): T? {
+        var position = head.get()
+        while (true) {
+            val index = (position and mask).toInt()
+            val difference = sequences.get(index) - (position + 1)
+            if (difference == 0L) {
+                if (head.compareAndSet(position, position + 1)) {
+                    val element = elements.get(index)
+                    elements.lazySet(index, null)
+                    sequences.lazySet(index, position + capacity)
+                    return element
+                }
+                position = head.get()
+            } else if (difference < 0L) {
+                return null
+            } else {
+                position = head.get()
+            }
+        }
+    }
+
+    /**
+     * @return true if the buffer holds no element (the result can be stale as soon as it is
+     * returned when other threads are offering elements)
+     */
+    fun isEmpty(): Boolean {
+        return head.get() >= tail.get()
+    }
+
+    companion object {
+        internal const val MAX_CAPACITY = 1 shl 30
+
+        private fun roundToPowerOfTwo(value: Int): Int {
+            val bounded = value.coerceIn(1, MAX_CAPACITY)
+            val highestBit = Integer.highestOneBit(bounded)
+            return if (highestBit == bounded) bounded else highestBit shl 1
+        }
+    }
+}
@@ -12,10 +12,16 @@ import com.datadog.android.log.Logger
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.RejectedExecutionException
 
+/**
+ * A [DataMigrator] moving the batch files from the files directory to the cache directory.
+ * @param durationListener notified with the time spent running each migration operation, in
+ * nanoseconds
+ */
 internal class CacheFileMigrator(
     private val fileHandler: FileHandler,
     private val executorService: ExecutorService,
-    private val internalLogger: Logger
+    private val internalLogger: Logger,
+    internal val durationListener: ((Long) -> Unit)? = null
 ) : DataMigrator<Boolean> {
 
     // region DataMigrator
@@ -35,9 +41,15 @@ internal class CacheFileMigrator(
             sourceDir,
             cacheDir,
             fileHandler,
-            internalLogger
+            internalLogger,
+            durationListener
+        )
+        val deleteOperation = WipeDataMigrationOperation(
+            sourceDir,
+            fileHandler,
+            internalLogger,
+            durationListener
         )
-        val deleteOperation = WipeDataMigrationOperation(sourceDir, fileHandler, internalLogger)
 
         try {
             @Suppress("UnsafeThirdPartyFunctionCall") // NPE cannot happen here
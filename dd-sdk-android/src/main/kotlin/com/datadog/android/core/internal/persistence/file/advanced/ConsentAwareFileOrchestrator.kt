@@ -6,6 +6,7 @@
 
 package com.datadog.android.core.internal.persistence.file.advanced
 
+import com.datadog.android.core.internal.persistence.EventPriority
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
 import com.datadog.android.core.internal.persistence.file.NoOpFileOrchestrator
 import com.datadog.android.core.internal.privacy.ConsentProvider
@@ -34,6 +35,21 @@ internal open class ConsentAwareFileOrchestrator(
         return delegateOrchestrator.getWritableFile(dataSize)
     }
 
+    override fun getWritableFile(dataSize: Int, priority: EventPriority): File? {
+        return delegateOrchestrator.getWritableFile(dataSize, priority)
+    }
+
+    override fun getWritableFileForItems(dataSizes: List<Int>): Pair<File, Int>? {
+        return delegateOrchestrator.getWritableFileForItems(dataSizes)
+    }
+
+    override fun getWritableFileForItems(
+        dataSizes: List<Int>,
+        priority: EventPriority
+    ): Pair<File, Int>? {
+        return delegateOrchestrator.getWritableFileForItems(dataSizes, priority)
+    }
+
     override fun getReadableFile(excludeFiles: Set<File>): File? {
         return grantedOrchestrator.getReadableFile(excludeFiles)
     }
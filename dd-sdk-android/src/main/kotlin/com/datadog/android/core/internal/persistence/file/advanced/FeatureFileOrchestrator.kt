@@ -7,6 +7,8 @@
 package com.datadog.android.core.internal.persistence.file.advanced
 
 import android.content.Context
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
 import com.datadog.android.core.internal.persistence.file.FilePersistenceConfig
 import com.datadog.android.core.internal.persistence.file.batch.BatchFileHandler
@@ -35,18 +37,21 @@ internal class FeatureFileOrchestrator(
         context: Context,
         featureName: String,
         executorService: ExecutorService,
-        internalLogger: Logger
+        internalLogger: Logger,
+        featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
     ) : this(
         consentProvider,
         BatchFileOrchestrator(
             File(context.cacheDir, PENDING_DIR.format(Locale.US, featureName)),
             PERSISTENCE_CONFIG,
-            internalLogger
+            internalLogger,
+            featureMetrics
         ),
         BatchFileOrchestrator(
             File(context.cacheDir, GRANTED_DIR.format(Locale.US, featureName)),
             PERSISTENCE_CONFIG,
-            internalLogger
+            internalLogger,
+            featureMetrics
         ),
         ConsentAwareFileMigrator(
             BatchFileHandler(internalLogger),
@@ -15,15 +15,26 @@ import java.util.concurrent.TimeUnit
 /**
  * A [DataMigrationOperation] that moves all the files in the `fromDir` directory
  * to the `toDir` directory.
+ * @param durationListener notified with the time spent running the operation, in nanoseconds
  */
 internal class MoveDataMigrationOperation(
     internal val fromDir: File?,
     internal val toDir: File?,
     internal val fileHandler: FileHandler,
-    internal val internalLogger: Logger
+    internal val internalLogger: Logger,
+    internal val durationListener: ((Long) -> Unit)? = null
 ) : DataMigrationOperation {
 
     override fun run() {
+        val startNs = System.nanoTime()
+        try {
+            moveFiles()
+        } finally {
+            durationListener?.invoke(System.nanoTime() - startNs)
+        }
+    }
+
+    private fun moveFiles() {
         if (fromDir == null) {
             internalLogger.w(WARN_NULL_SOURCE_DIR)
         } else if (toDir == null) {
@@ -0,0 +1,200 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.advanced
+
+import com.datadog.android.core.configuration.BufferOverflowPolicy
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
+import com.datadog.android.core.internal.persistence.DataWriter
+import com.datadog.android.log.Logger
+import java.util.Locale
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.LockSupport
+
+/**
+ * A [DataWriter] publishing the elements in a [BoundedRingBuffer], drained in batches into the
+ * delegate writer on the given [ExecutorService].
+ *
+ * Writing an element doesn't allocate nor take any lock on the calling thread: a single drain
+ * task is scheduled when the buffer goes from empty to non empty, and it writes everything
+ * published until the buffer is empty again. When the buffer is full, the given
+ * [BufferOverflowPolicy] decides which element is dropped, and the drops are counted.
+ */
+internal class RingBufferWriter<T : Any>(
+    internal val delegateWriter: DataWriter<T>,
+    internal val executorService: ExecutorService,
+    private val internalLogger: Logger,
+    internal val overflowPolicy: BufferOverflowPolicy,
+    capacity: Int = DEFAULT_CAPACITY,
+    internal val featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
+) : DataWriter<T> {
+
+    internal val buffer = BoundedRingBuffer<T>(capacity)
+
+    private val drainScheduled = AtomicBoolean(false)
+    private val drainTask = Runnable { drain() }
+
+    private val droppedCount = AtomicLong(0L)
+    private var reportedDroppedCount = 0L
+
+    /** The total number of elements dropped because the buffer was full. */
+    internal val droppedElements: Long
+        get() = droppedCount.get()
+
+    // region DataWriter
+
+    override fun write(element: T) {
+        featureMetrics.onEventsEnqueued(1)
+        if (publish(element)) {
+            scheduleDrain()
+        }
+    }
+
+    override fun write(data: List<T>) {
+        featureMetrics.onEventsEnqueued(data.size)
+        var published = false
+        data.forEach {
+            published = publish(it) || published
+        }
+        if (published) {
+            scheduleDrain()
+        }
+    }
+
+    // endregion
+
+    // region Internal
+
+    private fun publish(element: T): Boolean {
+        if (buffer.offer(element)) {
+            return true
+        }
+
+        return when (overflowPolicy) {
+            BufferOverflowPolicy.DROP_NEWEST -> {
+                onElementDropped()
+                false
+            }
+            BufferOverflowPolicy.DROP_OLDEST -> publishDroppingOldest(element)
+            BufferOverflowPolicy.BLOCK -> publishBlocking(element)
+        }
+    }
+
+    private fun publishDroppingOldest(element: T): Boolean {
+        do {
+            if (buffer.poll() != null) {
+                onElementDropped()
+            }
+        } while (!buffer.offer(element))
+        return true
+    }
+
+    private fun publishBlocking(element: T): Boolean {
+        val deadlineNs = System.nanoTime() + MAX_BLOCKING_DURATION_NS
+        // make sure the buffer is being drained while we wait
+        scheduleDrain()
+        do {
+            LockSupport.parkNanos(BLOCKING_PARK_DURATION_NS)
+            if (buffer.offer(element)) {
+                return true
+            }
+        } while (System.nanoTime() < deadlineNs)
+
+        onElementDropped()
+        return false
+    }
+
+    private fun onElementDropped() {
+        droppedCount.incrementAndGet()
+        featureMetrics.onEventsDropped(1)
+    }
+
+    private fun scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                @Suppress("UnsafeThirdPartyFunctionCall") // NPE cannot happen here
+                executorService.execute(drainTask)
+            } catch (e: RejectedExecutionException) {
+                drainScheduled.set(false)
+                internalLogger.e(ScheduledWriter.ERROR_REJECTED, e)
+            }
+        }
+    }
+
+    private fun drain() {
+        try {
+            drainBuffer()
+            reportDroppedElements()
+        } finally {
+            drainScheduled.set(false)
+            // an element might have been published after the last poll while the drain was
+            // still marked as scheduled, or the drain might have been interrupted by an error
+            if (!buffer.isEmpty()) {
+                scheduleDrain()
+            }
+        }
+    }
+
+    private fun drainBuffer() {
+        var batch = ArrayList<T>(DRAIN_BATCH_SIZE)
+        var element = buffer.poll()
+        while (element != null) {
+            batch.add(element)
+            if (batch.size >= DRAIN_BATCH_SIZE) {
+                writeBatch(batch)
+                batch = ArrayList(DRAIN_BATCH_SIZE)
+            }
+            element = buffer.poll()
+        }
+        if (batch.isNotEmpty()) {
+            writeBatch(batch)
+        }
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun writeBatch(batch: List<T>) {
+        try {
+            delegateWriter.write(batch)
+        } catch (e: Exception) {
+            featureMetrics.onEventsDropped(batch.size)
+            internalLogger.e(ERROR_WRITE_FAILED.format(Locale.US, batch.size), e)
+        }
+    }
+
+    private fun reportDroppedElements() {
+        val dropped = droppedCount.get()
+        if (dropped > reportedDroppedCount) {
+            internalLogger.w(
+                WARNING_DROPPED_ELEMENTS.format(
+                    Locale.US,
+                    dropped - reportedDroppedCount,
+                    overflowPolicy
+                )
+            )
+            reportedDroppedCount = dropped
+        }
+    }
+
+    // endregion
+
+    companion object {
+        internal const val DEFAULT_CAPACITY = 1024
+        internal const val DRAIN_BATCH_SIZE = 64
+
+        internal val MAX_BLOCKING_DURATION_NS = TimeUnit.MILLISECONDS.toNanos(100)
+        internal val BLOCKING_PARK_DURATION_NS = TimeUnit.MICROSECONDS.toNanos(50)
+
+        internal const val WARNING_DROPPED_ELEMENTS =
+            "%d event(s) were dropped because the persistence buffer was full (policy: %s)"
+        internal const val ERROR_WRITE_FAILED =
+            "%d event(s) were dropped because they couldn't be written"
+    }
+}
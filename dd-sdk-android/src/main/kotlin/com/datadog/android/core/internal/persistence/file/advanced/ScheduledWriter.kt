@@ -6,6 +6,8 @@
 
 package com.datadog.android.core.internal.persistence.file.advanced
 
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.persistence.DataWriter
 import com.datadog.android.log.Logger
 import java.util.concurrent.ExecutorService
@@ -14,12 +16,14 @@ import java.util.concurrent.RejectedExecutionException
 internal class ScheduledWriter<T : Any>(
     internal val delegateWriter: DataWriter<T>,
     internal val executorService: ExecutorService,
-    private val internalLogger: Logger
+    private val internalLogger: Logger,
+    internal val featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
 ) : DataWriter<T> {
 
     // region DataWriter
 
     override fun write(element: T) {
+        featureMetrics.onEventsEnqueued(1)
         try {
             @Suppress("UnsafeThirdPartyFunctionCall") // NPE cannot happen here
             executorService.submit {
@@ -27,10 +31,12 @@ internal class ScheduledWriter<T : Any>(
             }
         } catch (e: RejectedExecutionException) {
             internalLogger.e(ERROR_REJECTED, e)
+            featureMetrics.onEventsDropped(1)
         }
     }
 
     override fun write(data: List<T>) {
+        featureMetrics.onEventsEnqueued(data.size)
         try {
             @Suppress("UnsafeThirdPartyFunctionCall") // NPE cannot happen here
             executorService.submit {
@@ -38,6 +44,7 @@ internal class ScheduledWriter<T : Any>(
             }
         } catch (e: RejectedExecutionException) {
             internalLogger.e(ERROR_REJECTED, e)
+            featureMetrics.onEventsDropped(data.size)
         }
     }
 
@@ -14,14 +14,25 @@ import java.util.concurrent.TimeUnit
 
 /**
  * A [DataMigrationOperation] that delete all the files in the `targetDir` directory.
+ * @param durationListener notified with the time spent running the operation, in nanoseconds
  */
 internal class WipeDataMigrationOperation(
     internal val targetDir: File?,
     internal val fileHandler: FileHandler,
-    internal val internalLogger: Logger
+    internal val internalLogger: Logger,
+    internal val durationListener: ((Long) -> Unit)? = null
 ) : DataMigrationOperation {
 
     override fun run() {
+        val startNs = System.nanoTime()
+        try {
+            wipeFiles()
+        } finally {
+            durationListener?.invoke(System.nanoTime() - startNs)
+        }
+    }
+
+    private fun wipeFiles() {
         if (targetDir == null) {
             internalLogger.w(WARN_NULL_DIR)
         } else {
@@ -0,0 +1,116 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.batch
+
+import com.datadog.android.core.internal.persistence.PayloadDecoration
+import com.datadog.android.core.internal.persistence.file.FileHandler
+import com.datadog.android.core.internal.persistence.file.deleteSafe
+import com.datadog.android.core.internal.persistence.file.existsSafe
+import com.datadog.android.core.internal.persistence.file.renameToSafe
+import com.datadog.android.core.internal.persistence.file.writeDecoratedData
+import com.datadog.android.log.Logger
+import com.datadog.android.log.internal.utils.errorWithTelemetry
+import okio.GzipSink
+import okio.Okio
+import java.io.File
+import java.io.IOException
+import java.util.Locale
+
+/**
+ * Compresses sealed batch files (i.e.: files which won't be written to anymore) into a gzip
+ * sidecar file, holding the decorated payload ready to be uploaded as is.
+ *
+ * Each batch is only compressed once, no matter how many times its upload is retried.
+ */
+internal class BatchFileCompressor(
+    internal val fileHandler: FileHandler,
+    internal val decoration: PayloadDecoration,
+    private val internalLogger: Logger
+) {
+
+    /**
+     * Returns the compressed sidecar of the given batch file, compressing the batch if it
+     * wasn't already.
+     * @param file the batch file
+     * @return the compressed sidecar file, or null if the batch couldn't be compressed
+     */
+    @Synchronized
+    fun getOrCompress(file: File): File? {
+        val compressedFile = compressedFileOf(file)
+        if (compressedFile.existsSafe()) {
+            return compressedFile
+        }
+
+        if (!file.existsSafe() || !compress(file, compressedFile)) {
+            return null
+        }
+
+        // the batch might have been dropped while we were compressing it
+        return if (file.existsSafe()) {
+            compressedFile
+        } else {
+            compressedFile.deleteSafe()
+            null
+        }
+    }
+
+    /**
+     * Deletes the compressed sidecar of the given batch file, if any.
+     * @param file the batch file
+     */
+    @Synchronized
+    fun delete(file: File) {
+        compressedFileOf(file).deleteSafe()
+    }
+
+    // region Internal
+
+    private fun compress(file: File, compressedFile: File): Boolean {
+        // write to a temporary file first, so that a partially written sidecar is never uploaded
+        val tmpFile = File(compressedFile.parentFile, compressedFile.name + TMP_SUFFIX)
+        return try {
+            writeCompressedData(file, tmpFile)
+            val isRenamed = tmpFile.renameToSafe(compressedFile)
+            if (!isRenamed) {
+                tmpFile.deleteSafe()
+            }
+            isRenamed
+        } catch (e: IOException) {
+            internalLogger.errorWithTelemetry(ERROR_COMPRESS.format(Locale.US, file.path), e)
+            tmpFile.deleteSafe()
+            false
+        } catch (e: SecurityException) {
+            internalLogger.errorWithTelemetry(ERROR_COMPRESS.format(Locale.US, file.path), e)
+            tmpFile.deleteSafe()
+            false
+        }
+    }
+
+    @Throws(IOException::class)
+    @Suppress("UnsafeThirdPartyFunctionCall") // Called within a try/catch block
+    private fun writeCompressedData(file: File, compressedFile: File) {
+        Okio.buffer(GzipSink(Okio.sink(compressedFile))).use {
+            fileHandler.writeDecoratedData(file, decoration, it)
+        }
+    }
+
+    // endregion
+
+    companion object {
+        internal const val COMPRESSED_FILE_SUFFIX = ".gz"
+        internal const val TMP_SUFFIX = ".tmp"
+
+        internal const val ERROR_COMPRESS = "Unable to compress batch file: %s"
+
+        /**
+         * @return the compressed sidecar file of the given batch file
+         */
+        internal fun compressedFileOf(file: File): File {
+            return File(file.parentFile, file.name + COMPRESSED_FILE_SUFFIX)
+        }
+    }
+}
@@ -6,13 +6,16 @@
 
 package com.datadog.android.core.internal.persistence.file.batch
 
+import com.datadog.android.core.internal.persistence.Backlog
 import com.datadog.android.core.internal.persistence.Batch
 import com.datadog.android.core.internal.persistence.DataReader
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.file.FileHandler
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
-import com.datadog.android.core.internal.utils.join
+import com.datadog.android.core.internal.persistence.file.lengthSafe
+import com.datadog.android.core.internal.persistence.file.writeDecoratedData
 import com.datadog.android.log.Logger
+import okio.Okio
 import java.io.File
 import java.util.Locale
 
@@ -23,7 +26,8 @@ internal class BatchFileDataReader(
     internal val fileOrchestrator: FileOrchestrator,
     internal val decoration: PayloadDecoration,
     internal val handler: FileHandler,
-    internal val internalLogger: Logger
+    internal val internalLogger: Logger,
+    internal val compressor: BatchFileCompressor? = null
 ) : DataReader {
 
     private val lockedFiles: MutableList<File> = mutableListOf()
@@ -32,14 +36,19 @@ internal class BatchFileDataReader(
 
     override fun lockAndReadNext(): Batch? {
         val file = getAndLockReadableFile() ?: return null
-        val data = handler.readData(file)
-            .join(
-                separator = decoration.separatorBytes,
-                prefix = decoration.prefixBytes,
-                suffix = decoration.suffixBytes
-            )
 
-        return Batch(file.name, data)
+        val compressedFile = compressor?.getOrCompress(file)
+        if (compressedFile != null) {
+            return Batch(file.name, isCompressed = true) { sink ->
+                Okio.source(compressedFile).use { sink.writeAll(it) }
+            }
+        }
+
+        // the file stays locked until the batch is released or dropped, so its content
+        // can be streamed lazily when the batch is uploaded
+        return Batch(file.name) { sink ->
+            handler.writeDecoratedData(file, decoration, sink)
+        }
     }
 
     override fun release(data: Batch) {
@@ -62,6 +71,11 @@ internal class BatchFileDataReader(
         }
     }
 
+    override fun getBacklog(): Backlog {
+        val files = fileOrchestrator.getAllFiles()
+        return Backlog(files.size, files.sumOf { it.lengthSafe() })
+    }
+
     // endregion
 
     // region Internal
@@ -103,6 +117,7 @@ internal class BatchFileDataReader(
     }
 
     private fun deleteFile(file: File) {
+        compressor?.delete(file)
         if (!handler.delete(file)) {
             internalLogger.w(
                 WARNING_DELETE_FAILED.format(Locale.US, file.path)
@@ -6,6 +6,9 @@
 
 package com.datadog.android.core.internal.persistence.file.batch
 
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
+import com.datadog.android.core.internal.persistence.EventPriority
 import com.datadog.android.core.internal.persistence.DataWriter
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.Serializer
@@ -22,7 +25,8 @@ internal open class BatchFileDataWriter<T : Any>(
     internal val serializer: Serializer<T>,
     internal val decoration: PayloadDecoration,
     internal val handler: FileHandler,
-    internal val internalLogger: Logger
+    internal val internalLogger: Logger,
+    internal val featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
 ) : DataWriter<T> {
 
     // region DataWriter
@@ -32,13 +36,58 @@ internal open class BatchFileDataWriter<T : Any>(
     }
 
     override fun write(data: List<T>) {
-        data.forEach { consume(it) }
+        val elements = ArrayList<T>(data.size)
+        val byteArrays = ArrayList<ByteArray>(data.size)
+        data.forEach {
+            val byteArray = serialize(it)
+            if (byteArray != null) {
+                elements.add(it)
+                byteArrays.add(byteArray)
+            }
+        }
+        if (elements.isEmpty()) {
+            return
+        }
+
+        synchronized(this) {
+            val priorities = elements.map { getPriority(it) }
+            EventPriority.values().forEach { priority ->
+                if (priorities.all { it == priority }) {
+                    groupWriteData(elements, byteArrays, priority)
+                } else {
+                    val indices = priorities.indices.filter { priorities[it] == priority }
+                    if (indices.isNotEmpty()) {
+                        groupWriteData(
+                            indices.map { elements[it] },
+                            indices.map { byteArrays[it] },
+                            priority
+                        )
+                    }
+                }
+            }
+        }
     }
 
     // endregion
 
+    /**
+     * Writes the given element, already serialized by the caller.
+     * @param element the element to write
+     * @param rawData the serialized element
+     */
+    internal fun write(element: T, rawData: ByteArray) {
+        consume(element, rawData)
+    }
+
     // region Protected
 
+    /**
+     * Defines the priority of the given data: data of each priority is written in
+     * separate batch files.
+     * @param data the data to write
+     */
+    internal open fun getPriority(data: T): EventPriority = EventPriority.NORMAL
+
     /**
      * Called whenever data is written successfully.
      * @param data the data written
@@ -56,10 +105,13 @@ internal open class BatchFileDataWriter<T : Any>(
     // region Internal
 
     private fun consume(data: T) {
-        val byteArray = serializer.serializeToByteArray(data, internalLogger) ?: return
+        val byteArray = serialize(data) ?: return
+        consume(data, byteArray)
+    }
 
+    private fun consume(data: T, byteArray: ByteArray) {
         synchronized(this) {
-            val success = writeData(byteArray)
+            val success = writeData(byteArray, getPriority(data))
             if (success) {
                 onDataWritten(data, byteArray)
             } else {
@@ -68,9 +120,62 @@ internal open class BatchFileDataWriter<T : Any>(
         }
     }
 
-    private fun writeData(byteArray: ByteArray): Boolean {
-        val file = fileOrchestrator.getWritableFile(byteArray.size) ?: return false
-        return handler.writeData(file, byteArray, true)
+    private fun serialize(data: T): ByteArray? {
+        val startNs = System.nanoTime()
+        val byteArray = serializer.serializeToByteArray(data, internalLogger)
+        featureMetrics.onEventSerialized(System.nanoTime() - startNs)
+        return byteArray
+    }
+
+    private fun writeData(byteArray: ByteArray, priority: EventPriority): Boolean {
+        val file = fileOrchestrator.getWritableFile(byteArray.size, priority) ?: return false
+        val success = handler.writeData(file, byteArray, true)
+        if (success) {
+            featureMetrics.onBytesWritten(byteArray.size.toLong())
+        }
+        return success
+    }
+
+    /**
+     * Writes all the serialized elements with as few file writes as possible: the elements are
+     * appended together to the same file, unless writing them all would cross the batch limits.
+     */
+    @Suppress("UnsafeThirdPartyFunctionCall") // subList indices are always within bounds
+    private fun groupWriteData(
+        elements: List<T>,
+        byteArrays: List<ByteArray>,
+        priority: EventPriority
+    ) {
+        val dataSizes = byteArrays.map { it.size }
+        var start = 0
+        while (start < byteArrays.size) {
+            val writableFile = fileOrchestrator.getWritableFileForItems(
+                dataSizes.subList(start, dataSizes.size),
+                priority
+            )
+            if (writableFile == null) {
+                // the first element can't be written, the next ones might
+                onDataWriteFailed(elements[start])
+                start++
+                continue
+            }
+
+            val (file, itemCount) = writableFile
+            val end = (start + itemCount).coerceAtMost(byteArrays.size)
+            val chunk = byteArrays.subList(start, end)
+            val success = handler.writeAllData(file, chunk, true)
+            if (success) {
+                featureMetrics.onBytesWritten(chunk.sumOf { it.size.toLong() })
+            }
+            for (i in start until end) {
+                if (success) {
+                    onDataWritten(elements[i], byteArrays[i])
+                } else {
+                    onDataWriteFailed(elements[i])
+                }
+            }
+            start = end
+        }
     }
 
     // endregion
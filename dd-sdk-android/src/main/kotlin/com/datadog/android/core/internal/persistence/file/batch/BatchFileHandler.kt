@@ -15,7 +15,6 @@ import com.datadog.android.core.internal.persistence.file.lengthSafe
 import com.datadog.android.core.internal.persistence.file.listFilesSafe
 import com.datadog.android.core.internal.persistence.file.mkdirsSafe
 import com.datadog.android.core.internal.persistence.file.renameToSafe
-import com.datadog.android.core.internal.utils.copyTo
 import com.datadog.android.core.internal.utils.devLogger
 import com.datadog.android.core.internal.utils.use
 import com.datadog.android.log.Logger
@@ -27,14 +26,13 @@ import java.io.FileNotFoundException
 import java.io.FileOutputStream
 import java.io.IOException
 import java.io.InputStream
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
 import java.util.Locale
 
 internal class BatchFileHandler(
     private val internalLogger: Logger,
-    private val metaGenerator: (data: ByteArray) -> ByteArray = {
-        EventMeta(it.size).asBytes
-    },
-    private val metaParser: (metaBytes: ByteArray) -> EventMeta = {
+    private val legacyMetaParser: (metaBytes: ByteArray) -> EventMeta = {
         EventMeta.fromBytes(it)
     }
 ) : FileHandler {
@@ -45,6 +43,14 @@ internal class BatchFileHandler(
         file: File,
         data: ByteArray,
         append: Boolean
+    ): Boolean {
+        return writeAllData(file, listOf(data), append)
+    }
+
+    override fun writeAllData(
+        file: File,
+        data: List<ByteArray>,
+        append: Boolean
     ): Boolean {
         return try {
             lockFileAndWriteData(file, append, data)
@@ -61,14 +67,27 @@ internal class BatchFileHandler(
     override fun readData(
         file: File
     ): List<ByteArray> {
+        val result = mutableListOf<ByteArray>()
+        return if (streamData(file) { result.add(it) }) {
+            result
+        } else {
+            emptyList()
+        }
+    }
+
+    override fun streamData(
+        file: File,
+        consumer: (ByteArray) -> Unit
+    ): Boolean {
         return try {
-            readFileData(file)
+            readFileData(file, consumer)
+            true
         } catch (e: IOException) {
             internalLogger.errorWithTelemetry(ERROR_READ.format(Locale.US, file.path), e)
-            emptyList()
+            false
         } catch (e: SecurityException) {
             internalLogger.errorWithTelemetry(ERROR_READ.format(Locale.US, file.path), e)
-            emptyList()
+            false
         }
     }
 
@@ -107,6 +126,10 @@ internal class BatchFileHandler(
         return srcFiles.all { file -> moveFile(file, destDir) }
     }
 
+    override fun close() {
+        // every operation opens and closes its own stream
+    }
+
     // endregion
 
     // region Internal
@@ -116,62 +139,86 @@ internal class BatchFileHandler(
     private fun lockFileAndWriteData(
         file: File,
         append: Boolean,
-        data: ByteArray
+        data: List<ByteArray>
     ) {
         FileOutputStream(file, append).use { outputStream ->
-            outputStream.channel.lock().use {
-                val meta = metaGenerator(data)
-
-                if (meta.size > MAX_META_SIZE_BYTES) {
-                    @Suppress("ThrowingInternalException")
-                    throw MetaTooBigException(
-                        "Meta size is bigger than limit of $MAX_META_SIZE_BYTES" +
-                            " bytes, cannot write data."
-                    )
-                }
+            lockChannelAndWriteEvents(outputStream.channel, data)
+        }
+    }
 
-                // 1 byte for version
-                // 1 byte for meta.size value
-                // rest is meta
-                val header = ByteArray(2 + meta.size).apply {
-                    set(0, HEADER_VERSION)
-                    // in Kotlin and Java byte type is signed, meaning it goes from -127 to 128.
-                    // It is completely fine to have size more than 128, it will be just stored
-                    // as negative value. Later at read() byte step we will get strictly positive
-                    // value, because read() returns int.
-                    set(1, meta.size.toByte())
-                    meta.copyTo(0, this, 2, meta.size)
-                }
+    /**
+     * Writes the given events, each preceded by its header, with a gathered write: the events
+     * are wrapped as is instead of being copied in a single buffer.
+     * @param channel the channel to write to
+     * @param data the events to write
+     */
+    @Throws(IOException::class)
+    @Suppress("UnsafeThirdPartyFunctionCall") // Called within a try/catch block
+    internal fun lockChannelAndWriteEvents(channel: FileChannel, data: List<ByteArray>) {
+        val buffers = Array(data.size * 2) {
+            val event = data[it / 2]
+            if (it % 2 == 0) {
+                ByteBuffer.wrap(buildEventHeader(event))
+            } else {
+                ByteBuffer.wrap(event)
+            }
+        }
+        val expectedSize = buffers.sumOf { it.remaining().toLong() }
 
-                outputStream.write(header)
-                outputStream.write(data)
+        channel.lock().use {
+            var written = 0L
+            while (written < expectedSize) {
+                written += channel.write(buffers)
             }
         }
     }
 
+    /**
+     * Builds the header to write before the given event data.
+     * @param data the event data
+     * @return the header bytes (version and event size)
+     */
+    private fun buildEventHeader(data: ByteArray): ByteArray {
+        // 1 byte for version
+        // 4 bytes for the event size (big-endian)
+        return ByteBuffer.allocate(HEADER_SIZE_BYTES)
+            .put(HEADER_VERSION)
+            .putInt(data.size)
+            .array()
+    }
+
     @Throws(IOException::class)
     @Suppress("UnsafeThirdPartyFunctionCall") // Called within a try/catch block
     private fun readFileData(
-        file: File
-    ): List<ByteArray> {
+        file: File,
+        consumer: (ByteArray) -> Unit
+    ) {
         val inputLength = file.lengthSafe().toInt()
 
-        val result = mutableListOf<ByteArray>()
-
         // Read file iteratively
         var remaining = inputLength
         file.inputStream().buffered().use {
             while (remaining > 0) {
-                val (meta, headerSize) = readEventHeader(it) ?: break
+                val (eventSize, headerSize) = readEventHeader(it) ?: break
+
+                // a size larger than what is left means the header is corrupted,
+                // don't allocate a buffer for it
+                val available = remaining - headerSize
+                if (eventSize > available) {
+                    internalLogger.e(
+                        ERROR_EVENT_SIZE_EXCEEDS_FILE.format(Locale.US, eventSize, available)
+                    )
+                    break
+                }
 
-                val eventBytes = ByteArray(meta.eventSize)
-                val readEventSize = it.read(eventBytes, 0, meta.eventSize)
+                val eventBytes = ByteArray(eventSize)
+                val readEventSize = it.read(eventBytes, 0, eventSize)
 
-                if (!checkReadSizeExpected(meta.eventSize, readEventSize, "read event")) {
+                if (!checkReadSizeExpected(eventSize, readEventSize, "read event")) {
                     break
                 }
 
-                result.add(eventBytes)
+                consumer(eventBytes)
                 val read = headerSize + readEventSize
                 remaining -= read
             }
@@ -182,8 +229,6 @@ internal class BatchFileHandler(
             devLogger.e(message)
             internalLogger.errorWithTelemetry(message)
         }
-
-        return result
     }
 
     private fun moveFile(file: File, destDir: File): Boolean {
@@ -191,14 +236,52 @@ internal class BatchFileHandler(
         return file.renameToSafe(destFile)
     }
 
+    /**
+     * Reads the header of the next event.
+     * @return the event size and the header size, or null if the header couldn't be read
+     */
     @Suppress("UnsafeThirdPartyFunctionCall") // Called within a try/catch block
-    private fun readEventHeader(stream: InputStream): Pair<EventMeta, Int>? {
+    private fun readEventHeader(stream: InputStream): Pair<Int, Int>? {
         val version = stream.read()
         if (version < 0) {
             internalLogger.e(ERROR_EOF_AT_VERSION_BYTE)
             return null
         }
 
+        return when (version.toByte()) {
+            HEADER_VERSION -> readEventSize(stream)
+            LEGACY_HEADER_VERSION -> readLegacyEventMeta(stream)
+            else -> {
+                internalLogger.e(ERROR_UNKNOWN_HEADER_VERSION.format(Locale.US, version))
+                null
+            }
+        }
+    }
+
+    @Suppress("UnsafeThirdPartyFunctionCall") // Called within a try/catch block
+    private fun readEventSize(stream: InputStream): Pair<Int, Int>? {
+        val sizeBytes = ByteArray(EVENT_SIZE_BYTES)
+        val readSize = stream.read(sizeBytes, 0, sizeBytes.size)
+
+        if (!checkReadSizeExpected(EVENT_SIZE_BYTES, readSize, "read event size")) {
+            return null
+        }
+
+        val eventSize = ByteBuffer.wrap(sizeBytes).int
+        if (eventSize < 0) {
+            internalLogger.e(ERROR_INVALID_EVENT_SIZE.format(Locale.US, eventSize))
+            return null
+        }
+
+        return eventSize to HEADER_SIZE_BYTES
+    }
+
+    /**
+     * Reads the header written by earlier SDK versions: the meta size on 1 byte,
+     * followed by the [EventMeta] as JSON.
+     */
+    @Suppress("UnsafeThirdPartyFunctionCall") // Called within a try/catch block
+    private fun readLegacyEventMeta(stream: InputStream): Pair<Int, Int>? {
         val metaSize = stream.read()
         if (metaSize < 0) {
             internalLogger.e(ERROR_EOF_AT_META_SIZE_BYTE)
@@ -213,13 +296,13 @@ internal class BatchFileHandler(
         }
 
         val meta = try {
-            metaParser(metaBytes)
+            legacyMetaParser(metaBytes)
         } catch (e: JsonParseException) {
             internalLogger.e(ERROR_FAILED_META_PARSE, e)
             return null
         }
 
-        return meta to 2 + readMetaSize
+        return meta.eventSize to 2 + readMetaSize
     }
 
     private fun checkReadSizeExpected(expected: Int, actual: Int, operation: String): Boolean {
@@ -234,15 +317,15 @@ internal class BatchFileHandler(
         }
     }
 
-    internal class MetaTooBigException(message: String) : IOException(message)
-
     // endregion
 
     @Suppress("StringLiteralDuplication")
     companion object {
 
-        internal const val HEADER_VERSION: Byte = 1
-        internal const val MAX_META_SIZE_BYTES = 255
+        internal const val HEADER_VERSION: Byte = 2
+        internal const val LEGACY_HEADER_VERSION: Byte = 1
+        internal const val EVENT_SIZE_BYTES = 4
+        internal const val HEADER_SIZE_BYTES = 1 + EVENT_SIZE_BYTES
 
         internal const val ERROR_WRITE = "Unable to write data to file: %s"
         internal const val ERROR_READ = "Unable to read data from file: %s"
@@ -260,18 +343,35 @@ internal class BatchFileHandler(
             "Cannot read version byte, because EOF reached."
         internal const val ERROR_FAILED_META_PARSE =
             "Failed to parse meta bytes, stopping file read."
+        internal const val ERROR_UNKNOWN_HEADER_VERSION =
+            "Unknown event header version %d, stopping file read."
+        internal const val ERROR_INVALID_EVENT_SIZE =
+            "Invalid event size %d, stopping file read."
+        internal const val ERROR_EVENT_SIZE_EXCEEDS_FILE =
+            "Event size %d exceeds the %d byte(s) left in the file, stopping file read."
         internal const val WARNING_NOT_ALL_DATA_READ =
             "File %s is probably corrupted, not all content was read."
 
         /**
          * Creates either plain [BatchFileHandler] or [BatchFileHandler] wrapped in
          * [EncryptedFileHandler] if encryption is provided.
+         * @param persistentChannel whether the batch files being written to should be kept open
+         * between writes (see [PersistentChannelFileHandler])
          */
-        fun create(internalLogger: Logger, encryption: Encryption?): FileHandler {
-            return if (encryption == null) {
+        fun create(
+            internalLogger: Logger,
+            encryption: Encryption?,
+            persistentChannel: Boolean = false
+        ): FileHandler {
+            val fileHandler = if (persistentChannel) {
+                PersistentChannelFileHandler(BatchFileHandler(internalLogger), internalLogger)
+            } else {
                 BatchFileHandler(internalLogger)
+            }
+            return if (encryption == null) {
+                fileHandler
             } else {
-                EncryptedFileHandler(encryption, BatchFileHandler(internalLogger))
+                EncryptedFileHandler(encryption, fileHandler)
             }
         }
     }
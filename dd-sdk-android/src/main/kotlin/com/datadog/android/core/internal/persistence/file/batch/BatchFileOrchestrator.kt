@@ -6,6 +6,9 @@
 
 package com.datadog.android.core.internal.persistence.file.batch
 
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
+import com.datadog.android.core.internal.persistence.EventPriority
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
 import com.datadog.android.core.internal.persistence.file.FilePersistenceConfig
 import com.datadog.android.core.internal.persistence.file.canWriteSafe
@@ -20,48 +23,89 @@ import com.datadog.android.log.internal.utils.errorWithTelemetry
 import java.io.File
 import java.io.FileFilter
 import java.util.Locale
+import java.util.TreeMap
+import java.util.concurrent.TimeUnit
 
 internal class BatchFileOrchestrator(
     private val rootDir: File,
     private val config: FilePersistenceConfig,
-    private val internalLogger: Logger
+    private val internalLogger: Logger,
+    private val featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
 ) : FileOrchestrator {
 
     private val fileFilter = BatchFileFilter()
+    private val sidecarFileFilter = SidecarFileFilter()
 
     // Offset the recent threshold for read and write to avoid conflicts
     // Arbitrary offset as ±5% of the threshold
     private val recentReadDelayMs = (config.recentDelayMs * 1.05).toLong()
     private val recentWriteDelayMs = (config.recentDelayMs * 0.95).toLong()
 
-    // keep track of how many items were written in the last known file
-    private var previousFile: File? = null
-    private var previousFileItemCount: Int = 0
+    // the batch files of each priority are indexed and written separately
+    private val highPriorityLane = Lane(EventPriority.HIGH)
+    private val normalPriorityLane = Lane(EventPriority.NORMAL)
+
+    // lanes in upload order: the high priority batches are read first, and evicted last
+    private val lanes = listOf(highPriorityLane, normalPriorityLane)
+
+    // total size of the indexed batch files (and their compressed sidecars), across all lanes
+    private var knownFilesSize: Long = 0L
+    private var lastIndexSyncMs: Long = 0L
+    private var orphanSidecarsPurged = false
 
     // region FileOrchestrator
 
     override fun getWritableFile(dataSize: Int): File? {
-        if (!isRootDirValid()) {
+        return getWritableFile(dataSize, EventPriority.NORMAL)
+    }
+
+    override fun getWritableFile(dataSize: Int, priority: EventPriority): File? {
+        if (!isRootDirValid() || !isItemSizeValid(dataSize)) {
             return null
         }
 
-        if (dataSize > config.maxItemSize) {
-            internalLogger.errorWithTelemetry(
-                ERROR_LARGE_DATA.format(
-                    Locale.US,
-                    dataSize,
-                    config.maxItemSize
-                )
-            )
+        synchronized(lanes) {
+            val lane = getLane(priority)
+            refreshIndex()
+            deleteObsoleteIndexedFiles()
+            freeSpaceIfNeeded()
+
+            val reusableFile = getReusableWritableFile(lane, dataSize)
+
+            return reusableFile ?: createNewFile(lane)
+        }
+    }
+
+    override fun getWritableFileForItems(dataSizes: List<Int>): Pair<File, Int>? {
+        return getWritableFileForItems(dataSizes, EventPriority.NORMAL)
+    }
+
+    override fun getWritableFileForItems(
+        dataSizes: List<Int>,
+        priority: EventPriority
+    ): Pair<File, Int>? {
+        val firstDataSize = dataSizes.firstOrNull() ?: return null
+        if (!isRootDirValid() || !isItemSizeValid(firstDataSize)) {
             return null
         }
 
-        deleteObsoleteFiles()
-        freeSpaceIfNeeded()
+        synchronized(lanes) {
+            val lane = getLane(priority)
+            refreshIndex()
+            deleteObsoleteIndexedFiles()
+            freeSpaceIfNeeded()
 
-        val reusableFile = getReusableWritableFile(dataSize)
+            val reusableFile = getReusableWritableFile(lane, dataSizes)
+            if (reusableFile != null) {
+                return reusableFile
+            }
 
-        return reusableFile ?: createNewFile()
+            val newFile = createNewFile(lane)
+            // a new file always accepts at least the first item
+            val itemCount = countFittingItems(dataSizes, 0L, 0).coerceAtLeast(1)
+            lane.previousFileItemCount = itemCount
+            return newFile to itemCount
+        }
     }
 
     override fun getReadableFile(excludeFiles: Set<File>): File? {
@@ -69,13 +113,19 @@ internal class BatchFileOrchestrator(
             return null
         }
 
-        deleteObsoleteFiles()
-
-        val files = listSortedBatchFiles()
-
-        return files.firstOrNull {
-            (it !in excludeFiles) && !isFileRecent(it, recentReadDelayMs)
+        synchronized(lanes) {
+            if ((System.currentTimeMillis() - lastIndexSyncMs) >= INDEX_SYNC_INTERVAL_MS) {
+                syncIndex(listSortedBatchFiles())
+            }
+            deleteObsoleteIndexedFiles()
+            lanes.forEach { lane ->
+                val readableFile = getReadableIndexedFile(lane, excludeFiles)
+                if (readableFile != null) {
+                    return readableFile
+                }
+            }
         }
+        return null
     }
 
     override fun getAllFiles(): List<File> {
@@ -140,20 +190,27 @@ internal class BatchFileOrchestrator(
         }
     }
 
-    private fun createNewFile(): File {
-        val newFileName = System.currentTimeMillis().toString()
+    private fun createNewFile(lane: Lane): File {
+        val timestamp = System.currentTimeMillis().toString()
+        val newFileName = if (lane.priority == EventPriority.HIGH) {
+            timestamp + HIGH_PRIORITY_SUFFIX
+        } else {
+            timestamp
+        }
         val newFile = File(rootDir, newFileName)
-        previousFile = newFile
-        previousFileItemCount = 1
+        lane.previousFile = newFile
+        lane.previousFileItemCount = 1
+        addToIndex(newFile, 0L)
+        featureMetrics.onBatchCreated()
         return newFile
     }
 
-    private fun getReusableWritableFile(dataSize: Int): File? {
-        val files = listSortedBatchFiles()
-        val lastFile = files.lastOrNull() ?: return null
+    private fun getReusableWritableFile(lane: Lane, dataSize: Int): File? {
+        val lastEntry = lane.knownFiles.lastEntry() ?: return null
+        val lastFile = lastEntry.key
 
-        val lastKnownFile = previousFile
-        val lastKnownFileItemCount = previousFileItemCount
+        val lastKnownFile = lane.previousFile
+        val lastKnownFileItemCount = lane.previousFileItemCount
         if (lastKnownFile != lastFile) {
             // this situation can happen because:
             // 1. `lastFile` is a file written during a previous session
@@ -164,45 +221,131 @@ internal class BatchFileOrchestrator(
         }
 
         val isRecentEnough = isFileRecent(lastFile, recentWriteDelayMs)
-        val hasRoomForMore = (lastFile.lengthSafe() + dataSize) < config.maxBatchSize
+        val hasRoomForMore = (lastEntry.value + dataSize) < config.maxBatchSize
         val hasSlotForMore = (lastKnownFileItemCount < config.maxItemsPerBatch)
 
         return if (isRecentEnough && hasRoomForMore && hasSlotForMore) {
-            previousFileItemCount = lastKnownFileItemCount + 1
+            lane.previousFileItemCount = lastKnownFileItemCount + 1
             lastFile
         } else {
             null
         }
     }
 
+    private fun getReusableWritableFile(lane: Lane, dataSizes: List<Int>): Pair<File, Int>? {
+        val lastEntry = lane.knownFiles.lastEntry() ?: return null
+        val lastFile = lastEntry.key
+
+        val lastKnownFileItemCount = lane.previousFileItemCount
+        if (lane.previousFile != lastFile || !isFileRecent(lastFile, recentWriteDelayMs)) {
+            // see getReusableWritableFile(Lane, Int)
+            return null
+        }
+
+        val itemCount = countFittingItems(dataSizes, lastEntry.value, lastKnownFileItemCount)
+        return if (itemCount > 0) {
+            lane.previousFileItemCount = lastKnownFileItemCount + itemCount
+            lastFile to itemCount
+        } else {
+            null
+        }
+    }
+
+    /**
+     * Counts how many of the leading items can be added to a batch file, given its current
+     * size and item count, without crossing the batch limits.
+     */
+    private fun countFittingItems(
+        dataSizes: List<Int>,
+        fileSize: Long,
+        fileItemCount: Int
+    ): Int {
+        var size = fileSize
+        var itemCount = 0
+        for (dataSize in dataSizes) {
+            val hasRoomForMore = (size + dataSize) < config.maxBatchSize
+            val hasSlotForMore = (fileItemCount + itemCount) < config.maxItemsPerBatch
+            if (dataSize > config.maxItemSize || !hasRoomForMore || !hasSlotForMore) {
+                break
+            }
+            size += dataSize
+            itemCount++
+        }
+        return itemCount
+    }
+
+    private fun isItemSizeValid(dataSize: Int): Boolean {
+        return if (dataSize > config.maxItemSize) {
+            internalLogger.errorWithTelemetry(
+                ERROR_LARGE_DATA.format(
+                    Locale.US,
+                    dataSize,
+                    config.maxItemSize
+                )
+            )
+            false
+        } else {
+            true
+        }
+    }
+
     private fun isFileRecent(file: File, delayMs: Long): Boolean {
         val now = System.currentTimeMillis()
-        val fileTimestamp = file.name.toLongOrNull() ?: 0L
-        return fileTimestamp >= (now - delayMs)
+        return getFileTimestamp(file) >= (now - delayMs)
+    }
+
+    /**
+     * Finds the oldest indexed file of the lane which can be read. The index isn't updated
+     * when a batch is deleted after being uploaded, so indexed files which don't exist anymore
+     * are removed from it along the way.
+     */
+    private fun getReadableIndexedFile(lane: Lane, excludeFiles: Set<File>): File? {
+        val candidates = lane.knownFiles.keys.filter {
+            (it !in excludeFiles) && !isFileRecent(it, recentReadDelayMs)
+        }
+        candidates.forEach {
+            if (it.existsSafe()) {
+                return it
+            }
+            removeFromIndex(it)
+        }
+        return null
     }
 
-    private fun deleteObsoleteFiles() {
-        val files = listSortedBatchFiles()
+    private fun deleteObsoleteIndexedFiles() {
         val threshold = System.currentTimeMillis() - config.oldFileThreshold
-        files
-            .asSequence()
-            .filter { (it.name.toLongOrNull() ?: 0) < threshold }
-            .forEach { it.deleteSafe() }
+        lanes.forEach { lane ->
+            var firstFile = lane.knownFiles.firstEntry()?.key
+            while (firstFile != null && getFileTimestamp(firstFile) < threshold) {
+                if (deleteBatchFile(firstFile)) {
+                    featureMetrics.onBatchDeleted()
+                }
+                removeFromIndex(firstFile)
+                firstFile = lane.knownFiles.firstEntry()?.key
+            }
+        }
     }
 
     private fun freeSpaceIfNeeded() {
-        val files = listSortedBatchFiles()
-        val sizeOnDisk = files.sumOf { it.lengthSafe() }
+        if (knownFilesSize > config.maxDiskSpace) {
+            // the index might still reference files deleted since the last sync
+            // (e.g.: uploaded batches), make sure the disk is really full
+            syncIndex(listSortedBatchFiles())
+        }
+        val sizeOnDisk = knownFilesSize
         val maxDiskSpace = config.maxDiskSpace
         val sizeToFree = sizeOnDisk - maxDiskSpace
         if (sizeToFree > 0) {
             internalLogger.errorWithTelemetry(
                 ERROR_DISK_FULL.format(Locale.US, sizeOnDisk, maxDiskSpace, sizeToFree)
             )
-            files.fold(sizeToFree) { remainingSizeToFree, file ->
+            // shed the lowest priority lanes first, oldest files first
+            val evictableFiles = lanes.asReversed().flatMap { it.knownFiles.toList() }
+            evictableFiles.fold(sizeToFree) { remainingSizeToFree, (file, fileSize) ->
                 if (remainingSizeToFree > 0) {
-                    val fileSize = file.lengthSafe()
-                    if (file.deleteSafe()) {
+                    if (deleteBatchFile(file)) {
+                        removeFromIndex(file)
+                        featureMetrics.onBatchEvicted()
                         remainingSizeToFree - fileSize
                     } else {
                         remainingSizeToFree
@@ -214,12 +357,119 @@ internal class BatchFileOrchestrator(
         }
     }
 
+    /**
+     * Makes sure the index is up to date before using it on the write path. The index is fully
+     * reconciled with the disk periodically, otherwise only the file being written in each
+     * lane is checked on disk.
+     */
+    private fun refreshIndex() {
+        val now = System.currentTimeMillis()
+        val lastFiles = lanes.mapNotNull { it.knownFiles.lastEntry()?.key }
+        if (lastFiles.isEmpty() || (now - lastIndexSyncMs) >= INDEX_SYNC_INTERVAL_MS) {
+            syncIndex(listSortedBatchFiles())
+        } else {
+            lastFiles.forEach { lastFile ->
+                if (!lastFile.existsSafe()) {
+                    // the file was deleted, or nothing was written in it yet
+                    removeFromIndex(lastFile)
+                } else {
+                    addToIndex(lastFile, getSizeOnDisk(lastFile))
+                }
+            }
+        }
+    }
+
+    private fun syncIndex(files: List<File>) {
+        if (!orphanSidecarsPurged) {
+            // the first sync happens before anything is compressed by this orchestrator's
+            // owner, so any leftover sidecar comes from a previous session
+            purgeOrphanSidecars(files)
+            orphanSidecarsPurged = true
+        }
+        lanes.forEach { it.knownFiles.clear() }
+        knownFilesSize = 0L
+        files.forEach { addToIndex(it, getSizeOnDisk(it)) }
+        lastIndexSyncMs = System.currentTimeMillis()
+    }
+
+    /**
+     * Deletes the compressed sidecars left behind by a previous session: the partially
+     * written ones, and the ones whose batch file doesn't exist anymore.
+     */
+    private fun purgeOrphanSidecars(batchFiles: List<File>) {
+        val batchFileNames = batchFiles.map { it.name }.toSet()
+        rootDir.listFilesSafe(sidecarFileFilter).orEmpty().forEach {
+            val isPartial = it.name.endsWith(BatchFileCompressor.TMP_SUFFIX)
+            val batchFileName = it.name
+                .removeSuffix(BatchFileCompressor.TMP_SUFFIX)
+                .removeSuffix(BatchFileCompressor.COMPRESSED_FILE_SUFFIX)
+            if (isPartial || batchFileName !in batchFileNames) {
+                it.deleteSafe()
+            }
+        }
+    }
+
+    /**
+     * The size of a batch file on disk, including its compressed sidecar (if any).
+     */
+    private fun getSizeOnDisk(file: File): Long {
+        return file.lengthSafe() + BatchFileCompressor.compressedFileOf(file).lengthSafe()
+    }
+
+    private fun addToIndex(file: File, size: Long) {
+        val previousSize = getLane(file).knownFiles.put(file, size) ?: 0L
+        knownFilesSize += size - previousSize
+    }
+
+    private fun removeFromIndex(file: File) {
+        val previousSize = getLane(file).knownFiles.remove(file) ?: 0L
+        knownFilesSize -= previousSize
+    }
+
+    private fun getLane(priority: EventPriority): Lane {
+        return when (priority) {
+            EventPriority.HIGH -> highPriorityLane
+            EventPriority.NORMAL -> normalPriorityLane
+        }
+    }
+
+    private fun getLane(file: File): Lane {
+        return if (file.name.endsWith(HIGH_PRIORITY_SUFFIX)) {
+            highPriorityLane
+        } else {
+            normalPriorityLane
+        }
+    }
+
+    private fun getFileTimestamp(file: File): Long {
+        return file.name.removeSuffix(HIGH_PRIORITY_SUFFIX).toLongOrNull() ?: 0L
+    }
+
+    private fun deleteBatchFile(file: File): Boolean {
+        // also delete the compressed sidecar of the batch, if any
+        BatchFileCompressor.compressedFileOf(file).deleteSafe()
+        return file.deleteSafe()
+    }
+
     private fun listSortedBatchFiles(): List<File> {
         return rootDir.listFilesSafe(fileFilter).orEmpty().sorted()
     }
 
     // endregion
 
+    /**
+     * The batch files of a given priority.
+     */
+    private class Lane(val priority: EventPriority) {
+        // in memory index of the batch files with their size, to avoid listing the root dir
+        // on every write; it is reconciled with the disk periodically or when it gets out of sync
+        val knownFiles = TreeMap<File, Long>()
+
+        // keep track of how many items were written in the last known file
+        var previousFile: File? = null
+        var previousFileItemCount: Int = 0
+    }
+
     // region FileFilter
 
     internal class BatchFileFilter : FileFilter {
@@ -230,10 +480,22 @@ internal class BatchFileOrchestrator(
         }
     }
 
+    internal class SidecarFileFilter : FileFilter {
+        override fun accept(file: File?): Boolean {
+            return file != null &&
+                file.isFileSafe() &&
+                file.name.matches(sidecarFileNameRegex)
+        }
+    }
+
     // endregion
 
     companion object {
-        private val batchFileNameRegex = Regex("\\d+")
+        internal const val HIGH_PRIORITY_SUFFIX = "_high"
+        private val batchFileNameRegex = Regex("\\d+($HIGH_PRIORITY_SUFFIX)?")
+        // see BatchFileCompressor.COMPRESSED_FILE_SUFFIX and BatchFileCompressor.TMP_SUFFIX
+        private val sidecarFileNameRegex = Regex("\\d+($HIGH_PRIORITY_SUFFIX)?\\.gz(\\.tmp)?")
+        internal val INDEX_SYNC_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30)
         internal const val ERROR_ROOT_NOT_WRITABLE = "The provided root dir is not writable: %s"
         internal const val ERROR_ROOT_NOT_DIR = "The provided root file is not a directory: %s"
         internal const val ERROR_CANT_CREATE_ROOT = "The provided root file can't be created: %s"
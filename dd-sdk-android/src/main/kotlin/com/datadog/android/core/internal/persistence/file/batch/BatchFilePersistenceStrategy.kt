@@ -6,8 +6,11 @@
 
 package com.datadog.android.core.internal.persistence.file.batch
 
+import com.datadog.android.core.configuration.BufferOverflowPolicy
 import com.datadog.android.core.internal.data.upload.DataFlusher
 import com.datadog.android.core.internal.data.upload.Flusher
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.persistence.DataReader
 import com.datadog.android.core.internal.persistence.DataWriter
 import com.datadog.android.core.internal.persistence.PayloadDecoration
@@ -15,9 +18,14 @@ import com.datadog.android.core.internal.persistence.PersistenceStrategy
 import com.datadog.android.core.internal.persistence.Serializer
 import com.datadog.android.core.internal.persistence.file.FileHandler
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
-import com.datadog.android.core.internal.persistence.file.advanced.ScheduledWriter
+import com.datadog.android.core.internal.persistence.file.advanced.RingBufferWriter
+import com.datadog.android.core.internal.privacy.ConsentProvider
+import com.datadog.android.core.internal.utils.executeSafe
 import com.datadog.android.log.Logger
+import com.datadog.android.privacy.TrackingConsent
+import com.datadog.android.privacy.TrackingConsentProviderCallback
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.ScheduledExecutorService
 
 internal open class BatchFilePersistenceStrategy<T : Any>(
     private val fileOrchestrator: FileOrchestrator,
@@ -25,12 +33,26 @@ internal open class BatchFilePersistenceStrategy<T : Any>(
     serializer: Serializer<T>,
     private val payloadDecoration: PayloadDecoration,
     internalLogger: Logger,
-    internal val fileHandler: FileHandler
-) : PersistenceStrategy<T> {
+    internal val fileHandler: FileHandler,
+    private val compressionExecutorService: ScheduledExecutorService? = null,
+    private val bufferOverflowPolicy: BufferOverflowPolicy = BufferOverflowPolicy.DROP_NEWEST,
+    internal val featureMetrics: FeatureMetrics = NoOpFeatureMetrics(),
+    consentProvider: ConsentProvider? = null
+) : PersistenceStrategy<T>, TrackingConsentProviderCallback {
+
+    internal val compressor = if (compressionExecutorService != null) {
+        BatchFileCompressor(fileHandler, payloadDecoration, internalLogger)
+    } else {
+        null
+    }
 
     private val fileWriter: DataWriter<T> by lazy {
         createWriter(
-            fileOrchestrator,
+            if (compressor != null && compressionExecutorService != null) {
+                SealingFileOrchestrator(fileOrchestrator, compressor, compressionExecutorService)
+            } else {
+                fileOrchestrator
+            },
             executorService,
             serializer,
             payloadDecoration,
@@ -42,9 +64,15 @@ internal open class BatchFilePersistenceStrategy<T : Any>(
         fileOrchestrator,
         payloadDecoration,
         fileHandler,
-        internalLogger
+        internalLogger,
+        compressor
     )
 
+    init {
+        @Suppress("LeakingThis")
+        consentProvider?.registerCallback(this)
+    }
+
     // region PersistenceStrategy
 
     override fun getWriter(): DataWriter<T> {
@@ -56,7 +84,24 @@ internal open class BatchFilePersistenceStrategy<T : Any>(
     }
 
     override fun getFlusher(): Flusher {
-        return DataFlusher(fileOrchestrator, payloadDecoration, fileHandler)
+        return DataFlusher(fileOrchestrator, payloadDecoration, fileHandler, compressor)
+    }
+
+    override fun close() {
+        fileHandler.close()
+    }
+
+    // endregion
+
+    // region TrackingConsentProviderCallback
+
+    override fun onConsentUpdated(
+        previousConsent: TrackingConsent,
+        newConsent: TrackingConsent
+    ) {
+        // the consent migration moves or deletes the batch files on the same executor,
+        // release the file kept open once the writes queued before the change are done
+        executorService.executeSafe(OPERATION_CLOSE, Runnable { fileHandler.close() })
     }
 
     // endregion
@@ -70,18 +115,25 @@ internal open class BatchFilePersistenceStrategy<T : Any>(
         payloadDecoration: PayloadDecoration,
         internalLogger: Logger
     ): DataWriter<T> {
-        return ScheduledWriter(
+        return RingBufferWriter(
             BatchFileDataWriter(
                 fileOrchestrator,
                 serializer,
                 payloadDecoration,
                 fileHandler,
-                internalLogger
+                internalLogger,
+                featureMetrics
             ),
             executorService,
-            internalLogger
+            internalLogger,
+            bufferOverflowPolicy,
+            featureMetrics = featureMetrics
         )
     }
 
-    //
+    // endregion
+
+    companion object {
+        internal const val OPERATION_CLOSE = "Batch file close"
+    }
 }
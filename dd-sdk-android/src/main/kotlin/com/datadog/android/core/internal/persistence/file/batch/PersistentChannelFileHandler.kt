@@ -0,0 +1,158 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.batch
+
+import com.datadog.android.core.internal.persistence.file.FileHandler
+import com.datadog.android.log.Logger
+import com.datadog.android.log.internal.utils.errorWithTelemetry
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.util.Locale
+
+/**
+ * A [FileHandler] which keeps the channels of the batch files being written to open, one per
+ * file, so that alternating between the priority lanes doesn't reopen them. Appending events
+ * then costs a single lock and gathered write, instead of a full open/lock/write/close cycle.
+ *
+ * Any other operation is delegated to the wrapped [BatchFileHandler], after closing the open
+ * channel if it targets the affected file. The files must be deleted or moved through this
+ * handler, so that no channel is kept open on a file which isn't on disk anymore.
+ */
+internal class PersistentChannelFileHandler(
+    internal val delegate: BatchFileHandler,
+    private val internalLogger: Logger
+) : FileHandler {
+
+    // the open channels, from the least to the most recently written
+    private val openStreams = LinkedHashMap<File, FileOutputStream>(
+        MAX_OPEN_CHANNELS,
+        LOAD_FACTOR,
+        true
+    )
+
+    // region FileHandler
+
+    override fun writeData(
+        file: File,
+        data: ByteArray,
+        append: Boolean
+    ): Boolean {
+        return writeAllData(file, listOf(data), append)
+    }
+
+    override fun writeAllData(
+        file: File,
+        data: List<ByteArray>,
+        append: Boolean
+    ): Boolean {
+        if (!append) {
+            synchronized(this) { closeChannelIfTargets(file) }
+            return delegate.writeAllData(file, data, append)
+        }
+
+        return synchronized(this) {
+            try {
+                appendData(file, data)
+                true
+            } catch (e: IOException) {
+                closeChannel(file)
+                internalLogger.errorWithTelemetry(
+                    BatchFileHandler.ERROR_WRITE.format(Locale.US, file.path),
+                    e
+                )
+                false
+            } catch (e: SecurityException) {
+                closeChannel(file)
+                internalLogger.errorWithTelemetry(
+                    BatchFileHandler.ERROR_WRITE.format(Locale.US, file.path),
+                    e
+                )
+                false
+            }
+        }
+    }
+
+    override fun readData(file: File): List<ByteArray> {
+        synchronized(this) { closeChannelIfTargets(file) }
+        return delegate.readData(file)
+    }
+
+    override fun streamData(file: File, consumer: (ByteArray) -> Unit): Boolean {
+        synchronized(this) { closeChannelIfTargets(file) }
+        return delegate.streamData(file, consumer)
+    }
+
+    override fun delete(target: File): Boolean {
+        synchronized(this) { closeChannelIfTargets(target) }
+        return delegate.delete(target)
+    }
+
+    override fun moveFiles(srcDir: File, destDir: File): Boolean {
+        synchronized(this) { closeChannelIfTargets(srcDir) }
+        return delegate.moveFiles(srcDir, destDir)
+    }
+
+    /**
+     * Closes the channels currently kept open, if any. The next append opens them again.
+     */
+    override fun close() {
+        synchronized(this) { openStreams.keys.toList().forEach { closeChannel(it) } }
+    }
+
+    // endregion
+
+    // region Internal
+
+    @Throws(IOException::class)
+    @Suppress("UnsafeThirdPartyFunctionCall") // Called within a try/catch block
+    private fun appendData(file: File, data: List<ByteArray>) {
+        delegate.lockChannelAndWriteEvents(getOrOpenStream(file).channel, data)
+    }
+
+    @Throws(IOException::class)
+    @Suppress("UnsafeThirdPartyFunctionCall") // Called within a try/catch block
+    private fun getOrOpenStream(file: File): FileOutputStream {
+        val openStream = openStreams[file]
+        if (openStream != null) {
+            return openStream
+        }
+
+        // the least recently written file was most likely rotated out by the orchestrator
+        if (openStreams.size >= MAX_OPEN_CHANNELS) {
+            closeChannel(openStreams.keys.first())
+        }
+        val stream = FileOutputStream(file, true)
+        openStreams[file] = stream
+        return stream
+    }
+
+    private fun closeChannelIfTargets(target: File) {
+        openStreams.keys
+            .filter { it == target || it.parentFile == target }
+            .forEach { closeChannel(it) }
+    }
+
+    private fun closeChannel(file: File) {
+        val stream = openStreams.remove(file)
+        try {
+            stream?.close()
+        } catch (e: IOException) {
+            internalLogger.e(ERROR_CLOSE.format(Locale.US, file.path), e)
+        }
+    }
+
+    // endregion
+
+    companion object {
+        internal const val ERROR_CLOSE = "Unable to close batch file: %s"
+
+        // one per priority lane, plus the files they last rotated from
+        internal const val MAX_OPEN_CHANNELS = 4
+        private const val LOAD_FACTOR = 0.75f
+    }
+}
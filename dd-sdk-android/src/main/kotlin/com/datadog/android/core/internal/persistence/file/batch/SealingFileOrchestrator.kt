@@ -0,0 +1,102 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.batch
+
+import com.datadog.android.core.internal.persistence.EventPriority
+import com.datadog.android.core.internal.persistence.file.FileOrchestrator
+import com.datadog.android.core.internal.persistence.file.FilePersistenceConfig
+import com.datadog.android.core.internal.utils.executeSafe
+import com.datadog.android.core.internal.utils.scheduleSafe
+import java.io.File
+import java.util.EnumMap
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * A [FileOrchestrator] sealing batch files as soon as the delegate orchestrator stops
+ * returning them as writable: the sealed batch is compressed right away, instead of at upload
+ * time.
+ *
+ * A batch is sealed when a newer file replaces it for the same priority, or once it's older
+ * than the recent delay (it can't be written to anymore, even if no newer file is needed
+ * because the traffic went idle). The compression runs on its own executor, so that it
+ * doesn't delay the writes queued on the persistence executor.
+ */
+internal class SealingFileOrchestrator(
+    internal val delegate: FileOrchestrator,
+    internal val compressor: BatchFileCompressor,
+    internal val executorService: ScheduledExecutorService,
+    internal val sealDelayMs: Long = FilePersistenceConfig.MAX_DELAY_BETWEEN_MESSAGES_MS
+) : FileOrchestrator by delegate {
+
+    // the last file written for each priority
+    private val lastWritableFiles = EnumMap<EventPriority, File>(EventPriority::class.java)
+
+    // region FileOrchestrator
+
+    override fun getWritableFile(dataSize: Int): File? {
+        val file = delegate.getWritableFile(dataSize) ?: return null
+        sealPreviousFileIfRotated(EventPriority.NORMAL, file)
+        return file
+    }
+
+    override fun getWritableFile(dataSize: Int, priority: EventPriority): File? {
+        val file = delegate.getWritableFile(dataSize, priority) ?: return null
+        sealPreviousFileIfRotated(priority, file)
+        return file
+    }
+
+    override fun getWritableFileForItems(dataSizes: List<Int>): Pair<File, Int>? {
+        val writableFile = delegate.getWritableFileForItems(dataSizes) ?: return null
+        sealPreviousFileIfRotated(EventPriority.NORMAL, writableFile.first)
+        return writableFile
+    }
+
+    override fun getWritableFileForItems(
+        dataSizes: List<Int>,
+        priority: EventPriority
+    ): Pair<File, Int>? {
+        val writableFile = delegate.getWritableFileForItems(dataSizes, priority) ?: return null
+        sealPreviousFileIfRotated(priority, writableFile.first)
+        return writableFile
+    }
+
+    // endregion
+
+    // region Internal
+
+    private fun sealPreviousFileIfRotated(priority: EventPriority, file: File) {
+        val previousFile = synchronized(lastWritableFiles) {
+            lastWritableFiles.put(priority, file)
+        }
+        if (previousFile == file) {
+            return
+        }
+
+        if (previousFile != null) {
+            // the previous batch of this priority won't be written to anymore
+            executorService.executeSafe(
+                OPERATION_COMPRESS,
+                Runnable { compressor.getOrCompress(previousFile) }
+            )
+        }
+        // the new batch won't be written to anymore once it's too old, even if it's never
+        // replaced by a newer one
+        executorService.scheduleSafe(
+            OPERATION_COMPRESS,
+            sealDelayMs,
+            TimeUnit.MILLISECONDS,
+            Runnable { compressor.getOrCompress(file) }
+        )
+    }
+
+    // endregion
+
+    companion object {
+        internal const val OPERATION_COMPRESS = "Batch file compression"
+    }
+}
@@ -6,6 +6,7 @@
 
 package com.datadog.android.core.internal.persistence.file.single
 
+import com.datadog.android.core.internal.persistence.EventPriority
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
 import com.datadog.android.core.internal.persistence.file.mkdirsSafe
 import java.io.File
@@ -21,6 +22,26 @@ internal class SingleFileOrchestrator(
         return file
     }
 
+    override fun getWritableFileForItems(dataSizes: List<Int>): Pair<File, Int>? {
+        if (dataSizes.isEmpty()) {
+            return null
+        }
+        file.parentFile?.mkdirsSafe()
+        return file to dataSizes.size
+    }
+
+    override fun getWritableFile(dataSize: Int, priority: EventPriority): File? {
+        // a single file can't be split by priority
+        return getWritableFile(dataSize)
+    }
+
+    override fun getWritableFileForItems(
+        dataSizes: List<Int>,
+        priority: EventPriority
+    ): Pair<File, Int>? {
+        return getWritableFileForItems(dataSizes)
+    }
+
     override fun getReadableFile(excludeFiles: Set<File>): File? {
         file.parentFile?.mkdirsSafe()
         return if (file in excludeFiles) {
@@ -8,7 +8,9 @@ package com.datadog.android.core.internal.utils
 
 import com.datadog.android.log.internal.utils.errorWithTelemetry
 import java.util.Locale
+import java.util.concurrent.Callable
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.Future
 import java.util.concurrent.RejectedExecutionException
 import java.util.concurrent.ScheduledExecutorService
 import java.util.concurrent.ScheduledFuture
@@ -25,6 +27,19 @@ internal fun ExecutorService.executeSafe(operationName: String, runnable: Runnab
     }
 }
 
+internal fun <T> ExecutorService.submitSafe(
+    operationName: String,
+    callable: Callable<T>
+): Future<T>? {
+    return try {
+        @Suppress("UnsafeThirdPartyFunctionCall") // NPE cannot happen here
+        submit(callable)
+    } catch (e: RejectedExecutionException) {
+        sdkLogger.errorWithTelemetry(ERROR_TASK_REJECTED.format(Locale.US, operationName), e)
+        null
+    }
+}
+
 internal fun ScheduledExecutorService.scheduleSafe(
     operationName: String,
     delay: Long,
@@ -12,8 +12,10 @@ import com.google.gson.JsonElement
 import com.google.gson.JsonNull
 import com.google.gson.JsonObject
 import com.google.gson.JsonPrimitive
+import com.google.gson.stream.JsonWriter
 import org.json.JSONArray
 import org.json.JSONObject
+import java.io.StringWriter
 import java.util.Date
 
 internal fun retryWithDelay(
@@ -72,6 +74,79 @@ internal fun Any?.toJsonElement(): JsonElement {
     }
 }
 
+/**
+ * Writes this value to the given [JsonWriter], producing the same json as [toJsonElement],
+ * without building an intermediate [JsonElement] tree (except for [JSONObject] and [JSONArray]).
+ */
+@Suppress("UnsafeThirdPartyFunctionCall") // exceptions are caught by the Serializer callers
+internal fun Any?.writeJson(writer: JsonWriter) {
+    when (this) {
+        NULL_MAP_VALUE -> writer.nullValue()
+        null -> writer.nullValue()
+        is Boolean -> writer.value(this)
+        is Int, is Long, is Float, is Double -> writer.value(this as Number)
+        is String -> writer.value(this)
+        is Date -> writer.value(this.time)
+        // this line should come before Iterable, as JsonArray is an Iterable
+        is JsonElement -> this.writeJsonElement(writer)
+        is Iterable<*> -> {
+            writer.beginArray()
+            forEach { it.writeJson(writer) }
+            writer.endArray()
+        }
+        is Map<*, *> -> {
+            writer.beginObject()
+            forEach {
+                writer.name(it.key.toString())
+                it.value.writeJson(writer)
+            }
+            writer.endObject()
+        }
+        is JSONObject -> this.toJsonObject().writeJsonElement(writer)
+        is JSONArray -> this.toJsonArray().writeJsonElement(writer)
+        else -> writer.value(toString())
+    }
+}
+
+@Suppress("UnsafeThirdPartyFunctionCall") // exceptions are caught by the Serializer callers
+private fun JsonElement.writeJsonElement(writer: JsonWriter) {
+    when (this) {
+        is JsonPrimitive -> when {
+            isBoolean -> writer.value(asBoolean)
+            isNumber -> writer.value(asNumber)
+            else -> writer.value(asString)
+        }
+        is JsonArray -> {
+            writer.beginArray()
+            forEach { it.writeJsonElement(writer) }
+            writer.endArray()
+        }
+        is JsonObject -> {
+            writer.beginObject()
+            entrySet().forEach {
+                writer.name(it.key)
+                it.value.writeJsonElement(writer)
+            }
+            writer.endObject()
+        }
+        else -> writer.nullValue()
+    }
+}
+
+/**
+ * Builds a json string with the given block, writing to a lenient [JsonWriter] (the same way
+ * [JsonElement.toString] does).
+ */
+@Suppress("UnsafeThirdPartyFunctionCall") // exceptions are caught by the Serializer callers
+internal inline fun buildJsonString(block: (JsonWriter) -> Unit): String {
+    val stringWriter = StringWriter()
+    val jsonWriter = JsonWriter(stringWriter)
+    jsonWriter.isLenient = true
+    block(jsonWriter)
+    jsonWriter.flush()
+    return stringWriter.toString()
+}
+
 internal fun Any?.fromJsonElement(): Any? {
     return when (this) {
         is JsonNull -> null
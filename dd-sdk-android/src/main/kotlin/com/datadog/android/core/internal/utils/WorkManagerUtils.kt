@@ -8,6 +8,7 @@ package com.datadog.android.core.internal.utils
 
 import android.content.Context
 import androidx.work.Constraints
+import androidx.work.Data
 import androidx.work.ExistingWorkPolicy
 import androidx.work.NetworkType
 import androidx.work.OneTimeWorkRequest
@@ -15,11 +16,14 @@ import androidx.work.WorkManager
 import com.datadog.android.core.internal.data.upload.UploadWorker
 import com.datadog.android.log.internal.utils.errorWithTelemetry
 import java.lang.IllegalStateException
+import java.util.Locale
 import java.util.concurrent.TimeUnit
 
 internal const val CANCEL_ERROR_MESSAGE = "Error cancelling the UploadWorker"
 internal const val SETUP_ERROR_MESSAGE = "Error while trying to setup the UploadWorker"
 internal const val UPLOAD_WORKER_WAS_SCHEDULED = "UploadWorker was scheduled."
+internal const val UPLOAD_WORKER_CONTINUATION_WAS_SCHEDULED =
+    "UploadWorker continuation was scheduled, starting with %s."
 internal const val UPLOAD_WORKER_NAME = "DatadogUploadWorker"
 internal const val TAG_DATADOG_UPLOAD = "DatadogBackgroundUpload"
 
@@ -57,6 +61,40 @@ internal fun triggerUploadWorker(context: Context) {
     }
 }
 
+/**
+ * Schedules another run of the [UploadWorker], resuming the upload where a previous run
+ * stopped after reaching its budget. This is called from the running worker, so the
+ * continuation is appended to it rather than replacing (and cancelling) it.
+ * @param nextFeatureName the name of the feature to upload first
+ */
+@Suppress("TooGenericExceptionCaught")
+internal fun scheduleUploadWorkerContinuation(context: Context, nextFeatureName: String) {
+    try {
+        val workManager = WorkManager.getInstance(context)
+        val constraints = Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .setRequiresBatteryNotLow(true)
+            .build()
+        val inputData = Data.Builder()
+            .putString(UploadWorker.KEY_NEXT_FEATURE, nextFeatureName)
+            .build()
+        val uploadWorkRequest = OneTimeWorkRequest.Builder(UploadWorker::class.java)
+            .setConstraints(constraints)
+            .setInputData(inputData)
+            .addTag(TAG_DATADOG_UPLOAD)
+            .setInitialDelay(DELAY_MS, TimeUnit.MILLISECONDS)
+            .build()
+        workManager.enqueueUniqueWork(
+            UPLOAD_WORKER_NAME,
+            ExistingWorkPolicy.APPEND_OR_REPLACE,
+            uploadWorkRequest
+        )
+        sdkLogger.i(UPLOAD_WORKER_CONTINUATION_WAS_SCHEDULED.format(Locale.US, nextFeatureName))
+    } catch (e: Exception) {
+        sdkLogger.errorWithTelemetry(SETUP_ERROR_MESSAGE, e)
+    }
+}
+
 @Suppress("TooGenericExceptionCaught", "SwallowedException")
 internal fun isWorkManagerInitialized(context: Context): Boolean {
     return try {
@@ -7,6 +7,9 @@
 package com.datadog.android.error.internal
 
 import android.content.Context
+import com.datadog.android.core.configuration.BufferOverflowPolicy
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.file.advanced.FeatureFileOrchestrator
 import com.datadog.android.core.internal.persistence.file.batch.BatchFileHandler
@@ -18,24 +21,34 @@ import com.datadog.android.log.internal.domain.event.LogEventSerializer
 import com.datadog.android.log.model.LogEvent
 import com.datadog.android.security.Encryption
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.ScheduledExecutorService
 
 internal class CrashReportFilePersistenceStrategy(
     consentProvider: ConsentProvider,
     context: Context,
     executorService: ExecutorService,
     internalLogger: Logger,
-    localDataEncryption: Encryption?
+    localDataEncryption: Encryption?,
+    persistentFileChannel: Boolean,
+    compressionExecutorService: ScheduledExecutorService?,
+    bufferOverflowPolicy: BufferOverflowPolicy,
+    featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
 ) : BatchFilePersistenceStrategy<LogEvent>(
     FeatureFileOrchestrator(
         consentProvider,
         context,
         CrashReportsFeature.CRASH_FEATURE_NAME,
         executorService,
-        internalLogger
+        internalLogger,
+        featureMetrics
     ),
     executorService,
     LogEventSerializer(),
     PayloadDecoration.JSON_ARRAY_DECORATION,
     sdkLogger,
-    BatchFileHandler.create(sdkLogger, localDataEncryption)
+    BatchFileHandler.create(sdkLogger, localDataEncryption, persistentFileChannel),
+    compressionExecutorService,
+    bufferOverflowPolicy,
+    featureMetrics = featureMetrics,
+    consentProvider = consentProvider
 )
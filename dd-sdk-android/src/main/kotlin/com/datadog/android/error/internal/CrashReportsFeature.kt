@@ -10,6 +10,7 @@ import android.content.Context
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.SdkFeature
+import com.datadog.android.core.internal.data.upload.UploadPriority
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.persistence.PersistenceStrategy
 import com.datadog.android.core.internal.utils.sdkLogger
@@ -25,6 +26,9 @@ internal object CrashReportsFeature : SdkFeature<LogEvent, Configuration.Feature
 
     // region SdkFeature
 
+    override val featureName: String = CRASH_FEATURE_NAME
+    override val uploadPriority: UploadPriority = UploadPriority.CRASH_REPORTS
+
     override fun onInitialize(context: Context, configuration: Configuration.Feature.CrashReport) {
         setupExceptionHandler(context)
     }
@@ -42,7 +46,11 @@ internal object CrashReportsFeature : SdkFeature<LogEvent, Configuration.Feature
             context,
             CoreFeature.persistenceExecutorService,
             sdkLogger,
-            CoreFeature.localDataEncryption
+            CoreFeature.localDataEncryption,
+            CoreFeature.persistentFileChannel,
+            CoreFeature.batchCompressionExecutorService,
+            CoreFeature.bufferOverflowPolicy,
+            featureMetrics
         )
     }
 
@@ -54,7 +62,9 @@ internal object CrashReportsFeature : SdkFeature<LogEvent, Configuration.Feature
             CoreFeature.sdkVersion,
             CoreFeature.okHttpClient,
             CoreFeature.androidInfoProvider,
-            sdkLogger
+            sdkLogger,
+            featureMetrics,
+            CoreFeature.uploadBackOffController
         )
     }
 
@@ -10,13 +10,19 @@ import androidx.annotation.FloatRange
 import com.datadog.android.Datadog
 import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.persistence.DataWriter
+import com.datadog.android.core.internal.persistence.file.advanced.RingBufferWriter
 import com.datadog.android.core.internal.sampling.RateBasedSampler
 import com.datadog.android.core.internal.utils.NULL_MAP_VALUE
 import com.datadog.android.core.internal.utils.devLogger
+import com.datadog.android.core.internal.utils.sdkLogger
 import com.datadog.android.log.internal.LogsFeature
 import com.datadog.android.log.internal.domain.LogGenerator
+import com.datadog.android.log.internal.domain.LogRecord
+import com.datadog.android.log.internal.domain.LogRecordWriter
+import com.datadog.android.log.internal.domain.LogTags
 import com.datadog.android.log.internal.logger.CombinedLogHandler
 import com.datadog.android.log.internal.logger.DatadogLogHandler
+import com.datadog.android.log.internal.logger.DeferredLogHandler
 import com.datadog.android.log.internal.logger.LogHandler
 import com.datadog.android.log.internal.logger.LogcatLogHandler
 import com.datadog.android.log.internal.logger.NoOpLogHandler
@@ -26,8 +32,6 @@ import com.google.gson.JsonObject
 import org.json.JSONArray
 import org.json.JSONObject
 import java.util.Date
-import java.util.concurrent.ConcurrentHashMap
-import java.util.concurrent.CopyOnWriteArraySet
 import android.util.Log as AndroidLog
 
 /**
@@ -42,8 +46,14 @@ import android.util.Log as AndroidLog
 class Logger
 internal constructor(internal var handler: LogHandler) {
 
-    private val attributes = ConcurrentHashMap<String, Any?>()
-    private val tags = CopyOnWriteArraySet<String>()
+    // immutable snapshots, only rebuilt (under the lock) when an attribute or a tag changes
+    private val contextLock = Any()
+
+    @Volatile
+    private var attributes: Map<String, Any?> = emptyMap()
+
+    @Volatile
+    private var tags: LogTags = LogTags.EMPTY
 
     // region Log
 
@@ -214,6 +224,7 @@ internal constructor(internal var handler: LogHandler) {
         private var loggerName: String = CoreFeature.packageName
         private var sampleRate: Float = 1.0f
         private var minDatadogLogsPriority: Int = -1
+        private var asyncLoggingEnabled: Boolean = false
 
         /**
          * Builds a [Logger] based on the current state of this Builder.
@@ -324,6 +335,18 @@ internal constructor(internal var handler: LogHandler) {
             return this
         }
 
+        /**
+         * Enables the asynchronous logging mode. When enabled, a log call only captures the
+         * log's message, attributes and context (active trace, RUM view, user) on the calling
+         * thread, and the actual log event (including the throwable's stacktrace) is built on
+         * a background thread.
+         * @param enabled false by default
+         */
+        fun setAsyncLoggingEnabled(enabled: Boolean): Builder {
+            asyncLoggingEnabled = enabled
+            return this
+        }
+
         // region Internal
 
         private fun buildLogcatHandler(): LogHandler {
@@ -331,6 +354,15 @@ internal constructor(internal var handler: LogHandler) {
         }
 
         private fun buildDatadogHandler(): LogHandler {
+            return if (!LogsFeature.isInitialized() && Datadog.preInitQueue.isPending()) {
+                // the SDK is being initialized in the background
+                DeferredLogHandler(Datadog.preInitQueue) { createDatadogHandler() }
+            } else {
+                createDatadogHandler()
+            }
+        }
+
+        private fun createDatadogHandler(): LogHandler {
             val writer = buildLogWriter() ?: return NoOpLogHandler()
 
             val logGenerator = buildLogGenerator()
@@ -341,7 +373,27 @@ internal constructor(internal var handler: LogHandler) {
                 minLogPriority = minDatadogLogsPriority,
                 bundleWithTraces = bundleWithTraceEnabled,
                 bundleWithRum = bundleWithRumEnabled,
-                sampler = RateBasedSampler(sampleRate)
+                sampler = RateBasedSampler(sampleRate),
+                recordWriter = if (asyncLoggingEnabled) {
+                    buildRecordWriter(logGenerator, writer)
+                } else {
+                    null
+                }
+            )
+        }
+
+        private fun buildRecordWriter(
+            logGenerator: LogGenerator,
+            writer: DataWriter<LogEvent>
+        ): DataWriter<LogRecord> {
+            // the records are drained on the persistence executor already, from there the logs
+            // can be written synchronously instead of going through a second ring buffer
+            val logWriter = (writer as? RingBufferWriter<LogEvent>)?.delegateWriter ?: writer
+            return RingBufferWriter(
+                LogRecordWriter(logGenerator, logWriter),
+                CoreFeature.persistenceExecutorService,
+                sdkLogger,
+                CoreFeature.bufferOverflowPolicy
             )
         }
 
@@ -394,7 +446,7 @@ internal constructor(internal var handler: LogHandler) {
      * @param value the boolean value of this attribute
      */
     fun addAttribute(key: String, value: Boolean) {
-        attributes[key] = value
+        safelyAddAttribute(key, value)
     }
 
     /**
@@ -407,7 +459,7 @@ internal constructor(internal var handler: LogHandler) {
      * @param value the integer value of this attribute
      */
     fun addAttribute(key: String, value: Int) {
-        attributes[key] = value
+        safelyAddAttribute(key, value)
     }
 
     /**
@@ -420,7 +472,7 @@ internal constructor(internal var handler: LogHandler) {
      * @param value the long value of this attribute
      */
     fun addAttribute(key: String, value: Long) {
-        attributes[key] = value
+        safelyAddAttribute(key, value)
     }
 
     /**
@@ -433,7 +485,7 @@ internal constructor(internal var handler: LogHandler) {
      * @param value the float value of this attribute
      */
     fun addAttribute(key: String, value: Float) {
-        attributes[key] = value
+        safelyAddAttribute(key, value)
     }
 
     /**
@@ -446,7 +498,7 @@ internal constructor(internal var handler: LogHandler) {
      * @param value the double value of this attribute
      */
     fun addAttribute(key: String, value: Double) {
-        attributes[key] = value
+        safelyAddAttribute(key, value)
     }
 
     /**
@@ -530,8 +582,11 @@ internal constructor(internal var handler: LogHandler) {
      * @param key the key of the attribute to remove
      */
     fun removeAttribute(key: String) {
-        @Suppress("UnsafeThirdPartyFunctionCall") // NPE cannot happen here
-        attributes.remove(key)
+        synchronized(contextLock) {
+            if (key in attributes) {
+                attributes = attributes - key
+            }
+        }
     }
 
     /**
@@ -600,10 +655,14 @@ internal constructor(internal var handler: LogHandler) {
         localAttributes: Map<String, Any?>,
         timestamp: Long? = null
     ) {
-        val combinedAttributes = mutableMapOf<String, Any?>()
-        combinedAttributes.putAll(attributes)
-        combinedAttributes.putAll(localAttributes)
-        handler.handleLog(level, message, throwable, combinedAttributes, tags, timestamp)
+        handler.handleLog(
+            level,
+            message,
+            throwable,
+            combineAttributes(localAttributes),
+            tags,
+            timestamp
+        )
     }
 
     @Suppress("LongParameterList")
@@ -616,41 +675,48 @@ internal constructor(internal var handler: LogHandler) {
         localAttributes: Map<String, Any?>,
         timestamp: Long? = null
     ) {
-        val combinedAttributes = mutableMapOf<String, Any?>()
-        combinedAttributes.putAll(attributes)
-        combinedAttributes.putAll(localAttributes)
         handler.handleLog(
             level,
             message,
             errorKind,
             errorMessage,
             errorStacktrace,
-            combinedAttributes,
+            combineAttributes(localAttributes),
             tags,
             timestamp
         )
     }
 
+    private fun combineAttributes(localAttributes: Map<String, Any?>): Map<String, Any?> {
+        // the snapshot is immutable, and can be shared as is when there's nothing to merge
+        return if (localAttributes.isEmpty()) {
+            attributes
+        } else {
+            attributes + localAttributes
+        }
+    }
+
     private fun addTagInternal(tag: String) {
-        tags.add(tag)
+        synchronized(contextLock) {
+            tags = tags.plus(tag)
+        }
     }
 
     private fun removeTagInternal(tag: String) {
-        tags.remove(tag)
+        safelyRemoveTagsWithKey { it == tag }
     }
 
     private fun safelyAddAttribute(key: String, value: Any?) {
         val attributeValue = value ?: NULL_MAP_VALUE
-        attributes[key] = attributeValue
+        synchronized(contextLock) {
+            attributes = attributes + (key to attributeValue)
+        }
     }
 
     private fun safelyRemoveTagsWithKey(keyFilter: (String) -> Boolean) {
-        // we first gather all the objects we want to remove based on a copy
-        val toRemove: List<String> = tags.toTypedArray().filter(keyFilter)
-        @Suppress("UnsafeThirdPartyFunctionCall")
-        // NPE cannot happen here (toRemove is explicitly non null)
-        // ClassCastException cannot happen, we're removing objects that come from the set
-        tags.removeAll(toRemove)
+        synchronized(contextLock) {
+            tags = tags.minus(keyFilter)
+        }
     }
 
     // endregion
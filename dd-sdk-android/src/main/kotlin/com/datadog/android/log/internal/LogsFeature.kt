@@ -10,6 +10,7 @@ import android.content.Context
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.SdkFeature
+import com.datadog.android.core.internal.data.upload.UploadPriority
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.persistence.PersistenceStrategy
 import com.datadog.android.core.internal.utils.sdkLogger
@@ -23,6 +24,9 @@ internal object LogsFeature : SdkFeature<LogEvent, Configuration.Feature.Logs>()
 
     // region SdkFeature
 
+    override val featureName: String = LOGS_FEATURE_NAME
+    override val uploadPriority: UploadPriority = UploadPriority.LOGS
+
     override fun createPersistenceStrategy(
         context: Context,
         configuration: Configuration.Feature.Logs
@@ -33,7 +37,11 @@ internal object LogsFeature : SdkFeature<LogEvent, Configuration.Feature.Logs>()
             CoreFeature.persistenceExecutorService,
             sdkLogger,
             configuration.logsEventMapper,
-            CoreFeature.localDataEncryption
+            CoreFeature.localDataEncryption,
+            CoreFeature.persistentFileChannel,
+            CoreFeature.batchCompressionExecutorService,
+            CoreFeature.bufferOverflowPolicy,
+            featureMetrics
         )
     }
 
@@ -45,7 +53,9 @@ internal object LogsFeature : SdkFeature<LogEvent, Configuration.Feature.Logs>()
             CoreFeature.sdkVersion,
             CoreFeature.okHttpClient,
             CoreFeature.androidInfoProvider,
-            sdkLogger
+            sdkLogger,
+            featureMetrics,
+            CoreFeature.uploadBackOffController
         )
     }
 
@@ -7,6 +7,9 @@
 package com.datadog.android.log.internal.domain
 
 import android.content.Context
+import com.datadog.android.core.configuration.BufferOverflowPolicy
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.file.advanced.FeatureFileOrchestrator
 import com.datadog.android.core.internal.persistence.file.batch.BatchFileHandler
@@ -22,6 +25,7 @@ import com.datadog.android.log.internal.domain.event.LogEventSerializer
 import com.datadog.android.log.model.LogEvent
 import com.datadog.android.security.Encryption
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.ScheduledExecutorService
 
 internal class LogFilePersistenceStrategy(
     consentProvider: ConsentProvider,
@@ -29,7 +33,11 @@ internal class LogFilePersistenceStrategy(
     executorService: ExecutorService,
     internalLogger: Logger,
     logEventMapper: EventMapper<LogEvent>,
-    localDataEncryption: Encryption?
+    localDataEncryption: Encryption?,
+    persistentFileChannel: Boolean,
+    compressionExecutorService: ScheduledExecutorService?,
+    bufferOverflowPolicy: BufferOverflowPolicy,
+    featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
 ) :
     BatchFilePersistenceStrategy<LogEvent>(
         FeatureFileOrchestrator(
@@ -37,11 +45,16 @@ internal class LogFilePersistenceStrategy(
             context,
             LogsFeature.LOGS_FEATURE_NAME,
             executorService,
-            internalLogger
+            internalLogger,
+            featureMetrics
         ),
         executorService,
         MapperSerializer(LogEventMapperWrapper(logEventMapper), LogEventSerializer()),
         PayloadDecoration.JSON_ARRAY_DECORATION,
         sdkLogger,
-        BatchFileHandler.create(sdkLogger, localDataEncryption)
+        BatchFileHandler.create(sdkLogger, localDataEncryption, persistentFileChannel),
+        compressionExecutorService,
+        bufferOverflowPolicy,
+        featureMetrics = featureMetrics,
+        consentProvider = consentProvider
     )
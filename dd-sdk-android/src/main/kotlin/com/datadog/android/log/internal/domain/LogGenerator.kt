@@ -6,6 +6,8 @@
 
 package com.datadog.android.log.internal.domain
 
+import com.datadog.android.core.internal.constraints.DataConstraints
+import com.datadog.android.core.internal.constraints.DatadogDataConstraints
 import com.datadog.android.core.internal.net.info.NetworkInfoProvider
 import com.datadog.android.core.internal.system.AndroidInfoProvider
 import com.datadog.android.core.internal.system.AppVersionProvider
@@ -14,11 +16,12 @@ import com.datadog.android.core.model.NetworkInfo
 import com.datadog.android.core.model.UserInfo
 import com.datadog.android.log.LogAttributes
 import com.datadog.android.log.internal.user.UserInfoProvider
-import com.datadog.android.log.internal.utils.buildLogDateFormat
+import com.datadog.android.log.internal.utils.Iso8601Formatter
 import com.datadog.android.log.model.LogEvent
 import com.datadog.android.rum.GlobalRum
+import com.datadog.android.rum.internal.domain.RumContext
+import io.opentracing.SpanContext
 import io.opentracing.util.GlobalTracer
-import java.util.Date
 
 internal class LogGenerator(
     internal val serviceName: String,
@@ -30,10 +33,11 @@ internal class LogGenerator(
     envName: String,
     variant: String,
     internal val appVersionProvider: AppVersionProvider,
-    internal val androidInfoProvider: AndroidInfoProvider
+    internal val androidInfoProvider: AndroidInfoProvider,
+    internal val dataConstraints: DataConstraints = DatadogDataConstraints()
 ) {
 
-    private val simpleDateFormat = buildLogDateFormat()
+    private val dateFormatter = Iso8601Formatter()
 
     internal val envTag: String? = if (envName.isNotEmpty()) {
         "${LogAttributes.ENV}:$envName"
@@ -57,6 +61,9 @@ internal class LogGenerator(
         null
     }
 
+    @Volatile
+    private var lastDdTags: DdTags? = null
+
     @Suppress("LongParameterList")
     fun generateLog(
         level: Int,
@@ -71,10 +78,7 @@ internal class LogGenerator(
         userInfo: UserInfo? = null,
         networkInfo: NetworkInfo? = null
     ): LogEvent {
-        val error = throwable?.let {
-            val kind = it.javaClass.canonicalName ?: it.javaClass.simpleName
-            LogEvent.Error(kind = kind, stack = it.stackTraceToString(), message = it.message)
-        }
+        val error = throwable?.let { resolveError(it) }
         return internalGenerateLog(
             level,
             message,
@@ -125,6 +129,77 @@ internal class LogGenerator(
         )
     }
 
+    /**
+     * Captures the context of a log call (active span, RUM context, user), without building the
+     * actual [LogEvent]: this is meant to be called on the logging thread, while the
+     * [generateLog] method taking the returned [LogRecord] can run on a background thread.
+     * @param attributes the attributes of the log, which must not be modified afterwards
+     * @param tags the tags of the log, which must not be modified afterwards
+     */
+    @Suppress("LongParameterList")
+    fun captureRecord(
+        level: Int,
+        message: String,
+        throwable: Throwable?,
+        errorKind: String?,
+        errorMessage: String?,
+        errorStacktrace: String?,
+        attributes: Map<String, Any?>,
+        tags: Set<String>,
+        timestamp: Long,
+        bundleWithTraces: Boolean = true,
+        bundleWithRum: Boolean = true
+    ): LogRecord {
+        return LogRecord(
+            level = level,
+            message = message,
+            throwable = throwable,
+            errorKind = errorKind,
+            errorMessage = errorMessage,
+            errorStacktrace = errorStacktrace,
+            attributes = attributes,
+            tags = tags,
+            timestamp = timestamp,
+            threadName = Thread.currentThread().name,
+            spanContext = if (bundleWithTraces) resolveActiveSpanContext() else null,
+            rumContext = if (bundleWithRum) resolveRumContext() else null,
+            userInfo = userInfoProvider.getUserInfo()
+        )
+    }
+
+    /**
+     * Builds the [LogEvent] matching a [LogRecord] captured earlier with [captureRecord].
+     */
+    fun generateLog(record: LogRecord): LogEvent {
+        val error = if (record.throwable != null) {
+            resolveError(record.throwable)
+        } else if (record.errorKind != null ||
+            record.errorMessage != null ||
+            record.errorStacktrace != null
+        ) {
+            LogEvent.Error(
+                kind = record.errorKind,
+                message = record.errorMessage,
+                stack = record.errorStacktrace
+            )
+        } else {
+            null
+        }
+        return buildLogEvent(
+            record.level,
+            record.message,
+            error,
+            combineAttributes(record.attributes, record.spanContext, record.rumContext),
+            record.tags,
+            record.timestamp,
+            record.threadName,
+            record.userInfo,
+            null
+        )
+    }
+
+    // region Internal
+
     @Suppress("LongParameterList")
     private fun internalGenerateLog(
         level: Int,
@@ -138,20 +213,41 @@ internal class LogGenerator(
         bundleWithRum: Boolean = true,
         userInfo: UserInfo? = null,
         networkInfo: NetworkInfo? = null
+    ): LogEvent {
+        return buildLogEvent(
+            level,
+            message,
+            error,
+            resolveAttributes(attributes, bundleWithTraces, bundleWithRum),
+            tags,
+            timestamp,
+            threadName ?: Thread.currentThread().name,
+            userInfo,
+            networkInfo
+        )
+    }
+
+    @Suppress("LongParameterList")
+    private fun buildLogEvent(
+        level: Int,
+        message: String,
+        error: LogEvent.Error?,
+        combinedAttributes: MutableMap<String, Any?>,
+        tags: Set<String>,
+        timestamp: Long,
+        threadName: String,
+        userInfo: UserInfo?,
+        networkInfo: NetworkInfo?
     ): LogEvent {
         val resolvedTimestamp = timestamp + timeProvider.getServerOffsetMillis()
-        val combinedAttributes = resolveAttributes(attributes, bundleWithTraces, bundleWithRum)
         val architecture = androidInfoProvider.architecture
-        val formattedDate = synchronized(simpleDateFormat) {
-            @Suppress("UnsafeThirdPartyFunctionCall") // NPE cannot happen here
-            simpleDateFormat.format(Date(resolvedTimestamp))
-        }
-        val combinedTags = resolveTags(tags)
+        val formattedDate = dateFormatter.format(resolvedTimestamp)
+        val ddtags = resolveDdTags(tags)
         val usr = resolveUserInfo(userInfo)
         val network = resolveNetworkInfo(networkInfo)
         val loggerInfo = LogEvent.Logger(
             name = loggerName,
-            threadName = threadName ?: Thread.currentThread().name,
+            threadName = threadName,
             version = sdkVersion
         )
         return LogEvent(
@@ -168,11 +264,20 @@ internal class LogGenerator(
             ),
             usr = usr,
             network = network,
-            ddtags = combinedTags.joinToString(separator = ","),
+            ddtags = ddtags,
             additionalProperties = combinedAttributes
         )
     }
 
+    private fun resolveError(throwable: Throwable): LogEvent.Error {
+        val kind = throwable.javaClass.canonicalName ?: throwable.javaClass.simpleName
+        return LogEvent.Error(
+            kind = kind,
+            stack = throwable.stackTraceToString(),
+            message = throwable.message
+        )
+    }
+
     private fun resolveNetworkInfo(networkInfo: NetworkInfo?): LogEvent.Network? {
         val resolvedNetworkInfo = networkInfo ?: networkInfoProvider?.getLatestNetworkInfo()
         return resolvedNetworkInfo?.let {
@@ -198,10 +303,34 @@ internal class LogGenerator(
         )
     }
 
-    private fun resolveTags(
-        tags: Set<String>
-    ): MutableSet<String> {
-        val combinedTags = mutableSetOf<String>().apply { addAll(tags) }
+    /**
+     * Resolves the validated and joined tags of a log. As a [LogTags] snapshot never changes,
+     * the result is cached and reused as long as the logger's tags and the app version don't
+     * change.
+     */
+    private fun resolveDdTags(tags: Set<String>): String {
+        val appVersionTag = appVersionTag
+        val snapshot = when {
+            tags.isEmpty() -> LogTags.EMPTY
+            tags is LogTags -> tags
+            else -> return buildDdTags(tags, appVersionTag)
+        }
+
+        val cached = lastDdTags
+        return if (cached != null &&
+            cached.tags === snapshot &&
+            cached.appVersionTag == appVersionTag
+        ) {
+            cached.value
+        } else {
+            val ddtags = buildDdTags(snapshot, appVersionTag)
+            lastDdTags = DdTags(snapshot, appVersionTag, ddtags)
+            ddtags
+        }
+    }
+
+    private fun buildDdTags(tags: Set<String>, appVersionTag: String?): String {
+        val combinedTags = tags.toMutableSet()
         envTag?.let {
             combinedTags.add(it)
         }
@@ -212,29 +341,52 @@ internal class LogGenerator(
             combinedTags.add(it)
         }
 
-        return combinedTags
+        return dataConstraints.validateTags(combinedTags.toList()).joinToString(separator = ",")
     }
 
     private fun resolveAttributes(
         attributes: Map<String, Any?>,
         bundleWithTraces: Boolean,
         bundleWithRum: Boolean
+    ): MutableMap<String, Any?> {
+        return combineAttributes(
+            attributes,
+            if (bundleWithTraces) resolveActiveSpanContext() else null,
+            if (bundleWithRum) resolveRumContext() else null
+        )
+    }
+
+    private fun resolveActiveSpanContext(): SpanContext? {
+        return if (GlobalTracer.isRegistered()) {
+            GlobalTracer.get().activeSpan()?.context()
+        } else {
+            null
+        }
+    }
+
+    private fun resolveRumContext(): RumContext? {
+        return if (GlobalRum.isRegistered()) {
+            GlobalRum.getRumContext()
+        } else {
+            null
+        }
+    }
+
+    private fun combineAttributes(
+        attributes: Map<String, Any?>,
+        spanContext: SpanContext?,
+        rumContext: RumContext?
     ): MutableMap<String, Any?> {
         val combinedAttributes = mutableMapOf<String, Any?>().apply { putAll(attributes) }
-        if (bundleWithTraces && GlobalTracer.isRegistered()) {
-            val tracer = GlobalTracer.get()
-            val activeContext = tracer.activeSpan()?.context()
-            if (activeContext != null) {
-                combinedAttributes[LogAttributes.DD_TRACE_ID] = activeContext.toTraceId()
-                combinedAttributes[LogAttributes.DD_SPAN_ID] = activeContext.toSpanId()
-            }
+        if (spanContext != null) {
+            combinedAttributes[LogAttributes.DD_TRACE_ID] = spanContext.toTraceId()
+            combinedAttributes[LogAttributes.DD_SPAN_ID] = spanContext.toSpanId()
         }
-        if (bundleWithRum && GlobalRum.isRegistered()) {
-            val activeContext = GlobalRum.getRumContext()
-            combinedAttributes[LogAttributes.RUM_APPLICATION_ID] = activeContext.applicationId
-            combinedAttributes[LogAttributes.RUM_SESSION_ID] = activeContext.sessionId
-            combinedAttributes[LogAttributes.RUM_VIEW_ID] = activeContext.viewId
-            combinedAttributes[LogAttributes.RUM_ACTION_ID] = activeContext.actionId
+        if (rumContext != null) {
+            combinedAttributes[LogAttributes.RUM_APPLICATION_ID] = rumContext.applicationId
+            combinedAttributes[LogAttributes.RUM_SESSION_ID] = rumContext.sessionId
+            combinedAttributes[LogAttributes.RUM_VIEW_ID] = rumContext.viewId
+            combinedAttributes[LogAttributes.RUM_ACTION_ID] = rumContext.actionId
         }
         return combinedAttributes
     }
@@ -264,6 +416,14 @@ internal class LogGenerator(
         }
     }
 
+    // endregion
+
+    private class DdTags(
+        val tags: LogTags,
+        val appVersionTag: String?,
+        val value: String
+    )
+
     companion object {
         internal const val ISO_8601 = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"
         internal const val CRASH: Int = 9
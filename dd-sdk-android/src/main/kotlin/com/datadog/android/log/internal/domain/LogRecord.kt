@@ -0,0 +1,33 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.log.internal.domain
+
+import com.datadog.android.core.model.UserInfo
+import com.datadog.android.rum.internal.domain.RumContext
+import io.opentracing.SpanContext
+
+/**
+ * An immutable snapshot of a log call, captured on the calling thread when logging
+ * asynchronously. It only holds references to what is known at the time of the call: the
+ * matching [com.datadog.android.log.model.LogEvent] (stacktrace, date, tags, …) is built later
+ * on a background thread by [LogGenerator.generateLog].
+ */
+internal class LogRecord(
+    val level: Int,
+    val message: String,
+    val throwable: Throwable?,
+    val errorKind: String?,
+    val errorMessage: String?,
+    val errorStacktrace: String?,
+    val attributes: Map<String, Any?>,
+    val tags: Set<String>,
+    val timestamp: Long,
+    val threadName: String,
+    val spanContext: SpanContext?,
+    val rumContext: RumContext?,
+    val userInfo: UserInfo
+)
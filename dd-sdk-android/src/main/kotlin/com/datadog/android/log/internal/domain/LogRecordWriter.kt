@@ -0,0 +1,32 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.log.internal.domain
+
+import com.datadog.android.core.internal.persistence.DataWriter
+import com.datadog.android.log.model.LogEvent
+
+/**
+ * A [DataWriter] turning the [LogRecord] captured by an asynchronous logger into [LogEvent],
+ * and forwarding them to the delegate writer. It's meant to be drained on a background thread.
+ */
+internal class LogRecordWriter(
+    internal val logGenerator: LogGenerator,
+    internal val delegateWriter: DataWriter<LogEvent>
+) : DataWriter<LogRecord> {
+
+    // region DataWriter
+
+    override fun write(element: LogRecord) {
+        delegateWriter.write(logGenerator.generateLog(element))
+    }
+
+    override fun write(data: List<LogRecord>) {
+        delegateWriter.write(data.map { logGenerator.generateLog(it) })
+    }
+
+    // endregion
+}
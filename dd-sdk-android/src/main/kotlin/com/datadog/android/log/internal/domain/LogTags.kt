@@ -0,0 +1,55 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.log.internal.domain
+
+/**
+ * An immutable snapshot of the tags of a [com.datadog.android.log.Logger], rebuilt each time a
+ * tag is added or removed. Because a snapshot never changes, the [LogGenerator] only validates
+ * and joins its tags once, instead of once per log.
+ */
+internal class LogTags private constructor(
+    private val tags: Set<String>
+) : AbstractSet<String>() {
+
+    override val size: Int
+        get() = tags.size
+
+    override fun contains(element: String): Boolean {
+        return tags.contains(element)
+    }
+
+    override fun iterator(): Iterator<String> {
+        return tags.iterator()
+    }
+
+    /**
+     * @return a snapshot with the given tag added (or this one if it already has the tag)
+     */
+    fun plus(tag: String): LogTags {
+        return if (tag in tags) {
+            this
+        } else {
+            LogTags(tags + tag)
+        }
+    }
+
+    /**
+     * @return a snapshot without the tags matching the predicate (or this one if none matches)
+     */
+    fun minus(predicate: (String) -> Boolean): LogTags {
+        val filteredTags = tags.filterNot(predicate)
+        return if (filteredTags.size == tags.size) {
+            this
+        } else {
+            LogTags(filteredTags.toSet())
+        }
+    }
+
+    companion object {
+        internal val EMPTY = LogTags(emptySet())
+    }
+}
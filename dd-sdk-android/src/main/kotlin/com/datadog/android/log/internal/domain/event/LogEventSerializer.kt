@@ -9,6 +9,7 @@ package com.datadog.android.log.internal.domain.event
 import com.datadog.android.core.internal.constraints.DataConstraints
 import com.datadog.android.core.internal.constraints.DatadogDataConstraints
 import com.datadog.android.core.internal.persistence.Serializer
+import com.datadog.android.core.internal.utils.buildJsonString
 import com.datadog.android.log.LogAttributes
 import com.datadog.android.log.model.LogEvent
 
@@ -17,14 +18,16 @@ internal class LogEventSerializer(
 ) :
     Serializer<LogEvent> {
 
+    @Volatile
+    private var lastDdTags: DdTags? = null
+
     override fun serialize(model: LogEvent): String {
-        return sanitizeTagsAndAttributes(model).toJson().toString()
+        val sanitizedModel = sanitizeTagsAndAttributes(model)
+        return buildJsonString { sanitizedModel.writeTo(it) }
     }
 
     private fun sanitizeTagsAndAttributes(log: LogEvent): LogEvent {
-        val sanitizedTags = dataConstraints
-            .validateTags(log.ddtags.split(","))
-            .joinToString(",")
+        val sanitizedTags = sanitizeTags(log.ddtags)
         val sanitizedAttributes = dataConstraints
             .validateAttributes(log.additionalProperties)
             .filterKeys { it.isNotBlank() }
@@ -43,6 +46,30 @@ internal class LogEventSerializer(
         )
     }
 
+    /**
+     * The tags are validated by the LogGenerator, but they can still be changed by the
+     * user's event mapper. As the LogGenerator reuses the same string as long as the
+     * logger's tags don't change, the tags are only validated again when they differ
+     * from the last ones seen.
+     */
+    private fun sanitizeTags(ddtags: String): String {
+        val cached = lastDdTags
+        return if (cached != null && cached.raw == ddtags) {
+            cached.value
+        } else {
+            val sanitizedTags = dataConstraints
+                .validateTags(ddtags.split(","))
+                .joinToString(",")
+            lastDdTags = DdTags(ddtags, sanitizedTags)
+            sanitizedTags
+        }
+    }
+
+    private class DdTags(
+        val raw: String,
+        val value: String
+    )
+
     companion object {
         internal const val USER_EXTRA_GROUP_VERBOSE_NAME = "user extra information"
     }
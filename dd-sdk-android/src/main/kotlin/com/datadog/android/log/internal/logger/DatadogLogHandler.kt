@@ -10,6 +10,8 @@ import com.datadog.android.core.internal.persistence.DataWriter
 import com.datadog.android.core.internal.sampling.RateBasedSampler
 import com.datadog.android.core.internal.sampling.Sampler
 import com.datadog.android.log.internal.domain.LogGenerator
+import com.datadog.android.log.internal.domain.LogRecord
+import com.datadog.android.log.internal.domain.LogTags
 import com.datadog.android.log.model.LogEvent
 import com.datadog.android.rum.GlobalRum
 import com.datadog.android.rum.RumErrorSource
@@ -21,7 +23,8 @@ internal class DatadogLogHandler(
     internal val bundleWithTraces: Boolean = true,
     internal val bundleWithRum: Boolean = true,
     internal val sampler: Sampler = RateBasedSampler(1.0f),
-    internal val minLogPriority: Int = -1
+    internal val minLogPriority: Int = -1,
+    internal val recordWriter: DataWriter<LogRecord>? = null
 ) : LogHandler {
 
     // region LogHandler
@@ -40,8 +43,23 @@ internal class DatadogLogHandler(
 
         val resolvedTimeStamp = timestamp ?: System.currentTimeMillis()
         if (sampler.sample()) {
-            val log = createLog(level, message, throwable, attributes, tags, resolvedTimeStamp)
-            writer.write(log)
+            if (recordWriter != null) {
+                val record = captureRecord(
+                    level,
+                    message,
+                    throwable,
+                    null,
+                    null,
+                    null,
+                    attributes,
+                    tags,
+                    resolvedTimeStamp
+                )
+                recordWriter.write(record)
+            } else {
+                val log = createLog(level, message, throwable, attributes, tags, resolvedTimeStamp)
+                writer.write(log)
+            }
         }
 
         if (level >= AndroidLog.ERROR) {
@@ -65,17 +83,32 @@ internal class DatadogLogHandler(
 
         val resolvedTimeStamp = timestamp ?: System.currentTimeMillis()
         if (sampler.sample()) {
-            val log = createLog(
-                level,
-                message,
-                errorKind,
-                errorMessage,
-                errorStacktrace,
-                attributes,
-                tags,
-                resolvedTimeStamp
-            )
-            writer.write(log)
+            if (recordWriter != null) {
+                val record = captureRecord(
+                    level,
+                    message,
+                    null,
+                    errorKind,
+                    errorMessage,
+                    errorStacktrace,
+                    attributes,
+                    tags,
+                    resolvedTimeStamp
+                )
+                recordWriter.write(record)
+            } else {
+                val log = createLog(
+                    level,
+                    message,
+                    errorKind,
+                    errorMessage,
+                    errorStacktrace,
+                    attributes,
+                    tags,
+                    resolvedTimeStamp
+                )
+                writer.write(log)
+            }
         }
 
         if (level >= AndroidLog.ERROR) {
@@ -133,5 +166,34 @@ internal class DatadogLogHandler(
         )
     }
 
+    @Suppress("LongParameterList")
+    private fun captureRecord(
+        level: Int,
+        message: String,
+        throwable: Throwable?,
+        errorKind: String?,
+        errorMessage: String?,
+        errorStack: String?,
+        attributes: Map<String, Any?>,
+        tags: Set<String>,
+        timestamp: Long
+    ): LogRecord {
+        // unless it's an immutable snapshot, the tags set can change before the record is consumed
+        val tagsSnapshot = if (tags is LogTags) tags else tags.toSet()
+        return logGenerator.captureRecord(
+            level,
+            message,
+            throwable,
+            errorKind,
+            errorMessage,
+            errorStack,
+            attributes,
+            tagsSnapshot,
+            timestamp,
+            bundleWithRum = bundleWithRum,
+            bundleWithTraces = bundleWithTraces
+        )
+    }
+
     // endregion
 }
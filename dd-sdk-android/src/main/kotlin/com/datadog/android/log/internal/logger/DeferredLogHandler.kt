@@ -0,0 +1,90 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.log.internal.logger
+
+import com.datadog.android.core.internal.PreInitQueue
+
+/**
+ * A [LogHandler] used while the SDK is initialized on a background thread: the actual handler
+ * is only built once the SDK is ready, and the logs received until then are kept in the
+ * [PreInitQueue], with their original timestamp.
+ */
+internal class DeferredLogHandler(
+    private val preInitQueue: PreInitQueue,
+    handlerFactory: () -> LogHandler
+) : LogHandler {
+
+    @Volatile
+    internal var delegate: LogHandler = NoOpLogHandler()
+        private set
+
+    init {
+        preInitQueue.runWhenReady { delegate = handlerFactory() }
+    }
+
+    // region LogHandler
+
+    override fun handleLog(
+        level: Int,
+        message: String,
+        throwable: Throwable?,
+        attributes: Map<String, Any?>,
+        tags: Set<String>,
+        timestamp: Long?
+    ) {
+        if (preInitQueue.isReady()) {
+            delegate.handleLog(level, message, throwable, attributes, tags, timestamp)
+        } else {
+            val logTimestamp = timestamp ?: System.currentTimeMillis()
+            val logTags = tags.toSet()
+            preInitQueue.runWhenReady {
+                delegate.handleLog(level, message, throwable, attributes, logTags, logTimestamp)
+            }
+        }
+    }
+
+    override fun handleLog(
+        level: Int,
+        message: String,
+        errorKind: String?,
+        errorMessage: String?,
+        errorStacktrace: String?,
+        attributes: Map<String, Any?>,
+        tags: Set<String>,
+        timestamp: Long?
+    ) {
+        if (preInitQueue.isReady()) {
+            delegate.handleLog(
+                level,
+                message,
+                errorKind,
+                errorMessage,
+                errorStacktrace,
+                attributes,
+                tags,
+                timestamp
+            )
+        } else {
+            val logTimestamp = timestamp ?: System.currentTimeMillis()
+            val logTags = tags.toSet()
+            preInitQueue.runWhenReady {
+                delegate.handleLog(
+                    level,
+                    message,
+                    errorKind,
+                    errorMessage,
+                    errorStacktrace,
+                    attributes,
+                    logTags,
+                    logTimestamp
+                )
+            }
+        }
+    }
+
+    // endregion
+}
@@ -10,12 +10,16 @@ import android.os.Build
 import android.util.Log
 import com.datadog.android.Datadog
 import com.datadog.android.log.Logger
+import java.util.concurrent.ConcurrentHashMap
 
 internal class LogcatLogHandler(
     internal val serviceName: String,
     internal val useClassnameAsTag: Boolean
 ) : LogHandler {
 
+    // the same few classes are logging again and again, no need to recompute their tag
+    private val tagsByClassName: MutableMap<String, String> = ConcurrentHashMap()
+
     // region LogHandler
 
     override fun handleLog(
@@ -66,14 +70,20 @@ internal class LogcatLogHandler(
 
     // region Internal
 
-    private fun resolveTag(stackTraceElement: StackTraceElement?): String {
-        val tag = if (stackTraceElement == null) {
-            serviceName
+    internal fun resolveTag(stackTraceElement: StackTraceElement?): String {
+        return if (stackTraceElement == null) {
+            truncateTag(serviceName)
         } else {
-            stackTraceElement.className
-                .replace(ANONYMOUS_CLASS, "")
-                .substringAfterLast('.')
+            val className = stackTraceElement.className
+            tagsByClassName.getOrPut(className) { buildClassNameTag(className) }
         }
+    }
+
+    private fun buildClassNameTag(className: String): String {
+        return truncateTag(removeAnonymousClassSuffix(className).substringAfterLast('.'))
+    }
+
+    private fun truncateTag(tag: String): String {
         return if (tag.length >= MAX_TAG_LENGTH && Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
             @Suppress("UnsafeThirdPartyFunctionCall")
             // substring can't throw IndexOutOfBounds, we checked the length
@@ -83,6 +93,27 @@ internal class LogcatLogHandler(
         }
     }
 
+    /**
+     * Removes the trailing `$1$2…` anonymous classes suffix from a class name.
+     */
+    @Suppress("UnsafeThirdPartyFunctionCall") // get/substring can't throw IndexOutOfBounds here
+    private fun removeAnonymousClassSuffix(className: String): String {
+        var end = className.length
+        var index = end - 1
+        while (index >= 0) {
+            val character = className[index]
+            if (character in '0'..'9') {
+                index--
+            } else if (character == '$' && index < end - 1) {
+                end = index
+                index--
+            } else {
+                break
+            }
+        }
+        return className.substring(0, end)
+    }
+
     private fun resolveSuffix(stackTraceElement: StackTraceElement?): String {
         return if (stackTraceElement == null) {
             ""
@@ -94,7 +125,7 @@ internal class LogcatLogHandler(
 
     internal fun getCallerStackElement(): StackTraceElement? {
         return if (Datadog.isDebug && useClassnameAsTag) {
-            val stackTrace = Throwable().stackTrace
+            val stackTrace = Thread.currentThread().stackTrace
             return findValidCallStackElement(stackTrace)
         } else {
             null
@@ -104,10 +135,22 @@ internal class LogcatLogHandler(
     internal fun findValidCallStackElement(
         stackTrace: Array<StackTraceElement>
     ): StackTraceElement? {
-        return stackTrace.firstOrNull { element ->
-            element.className !in IGNORED_CLASS_NAMES &&
-                IGNORED_PACKAGE_PREFIXES.none { element.className.startsWith(it) }
+        // the caller is only a few frames away from the handler, stop as soon as it's found
+        val maxDepth = minOf(stackTrace.size, MAX_CALLER_STACK_DEPTH)
+        for (index in 0 until maxDepth) {
+            @Suppress("UnsafeThirdPartyFunctionCall") // index is within the array bounds
+            val element = stackTrace[index]
+            if (isCallerStackElement(element)) {
+                return element
+            }
         }
+        return null
+    }
+
+    private fun isCallerStackElement(element: StackTraceElement): Boolean {
+        val className = element.className
+        return className !in IGNORED_CLASS_NAMES &&
+            IGNORED_PACKAGE_PREFIXES.none { className.startsWith(it) }
     }
 
     // endregion
@@ -116,10 +159,14 @@ internal class LogcatLogHandler(
 
         private const val MAX_TAG_LENGTH = 23
 
-        private val ANONYMOUS_CLASS = Regex("(\\$\\d+)+$")
+        // deep enough for any chain of log handlers and Timber trees
+        internal const val MAX_CALLER_STACK_DEPTH = 64
 
         // internal for testing
-        internal val IGNORED_CLASS_NAMES = arrayOf(
+        internal val IGNORED_CLASS_NAMES = setOf(
+            // frames capturing the stack trace itself
+            "dalvik.system.VMStack",
+            Thread::class.java.canonicalName,
             Logger::class.java.canonicalName,
             LogHandler::class.java.canonicalName,
             LogHandler::class.java.canonicalName?.plus("\$DefaultImpls"),
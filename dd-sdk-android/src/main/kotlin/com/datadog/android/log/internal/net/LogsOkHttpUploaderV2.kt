@@ -6,7 +6,10 @@
 
 package com.datadog.android.log.internal.net
 
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.net.DataOkHttpUploaderV2
+import com.datadog.android.core.internal.net.UploadBackOffController
 import com.datadog.android.core.internal.system.AndroidInfoProvider
 import com.datadog.android.log.Logger
 import okhttp3.Call
@@ -18,7 +21,9 @@ internal open class LogsOkHttpUploaderV2(
     sdkVersion: String,
     callFactory: Call.Factory,
     androidInfoProvider: AndroidInfoProvider,
-    internalLogger: Logger
+    internalLogger: Logger,
+    featureMetrics: FeatureMetrics = NoOpFeatureMetrics(),
+    backOffController: UploadBackOffController = UploadBackOffController()
 ) : DataOkHttpUploaderV2(
     buildUrl(endpoint, TrackType.LOGS),
     clientToken,
@@ -27,7 +32,9 @@ internal open class LogsOkHttpUploaderV2(
     callFactory,
     CONTENT_TYPE_JSON,
     androidInfoProvider,
-    internalLogger
+    internalLogger,
+    featureMetrics,
+    backOffController
 ) {
 
     override fun buildQueryParameters(): Map<String, Any> {
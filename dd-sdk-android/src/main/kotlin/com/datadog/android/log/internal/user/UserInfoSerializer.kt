@@ -7,12 +7,13 @@
 package com.datadog.android.log.internal.user
 
 import com.datadog.android.core.internal.persistence.Serializer
+import com.datadog.android.core.internal.utils.buildJsonString
 import com.datadog.android.core.model.UserInfo
 
 internal class UserInfoSerializer :
     Serializer<UserInfo> {
 
     override fun serialize(model: UserInfo): String {
-        return model.toJson().asJsonObject.toString()
+        return buildJsonString { model.writeTo(it) }
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.log.internal.utils
+
+import java.util.Date
+
+/**
+ * A thread safe formatter for timestamps, using the [ISO_8601] pattern in UTC
+ * (e.g.: `2022-03-14T15:09:26.535Z`).
+ *
+ * Unlike a [java.text.SimpleDateFormat], it doesn't need to be shared under a lock: the date and
+ * time up to the second are computed arithmetically and cached in an immutable holder, so that
+ * formatting timestamps within the same second only writes the milliseconds.
+ * Timestamps outside of the 1970–9999 range fall back to a [java.text.SimpleDateFormat].
+ */
+internal class Iso8601Formatter {
+
+    @Volatile
+    private var cachedSecond: FormattedSecond? = null
+
+    private val fallbackDateFormat by lazy { buildLogDateFormat() }
+
+    /**
+     * @param timestampMs the timestamp to format, in milliseconds since the epoch
+     * @return the formatted timestamp
+     */
+    fun format(timestampMs: Long): String {
+        if (timestampMs < 0 || timestampMs >= MAX_TIMESTAMP_MS) {
+            return formatWithFallback(timestampMs)
+        }
+
+        val epochSecond = timestampMs / MILLIS_PER_SECOND
+        val millis = (timestampMs % MILLIS_PER_SECOND).toInt()
+        var formattedSecond = cachedSecond
+        if (formattedSecond == null || formattedSecond.epochSecond != epochSecond) {
+            formattedSecond = FormattedSecond(epochSecond, formatSecond(epochSecond))
+            cachedSecond = formattedSecond
+        }
+
+        val chars = CharArray(FORMATTED_LENGTH)
+        formattedSecond.prefix.copyInto(chars)
+        writeDigits(chars, MILLIS_OFFSET, millis, MILLIS_DIGITS)
+        chars[FORMATTED_LENGTH - 1] = 'Z'
+        return String(chars)
+    }
+
+    // region Internal
+
+    private fun formatWithFallback(timestampMs: Long): String {
+        val dateFormat = fallbackDateFormat
+        return synchronized(dateFormat) {
+            @Suppress("UnsafeThirdPartyFunctionCall") // NPE cannot happen here
+            dateFormat.format(Date(timestampMs))
+        }
+    }
+
+    /**
+     * Formats the `yyyy-MM-dd'T'HH:mm:ss.` prefix of a positive epoch second, converting the
+     * days since the epoch to a date in the (proleptic) Gregorian calendar.
+     * See http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+     */
+    @Suppress("MagicNumber")
+    private fun formatSecond(epochSecond: Long): CharArray {
+        val epochDay = epochSecond / SECONDS_PER_DAY
+        val secondOfDay = (epochSecond % SECONDS_PER_DAY).toInt()
+
+        val shiftedDay = epochDay + DAYS_FROM_YEAR_0_TO_EPOCH
+        val era = shiftedDay / DAYS_PER_ERA
+        val dayOfEra = (shiftedDay - era * DAYS_PER_ERA).toInt()
+        val yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365
+        val dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100)
+        val shiftedMonth = (5 * dayOfYear + 2) / 153
+        val day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1
+        val month = if (shiftedMonth < 10) shiftedMonth + 3 else shiftedMonth - 9
+        val year = (era * 400 + yearOfEra).toInt() + if (month <= 2) 1 else 0
+
+        val chars = CharArray(PREFIX_LENGTH)
+        writeDigits(chars, 0, year, 4)
+        chars[4] = '-'
+        writeDigits(chars, 5, month, 2)
+        chars[7] = '-'
+        writeDigits(chars, 8, day, 2)
+        chars[10] = 'T'
+        writeDigits(chars, 11, secondOfDay / 3600, 2)
+        chars[13] = ':'
+        writeDigits(chars, 14, (secondOfDay % 3600) / 60, 2)
+        chars[16] = ':'
+        writeDigits(chars, 17, secondOfDay % 60, 2)
+        chars[19] = '.'
+        return chars
+    }
+
+    @Suppress("MagicNumber")
+    private fun writeDigits(chars: CharArray, offset: Int, value: Int, digits: Int) {
+        var remaining = value
+        for (i in (offset + digits - 1) downTo offset) {
+            chars[i] = '0' + (remaining % 10)
+            remaining /= 10
+        }
+    }
+
+    // endregion
+
+    private class FormattedSecond(
+        val epochSecond: Long,
+        val prefix: CharArray
+    )
+
+    companion object {
+        private const val MILLIS_PER_SECOND = 1000L
+        private const val SECONDS_PER_DAY = 86400L
+        private const val DAYS_PER_ERA = 146097L
+        private const val DAYS_FROM_YEAR_0_TO_EPOCH = 719468L
+
+        // 10000-01-01T00:00:00.000Z
+        private const val MAX_TIMESTAMP_MS = 253402300800000L
+
+        private const val PREFIX_LENGTH = 20
+        private const val MILLIS_OFFSET = PREFIX_LENGTH
+        private const val MILLIS_DIGITS = 3
+        private const val FORMATTED_LENGTH = PREFIX_LENGTH + MILLIS_DIGITS + 1
+    }
+}
@@ -18,6 +18,7 @@ import com.datadog.android.core.internal.utils.devLogger
 import com.datadog.android.rum.internal.RumFeature
 import com.datadog.android.rum.internal.domain.event.RumEventSourceProvider
 import com.datadog.android.rum.internal.monitor.DatadogRumMonitor
+import com.datadog.android.rum.internal.monitor.DeferredRumMonitor
 import com.datadog.android.telemetry.internal.TelemetryEventHandler
 import com.datadog.tools.annotation.NoOpImplementation
 
@@ -258,7 +259,7 @@ interface RumMonitor {
      */
     class Builder {
 
-        private var samplingRate: Float = RumFeature.samplingRate
+        private var samplingRate: Float? = null
         private var sessionListener: RumSessionListener? = null
 
         /**
@@ -285,6 +286,15 @@ interface RumMonitor {
          * Builds a [RumMonitor] based on the current state of this Builder.
          */
         fun build(): RumMonitor {
+            return if (!RumFeature.isInitialized() && Datadog.preInitQueue.isPending()) {
+                // the SDK is being initialized in the background
+                DeferredRumMonitor(Datadog.preInitQueue) { createMonitor() }
+            } else {
+                createMonitor()
+            }
+        }
+
+        private fun createMonitor(): RumMonitor {
             val rumApplicationId = CoreFeature.rumApplicationId
             return if (!RumFeature.isInitialized()) {
                 devLogger.e(
@@ -298,7 +308,7 @@ interface RumMonitor {
             } else {
                 DatadogRumMonitor(
                     applicationId = rumApplicationId,
-                    samplingRate = samplingRate,
+                    samplingRate = samplingRate ?: RumFeature.samplingRate,
                     writer = RumFeature.persistenceStrategy.getWriter(),
                     handler = Handler(Looper.getMainLooper()),
                     telemetryEventHandler = TelemetryEventHandler(
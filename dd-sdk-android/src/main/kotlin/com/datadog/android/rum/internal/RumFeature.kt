@@ -15,6 +15,7 @@ import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.configuration.VitalsUpdateFrequency
 import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.SdkFeature
+import com.datadog.android.core.internal.data.upload.UploadPriority
 import com.datadog.android.core.internal.event.NoOpEventMapper
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.persistence.PersistenceStrategy
@@ -26,6 +27,7 @@ import com.datadog.android.core.internal.utils.sdkLogger
 import com.datadog.android.event.EventMapper
 import com.datadog.android.rum.internal.anr.ANRDetectorRunnable
 import com.datadog.android.rum.internal.debug.UiRumDebugListener
+import com.datadog.android.rum.internal.domain.CoalescingViewEventWriter
 import com.datadog.android.rum.internal.domain.RumFilePersistenceStrategy
 import com.datadog.android.rum.internal.ndk.DatadogNdkCrashHandler
 import com.datadog.android.rum.internal.net.RumOkHttpUploaderV2
@@ -72,6 +74,8 @@ internal object RumFeature : SdkFeature<Any, Configuration.Feature.RUM>() {
     internal var debugActivityLifecycleListener: Application.ActivityLifecycleCallbacks? = null
 
     internal var vitalExecutorService: ScheduledExecutorService = NoOpScheduledExecutorService()
+    internal var viewEventFlushExecutorService: ScheduledExecutorService =
+        NoOpScheduledExecutorService()
     internal lateinit var anrDetectorExecutorService: ExecutorService
     internal lateinit var anrDetectorRunnable: ANRDetectorRunnable
     internal lateinit var anrDetectorHandler: Handler
@@ -79,6 +83,9 @@ internal object RumFeature : SdkFeature<Any, Configuration.Feature.RUM>() {
 
     // region SdkFeature
 
+    override val featureName: String = RUM_FEATURE_NAME
+    override val uploadPriority: UploadPriority = UploadPriority.RUM
+
     override fun onInitialize(context: Context, configuration: Configuration.Feature.RUM) {
         samplingRate = configuration.samplingRate
         telemetrySamplingRate = configuration.telemetrySamplingRate
@@ -115,12 +122,17 @@ internal object RumFeature : SdkFeature<Any, Configuration.Feature.RUM>() {
         anrDetectorExecutorService.shutdownNow()
         anrDetectorRunnable.stop()
         vitalExecutorService = NoOpScheduledExecutorService()
+        // the pending view updates were flushed when the persistence strategy was closed
+        viewEventFlushExecutorService.shutdownNow()
+        viewEventFlushExecutorService = NoOpScheduledExecutorService()
     }
 
     override fun createPersistenceStrategy(
         context: Context,
         configuration: Configuration.Feature.RUM
     ): PersistenceStrategy<Any> {
+        @Suppress("UnsafeThirdPartyFunctionCall") // pool size can't be <= 0
+        viewEventFlushExecutorService = ScheduledThreadPoolExecutor(1)
         return RumFilePersistenceStrategy(
             CoreFeature.trackingConsentProvider,
             context,
@@ -128,7 +140,12 @@ internal object RumFeature : SdkFeature<Any, Configuration.Feature.RUM>() {
             CoreFeature.persistenceExecutorService,
             sdkLogger,
             CoreFeature.localDataEncryption,
-            DatadogNdkCrashHandler.getLastViewEventFile(context)
+            CoreFeature.persistentFileChannel,
+            CoreFeature.batchCompressionExecutorService,
+            CoreFeature.bufferOverflowPolicy,
+            DatadogNdkCrashHandler.getLastViewEventFile(context),
+            viewEventFlushExecutorService,
+            featureMetrics
         )
     }
 
@@ -140,7 +157,9 @@ internal object RumFeature : SdkFeature<Any, Configuration.Feature.RUM>() {
             CoreFeature.sdkVersion,
             CoreFeature.okHttpClient,
             CoreFeature.androidInfoProvider,
-            CoreFeature.packageVersionProvider
+            CoreFeature.packageVersionProvider,
+            featureMetrics,
+            CoreFeature.uploadBackOffController
         )
     }
 
@@ -152,6 +171,10 @@ internal object RumFeature : SdkFeature<Any, Configuration.Feature.RUM>() {
 
     // region Internal
 
+    internal fun flushPendingViewEvents() {
+        (persistenceStrategy.getWriter() as? CoalescingViewEventWriter)?.flush()
+    }
+
     internal fun enableDebugging() {
         val context = appContext
         if (context is Application) {
@@ -198,6 +221,15 @@ internal object RumFeature : SdkFeature<Any, Configuration.Feature.RUM>() {
         initializeVitalMonitor(MemoryVitalReader(), memoryVitalMonitor, periodInMs)
 
         val vitalFrameCallback = VitalFrameCallback(frameRateVitalMonitor) { isInitialized() }
+        if (CoreFeature.asyncInitialization) {
+            // the SDK is initialized on a background thread, without a Looper
+            Handler(Looper.getMainLooper()).post { registerFrameCallback(vitalFrameCallback) }
+        } else {
+            registerFrameCallback(vitalFrameCallback)
+        }
+    }
+
+    private fun registerFrameCallback(vitalFrameCallback: VitalFrameCallback) {
         try {
             Choreographer.getInstance().postFrameCallback(vitalFrameCallback)
         } catch (e: IllegalStateException) {
@@ -0,0 +1,189 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.rum.internal.domain
+
+import com.datadog.android.core.configuration.BufferOverflowPolicy
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
+import com.datadog.android.core.internal.persistence.DataWriter
+import com.datadog.android.core.internal.persistence.file.advanced.RingBufferWriter
+import com.datadog.android.core.internal.persistence.file.advanced.ScheduledWriter
+import com.datadog.android.core.internal.utils.scheduleSafe
+import com.datadog.android.log.Logger
+import com.datadog.android.rum.model.ErrorEvent
+import com.datadog.android.rum.model.ViewEvent
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * A [DataWriter] scheduling the writes on the given [ExecutorService], which coalesces the
+ * [ViewEvent] updates waiting to be persisted.
+ *
+ * The other events go through a [RingBufferWriter], as for the other features, so that they
+ * don't allocate a task nor take the executor queue lock on the calling thread.
+ *
+ * A view update isn't written right away: it waits for a short coalescing window, and any
+ * newer version of the same view received in the meantime replaces it (the backend only keeps
+ * the latest one anyway). The window is cut short when the view is stopped, and when a crash is
+ * reported, so that the latest known version of each view is queued before the executor is
+ * drained. Once a crash is reported, view updates are no longer coalesced at all: the process is
+ * about to die and the final update (carrying the crash count) must be written right away.
+ *
+ * The last view event used by the NDK crash reports is still written for every update, as a
+ * native crash doesn't leave any chance to flush the pending views. When the pending version of
+ * a view is written, the bytes serialized for that copy are reused.
+ */
+internal class CoalescingViewEventWriter(
+    internal val delegateWriter: RumDataWriter,
+    internal val executorService: ExecutorService,
+    internal val flushScheduler: ScheduledExecutorService,
+    private val internalLogger: Logger,
+    overflowPolicy: BufferOverflowPolicy = BufferOverflowPolicy.DROP_NEWEST,
+    internal val featureMetrics: FeatureMetrics = NoOpFeatureMetrics(),
+    internal val coalescingWindowMs: Long = COALESCING_WINDOW_MS
+) : DataWriter<Any> {
+
+    internal val eventWriter = RingBufferWriter(
+        delegateWriter,
+        executorService,
+        internalLogger,
+        overflowPolicy,
+        featureMetrics = featureMetrics
+    )
+
+    private val pendingViewEvents = mutableMapOf<String, ViewEvent>()
+
+    // the view events last serialized for the NDK crash reports, by view id
+    private val serializedViewEvents = mutableMapOf<String, Pair<ViewEvent, ByteArray>>()
+
+    @Volatile
+    private var crashReported = false
+
+    // region DataWriter
+
+    override fun write(element: Any) {
+        if (element is ViewEvent) {
+            featureMetrics.onEventsEnqueued(1)
+            writeViewEvent(element)
+            return
+        }
+
+        eventWriter.write(element)
+        if (isCrash(element)) {
+            onCrashReported()
+        }
+    }
+
+    override fun write(data: List<Any>) {
+        val (viewEvents, otherEvents) = data.partition { it is ViewEvent }
+        if (otherEvents.isNotEmpty()) {
+            eventWriter.write(otherEvents)
+        }
+        featureMetrics.onEventsEnqueued(viewEvents.size)
+        viewEvents.forEach { writeViewEvent(it as ViewEvent) }
+        if (otherEvents.any { isCrash(it) }) {
+            onCrashReported()
+        }
+    }
+
+    // endregion
+
+    /**
+     * Schedules the write of all the pending view updates, without waiting for the end of
+     * their coalescing window.
+     */
+    fun flush() {
+        val viewIds = synchronized(pendingViewEvents) { pendingViewEvents.keys.toList() }
+        viewIds.forEach { submitPendingViewEvent(it) }
+    }
+
+    // region Internal
+
+    private fun writeViewEvent(event: ViewEvent) {
+        val viewId = event.view.id
+        submit { writeLastViewEvent(viewId, event) }
+
+        val hasPendingVersion = synchronized(pendingViewEvents) {
+            pendingViewEvents.put(viewId, event) != null
+        }
+
+        if (crashReported || event.view.isActive == false) {
+            // the view is stopped or the process is about to die, no other update is expected
+            submitPendingViewEvent(viewId)
+        } else if (!hasPendingVersion) {
+            val scheduledFlush = flushScheduler.scheduleSafe(
+                OPERATION_FLUSH,
+                coalescingWindowMs,
+                TimeUnit.MILLISECONDS,
+                Runnable { submitPendingViewEvent(viewId) }
+            )
+            if (scheduledFlush == null) {
+                submitPendingViewEvent(viewId)
+            }
+        }
+    }
+
+    private fun submitPendingViewEvent(viewId: String) {
+        val submitted = submit { writePendingViewEvent(viewId) }
+        if (!submitted) {
+            val event = synchronized(pendingViewEvents) { pendingViewEvents.remove(viewId) }
+            if (event != null) {
+                featureMetrics.onEventsDropped(1)
+            }
+        }
+    }
+
+    private fun writeLastViewEvent(viewId: String, event: ViewEvent) {
+        val rawData = delegateWriter.writeLastViewEvent(event) ?: return
+        synchronized(serializedViewEvents) { serializedViewEvents[viewId] = event to rawData }
+    }
+
+    private fun writePendingViewEvent(viewId: String) {
+        val serializedEvent = synchronized(serializedViewEvents) {
+            serializedViewEvents.remove(viewId)
+        }
+        val event = synchronized(pendingViewEvents) { pendingViewEvents.remove(viewId) }
+        if (event == null) {
+            return
+        }
+
+        if (serializedEvent != null && serializedEvent.first === event) {
+            delegateWriter.write(event, serializedEvent.second)
+        } else {
+            delegateWriter.write(event)
+        }
+    }
+
+    private fun onCrashReported() {
+        crashReported = true
+        flush()
+    }
+
+    private fun isCrash(element: Any): Boolean {
+        return element is ErrorEvent && element.error.isCrash == true
+    }
+
+    private fun submit(task: () -> Unit): Boolean {
+        return try {
+            @Suppress("UnsafeThirdPartyFunctionCall") // NPE cannot happen here
+            executorService.submit { task() }
+            true
+        } catch (e: RejectedExecutionException) {
+            internalLogger.e(ScheduledWriter.ERROR_REJECTED, e)
+            false
+        }
+    }
+
+    // endregion
+
+    companion object {
+        internal const val COALESCING_WINDOW_MS = 500L
+        internal const val OPERATION_FLUSH = "View event flush"
+    }
+}
@@ -6,12 +6,16 @@
 
 package com.datadog.android.rum.internal.domain
 
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
+import com.datadog.android.core.internal.persistence.EventPriority
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.Serializer
 import com.datadog.android.core.internal.persistence.file.FileHandler
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
 import com.datadog.android.core.internal.persistence.file.batch.BatchFileDataWriter
 import com.datadog.android.core.internal.persistence.file.existsSafe
+import com.datadog.android.core.internal.persistence.serializeToByteArray
 import com.datadog.android.core.internal.utils.sdkLogger
 import com.datadog.android.log.Logger
 import com.datadog.android.rum.GlobalRum
@@ -31,18 +35,24 @@ internal class RumDataWriter(
     decoration: PayloadDecoration,
     handler: FileHandler,
     internalLogger: Logger,
-    private val lastViewEventFile: File
+    private val lastViewEventFile: File,
+    featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
 ) : BatchFileDataWriter<Any>(
     fileOrchestrator,
     serializer,
     decoration,
     handler,
-    internalLogger
+    internalLogger,
+    featureMetrics
 ) {
 
+    override fun getPriority(data: Any): EventPriority {
+        // keep crashes and errors from being evicted by a flood of less important events
+        return if (data is ErrorEvent) EventPriority.HIGH else EventPriority.NORMAL
+    }
+
     override fun onDataWritten(data: Any, rawData: ByteArray) {
         when (data) {
-            is ViewEvent -> persistViewEvent(rawData)
             is ActionEvent -> notifyEventSent(
                 data.view.id,
                 StorageEvent.Action(data.action.frustration?.type?.size ?: 0)
@@ -65,21 +75,31 @@ internal class RumDataWriter(
 
     // endregion
 
-    // region Internal
-
-    private fun persistViewEvent(data: ByteArray) {
+    /**
+     * Writes the given view event in the NDK crash reports folder, as the latest known version
+     * of the view to link a native crash to. This doesn't go through the batch files, so that
+     * it isn't delayed by the view updates coalescing.
+     * @param event the view event
+     * @return the serialized view event, or null if it wasn't serialized
+     */
+    fun writeLastViewEvent(event: ViewEvent): ByteArray? {
         // directory structure may not exist: currently it is a file which is located in NDK reports
         // folder, so if NDK reporting plugin is not initialized, this NDK reports dir won't exist
-        // as well (and no need to write).
-        if (lastViewEventFile.parentFile?.existsSafe() == true) {
-            handler.writeData(lastViewEventFile, data, false)
-        } else {
+        // as well (and no need to serialize nor write).
+        if (lastViewEventFile.parentFile?.existsSafe() != true) {
             sdkLogger.i(
                 LAST_VIEW_EVENT_DIR_MISSING_MESSAGE.format(Locale.US, lastViewEventFile.parent)
             )
+            return null
         }
+
+        val rawData = serializer.serializeToByteArray(event, internalLogger) ?: return null
+        handler.writeData(lastViewEventFile, rawData, false)
+        return rawData
     }
 
+    // region Internal
+
     private fun notifyEventSent(viewId: String, storageEvent: StorageEvent) {
         val rumMonitor = GlobalRum.get()
         if (rumMonitor is AdvancedRumMonitor) {
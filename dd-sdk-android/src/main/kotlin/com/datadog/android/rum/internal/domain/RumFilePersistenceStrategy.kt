@@ -7,15 +7,18 @@
 package com.datadog.android.rum.internal.domain
 
 import android.content.Context
+import com.datadog.android.core.configuration.BufferOverflowPolicy
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.persistence.DataWriter
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.Serializer
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
 import com.datadog.android.core.internal.persistence.file.advanced.FeatureFileOrchestrator
-import com.datadog.android.core.internal.persistence.file.advanced.ScheduledWriter
 import com.datadog.android.core.internal.persistence.file.batch.BatchFileHandler
 import com.datadog.android.core.internal.persistence.file.batch.BatchFilePersistenceStrategy
 import com.datadog.android.core.internal.privacy.ConsentProvider
+import com.datadog.android.core.internal.utils.executeSafe
 import com.datadog.android.event.EventMapper
 import com.datadog.android.event.MapperSerializer
 import com.datadog.android.log.Logger
@@ -24,22 +27,29 @@ import com.datadog.android.rum.internal.domain.event.RumEventSerializer
 import com.datadog.android.security.Encryption
 import java.io.File
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.ScheduledExecutorService
 
 internal class RumFilePersistenceStrategy(
     consentProvider: ConsentProvider,
     context: Context,
     eventMapper: EventMapper<Any>,
-    executorService: ExecutorService,
+    private val executorService: ExecutorService,
     internalLogger: Logger,
     localDataEncryption: Encryption?,
-    private val lastViewEventFile: File
+    persistentFileChannel: Boolean,
+    compressionExecutorService: ScheduledExecutorService?,
+    private val bufferOverflowPolicy: BufferOverflowPolicy,
+    private val lastViewEventFile: File,
+    private val viewEventFlushScheduler: ScheduledExecutorService,
+    featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
 ) : BatchFilePersistenceStrategy<Any>(
     FeatureFileOrchestrator(
         consentProvider,
         context,
         RumFeature.RUM_FEATURE_NAME,
         executorService,
-        internalLogger
+        internalLogger,
+        featureMetrics
     ),
     executorService,
     MapperSerializer(
@@ -48,9 +58,21 @@ internal class RumFilePersistenceStrategy(
     ),
     PayloadDecoration.NEW_LINE_DECORATION,
     internalLogger,
-    BatchFileHandler.create(internalLogger, localDataEncryption)
+    BatchFileHandler.create(internalLogger, localDataEncryption, persistentFileChannel),
+    compressionExecutorService,
+    bufferOverflowPolicy,
+    featureMetrics = featureMetrics,
+    consentProvider = consentProvider
 ) {
 
+    override fun close() {
+        // write the pending view updates before the feature and its flush scheduler stop
+        (getWriter() as? CoalescingViewEventWriter)?.flush()
+        super.close()
+        // release the batch file reopened by the view updates written after the flush
+        executorService.executeSafe(OPERATION_CLOSE, Runnable { fileHandler.close() })
+    }
+
     override fun createWriter(
         fileOrchestrator: FileOrchestrator,
         executorService: ExecutorService,
@@ -58,17 +80,21 @@ internal class RumFilePersistenceStrategy(
         payloadDecoration: PayloadDecoration,
         internalLogger: Logger
     ): DataWriter<Any> {
-        return ScheduledWriter(
+        return CoalescingViewEventWriter(
             RumDataWriter(
                 fileOrchestrator,
                 serializer,
                 payloadDecoration,
                 fileHandler,
                 internalLogger,
-                lastViewEventFile
+                lastViewEventFile,
+                featureMetrics
             ),
             executorService,
-            internalLogger
+            viewEventFlushScheduler,
+            internalLogger,
+            bufferOverflowPolicy,
+            featureMetrics
         )
     }
 }
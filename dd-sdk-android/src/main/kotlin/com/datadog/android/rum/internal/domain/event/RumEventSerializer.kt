@@ -9,6 +9,8 @@ package com.datadog.android.rum.internal.domain.event
 import com.datadog.android.core.internal.constraints.DataConstraints
 import com.datadog.android.core.internal.constraints.DatadogDataConstraints
 import com.datadog.android.core.internal.persistence.Serializer
+import com.datadog.android.core.internal.utils.buildJsonString
+import com.datadog.android.core.internal.utils.writeJson
 import com.datadog.android.rum.RumAttributes
 import com.datadog.android.rum.model.ActionEvent
 import com.datadog.android.rum.model.ErrorEvent
@@ -19,6 +21,9 @@ import com.datadog.android.telemetry.model.TelemetryConfigurationEvent
 import com.datadog.android.telemetry.model.TelemetryDebugEvent
 import com.datadog.android.telemetry.model.TelemetryErrorEvent
 import com.google.gson.JsonObject
+import com.google.gson.stream.JsonWriter
+import java.io.StringWriter
+import java.io.Writer
 
 internal class RumEventSerializer(
     private val dataConstraints: DataConstraints = DatadogDataConstraints()
@@ -44,13 +49,13 @@ internal class RumEventSerializer(
                 serializeLongTaskEvent(model)
             }
             is TelemetryDebugEvent -> {
-                model.toJson().toString()
+                buildJsonString { model.writeTo(it) }
             }
             is TelemetryErrorEvent -> {
-                model.toJson().toString()
+                buildJsonString { model.writeTo(it) }
             }
             is TelemetryConfigurationEvent -> {
-                model.toJson().toString()
+                buildJsonString { model.writeTo(it) }
             }
             is JsonObject -> {
                 model.toString()
@@ -72,6 +77,7 @@ internal class RumEventSerializer(
         val sanitizedContext = model.context?.copy(
             additionalProperties = validateContextAttributes(model.context.additionalProperties)
         )
+        val rootAttributes = extractKnownAttributes(sanitizedContext?.additionalProperties)
         val sanitizedView = model.view.copy(
             customTimings = model.view.customTimings?.copy(
                 additionalProperties = dataConstraints.validateTimings(
@@ -85,7 +91,7 @@ internal class RumEventSerializer(
             view = sanitizedView
         )
 
-        return extractKnownAttributes(sanitizedModel.toJson().asJsonObject).toString()
+        return serializeWithRootAttributes(rootAttributes) { sanitizedModel.writeTo(it) }
     }
 
     private fun serializeErrorEvent(model: ErrorEvent): String {
@@ -95,11 +101,12 @@ internal class RumEventSerializer(
         val sanitizedContext = model.context?.copy(
             additionalProperties = validateContextAttributes(model.context.additionalProperties)
         )
+        val rootAttributes = extractKnownAttributes(sanitizedContext?.additionalProperties)
         val sanitizedModel = model.copy(
             usr = sanitizedUser,
             context = sanitizedContext
         )
-        return extractKnownAttributes(sanitizedModel.toJson().asJsonObject).toString()
+        return serializeWithRootAttributes(rootAttributes) { sanitizedModel.writeTo(it) }
     }
 
     private fun serializeResourceEvent(model: ResourceEvent): String {
@@ -109,11 +116,12 @@ internal class RumEventSerializer(
         val sanitizedContext = model.context?.copy(
             additionalProperties = validateContextAttributes(model.context.additionalProperties)
         )
+        val rootAttributes = extractKnownAttributes(sanitizedContext?.additionalProperties)
         val sanitizedModel = model.copy(
             usr = sanitizedUser,
             context = sanitizedContext
         )
-        return extractKnownAttributes(sanitizedModel.toJson().asJsonObject).toString()
+        return serializeWithRootAttributes(rootAttributes) { sanitizedModel.writeTo(it) }
     }
 
     private fun serializeActionEvent(model: ActionEvent): String {
@@ -123,11 +131,12 @@ internal class RumEventSerializer(
         val sanitizedContext = model.context?.copy(
             additionalProperties = validateContextAttributes(model.context.additionalProperties)
         )
+        val rootAttributes = extractKnownAttributes(sanitizedContext?.additionalProperties)
         val sanitizedModel = model.copy(
             usr = sanitizedUser,
             context = sanitizedContext
         )
-        return extractKnownAttributes(sanitizedModel.toJson().asJsonObject).toString()
+        return serializeWithRootAttributes(rootAttributes) { sanitizedModel.writeTo(it) }
     }
 
     private fun serializeLongTaskEvent(model: LongTaskEvent): String {
@@ -137,11 +146,12 @@ internal class RumEventSerializer(
         val sanitizedContext = model.context?.copy(
             additionalProperties = validateContextAttributes(model.context.additionalProperties)
         )
+        val rootAttributes = extractKnownAttributes(sanitizedContext?.additionalProperties)
         val sanitizedModel = model.copy(
             usr = sanitizedUser,
             context = sanitizedContext
         )
-        return extractKnownAttributes(sanitizedModel.toJson().asJsonObject).toString()
+        return serializeWithRootAttributes(rootAttributes) { sanitizedModel.writeTo(it) }
     }
 
     private fun validateContextAttributes(attributes: Map<String, Any?>): MutableMap<String, Any?> {
@@ -163,18 +173,71 @@ internal class RumEventSerializer(
         )
     }
 
-    private fun extractKnownAttributes(jsonObject: JsonObject): JsonObject {
-        if (jsonObject.has(GLOBAL_ATTRIBUTE_PREFIX)) {
-            val contextObject = jsonObject.getAsJsonObject(GLOBAL_ATTRIBUTE_PREFIX)
-            contextObject
-                .entrySet()
-                .filter { it.key in knownAttributes }
-                .forEach {
-                    contextObject.remove(it.key)
-                    jsonObject.add(it.key, it.value)
+    /**
+     * Removes the known attributes from the given (sanitized) context attributes.
+     * @return the removed attributes, to be written at the root of the event
+     */
+    private fun extractKnownAttributes(
+        contextAttributes: MutableMap<String, Any?>?
+    ): Map<String, Any?> {
+        if (contextAttributes.isNullOrEmpty()) {
+            return emptyMap()
+        }
+
+        val extractedAttributes = contextAttributes.filterKeys { it in knownAttributes }
+        contextAttributes.keys.removeAll(extractedAttributes.keys)
+        return extractedAttributes
+    }
+
+    @Suppress("UnsafeThirdPartyFunctionCall") // exceptions are caught by the Serializer callers
+    private inline fun serializeWithRootAttributes(
+        rootAttributes: Map<String, Any?>,
+        writeModel: (JsonWriter) -> Unit
+    ): String {
+        if (rootAttributes.isEmpty()) {
+            return buildJsonString(writeModel)
+        }
+
+        val stringWriter = StringWriter()
+        val jsonWriter = RootAttributesJsonWriter(stringWriter, rootAttributes)
+        jsonWriter.isLenient = true
+        writeModel(jsonWriter)
+        jsonWriter.flush()
+        return stringWriter.toString()
+    }
+
+    // endregion
+
+    /**
+     * A [JsonWriter] appending the given attributes to the root json object, right before
+     * closing it.
+     */
+    @Suppress("UnsafeThirdPartyFunctionCall") // exceptions are caught by the Serializer callers
+    private class RootAttributesJsonWriter(
+        out: Writer,
+        private var rootAttributes: Map<String, Any?>?
+    ) : JsonWriter(out) {
+
+        private var depth = 0
+
+        override fun beginObject(): JsonWriter {
+            depth++
+            return super.beginObject()
+        }
+
+        override fun endObject(): JsonWriter {
+            depth--
+            val attributes = rootAttributes
+            if (depth == 0 && attributes != null) {
+                // attributes values can be nested objects, make sure we only append them once
+                rootAttributes = null
+                attributes.forEach { (key, value) ->
+                    name(key)
+                    value.writeJson(this)
                 }
+            }
+            return super.endObject()
         }
-        return jsonObject
     }
 
     companion object {
@@ -0,0 +1,247 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.rum.internal.monitor
+
+import com.datadog.android.core.configuration.Configuration
+import com.datadog.android.core.internal.PreInitQueue
+import com.datadog.android.rum.RumActionType
+import com.datadog.android.rum.RumAttributes
+import com.datadog.android.rum.RumErrorSource
+import com.datadog.android.rum.RumMonitor
+import com.datadog.android.rum.RumPerformanceMetric
+import com.datadog.android.rum.RumResourceKind
+import com.datadog.android.rum._RumInternalProxy
+import com.datadog.android.rum.internal.debug.RumDebugListener
+import com.datadog.android.rum.internal.domain.event.ResourceTiming
+import com.datadog.android.rum.model.ViewEvent
+
+/**
+ * A [RumMonitor] used while the SDK is initialized on a background thread: the actual monitor
+ * is only built once the SDK is ready, and the events received until then are kept in the
+ * [PreInitQueue], with their original timestamp.
+ */
+@Suppress("TooManyFunctions")
+internal class DeferredRumMonitor(
+    private val preInitQueue: PreInitQueue,
+    monitorFactory: () -> RumMonitor
+) : AdvancedRumMonitor {
+
+    @Volatile
+    internal var delegate: AdvancedRumMonitor = NoOpAdvancedRumMonitor()
+        private set
+
+    init {
+        preInitQueue.runWhenReady {
+            delegate = monitorFactory() as? AdvancedRumMonitor ?: NoOpAdvancedRumMonitor()
+        }
+    }
+
+    // region RumMonitor
+
+    override fun startView(key: Any, name: String, attributes: Map<String, Any?>) {
+        runWithAttributes(attributes) { delegate.startView(key, name, it) }
+    }
+
+    override fun stopView(key: Any, attributes: Map<String, Any?>) {
+        runWithAttributes(attributes) { delegate.stopView(key, it) }
+    }
+
+    override fun addUserAction(type: RumActionType, name: String, attributes: Map<String, Any?>) {
+        runWithAttributes(attributes) { delegate.addUserAction(type, name, it) }
+    }
+
+    override fun startUserAction(type: RumActionType, name: String, attributes: Map<String, Any?>) {
+        runWithAttributes(attributes) { delegate.startUserAction(type, name, it) }
+    }
+
+    override fun stopUserAction(
+        type: RumActionType,
+        name: String,
+        attributes: Map<String, Any?>
+    ) {
+        runWithAttributes(attributes) { delegate.stopUserAction(type, name, it) }
+    }
+
+    override fun startResource(
+        key: String,
+        method: String,
+        url: String,
+        attributes: Map<String, Any?>
+    ) {
+        runWithAttributes(attributes) { delegate.startResource(key, method, url, it) }
+    }
+
+    override fun stopResource(
+        key: String,
+        statusCode: Int?,
+        size: Long?,
+        kind: RumResourceKind,
+        attributes: Map<String, Any?>
+    ) {
+        runWithAttributes(attributes) {
+            delegate.stopResource(key, statusCode, size, kind, it)
+        }
+    }
+
+    override fun stopResourceWithError(
+        key: String,
+        statusCode: Int?,
+        message: String,
+        source: RumErrorSource,
+        throwable: Throwable,
+        attributes: Map<String, Any?>
+    ) {
+        runWithAttributes(attributes) {
+            delegate.stopResourceWithError(key, statusCode, message, source, throwable, it)
+        }
+    }
+
+    override fun stopResourceWithError(
+        key: String,
+        statusCode: Int?,
+        message: String,
+        source: RumErrorSource,
+        stackTrace: String,
+        errorType: String?,
+        attributes: Map<String, Any?>
+    ) {
+        runWithAttributes(attributes) {
+            delegate.stopResourceWithError(
+                key,
+                statusCode,
+                message,
+                source,
+                stackTrace,
+                errorType,
+                it
+            )
+        }
+    }
+
+    override fun addError(
+        message: String,
+        source: RumErrorSource,
+        throwable: Throwable?,
+        attributes: Map<String, Any?>
+    ) {
+        runWithAttributes(attributes) { delegate.addError(message, source, throwable, it) }
+    }
+
+    override fun addErrorWithStacktrace(
+        message: String,
+        source: RumErrorSource,
+        stacktrace: String?,
+        attributes: Map<String, Any?>
+    ) {
+        runWithAttributes(attributes) {
+            delegate.addErrorWithStacktrace(message, source, stacktrace, it)
+        }
+    }
+
+    override fun addTiming(name: String) {
+        preInitQueue.runWhenReady { delegate.addTiming(name) }
+    }
+
+    override fun _getInternal(): _RumInternalProxy? {
+        return _RumInternalProxy(this)
+    }
+
+    // endregion
+
+    // region AdvancedRumMonitor
+
+    override fun resetSession() {
+        preInitQueue.runWhenReady { delegate.resetSession() }
+    }
+
+    override fun sendWebViewEvent() {
+        preInitQueue.runWhenReady { delegate.sendWebViewEvent() }
+    }
+
+    override fun waitForResourceTiming(key: String) {
+        preInitQueue.runWhenReady { delegate.waitForResourceTiming(key) }
+    }
+
+    override fun updateViewLoadingTime(
+        key: Any,
+        loadingTimeInNs: Long,
+        type: ViewEvent.LoadingType
+    ) {
+        preInitQueue.runWhenReady { delegate.updateViewLoadingTime(key, loadingTimeInNs, type) }
+    }
+
+    override fun addResourceTiming(key: String, timing: ResourceTiming) {
+        preInitQueue.runWhenReady { delegate.addResourceTiming(key, timing) }
+    }
+
+    override fun addLongTask(durationNs: Long, target: String) {
+        preInitQueue.runWhenReady { delegate.addLongTask(durationNs, target) }
+    }
+
+    override fun addCrash(message: String, source: RumErrorSource, throwable: Throwable) {
+        preInitQueue.runWhenReady { delegate.addCrash(message, source, throwable) }
+    }
+
+    override fun eventSent(viewId: String, event: StorageEvent) {
+        preInitQueue.runWhenReady { delegate.eventSent(viewId, event) }
+    }
+
+    override fun eventDropped(viewId: String, event: StorageEvent) {
+        preInitQueue.runWhenReady { delegate.eventDropped(viewId, event) }
+    }
+
+    override fun setDebugListener(listener: RumDebugListener?) {
+        preInitQueue.runWhenReady { delegate.setDebugListener(listener) }
+    }
+
+    override fun sendDebugTelemetryEvent(message: String) {
+        preInitQueue.runWhenReady { delegate.sendDebugTelemetryEvent(message) }
+    }
+
+    override fun sendErrorTelemetryEvent(message: String, throwable: Throwable?) {
+        preInitQueue.runWhenReady { delegate.sendErrorTelemetryEvent(message, throwable) }
+    }
+
+    override fun sendErrorTelemetryEvent(message: String, stack: String?, kind: String?) {
+        preInitQueue.runWhenReady { delegate.sendErrorTelemetryEvent(message, stack, kind) }
+    }
+
+    override fun sendConfigurationTelemetryEvent(configuration: Configuration) {
+        preInitQueue.runWhenReady { delegate.sendConfigurationTelemetryEvent(configuration) }
+    }
+
+    override fun notifyInterceptorInstantiated() {
+        preInitQueue.runWhenReady { delegate.notifyInterceptorInstantiated() }
+    }
+
+    override fun updatePerformanceMetric(metric: RumPerformanceMetric, value: Double) {
+        preInitQueue.runWhenReady { delegate.updatePerformanceMetric(metric, value) }
+    }
+
+    // endregion
+
+    // region Internal
+
+    private inline fun runWithAttributes(
+        attributes: Map<String, Any?>,
+        crossinline action: (Map<String, Any?>) -> Unit
+    ) {
+        if (preInitQueue.isReady()) {
+            action(attributes)
+        } else {
+            // keep the time of the call, as the event is only processed once the SDK is ready
+            val timestampedAttributes = attributes.toMutableMap()
+            if (!timestampedAttributes.containsKey(RumAttributes.INTERNAL_TIMESTAMP)) {
+                timestampedAttributes[RumAttributes.INTERNAL_TIMESTAMP] =
+                    System.currentTimeMillis()
+            }
+            preInitQueue.runWhenReady { action(timestampedAttributes) }
+        }
+    }
+
+    // endregion
+}
@@ -7,7 +7,10 @@
 package com.datadog.android.rum.internal.net
 
 import com.datadog.android.core.internal.CoreFeature
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.net.DataOkHttpUploaderV2
+import com.datadog.android.core.internal.net.UploadBackOffController
 import com.datadog.android.core.internal.system.AndroidInfoProvider
 import com.datadog.android.core.internal.system.AppVersionProvider
 import com.datadog.android.core.internal.utils.sdkLogger
@@ -21,7 +24,9 @@ internal open class RumOkHttpUploaderV2(
     sdkVersion: String,
     callFactory: Call.Factory,
     androidInfoProvider: AndroidInfoProvider,
-    private val appVersionProvider: AppVersionProvider
+    private val appVersionProvider: AppVersionProvider,
+    featureMetrics: FeatureMetrics = NoOpFeatureMetrics(),
+    backOffController: UploadBackOffController = UploadBackOffController()
 ) : DataOkHttpUploaderV2(
     buildUrl(endpoint, TrackType.RUM),
     clientToken,
@@ -30,7 +35,9 @@ internal open class RumOkHttpUploaderV2(
     callFactory,
     CONTENT_TYPE_TEXT_UTF8,
     androidInfoProvider,
-    sdkLogger
+    sdkLogger,
+    featureMetrics,
+    backOffController
 ) {
 
     private val tags: String
@@ -8,6 +8,7 @@ package com.datadog.android.tracing
 
 import com.datadog.android.Datadog
 import com.datadog.android.core.internal.CoreFeature
+import com.datadog.android.core.internal.persistence.DeferredDataWriter
 import com.datadog.android.core.internal.utils.devLogger
 import com.datadog.android.log.LogAttributes
 import com.datadog.android.log.Logger
@@ -19,6 +20,7 @@ import com.datadog.android.tracing.internal.handlers.AndroidSpanLogsHandler
 import com.datadog.opentracing.DDTracer
 import com.datadog.opentracing.LogHandler
 import com.datadog.trace.api.Config
+import com.datadog.trace.api.IdGenerationStrategy
 import io.opentracing.Span
 import io.opentracing.log.Fields
 import java.security.SecureRandom
@@ -62,6 +64,7 @@ class AndroidTracer internal constructor(
         private var serviceName: String = CoreFeature.serviceName
         private var partialFlushThreshold = DEFAULT_PARTIAL_MIN_FLUSH
         private var random: Random = SecureRandom()
+        private var idGenerationStrategy = IdGenerationStrategy.SECURE_RANDOM
 
         private val globalTags: MutableMap<String, String> = mutableMapOf()
 
@@ -77,19 +80,29 @@ class AndroidTracer internal constructor(
          * Builds a [AndroidTracer] based on the current state of this Builder.
          */
         fun build(): AndroidTracer {
-            if (!TracingFeature.isInitialized()) {
+            val initializationPending = !TracingFeature.isInitialized() &&
+                Datadog.preInitQueue.isPending()
+            if (!TracingFeature.isInitialized() && !initializationPending) {
                 devLogger.e(
                     TRACING_NOT_ENABLED_ERROR_MESSAGE + "\n" +
                         Datadog.MESSAGE_SDK_INITIALIZATION_GUIDE
                 )
             }
-            if (bundleWithRumEnabled && !RumFeature.isInitialized()) {
+            if (bundleWithRumEnabled && !RumFeature.isInitialized() && !initializationPending) {
                 devLogger.e(RUM_NOT_ENABLED_ERROR_MESSAGE)
                 bundleWithRumEnabled = false
             }
+            val writer = if (initializationPending) {
+                // the SDK is being initialized in the background
+                DeferredDataWriter(Datadog.preInitQueue) {
+                    TracingFeature.persistenceStrategy.getWriter()
+                }
+            } else {
+                TracingFeature.persistenceStrategy.getWriter()
+            }
             return AndroidTracer(
                 config(),
-                TraceWriter(TracingFeature.persistenceStrategy.getWriter()),
+                TraceWriter(writer),
                 random,
                 logsHandler,
                 bundleWithRumEnabled
@@ -137,6 +150,18 @@ class AndroidTracer internal constructor(
             return this
         }
 
+        /**
+         * Sets the strategy used to generate the trace and span ids.
+         * [IdGenerationStrategy.FAST_RANDOM] avoids any contention between the threads creating
+         * spans concurrently (e.g.: many OkHttp requests traced in parallel).
+         * @param strategy the id generation strategy
+         * (default = [IdGenerationStrategy.SECURE_RANDOM])
+         */
+        fun setIdGenerationStrategy(strategy: IdGenerationStrategy): Builder {
+            idGenerationStrategy = strategy
+            return this
+        }
+
         // endregion
 
         // region Internal
@@ -157,6 +182,7 @@ class AndroidTracer internal constructor(
                 Config.TAGS,
                 globalTags.map { "${it.key}:${it.value}" }.joinToString(",")
             )
+            properties.setProperty(Config.ID_GENERATION_STRATEGY, idGenerationStrategy.name)
             return properties
         }
 
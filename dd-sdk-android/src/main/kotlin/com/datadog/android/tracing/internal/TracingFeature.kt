@@ -10,6 +10,7 @@ import android.content.Context
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.SdkFeature
+import com.datadog.android.core.internal.data.upload.UploadPriority
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.persistence.PersistenceStrategy
 import com.datadog.android.core.internal.utils.sdkLogger
@@ -23,6 +24,9 @@ internal object TracingFeature : SdkFeature<DDSpan, Configuration.Feature.Tracin
 
     // region SdkFeature
 
+    override val featureName: String = TRACING_FEATURE_NAME
+    override val uploadPriority: UploadPriority = UploadPriority.TRACES
+
     override fun createPersistenceStrategy(
         context: Context,
         configuration: Configuration.Feature.Tracing
@@ -38,7 +42,11 @@ internal object TracingFeature : SdkFeature<DDSpan, Configuration.Feature.Tracin
             CoreFeature.envName,
             sdkLogger,
             configuration.spanEventMapper,
-            CoreFeature.localDataEncryption
+            CoreFeature.localDataEncryption,
+            CoreFeature.persistentFileChannel,
+            CoreFeature.batchCompressionExecutorService,
+            CoreFeature.bufferOverflowPolicy,
+            featureMetrics
         )
     }
 
@@ -49,7 +57,9 @@ internal object TracingFeature : SdkFeature<DDSpan, Configuration.Feature.Tracin
             CoreFeature.sourceName,
             CoreFeature.sdkVersion,
             CoreFeature.okHttpClient,
-            CoreFeature.androidInfoProvider
+            CoreFeature.androidInfoProvider,
+            featureMetrics,
+            CoreFeature.uploadBackOffController
         )
     }
 
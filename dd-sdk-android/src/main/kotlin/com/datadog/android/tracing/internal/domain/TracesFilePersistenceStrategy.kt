@@ -7,6 +7,9 @@
 package com.datadog.android.tracing.internal.domain
 
 import android.content.Context
+import com.datadog.android.core.configuration.BufferOverflowPolicy
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.net.info.NetworkInfoProvider
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.file.advanced.FeatureFileOrchestrator
@@ -26,6 +29,7 @@ import com.datadog.android.tracing.internal.domain.event.SpanEventSerializer
 import com.datadog.android.tracing.internal.domain.event.SpanMapperSerializer
 import com.datadog.opentracing.DDSpan
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.ScheduledExecutorService
 
 internal class TracesFilePersistenceStrategy(
     consentProvider: ConsentProvider,
@@ -38,14 +42,19 @@ internal class TracesFilePersistenceStrategy(
     envName: String,
     internalLogger: Logger,
     spanEventMapper: SpanEventMapper,
-    localDataEncryption: Encryption?
+    localDataEncryption: Encryption?,
+    persistentFileChannel: Boolean,
+    compressionExecutorService: ScheduledExecutorService?,
+    bufferOverflowPolicy: BufferOverflowPolicy,
+    featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
 ) : BatchFilePersistenceStrategy<DDSpan>(
     FeatureFileOrchestrator(
         consentProvider,
         context,
         TracingFeature.TRACING_FEATURE_NAME,
         executorService,
-        internalLogger
+        internalLogger,
+        featureMetrics
     ),
     executorService,
     SpanMapperSerializer(
@@ -60,5 +69,9 @@ internal class TracesFilePersistenceStrategy(
     ),
     PayloadDecoration.NEW_LINE_DECORATION,
     internalLogger,
-    BatchFileHandler.create(internalLogger, localDataEncryption)
+    BatchFileHandler.create(internalLogger, localDataEncryption, persistentFileChannel),
+    compressionExecutorService,
+    bufferOverflowPolicy,
+    featureMetrics = featureMetrics,
+    consentProvider = consentProvider
 )
@@ -11,7 +11,6 @@ import com.datadog.android.core.internal.Mapper
 import com.datadog.android.core.internal.net.info.NetworkInfoProvider
 import com.datadog.android.core.internal.system.AppVersionProvider
 import com.datadog.android.core.internal.time.TimeProvider
-import com.datadog.android.core.internal.utils.toHexString
 import com.datadog.android.core.model.NetworkInfo
 import com.datadog.android.log.internal.user.UserInfoProvider
 import com.datadog.android.tracing.model.SpanEvent
@@ -31,9 +30,9 @@ internal class DdSpanToSpanEventMapper(
         val metrics = resolveMetrics(model)
         val metadata = resolveMeta(model)
         return SpanEvent(
-            traceId = model.traceId.toHexString(),
-            spanId = model.spanId.toHexString(),
-            parentId = model.parentId.toHexString(),
+            traceId = model.traceDDId.toHexString(),
+            spanId = model.spanDDId.toHexString(),
+            parentId = model.parentDDId.toHexString(),
             resource = model.resourceName,
             name = model.operationName,
             service = model.serviceName,
@@ -50,7 +49,7 @@ internal class DdSpanToSpanEventMapper(
     // region internal
 
     private fun resolveMetrics(event: DDSpan) = SpanEvent.Metrics(
-        topLevel = if (event.parentId.toLong() == 0L) 1 else null,
+        topLevel = if (event.parentDDId.toLong() == 0L) 1 else null,
         additionalProperties = event.metrics
     )
 
@@ -10,9 +10,8 @@ import com.datadog.android.core.internal.constraints.DataConstraints
 import com.datadog.android.core.internal.constraints.DatadogDataConstraints
 import com.datadog.android.core.internal.persistence.Serializer
 import com.datadog.android.core.internal.utils.NULL_MAP_VALUE
+import com.datadog.android.core.internal.utils.buildJsonString
 import com.datadog.android.tracing.model.SpanEvent
-import com.google.gson.JsonArray
-import com.google.gson.JsonObject
 import com.google.gson.JsonPrimitive
 import java.util.Date
 
@@ -23,16 +22,19 @@ internal class SpanEventSerializer(
 
     // region Serializer
 
+    @Suppress("UnsafeThirdPartyFunctionCall") // exceptions are caught by the Serializer callers
     override fun serialize(model: SpanEvent): String {
-        val span = sanitizeKeys(model).toJson()
-        val spans = JsonArray(1)
-        spans.add(span)
+        val span = sanitizeKeys(model)
 
-        val jsonObject = JsonObject()
-        jsonObject.add(TAG_SPANS, spans)
-        jsonObject.addProperty(TAG_ENV, envName)
-
-        return jsonObject.toString()
+        return buildJsonString { writer ->
+            writer.beginObject()
+            writer.name(TAG_SPANS)
+            writer.beginArray()
+            span.writeTo(writer)
+            writer.endArray()
+            writer.name(TAG_ENV).value(envName)
+            writer.endObject()
+        }
     }
 
     // endregion
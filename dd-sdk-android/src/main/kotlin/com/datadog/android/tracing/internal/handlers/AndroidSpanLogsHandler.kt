@@ -64,8 +64,8 @@ internal class AndroidSpanLogsHandler(
         timestampMicroseconds: Long? = null
     ) {
         val message = fields.remove(Fields.MESSAGE)?.toString() ?: DEFAULT_EVENT_MESSAGE
-        fields[LogAttributes.DD_TRACE_ID] = span.traceId.toString()
-        fields[LogAttributes.DD_SPAN_ID] = span.spanId.toString()
+        fields[LogAttributes.DD_TRACE_ID] = span.traceDDId.toString()
+        fields[LogAttributes.DD_SPAN_ID] = span.spanDDId.toString()
         logger.internalLog(
             Log.VERBOSE,
             message,
@@ -6,7 +6,10 @@
 
 package com.datadog.android.tracing.internal.net
 
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.net.DataOkHttpUploaderV2
+import com.datadog.android.core.internal.net.UploadBackOffController
 import com.datadog.android.core.internal.system.AndroidInfoProvider
 import com.datadog.android.core.internal.utils.sdkLogger
 import okhttp3.Call
@@ -17,7 +20,9 @@ internal open class TracesOkHttpUploaderV2(
     source: String,
     sdkVersion: String,
     callFactory: Call.Factory,
-    androidInfoProvider: AndroidInfoProvider
+    androidInfoProvider: AndroidInfoProvider,
+    featureMetrics: FeatureMetrics = NoOpFeatureMetrics(),
+    backOffController: UploadBackOffController = UploadBackOffController()
 ) : DataOkHttpUploaderV2(
     buildUrl(endpoint, TrackType.SPANS),
     clientToken,
@@ -26,5 +31,7 @@ internal open class TracesOkHttpUploaderV2(
     callFactory,
     CONTENT_TYPE_TEXT_UTF8,
     androidInfoProvider,
-    sdkLogger
+    sdkLogger,
+    featureMetrics,
+    backOffController
 )
@@ -13,7 +13,7 @@ import io.opentracing.Tracer
 internal fun Tracer.traceId(): String? {
     val activeSpan: Span? = activeSpan()
     return if (activeSpan is DDSpan) {
-        activeSpan.traceId.toString()
+        activeSpan.traceDDId.toString()
     } else {
         null
     }
@@ -22,7 +22,7 @@ internal fun Tracer.traceId(): String? {
 internal fun Tracer.spanId(): String? {
     val activeSpan: Span? = activeSpan()
     return if (activeSpan is DDSpan) {
-        activeSpan.spanId.toString()
+        activeSpan.spanDDId.toString()
     } else {
         null
     }
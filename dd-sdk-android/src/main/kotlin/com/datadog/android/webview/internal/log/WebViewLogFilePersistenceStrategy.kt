@@ -7,6 +7,9 @@
 package com.datadog.android.webview.internal.log
 
 import android.content.Context
+import com.datadog.android.core.configuration.BufferOverflowPolicy
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.file.advanced.FeatureFileOrchestrator
 import com.datadog.android.core.internal.persistence.file.batch.BatchFileHandler
@@ -18,13 +21,18 @@ import com.datadog.android.log.internal.domain.event.WebViewLogEventSerializer
 import com.datadog.android.security.Encryption
 import com.google.gson.JsonObject
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.ScheduledExecutorService
 
 internal class WebViewLogFilePersistenceStrategy(
     consentProvider: ConsentProvider,
     context: Context,
     executorService: ExecutorService,
     internalLogger: Logger,
-    localDataEncryption: Encryption?
+    localDataEncryption: Encryption?,
+    persistentFileChannel: Boolean,
+    compressionExecutorService: ScheduledExecutorService?,
+    bufferOverflowPolicy: BufferOverflowPolicy,
+    featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
 ) :
     BatchFilePersistenceStrategy<JsonObject>(
         FeatureFileOrchestrator(
@@ -32,11 +40,16 @@ internal class WebViewLogFilePersistenceStrategy(
             context,
             WebViewLogsFeature.WEB_LOGS_FEATURE_NAME,
             executorService,
-            internalLogger
+            internalLogger,
+            featureMetrics
         ),
         executorService,
         WebViewLogEventSerializer(),
         PayloadDecoration.JSON_ARRAY_DECORATION,
         sdkLogger,
-        BatchFileHandler.create(internalLogger, localDataEncryption)
+        BatchFileHandler.create(internalLogger, localDataEncryption, persistentFileChannel),
+        compressionExecutorService,
+        bufferOverflowPolicy,
+        featureMetrics = featureMetrics,
+        consentProvider = consentProvider
     )
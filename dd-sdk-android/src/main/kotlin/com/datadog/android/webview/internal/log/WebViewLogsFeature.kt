@@ -10,6 +10,7 @@ import android.content.Context
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.SdkFeature
+import com.datadog.android.core.internal.data.upload.UploadPriority
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.persistence.PersistenceStrategy
 import com.datadog.android.core.internal.utils.sdkLogger
@@ -22,6 +23,9 @@ internal object WebViewLogsFeature : SdkFeature<JsonObject, Configuration.Featur
 
     // region SdkFeature
 
+    override val featureName: String = WEB_LOGS_FEATURE_NAME
+    override val uploadPriority: UploadPriority = UploadPriority.LOGS
+
     override fun createPersistenceStrategy(
         context: Context,
         configuration: Configuration.Feature.Logs
@@ -31,7 +35,11 @@ internal object WebViewLogsFeature : SdkFeature<JsonObject, Configuration.Featur
             context,
             CoreFeature.persistenceExecutorService,
             sdkLogger,
-            CoreFeature.localDataEncryption
+            CoreFeature.localDataEncryption,
+            CoreFeature.persistentFileChannel,
+            CoreFeature.batchCompressionExecutorService,
+            CoreFeature.bufferOverflowPolicy,
+            featureMetrics
         )
     }
 
@@ -43,7 +51,9 @@ internal object WebViewLogsFeature : SdkFeature<JsonObject, Configuration.Featur
             CoreFeature.sdkVersion,
             CoreFeature.okHttpClient,
             CoreFeature.androidInfoProvider,
-            sdkLogger
+            sdkLogger,
+            featureMetrics,
+            CoreFeature.uploadBackOffController
         )
     }
 
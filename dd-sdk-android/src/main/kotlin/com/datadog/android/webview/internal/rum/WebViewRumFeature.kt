@@ -10,6 +10,7 @@ import android.content.Context
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.SdkFeature
+import com.datadog.android.core.internal.data.upload.UploadPriority
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.persistence.PersistenceStrategy
 import com.datadog.android.core.internal.utils.sdkLogger
@@ -22,6 +23,9 @@ internal object WebViewRumFeature : SdkFeature<Any, Configuration.Feature.RUM>()
 
     // region SdkFeature
 
+    override val featureName: String = WEB_RUM_FEATURE_NAME
+    override val uploadPriority: UploadPriority = UploadPriority.RUM
+
     override fun createPersistenceStrategy(
         context: Context,
         configuration: Configuration.Feature.RUM
@@ -32,7 +36,10 @@ internal object WebViewRumFeature : SdkFeature<Any, Configuration.Feature.RUM>()
             CoreFeature.persistenceExecutorService,
             sdkLogger,
             CoreFeature.localDataEncryption,
-            DatadogNdkCrashHandler.getLastViewEventFile(context)
+            CoreFeature.persistentFileChannel,
+            CoreFeature.batchCompressionExecutorService,
+            DatadogNdkCrashHandler.getLastViewEventFile(context),
+            featureMetrics
         )
     }
 
@@ -44,7 +51,9 @@ internal object WebViewRumFeature : SdkFeature<Any, Configuration.Feature.RUM>()
             CoreFeature.sdkVersion,
             CoreFeature.okHttpClient,
             CoreFeature.androidInfoProvider,
-            CoreFeature.packageVersionProvider
+            CoreFeature.packageVersionProvider,
+            featureMetrics,
+            CoreFeature.uploadBackOffController
         )
     }
 }
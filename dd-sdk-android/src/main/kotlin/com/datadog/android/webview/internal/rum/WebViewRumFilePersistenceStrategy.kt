@@ -7,6 +7,8 @@
 package com.datadog.android.webview.internal.rum
 
 import android.content.Context
+import com.datadog.android.core.internal.metrics.FeatureMetrics
+import com.datadog.android.core.internal.metrics.NoOpFeatureMetrics
 import com.datadog.android.core.internal.persistence.DataWriter
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.Serializer
@@ -22,6 +24,7 @@ import com.datadog.android.rum.internal.domain.event.RumEventSerializer
 import com.datadog.android.security.Encryption
 import java.io.File
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.ScheduledExecutorService
 
 internal class WebViewRumFilePersistenceStrategy(
     consentProvider: ConsentProvider,
@@ -29,20 +32,27 @@ internal class WebViewRumFilePersistenceStrategy(
     executorService: ExecutorService,
     internalLogger: Logger,
     localDataEncryption: Encryption?,
-    private val lastViewEventFile: File
+    persistentFileChannel: Boolean,
+    compressionExecutorService: ScheduledExecutorService?,
+    private val lastViewEventFile: File,
+    featureMetrics: FeatureMetrics = NoOpFeatureMetrics()
 ) : BatchFilePersistenceStrategy<Any>(
     FeatureFileOrchestrator(
         consentProvider,
         context,
         WebViewRumFeature.WEB_RUM_FEATURE_NAME,
         executorService,
-        internalLogger
+        internalLogger,
+        featureMetrics
     ),
     executorService,
     RumEventSerializer(),
     PayloadDecoration.NEW_LINE_DECORATION,
     internalLogger,
-    BatchFileHandler.create(internalLogger, localDataEncryption)
+    BatchFileHandler.create(internalLogger, localDataEncryption, persistentFileChannel),
+    compressionExecutorService,
+    featureMetrics = featureMetrics,
+    consentProvider = consentProvider
 ) {
 
     override fun createWriter(
@@ -59,10 +69,12 @@ internal class WebViewRumFilePersistenceStrategy(
                 payloadDecoration,
                 fileHandler,
                 internalLogger,
-                lastViewEventFile
+                lastViewEventFile,
+                featureMetrics
             ),
             executorService,
-            internalLogger
+            internalLogger,
+            featureMetrics
         )
     }
 }
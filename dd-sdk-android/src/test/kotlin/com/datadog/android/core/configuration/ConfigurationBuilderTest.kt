@@ -108,7 +108,17 @@ internal class ConfigurationBuilderTest {
                 proxy = null,
                 proxyAuth = Authenticator.NONE,
                 securityConfig = SecurityConfig.DEFAULT,
-                webViewTrackingHosts = emptyList()
+                webViewTrackingHosts = emptyList(),
+                persistentFileChannel = false,
+                batchPreCompression = false,
+                maxInFlightUploads = 1,
+                bufferOverflowPolicy = BufferOverflowPolicy.DROP_NEWEST,
+                asyncInitialization = false,
+                uploadSchedulingPolicy = UploadSchedulingPolicy.FIXED,
+                multiplexedUploads = false,
+                backgroundUploadMaxDurationMs =
+                Configuration.DEFAULT_BACKGROUND_UPLOAD_MAX_DURATION_MS,
+                backgroundUploadMaxBytes = Configuration.DEFAULT_BACKGROUND_UPLOAD_MAX_BYTES
             )
         )
         assertThat(config.logsConfig).isEqualTo(
@@ -1545,6 +1555,170 @@ internal class ConfigurationBuilderTest {
         assertThat(config.additionalConfig).isEmpty()
     }
 
+    @Test
+    fun `𝕄 use persistent file channel 𝕎 setPersistentFileChannelEnabled()`(
+        @BoolForgery persistentFileChannel: Boolean
+    ) {
+        // When
+        val config = testedBuilder
+            .setPersistentFileChannelEnabled(persistentFileChannel)
+            .build()
+
+        // Then
+        assertThat(config.coreConfig).isEqualTo(
+            Configuration.DEFAULT_CORE_CONFIG.copy(persistentFileChannel = persistentFileChannel)
+        )
+        assertThat(config.logsConfig).isEqualTo(Configuration.DEFAULT_LOGS_CONFIG)
+        assertThat(config.tracesConfig).isEqualTo(Configuration.DEFAULT_TRACING_CONFIG)
+        assertThat(config.crashReportConfig).isEqualTo(Configuration.DEFAULT_CRASH_CONFIG)
+        assertThat(config.rumConfig).isEqualTo(Configuration.DEFAULT_RUM_CONFIG)
+        assertThat(config.additionalConfig).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 use batch pre-compression 𝕎 setBatchPreCompressionEnabled()`(
+        @BoolForgery batchPreCompression: Boolean
+    ) {
+        // When
+        val config = testedBuilder
+            .setBatchPreCompressionEnabled(batchPreCompression)
+            .build()
+
+        // Then
+        assertThat(config.coreConfig).isEqualTo(
+            Configuration.DEFAULT_CORE_CONFIG.copy(batchPreCompression = batchPreCompression)
+        )
+        assertThat(config.logsConfig).isEqualTo(Configuration.DEFAULT_LOGS_CONFIG)
+        assertThat(config.tracesConfig).isEqualTo(Configuration.DEFAULT_TRACING_CONFIG)
+        assertThat(config.crashReportConfig).isEqualTo(Configuration.DEFAULT_CRASH_CONFIG)
+        assertThat(config.rumConfig).isEqualTo(Configuration.DEFAULT_RUM_CONFIG)
+        assertThat(config.additionalConfig).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 use max in flight uploads 𝕎 setMaxInFlightUploads()`(
+        @IntForgery(1, 16) maxInFlightUploads: Int
+    ) {
+        // When
+        val config = testedBuilder
+            .setMaxInFlightUploads(maxInFlightUploads)
+            .build()
+
+        // Then
+        assertThat(config.coreConfig).isEqualTo(
+            Configuration.DEFAULT_CORE_CONFIG.copy(maxInFlightUploads = maxInFlightUploads)
+        )
+        assertThat(config.logsConfig).isEqualTo(Configuration.DEFAULT_LOGS_CONFIG)
+        assertThat(config.tracesConfig).isEqualTo(Configuration.DEFAULT_TRACING_CONFIG)
+        assertThat(config.crashReportConfig).isEqualTo(Configuration.DEFAULT_CRASH_CONFIG)
+        assertThat(config.rumConfig).isEqualTo(Configuration.DEFAULT_RUM_CONFIG)
+        assertThat(config.additionalConfig).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 use buffer overflow policy 𝕎 setBufferOverflowPolicy()`(
+        @Forgery bufferOverflowPolicy: BufferOverflowPolicy
+    ) {
+        // When
+        val config = testedBuilder
+            .setBufferOverflowPolicy(bufferOverflowPolicy)
+            .build()
+
+        // Then
+        assertThat(config.coreConfig).isEqualTo(
+            Configuration.DEFAULT_CORE_CONFIG.copy(bufferOverflowPolicy = bufferOverflowPolicy)
+        )
+        assertThat(config.logsConfig).isEqualTo(Configuration.DEFAULT_LOGS_CONFIG)
+        assertThat(config.tracesConfig).isEqualTo(Configuration.DEFAULT_TRACING_CONFIG)
+        assertThat(config.crashReportConfig).isEqualTo(Configuration.DEFAULT_CRASH_CONFIG)
+        assertThat(config.rumConfig).isEqualTo(Configuration.DEFAULT_RUM_CONFIG)
+        assertThat(config.additionalConfig).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 use upload scheduling policy 𝕎 setUploadSchedulingPolicy()`(
+        @Forgery uploadSchedulingPolicy: UploadSchedulingPolicy
+    ) {
+        // When
+        val config = testedBuilder
+            .setUploadSchedulingPolicy(uploadSchedulingPolicy)
+            .build()
+
+        // Then
+        assertThat(config.coreConfig).isEqualTo(
+            Configuration.DEFAULT_CORE_CONFIG.copy(uploadSchedulingPolicy = uploadSchedulingPolicy)
+        )
+        assertThat(config.logsConfig).isEqualTo(Configuration.DEFAULT_LOGS_CONFIG)
+        assertThat(config.tracesConfig).isEqualTo(Configuration.DEFAULT_TRACING_CONFIG)
+        assertThat(config.crashReportConfig).isEqualTo(Configuration.DEFAULT_CRASH_CONFIG)
+        assertThat(config.rumConfig).isEqualTo(Configuration.DEFAULT_RUM_CONFIG)
+        assertThat(config.additionalConfig).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 use multiplexed uploads 𝕎 setMultiplexedUploadsEnabled()`(
+        @BoolForgery multiplexedUploads: Boolean
+    ) {
+        // When
+        val config = testedBuilder
+            .setMultiplexedUploadsEnabled(multiplexedUploads)
+            .build()
+
+        // Then
+        assertThat(config.coreConfig).isEqualTo(
+            Configuration.DEFAULT_CORE_CONFIG.copy(multiplexedUploads = multiplexedUploads)
+        )
+        assertThat(config.logsConfig).isEqualTo(Configuration.DEFAULT_LOGS_CONFIG)
+        assertThat(config.tracesConfig).isEqualTo(Configuration.DEFAULT_TRACING_CONFIG)
+        assertThat(config.crashReportConfig).isEqualTo(Configuration.DEFAULT_CRASH_CONFIG)
+        assertThat(config.rumConfig).isEqualTo(Configuration.DEFAULT_RUM_CONFIG)
+        assertThat(config.additionalConfig).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 use background upload budget 𝕎 setBackgroundUploadBudget()`(
+        @LongForgery(min = 1L) maxDurationMs: Long,
+        @LongForgery(min = 1L) maxBytes: Long
+    ) {
+        // When
+        val config = testedBuilder
+            .setBackgroundUploadBudget(maxDurationMs, maxBytes)
+            .build()
+
+        // Then
+        assertThat(config.coreConfig).isEqualTo(
+            Configuration.DEFAULT_CORE_CONFIG.copy(
+                backgroundUploadMaxDurationMs = maxDurationMs,
+                backgroundUploadMaxBytes = maxBytes
+            )
+        )
+        assertThat(config.logsConfig).isEqualTo(Configuration.DEFAULT_LOGS_CONFIG)
+        assertThat(config.tracesConfig).isEqualTo(Configuration.DEFAULT_TRACING_CONFIG)
+        assertThat(config.crashReportConfig).isEqualTo(Configuration.DEFAULT_CRASH_CONFIG)
+        assertThat(config.rumConfig).isEqualTo(Configuration.DEFAULT_RUM_CONFIG)
+        assertThat(config.additionalConfig).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 use async initialization 𝕎 setAsyncInitializationEnabled()`(
+        @BoolForgery asyncInitialization: Boolean
+    ) {
+        // When
+        val config = testedBuilder
+            .setAsyncInitializationEnabled(asyncInitialization)
+            .build()
+
+        // Then
+        assertThat(config.coreConfig).isEqualTo(
+            Configuration.DEFAULT_CORE_CONFIG.copy(asyncInitialization = asyncInitialization)
+        )
+        assertThat(config.logsConfig).isEqualTo(Configuration.DEFAULT_LOGS_CONFIG)
+        assertThat(config.tracesConfig).isEqualTo(Configuration.DEFAULT_TRACING_CONFIG)
+        assertThat(config.crashReportConfig).isEqualTo(Configuration.DEFAULT_CRASH_CONFIG)
+        assertThat(config.rumConfig).isEqualTo(Configuration.DEFAULT_RUM_CONFIG)
+        assertThat(config.additionalConfig).isEmpty()
+    }
+
     @Test
     fun `𝕄 build with additionalConfig 𝕎 setAdditionalConfiguration()`(forge: Forge) {
         // Given
@@ -14,8 +14,10 @@ import android.content.pm.PackageManager
 import android.net.ConnectivityManager
 import android.os.Build
 import android.os.Process
+import android.util.Log
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.configuration.Credentials
+import com.datadog.android.core.configuration.SecurityConfig
 import com.datadog.android.core.internal.net.info.BroadcastReceiverNetworkInfoProvider
 import com.datadog.android.core.internal.net.info.CallbackNetworkInfoProvider
 import com.datadog.android.core.internal.net.info.NoOpNetworkInfoProvider
@@ -32,7 +34,9 @@ import com.datadog.android.log.internal.user.NoOpMutableUserInfoProvider
 import com.datadog.android.privacy.TrackingConsent
 import com.datadog.android.rum.internal.ndk.DatadogNdkCrashHandler
 import com.datadog.android.rum.internal.ndk.NoOpNdkCrashHandler
+import com.datadog.android.security.Encryption
 import com.datadog.android.utils.config.ApplicationContextTestConfiguration
+import com.datadog.android.utils.config.LoggerTestConfiguration
 import com.datadog.android.utils.forge.Configurator
 import com.datadog.tools.unit.annotations.TestConfigurationsProvider
 import com.datadog.tools.unit.annotations.TestTargetApi
@@ -53,6 +57,7 @@ import com.nhaarman.mockitokotlin2.whenever
 import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.Forgery
 import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.annotation.LongForgery
 import fr.xgouchet.elmyr.annotation.StringForgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
 import fr.xgouchet.elmyr.junit5.ForgeExtension
@@ -75,6 +80,7 @@ import java.net.Proxy
 import java.util.Locale
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ScheduledExecutorService
 import java.util.concurrent.ScheduledThreadPoolExecutor
 import java.util.concurrent.ThreadPoolExecutor
 import java.util.concurrent.TimeUnit
@@ -144,6 +150,34 @@ internal class CoreFeatureTest {
             .isInstanceOf(KronosTimeProvider::class.java)
     }
 
+    @Test
+    fun `𝕄 initialize upload multiplexer 𝕎 initialize {multiplexed uploads}`() {
+        // When
+        CoreFeature.initialize(
+            appContext.mockInstance,
+            fakeCredentials,
+            fakeConfig.copy(multiplexedUploads = true),
+            fakeConsent
+        )
+
+        // Then
+        assertThat(CoreFeature.uploadMultiplexer).isNotNull()
+    }
+
+    @Test
+    fun `𝕄 not initialize upload multiplexer 𝕎 initialize {multiplexed uploads disabled}`() {
+        // When
+        CoreFeature.initialize(
+            appContext.mockInstance,
+            fakeCredentials,
+            fakeConfig.copy(multiplexedUploads = false),
+            fakeConsent
+        )
+
+        // Then
+        assertThat(CoreFeature.uploadMultiplexer).isNull()
+    }
+
     @Test
     fun `𝕄 initialize system info provider 𝕎 initialize`() {
         // When
@@ -274,6 +308,44 @@ internal class CoreFeatureTest {
         assertThat(CoreFeature.contextRef.get()).isEqualTo(appContext.mockInstance)
         assertThat(CoreFeature.batchSize).isEqualTo(fakeConfig.batchSize)
         assertThat(CoreFeature.uploadFrequency).isEqualTo(fakeConfig.uploadFrequency)
+        assertThat(CoreFeature.persistentFileChannel).isEqualTo(fakeConfig.persistentFileChannel)
+        assertThat(CoreFeature.batchPreCompression).isEqualTo(
+            fakeConfig.batchPreCompression &&
+                fakeConfig.securityConfig.localDataEncryption == null
+        )
+        assertThat(CoreFeature.maxInFlightUploads).isEqualTo(fakeConfig.maxInFlightUploads)
+        assertThat(CoreFeature.bufferOverflowPolicy).isEqualTo(fakeConfig.bufferOverflowPolicy)
+        assertThat(CoreFeature.asyncInitialization).isEqualTo(fakeConfig.asyncInitialization)
+        assertThat(CoreFeature.uploadSchedulingPolicy)
+            .isEqualTo(fakeConfig.uploadSchedulingPolicy)
+        assertThat(CoreFeature.multiplexedUploads).isEqualTo(fakeConfig.multiplexedUploads)
+        assertThat(CoreFeature.backgroundUploadMaxDurationMs)
+            .isEqualTo(fakeConfig.backgroundUploadMaxDurationMs)
+        assertThat(CoreFeature.backgroundUploadMaxBytes)
+            .isEqualTo(fakeConfig.backgroundUploadMaxBytes)
+    }
+
+    @Test
+    fun `𝕄 use default background upload budget 𝕎 initialize() {invalid budget}`(
+        @LongForgery(max = 1L) maxDurationMs: Long,
+        @LongForgery(max = 1L) maxBytes: Long
+    ) {
+        // When
+        CoreFeature.initialize(
+            appContext.mockInstance,
+            fakeCredentials,
+            fakeConfig.copy(
+                backgroundUploadMaxDurationMs = maxDurationMs,
+                backgroundUploadMaxBytes = maxBytes
+            ),
+            fakeConsent
+        )
+
+        // Then
+        assertThat(CoreFeature.backgroundUploadMaxDurationMs)
+            .isEqualTo(Configuration.DEFAULT_BACKGROUND_UPLOAD_MAX_DURATION_MS)
+        assertThat(CoreFeature.backgroundUploadMaxBytes)
+            .isEqualTo(Configuration.DEFAULT_BACKGROUND_UPLOAD_MAX_BYTES)
     }
 
     @Test
@@ -555,6 +627,91 @@ internal class CoreFeatureTest {
         assertThat(CoreFeature.persistenceExecutorService).isNotNull()
     }
 
+    @Test
+    fun `𝕄 initialize drain executor 𝕎 initialize() {maxInFlightUploads greater than 1}`(
+        @IntForgery(2, 8) maxInFlightUploads: Int
+    ) {
+        // When
+        CoreFeature.initialize(
+            appContext.mockInstance,
+            fakeCredentials,
+            fakeConfig.copy(maxInFlightUploads = maxInFlightUploads),
+            fakeConsent
+        )
+
+        // Then
+        val drainExecutor = CoreFeature.uploadDrainExecutorService as? ThreadPoolExecutor
+        checkNotNull(drainExecutor)
+        assertThat(drainExecutor.maximumPoolSize).isEqualTo(maxInFlightUploads - 1)
+    }
+
+    @Test
+    fun `𝕄 not initialize drain executor 𝕎 initialize() {maxInFlightUploads is 1}`() {
+        // When
+        CoreFeature.initialize(
+            appContext.mockInstance,
+            fakeCredentials,
+            fakeConfig.copy(maxInFlightUploads = 1),
+            fakeConsent
+        )
+
+        // Then
+        assertThat(CoreFeature.uploadDrainExecutorService).isNull()
+    }
+
+    @Test
+    fun `𝕄 initialize compression executor 𝕎 initialize() {pre-compression}`() {
+        // When
+        CoreFeature.initialize(
+            appContext.mockInstance,
+            fakeCredentials,
+            fakeConfig.copy(
+                batchPreCompression = true,
+                securityConfig = SecurityConfig(localDataEncryption = null)
+            ),
+            fakeConsent
+        )
+
+        // Then
+        assertThat(CoreFeature.batchCompressionExecutorService).isNotNull()
+    }
+
+    @Test
+    fun `𝕄 not initialize compression executor 𝕎 initialize() {no pre-compression}`() {
+        // When
+        CoreFeature.initialize(
+            appContext.mockInstance,
+            fakeCredentials,
+            fakeConfig.copy(batchPreCompression = false),
+            fakeConsent
+        )
+
+        // Then
+        assertThat(CoreFeature.batchCompressionExecutorService).isNull()
+    }
+
+    @Test
+    fun `𝕄 disable pre-compression and warn 𝕎 initialize() {local data encryption}`() {
+        // When
+        CoreFeature.initialize(
+            appContext.mockInstance,
+            fakeCredentials,
+            fakeConfig.copy(
+                batchPreCompression = true,
+                securityConfig = SecurityConfig(localDataEncryption = mock<Encryption>())
+            ),
+            fakeConsent
+        )
+
+        // Then
+        assertThat(CoreFeature.batchPreCompression).isFalse()
+        assertThat(CoreFeature.batchCompressionExecutorService).isNull()
+        verify(logger.mockDevLogHandler).handleLog(
+            Log.WARN,
+            CoreFeature.WARNING_PRE_COMPRESSION_ENCRYPTION
+        )
+    }
+
     @Test
     fun `𝕄 initialize only once 𝕎 initialize() twice`(
         @Forgery otherCredentials: Credentials
@@ -779,6 +936,46 @@ internal class CoreFeatureTest {
         verify(mockPersistenceExecutorService).shutdownNow()
     }
 
+    @Test
+    fun `𝕄 shut down drain executor 𝕎 stop()`() {
+        // Given
+        CoreFeature.initialize(
+            appContext.mockInstance,
+            fakeCredentials,
+            fakeConfig,
+            fakeConsent
+        )
+        val mockDrainExecutorService: ExecutorService = mock()
+        CoreFeature.uploadDrainExecutorService = mockDrainExecutorService
+
+        // When
+        CoreFeature.stop()
+
+        // Then
+        verify(mockDrainExecutorService).shutdownNow()
+        assertThat(CoreFeature.uploadDrainExecutorService).isNull()
+    }
+
+    @Test
+    fun `𝕄 shut down compression executor 𝕎 stop()`() {
+        // Given
+        CoreFeature.initialize(
+            appContext.mockInstance,
+            fakeCredentials,
+            fakeConfig,
+            fakeConsent
+        )
+        val mockCompressionExecutorService: ScheduledExecutorService = mock()
+        CoreFeature.batchCompressionExecutorService = mockCompressionExecutorService
+
+        // When
+        CoreFeature.stop()
+
+        // Then
+        verify(mockCompressionExecutorService).shutdownNow()
+        assertThat(CoreFeature.batchCompressionExecutorService).isNull()
+    }
+
     @Test
     fun `𝕄 unregister tracking consent callbacks 𝕎 stop()`() {
         // Given
@@ -989,11 +1186,12 @@ internal class CoreFeatureTest {
 
     companion object {
         val appContext = ApplicationContextTestConfiguration(Application::class.java)
+        val logger = LoggerTestConfiguration()
 
         @TestConfigurationsProvider
         @JvmStatic
         fun getTestConfigurations(): List<TestConfiguration> {
-            return listOf(appContext)
+            return listOf(appContext, logger)
         }
     }
 }
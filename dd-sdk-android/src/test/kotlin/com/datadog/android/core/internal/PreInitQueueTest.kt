@@ -0,0 +1,230 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal
+
+import android.util.Log
+import com.datadog.android.log.Logger
+import com.datadog.android.log.internal.logger.LogHandler
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+import java.util.Locale
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ForgeConfiguration(Configurator::class)
+internal class PreInitQueueTest {
+
+    lateinit var testedQueue: PreInitQueue
+
+    @Mock
+    lateinit var mockLogHandler: LogHandler
+
+    @BeforeEach
+    fun `set up`() {
+        testedQueue = PreInitQueue(Logger(mockLogHandler), FAKE_CAPACITY)
+    }
+
+    @Test
+    fun `𝕄 be ready 𝕎 init`() {
+        // Then
+        assertThat(testedQueue.isReady()).isTrue()
+        assertThat(testedQueue.isPending()).isFalse()
+    }
+
+    @Test
+    fun `𝕄 run action immediately 𝕎 runWhenReady() {not started}`() {
+        // Given
+        var executed = false
+
+        // When
+        testedQueue.runWhenReady { executed = true }
+
+        // Then
+        assertThat(executed).isTrue()
+    }
+
+    @Test
+    fun `𝕄 keep action 𝕎 runWhenReady() {started}`() {
+        // Given
+        var executed = false
+        testedQueue.start()
+
+        // When
+        testedQueue.runWhenReady { executed = true }
+
+        // Then
+        assertThat(executed).isFalse()
+        assertThat(testedQueue.isReady()).isFalse()
+        assertThat(testedQueue.isPending()).isTrue()
+    }
+
+    @Test
+    fun `𝕄 replay actions in order 𝕎 markReady()`(
+        @IntForgery(1, FAKE_CAPACITY) actionCount: Int
+    ) {
+        // Given
+        val executed = mutableListOf<Int>()
+        testedQueue.start()
+        repeat(actionCount) { index -> testedQueue.runWhenReady { executed.add(index) } }
+
+        // When
+        testedQueue.markReady()
+
+        // Then
+        assertThat(executed).containsExactlyElementsOf(List(actionCount) { it })
+        assertThat(testedQueue.isReady()).isTrue()
+        assertThat(testedQueue.isPending()).isFalse()
+        verifyZeroInteractions(mockLogHandler)
+    }
+
+    @Test
+    fun `𝕄 replay nested actions 𝕎 markReady() {action queued during replay}`() {
+        // Given
+        val executed = mutableListOf<String>()
+        testedQueue.start()
+        testedQueue.runWhenReady {
+            executed.add("outer")
+            testedQueue.runWhenReady { executed.add("nested") }
+        }
+
+        // When
+        testedQueue.markReady()
+
+        // Then
+        assertThat(executed).containsExactly("outer", "nested")
+    }
+
+    @Test
+    fun `𝕄 be current 𝕎 isCurrent() {started}`() {
+        // When
+        val generation = testedQueue.start()
+
+        // Then
+        assertThat(testedQueue.isCurrent(generation)).isTrue()
+    }
+
+    @Test
+    fun `𝕄 not be current 𝕎 isCurrent() {cleared}`() {
+        // Given
+        val generation = testedQueue.start()
+
+        // When
+        testedQueue.clear()
+
+        // Then
+        assertThat(testedQueue.isCurrent(generation)).isFalse()
+    }
+
+    @Test
+    fun `𝕄 not be current 𝕎 isCurrent() {started again}`() {
+        // Given
+        val generation = testedQueue.start()
+        testedQueue.clear()
+
+        // When
+        val nextGeneration = testedQueue.start()
+
+        // Then
+        assertThat(testedQueue.isCurrent(generation)).isFalse()
+        assertThat(testedQueue.isCurrent(nextGeneration)).isTrue()
+    }
+
+    @Test
+    fun `𝕄 replay actions 𝕎 markReady(generation) {current generation}`() {
+        // Given
+        var executed = false
+        val generation = testedQueue.start()
+        testedQueue.runWhenReady { executed = true }
+
+        // When
+        testedQueue.markReady(generation)
+
+        // Then
+        assertThat(executed).isTrue()
+        assertThat(testedQueue.isReady()).isTrue()
+        assertThat(testedQueue.isPending()).isFalse()
+    }
+
+    @Test
+    fun `𝕄 do nothing 𝕎 markReady(generation) {started again}`() {
+        // Given
+        var executed = false
+        val generation = testedQueue.start()
+        testedQueue.clear()
+        testedQueue.start()
+        testedQueue.runWhenReady { executed = true }
+
+        // When
+        testedQueue.markReady(generation)
+
+        // Then
+        assertThat(executed).isFalse()
+        assertThat(testedQueue.isReady()).isFalse()
+        assertThat(testedQueue.isPending()).isTrue()
+    }
+
+    @Test
+    fun `𝕄 drop newest actions and warn 𝕎 markReady() {queue full}`(
+        forge: Forge
+    ) {
+        // Given
+        val extraCount = forge.anInt(1, 10)
+        val executed = mutableListOf<Int>()
+        testedQueue.start()
+        repeat(FAKE_CAPACITY + extraCount) { index ->
+            testedQueue.runWhenReady { executed.add(index) }
+        }
+
+        // When
+        testedQueue.markReady()
+
+        // Then
+        assertThat(executed).containsExactlyElementsOf(List(FAKE_CAPACITY) { it })
+        verify(mockLogHandler).handleLog(
+            Log.WARN,
+            PreInitQueue.WARNING_DROPPED_ACTIONS.format(Locale.US, extraCount, FAKE_CAPACITY)
+        )
+    }
+
+    @Test
+    fun `𝕄 drop pending actions 𝕎 clear()`() {
+        // Given
+        var executed = false
+        testedQueue.start()
+        testedQueue.runWhenReady { executed = true }
+
+        // When
+        testedQueue.clear()
+        testedQueue.markReady()
+
+        // Then
+        assertThat(executed).isFalse()
+        assertThat(testedQueue.isReady()).isTrue()
+        assertThat(testedQueue.isPending()).isFalse()
+    }
+
+    companion object {
+        private const val FAKE_CAPACITY = 16
+    }
+}
@@ -10,6 +10,8 @@ import android.app.Application
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.internal.data.upload.DataFlusher
 import com.datadog.android.core.internal.data.upload.DataUploadScheduler
+import com.datadog.android.core.internal.data.upload.MultiplexedUploadRunnable
+import com.datadog.android.core.internal.data.upload.MultiplexedUploadScheduler
 import com.datadog.android.core.internal.data.upload.NoOpUploadScheduler
 import com.datadog.android.core.internal.data.upload.UploadScheduler
 import com.datadog.android.core.internal.net.DataUploader
@@ -36,6 +38,7 @@ import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.doReturn
 import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.inOrder
 import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.times
 import com.nhaarman.mockitokotlin2.verify
@@ -111,6 +114,7 @@ internal abstract class SdkFeatureTest<T : Any, C : Configuration.Feature, F : S
             testedFeature.initialized.set(true)
         }
         testedFeature.stop()
+        CoreFeature.uploadMultiplexer = null
     }
 
     abstract fun createTestedFeature(): F
@@ -147,6 +151,29 @@ internal abstract class SdkFeatureTest<T : Any, C : Configuration.Feature, F : S
         }
     }
 
+    @Test
+    fun `𝕄 register an upload lane 𝕎 initialize() {multiplexed uploads}`() {
+        // Given
+        val uploadMultiplexer = MultiplexedUploadRunnable(
+            coreFeature.mockUploadExecutor,
+            coreFeature.mockNetworkInfoProvider,
+            coreFeature.mockSystemInfoProvider,
+            mock()
+        )
+        CoreFeature.uploadMultiplexer = uploadMultiplexer
+
+        // When
+        testedFeature.initialize(appContext.mockInstance, fakeConfigurationFeature)
+
+        // Then
+        val uploadScheduler = testedFeature.uploadScheduler
+        check(uploadScheduler is MultiplexedUploadScheduler)
+        assertThat(uploadScheduler.uploadRunnable).isSameAs(uploadMultiplexer)
+        assertThat(uploadScheduler.lane.name).isEqualTo(testedFeature.featureName)
+        assertThat(uploadScheduler.lane.priority).isEqualTo(testedFeature.uploadPriority)
+        assertThat(uploadMultiplexer.lanes).containsExactly(uploadScheduler.lane)
+    }
+
     @Test
     fun `𝕄 register plugins 𝕎 initialize()`() {
         // Given
@@ -232,6 +259,19 @@ internal abstract class SdkFeatureTest<T : Any, C : Configuration.Feature, F : S
             .isInstanceOf(NoOpUploadScheduler::class.java)
     }
 
+    @Test
+    fun `𝕄 close the persistence strategy 𝕎 stop()`() {
+        // Given
+        testedFeature.initialize(appContext.mockInstance, fakeConfigurationFeature)
+        testedFeature.persistenceStrategy = mockPersistenceStrategy
+
+        // When
+        testedFeature.stop()
+
+        // Then
+        verify(mockPersistenceStrategy).close()
+    }
+
     @Test
     fun `𝕄 mark itself as not initialized 𝕎 stop()`() {
         // Given
@@ -262,6 +302,30 @@ internal abstract class SdkFeatureTest<T : Any, C : Configuration.Feature, F : S
         assertThat(testedFeature.uploadScheduler).isSameAs(uploadScheduler)
     }
 
+    @Test
+    fun `𝕄 record startup timings 𝕎 initialize()`() {
+        // Given
+        CoreFeature.startupTimings.clear()
+
+        // When
+        testedFeature.initialize(appContext.mockInstance, fakeConfigurationFeature)
+
+        // Then
+        val timings = CoreFeature.startupTimings.getTimings()
+        assertThat(timings).allMatch { it.feature == featureDirName() }
+        assertThat(timings.map { it.phase }).contains(
+            StartupTimings.PHASE_PERSISTENCE,
+            StartupTimings.PHASE_UPLOAD,
+            StartupTimings.PHASE_PLUGINS,
+            StartupTimings.PHASE_SETUP
+        )
+        val total = timings.last()
+        assertThat(total.phase).isEqualTo(StartupTimings.PHASE_TOTAL)
+        val setup = timings.first { it.phase == StartupTimings.PHASE_SETUP }
+        assertThat(total.durationNs).isGreaterThanOrEqualTo(setup.durationNs)
+        CoreFeature.startupTimings.clear()
+    }
+
     @Test
     fun `𝕄 not setup uploader 𝕎 initialize() in secondary process`() {
         // Given
@@ -283,7 +347,10 @@ internal abstract class SdkFeatureTest<T : Any, C : Configuration.Feature, F : S
         testedFeature.clearAllData()
 
         // Then
-        verify(mockReader).dropAll()
+        inOrder(mockReader, mockPersistenceStrategy) {
+            verify(mockReader).dropAll()
+            verify(mockPersistenceStrategy).close()
+        }
     }
 
     @Test
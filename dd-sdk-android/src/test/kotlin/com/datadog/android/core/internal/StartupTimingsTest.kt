@@ -0,0 +1,158 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal
+
+import com.datadog.android.DatadogStartupTiming
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import java.util.Locale
+
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+internal class StartupTimingsTest {
+
+    lateinit var testedTimings: StartupTimings
+
+    @BeforeEach
+    fun `set up`() {
+        testedTimings = StartupTimings()
+    }
+
+    @Test
+    fun `𝕄 record phase duration 𝕎 measure()`(
+        @StringForgery feature: String,
+        @StringForgery phase: String,
+        @StringForgery result: String
+    ) {
+        // When
+        val startNs = System.nanoTime()
+        val measuredResult = testedTimings.measure(feature, phase) {
+            Thread.sleep(SLEEP_DURATION_MS)
+            result
+        }
+        val durationNs = System.nanoTime() - startNs
+
+        // Then
+        assertThat(measuredResult).isEqualTo(result)
+        val timing = testedTimings.getTimings().single()
+        assertThat(timing.feature).isEqualTo(feature)
+        assertThat(timing.phase).isEqualTo(phase)
+        assertThat(timing.durationNs)
+            .isGreaterThanOrEqualTo(SLEEP_DURATION_MS * 1_000_000L)
+            .isLessThanOrEqualTo(durationNs)
+        assertThat(timing.isMainThread).isFalse()
+    }
+
+    @Test
+    fun `𝕄 record phase duration 𝕎 measure() {block throws}`(
+        @StringForgery feature: String,
+        @StringForgery phase: String,
+        @StringForgery message: String
+    ) {
+        // When
+        val exception = runCatching {
+            testedTimings.measure(feature, phase) { throw IllegalStateException(message) }
+        }.exceptionOrNull()
+
+        // Then
+        assertThat(exception).isInstanceOf(IllegalStateException::class.java)
+        assertThat(testedTimings.getTimings().single().phase).isEqualTo(phase)
+    }
+
+    @Test
+    fun `𝕄 keep phases in order 𝕎 measure() {nested phases}`(
+        @StringForgery feature: String
+    ) {
+        // When
+        testedTimings.measure(feature, StartupTimings.PHASE_TOTAL) {
+            testedTimings.measure(feature, StartupTimings.PHASE_PERSISTENCE) {}
+            testedTimings.measure(feature, StartupTimings.PHASE_UPLOAD) {}
+        }
+
+        // Then
+        assertThat(testedTimings.getTimings().map { it.phase }).containsExactly(
+            StartupTimings.PHASE_PERSISTENCE,
+            StartupTimings.PHASE_UPLOAD,
+            StartupTimings.PHASE_TOTAL
+        )
+    }
+
+    @Test
+    fun `𝕄 remove all timings 𝕎 clear()`(
+        @StringForgery feature: String,
+        @StringForgery phase: String,
+        @LongForgery(min = 0) durationNs: Long
+    ) {
+        // Given
+        testedTimings.record(feature, phase, durationNs)
+
+        // When
+        testedTimings.clear()
+
+        // Then
+        assertThat(testedTimings.getTimings()).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 return null 𝕎 toTelemetryMessage() {no total recorded}`(
+        @StringForgery feature: String,
+        @LongForgery(min = 0) durationNs: Long
+    ) {
+        // Given
+        testedTimings.record(feature, StartupTimings.PHASE_PERSISTENCE, durationNs)
+
+        // When
+        val message = testedTimings.toTelemetryMessage()
+
+        // Then
+        assertThat(message).isNull()
+    }
+
+    @Test
+    fun `𝕄 summarize totals per feature 𝕎 toTelemetryMessage()`(
+        @LongForgery(min = 0, max = 1_000_000_000L) coreNs: Long,
+        @LongForgery(min = 0, max = 1_000_000_000L) logsNs: Long,
+        @LongForgery(min = 0, max = 1_000_000_000L) persistenceNs: Long
+    ) {
+        // Given
+        testedTimings.record(StartupTimings.CORE_FEATURE_NAME, StartupTimings.PHASE_TOTAL, coreNs)
+        testedTimings.record("logs", StartupTimings.PHASE_PERSISTENCE, persistenceNs)
+        testedTimings.record("logs", StartupTimings.PHASE_TOTAL, logsNs)
+
+        // When
+        val message = testedTimings.toTelemetryMessage()
+
+        // Then
+        // timings recorded in unit tests never run on the main thread
+        val expectedDetails = listOf(
+            DatadogStartupTiming(StartupTimings.CORE_FEATURE_NAME, "", coreNs, false),
+            DatadogStartupTiming("logs", "", logsNs, false)
+        ).joinToString(", ") {
+            StartupTimings.FEATURE_SUMMARY_FORMAT.format(
+                Locale.US,
+                it.feature,
+                0.0,
+                it.durationNs / 1_000_000.0
+            )
+        }
+        assertThat(message).isEqualTo(StartupTimings.TELEMETRY_MESSAGE_PREFIX + expectedDetails)
+    }
+
+    companion object {
+        private const val SLEEP_DURATION_MS = 10L
+    }
+}
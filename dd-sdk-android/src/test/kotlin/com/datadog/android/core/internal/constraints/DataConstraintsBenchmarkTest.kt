@@ -0,0 +1,164 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.constraints
+
+import com.datadog.android.utils.benchmark.measureOperations
+import com.datadog.android.utils.benchmark.publishBenchmark
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestReporter
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import java.util.Locale
+
+/**
+ * A JVM microbenchmark comparing the [DatadogDataConstraints] validation with the previous
+ * regex and transform based implementation, reproduced below as a reference.
+ *
+ * Run it with the `DD_BENCHMARK=true` environment variable set.
+ */
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+@EnabledIfEnvironmentVariable(named = "DD_BENCHMARK", matches = "true")
+internal class DataConstraintsBenchmarkTest {
+
+    private val testedConstraints = DatadogDataConstraints()
+
+    @Test
+    fun `benchmark attributes validation`(forge: Forge, testReporter: TestReporter) {
+        val attributes = forge.aMap(size = ATTRIBUTE_COUNT) {
+            aList(size = anInt(1, 16)) { anAlphabeticalString(size = anInt(1, 8)) }
+                .joinToString(".") to anInt()
+        }
+
+        benchmark(
+            testReporter,
+            "validateAttributes (${attributes.size} attributes)",
+            { legacyValidateAttributes(attributes) },
+            { testedConstraints.validateAttributes(attributes) }
+        )
+    }
+
+    @Test
+    fun `benchmark tags validation`(forge: Forge, testReporter: TestReporter) {
+        val tags = List(TAG_COUNT) {
+            forge.aStringMatching("[a-zA-Z][a-zA-Z0-9_ ]{1,16}:[a-z0-9.?]{1,16}")
+        }
+
+        benchmark(
+            testReporter,
+            "validateTags (${tags.size} tags)",
+            { legacyValidateTags(tags) },
+            { testedConstraints.validateTags(tags) }
+        )
+    }
+
+    @Test
+    fun `benchmark timings validation`(forge: Forge, testReporter: TestReporter) {
+        val timings = forge.aMap(size = TIMING_COUNT) {
+            aStringMatching("[a-zA-Z0-9 %!]{1,32}") to aLong()
+        }
+
+        benchmark(
+            testReporter,
+            "validateTimings (${timings.size} timings)",
+            { legacyValidateTimings(timings) },
+            { testedConstraints.validateTimings(timings) }
+        )
+    }
+
+    // region Internal
+
+    private fun benchmark(
+        testReporter: TestReporter,
+        name: String,
+        legacyValidation: () -> Any,
+        validation: () -> Any
+    ) {
+        assertThat(validation()).isEqualTo(legacyValidation())
+
+        repeat(WARMUP_ROUNDS) {
+            legacyValidation()
+            validation()
+        }
+
+        val legacyResult = measureOperations(MEASURE_ROUNDS) { legacyValidation() }
+        val result = measureOperations(MEASURE_ROUNDS) { validation() }
+
+        testReporter.publishBenchmark("$name previous implementation", legacyResult)
+        testReporter.publishBenchmark("$name current implementation", result)
+    }
+
+    // endregion
+
+    // region Previous implementation
+
+    private val legacyTagTransforms = listOf<(String) -> String?>(
+        { it.lowercase(Locale.US) },
+        { if (it.getOrNull(0) !in 'a'..'z') null else it },
+        { it.replace(Regex("[^a-z0-9_:./-]"), "_") },
+        { if (it.endsWith(':')) it.substring(0, it.lastIndex) else it },
+        { if (it.length > MAX_TAG_LENGTH) it.substring(0, MAX_TAG_LENGTH) else it },
+        { if (legacyIsKeyReserved(it)) null else it }
+    )
+
+    private fun legacyValidateTags(tags: List<String>): List<String> {
+        return tags.mapNotNull { rawTag ->
+            legacyTagTransforms.fold(rawTag as String?) { tag, transform ->
+                if (tag == null) null else transform(tag)
+            }
+        }
+    }
+
+    private fun legacyIsKeyReserved(tag: String): Boolean {
+        val firstColon = tag.indexOf(':')
+        return firstColon > 0 &&
+            tag.substring(0, firstColon) in setOf("host", "device", "source", "service")
+    }
+
+    private fun legacyValidateAttributes(attributes: Map<String, Any?>): Map<String, Any?> {
+        return attributes.map { (rawKey, value) ->
+            var dotCount = 0
+            val mapped = rawKey.map {
+                if (it == '.') {
+                    dotCount++
+                    if (dotCount > MAX_DEPTH_LEVEL) '_' else it
+                } else {
+                    it
+                }
+            }
+            String(mapped.toCharArray()) to value
+        }.take(MAX_ATTR_COUNT).toMap().toMutableMap()
+    }
+
+    private fun legacyValidateTimings(timings: Map<String, Long>): Map<String, Long> {
+        return timings.mapKeys { it.key.replace(Regex("[^a-zA-Z0-9\\-_.@$]"), "_") }
+            .toMutableMap()
+    }
+
+    // endregion
+
+    companion object {
+        private const val ATTRIBUTE_COUNT = 128
+        private const val TAG_COUNT = 32
+        private const val TIMING_COUNT = 32
+
+        private const val MAX_TAG_LENGTH = 200
+        private const val MAX_ATTR_COUNT = 128
+        private const val MAX_DEPTH_LEVEL = 9
+
+        private const val WARMUP_ROUNDS = 2_000
+        private const val MEASURE_ROUNDS = 10_000
+    }
+}
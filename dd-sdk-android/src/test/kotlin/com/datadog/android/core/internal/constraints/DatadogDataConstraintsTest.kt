@@ -14,6 +14,7 @@ import com.datadog.android.utils.times
 import com.datadog.tools.unit.annotations.TestConfigurationsProvider
 import com.datadog.tools.unit.extensions.TestConfigurationExtension
 import com.datadog.tools.unit.extensions.config.TestConfiguration
+import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.isNull
@@ -25,6 +26,7 @@ import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
 import fr.xgouchet.elmyr.junit5.ForgeExtension
 import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.entry
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
@@ -191,6 +193,68 @@ internal class DatadogDataConstraintsTest {
         )
     }
 
+    @Test
+    fun `replace surrogate pairs with a single underscore`(forge: Forge) {
+        val validPart = forge.anAlphabeticalString(size = 3)
+        val value = forge.aNumericalString()
+        val tag = "$validPart\uD83D\uDC36:$value"
+
+        val result = testedConstraints.validateTags(listOf(tag))
+
+        val expectedCorrectedTag = "${validPart}_:$value"
+        assertThat(result)
+            .containsOnly(expectedCorrectedTag)
+        verify(logger.mockDevLogHandler).handleLog(
+            Log.WARN,
+            "tag \"$tag\" was modified to \"$expectedCorrectedTag\" to match our constraints."
+        )
+    }
+
+    @Test
+    fun `convert the same tag again and log each time`(forge: Forge) {
+        val key = forge.anAlphabeticalString(case = Case.UPPER)
+        val value = forge.aNumericalString()
+        val tag = "$key:$value"
+        val expectedCorrectedTag = "${key.lowercase(Locale.US)}:$value"
+
+        val firstResult = testedConstraints.validateTags(listOf(tag))
+        val secondResult = testedConstraints.validateTags(listOf(tag))
+
+        assertThat(firstResult).containsOnly(expectedCorrectedTag)
+        assertThat(secondResult).containsOnly(expectedCorrectedTag)
+        verify(logger.mockDevLogHandler, times(2)).handleLog(
+            Log.WARN,
+            "tag \"$tag\" was modified to \"$expectedCorrectedTag\" to match our constraints."
+        )
+    }
+
+    @Test
+    fun `ignore the same invalid tag again and log each time`(forge: Forge) {
+        val key = forge.aStringMatching("\\d[a-z]+")
+        val value = forge.aNumericalString()
+        val tag = "$key:$value"
+
+        val firstResult = testedConstraints.validateTags(listOf(tag))
+        val secondResult = testedConstraints.validateTags(listOf(tag))
+
+        assertThat(firstResult).isEmpty()
+        assertThat(secondResult).isEmpty()
+        verify(logger.mockDevLogHandler, times(2))
+            .handleLog(Log.ERROR, "\"$tag\" is an invalid tag, and was ignored.")
+    }
+
+    @Test
+    fun `convert tags when more tags than the cache size are used`(forge: Forge) {
+        val tags = forge.aList(1024) { aStringMatching("[A-Z]{1,8}:[0-9]{1,8}") }.distinct()
+        val expectedTags = tags.map { it.lowercase(Locale.US) }
+
+        val firstResult = tags.chunked(100).flatMap { testedConstraints.validateTags(it) }
+        val secondResult = tags.chunked(100).flatMap { testedConstraints.validateTags(it) }
+
+        assertThat(firstResult).containsExactlyElementsOf(expectedTags)
+        assertThat(secondResult).containsExactlyElementsOf(expectedTags)
+    }
+
     //endregion
 
     // region Attributes
@@ -251,6 +315,18 @@ internal class DatadogDataConstraintsTest {
         )
     }
 
+    @Test
+    fun `M keep the same key instance W validateAttributes { under 10 levels }`(forge: Forge) {
+        val key = forge.aList(9) { anAlphabeticalString() }.joinToString(".")
+        val value = forge.aNumericalString()
+
+        val result = testedConstraints.validateAttributes(mapOf(key to value))
+
+        assertThat(result.keys.single()).isSameAs(key)
+        assertThat(result).containsEntry(key, value)
+        verifyZeroInteractions(logger.mockDevLogHandler)
+    }
+
     @Test
     fun `ignore attribute if adding more than 128`(forge: Forge) {
         val attributes = forge.aList(202) { anAlphabeticalString() to anInt() }.toMap()
@@ -371,6 +447,49 @@ internal class DatadogDataConstraintsTest {
         )
     }
 
+    @Test
+    fun `M sanitize surrogate pairs with a single underscore W validateTimings`(
+        forge: Forge
+    ) {
+        // Given
+        val goodTimingPart = forge.anAlphabeticalString(case = Case.ANY)
+        val badKey = "$goodTimingPart\uD83D\uDC36"
+        val fakeTiming = forge.aLong()
+
+        // When
+        val sanitizedTimings =
+            testedConstraints.validateTimings(mapOf(badKey to fakeTiming))
+
+        // Then
+        assertThat(sanitizedTimings).containsOnly(entry("${goodTimingPart}_", fakeTiming))
+    }
+
+    @Test
+    fun `M sanitize the same custom timings again W validateTimings`(
+        forge: Forge
+    ) {
+        // Given
+        val customTimings = forge.aMap {
+            forge.anAlphabeticalString(case = Case.ANY) + forge.anElementFrom("%", "*", "!", "&") to
+                forge.aLong()
+        }
+
+        // When
+        val firstSanitizedTimings = testedConstraints.validateTimings(customTimings)
+        val secondSanitizedTimings = testedConstraints.validateTimings(customTimings)
+
+        // Then
+        assertThat(secondSanitizedTimings).isEqualTo(firstSanitizedTimings)
+        verify(logger.mockDevLogHandler, times(customTimings.size * 2)).handleLog(
+            eq(Log.WARN),
+            any(),
+            isNull(),
+            eq(emptyMap()),
+            eq(emptySet()),
+            isNull()
+        )
+    }
+
     // endregion
 
     companion object {
@@ -0,0 +1,251 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.data.upload
+
+import com.datadog.android.core.configuration.UploadFrequency
+import com.datadog.android.core.internal.persistence.Backlog
+import com.datadog.android.core.model.NetworkInfo
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import java.util.concurrent.TimeUnit
+
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+internal class AdaptiveUploadSchedulingStrategyTest {
+
+    lateinit var testedStrategy: AdaptiveUploadSchedulingStrategy
+
+    @Forgery
+    lateinit var fakeUploadFrequency: UploadFrequency
+
+    private val goodNetworkInfo = NetworkInfo(
+        connectivity = NetworkInfo.Connectivity.NETWORK_WIFI,
+        upKbps = AdaptiveUploadSchedulingStrategy.GOOD_BANDWIDTH_KBPS * 2
+    )
+
+    private val meteredNetworkInfo = NetworkInfo(
+        connectivity = NetworkInfo.Connectivity.NETWORK_4G,
+        upKbps = AdaptiveUploadSchedulingStrategy.GOOD_BANDWIDTH_KBPS * 2
+    )
+
+    private val largeBacklog = Backlog(
+        AdaptiveUploadSchedulingStrategy.LARGE_BACKLOG_BATCH_COUNT * 4,
+        AdaptiveUploadSchedulingStrategy.LARGE_BACKLOG_BYTE_COUNT * 4
+    )
+
+    @BeforeEach
+    fun `set up`() {
+        testedStrategy = AdaptiveUploadSchedulingStrategy(fakeUploadFrequency)
+    }
+
+    // region getBurstSize
+
+    @Test
+    fun `𝕄 burst 𝕎 getBurstSize() {good link, large backlog}`() {
+        // When
+        val burstSize = testedStrategy.getBurstSize(goodNetworkInfo, largeBacklog)
+
+        // Then
+        assertThat(burstSize).isEqualTo(AdaptiveUploadSchedulingStrategy.MAX_BURST_SIZE)
+    }
+
+    @Test
+    fun `𝕄 upload a single round 𝕎 getBurstSize() {good link, small backlog}`() {
+        // When
+        val burstSize = testedStrategy.getBurstSize(goodNetworkInfo, Backlog(1, 1L))
+
+        // Then
+        assertThat(burstSize).isEqualTo(1)
+    }
+
+    @Test
+    fun `𝕄 upload a single round 𝕎 getBurstSize() {metered link, large backlog}`() {
+        // When
+        val burstSize = testedStrategy.getBurstSize(meteredNetworkInfo, largeBacklog)
+
+        // Then
+        assertThat(burstSize).isEqualTo(1)
+    }
+
+    @Test
+    fun `𝕄 upload a single round 𝕎 getBurstSize() {weak signal, large backlog}`(
+        @IntForgery(min = 1, max = 50) strengthOffset: Int
+    ) {
+        // Given
+        val networkInfo = goodNetworkInfo.copy(
+            strength = AdaptiveUploadSchedulingStrategy.WEAK_SIGNAL_STRENGTH - strengthOffset
+        )
+
+        // When
+        val burstSize = testedStrategy.getBurstSize(networkInfo, largeBacklog)
+
+        // Then
+        assertThat(burstSize).isEqualTo(1)
+    }
+
+    @Test
+    fun `𝕄 upload a single round 𝕎 getBurstSize() {slow observed throughput}`() {
+        // Given
+        testedStrategy.throughputBytesPerMs =
+            AdaptiveUploadSchedulingStrategy.WEAK_THROUGHPUT_BYTES_PER_MS / 2
+
+        // When
+        val burstSize = testedStrategy.getBurstSize(goodNetworkInfo, largeBacklog)
+
+        // Then
+        assertThat(burstSize).isEqualTo(1)
+    }
+
+    // endregion
+
+    // region getNextDelayMs
+
+    @Test
+    fun `𝕄 use min delay 𝕎 getNextDelayMs() {good link, large backlog left}`() {
+        // Given
+        val cycle = UploadCycle(goodNetworkInfo, largeBacklog, listOf(false))
+
+        // When
+        val nextDelayMs = testedStrategy.getNextDelayMs(testedStrategy.initialDelayMs, cycle)
+
+        // Then
+        assertThat(nextDelayMs).isEqualTo(testedStrategy.minDelayMs)
+    }
+
+    @Test
+    fun `𝕄 not go below default delay 𝕎 getNextDelayMs() {metered link}`() {
+        // Given
+        val cycle = UploadCycle(meteredNetworkInfo, largeBacklog, listOf(false))
+
+        // When
+        val nextDelayMs = testedStrategy.getNextDelayMs(testedStrategy.initialDelayMs, cycle)
+
+        // Then
+        assertThat(nextDelayMs).isEqualTo(testedStrategy.initialDelayMs)
+    }
+
+    @Test
+    fun `𝕄 use max delay 𝕎 getNextDelayMs() {2G link}`() {
+        // Given
+        val networkInfo = NetworkInfo(NetworkInfo.Connectivity.NETWORK_2G)
+        val cycle = UploadCycle(networkInfo, largeBacklog, listOf(false))
+
+        // When
+        val nextDelayMs = testedStrategy.getNextDelayMs(testedStrategy.minDelayMs, cycle)
+
+        // Then
+        assertThat(nextDelayMs).isEqualTo(testedStrategy.maxDelayMs)
+    }
+
+    @Test
+    fun `𝕄 double delay 𝕎 getNextDelayMs() {batch needs retry}`() {
+        // Given
+        val cycle = UploadCycle(goodNetworkInfo, largeBacklog, listOf(false, true))
+
+        // When
+        val nextDelayMs = testedStrategy.getNextDelayMs(testedStrategy.minDelayMs, cycle)
+
+        // Then
+        assertThat(nextDelayMs).isEqualTo(
+            testedStrategy.minDelayMs * AdaptiveUploadSchedulingStrategy.RETRY_BACKOFF_FACTOR
+        )
+    }
+
+    @Test
+    fun `𝕄 increase delay 𝕎 getNextDelayMs() {nothing uploaded}`() {
+        // Given
+        val cycle = UploadCycle(goodNetworkInfo)
+
+        // When
+        val nextDelayMs = testedStrategy.getNextDelayMs(testedStrategy.initialDelayMs, cycle)
+
+        // Then
+        assertThat(nextDelayMs).isEqualTo(
+            testedStrategy.initialDelayMs * FixedUploadSchedulingStrategy.INCREASE_PERCENT / 100
+        )
+    }
+
+    @Test
+    fun `𝕄 track throughput 𝕎 getNextDelayMs()`() {
+        // Given
+        val cycle = UploadCycle(
+            goodNetworkInfo,
+            largeBacklog,
+            listOf(false),
+            uploadedBytes = 100_000L,
+            uploadDurationNs = TimeUnit.MILLISECONDS.toNanos(1000)
+        )
+
+        // When
+        testedStrategy.getNextDelayMs(testedStrategy.initialDelayMs, cycle)
+
+        // Then
+        assertThat(testedStrategy.throughputBytesPerMs).isEqualTo(100.0)
+    }
+
+    @Test
+    fun `𝕄 not classify link as weak 𝕎 getNextDelayMs() {good link, small batches}`(
+        forge: Forge
+    ) {
+        // Given
+        var delayMs = testedStrategy.initialDelayMs
+
+        // When
+        repeat(forge.anInt(4, 16)) {
+            // a 2 KB batch with a 150 ms round trip, dominated by the request latency
+            val cycle = UploadCycle(
+                goodNetworkInfo,
+                largeBacklog,
+                listOf(false),
+                uploadedBytes = 2048L,
+                uploadDurationNs = TimeUnit.MILLISECONDS.toNanos(150)
+            )
+            delayMs = testedStrategy.getNextDelayMs(delayMs, cycle)
+        }
+
+        // Then
+        assertThat(testedStrategy.throughputBytesPerMs).isNull()
+        assertThat(delayMs).isEqualTo(testedStrategy.minDelayMs)
+        assertThat(testedStrategy.getBurstSize(goodNetworkInfo, largeBacklog)).isGreaterThan(1)
+    }
+
+    @Test
+    fun `𝕄 keep delay within bounds 𝕎 getNextDelayMs()`(
+        forge: Forge
+    ) {
+        // Given
+        var delayMs = testedStrategy.initialDelayMs
+
+        // When
+        repeat(forge.anInt(16, 64)) {
+            val cycle = UploadCycle(
+                forge.getForgery(),
+                Backlog(forge.anInt(0, 100), forge.aLong(0, 10_000_000)),
+                forge.aList { aBool() },
+                forge.aLong(0, 1_000_000),
+                forge.aLong(0, 1_000_000_000)
+            )
+            delayMs = testedStrategy.getNextDelayMs(delayMs, cycle)
+
+            // Then
+            assertThat(delayMs).isBetween(testedStrategy.minDelayMs, testedStrategy.maxDelayMs)
+        }
+    }
+
+    // endregion
+}
@@ -7,10 +7,15 @@
 package com.datadog.android.core.internal.data.upload
 
 import com.datadog.android.core.internal.net.DataUploader
+import com.datadog.android.core.internal.net.UploadStatus
+import com.datadog.android.core.internal.persistence.Batch
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.file.FileHandler
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
 import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
@@ -19,6 +24,8 @@ import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.StringForgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
 import fr.xgouchet.elmyr.junit5.ForgeExtension
+import okio.Buffer
+import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
@@ -84,23 +91,30 @@ internal class DataFlusherTest {
             }
         whenever(mockFileOrchestrator.getFlushableFiles()).thenReturn(fakeFiles)
         fakeFiles.forEachIndexed { index, file ->
-            whenever(
-                mockFileHandler.readData(file)
-            ).thenReturn(fakeBatches[index])
+            whenever(mockFileHandler.streamData(eq(file), any())) doAnswer {
+                val consumer = it.getArgument<(ByteArray) -> Unit>(1)
+                fakeBatches[index].forEach(consumer)
+                true
+            }
+        }
+        val uploadedPayloads = mutableListOf<ByteArray>()
+        whenever(mockDataUploader.upload(any())) doAnswer {
+            val buffer = Buffer()
+            it.getArgument<Batch>(0).writeTo(buffer)
+            uploadedPayloads.add(buffer.readByteArray())
+            UploadStatus.SUCCESS
         }
 
         // When
         testedFlusher.flush(mockDataUploader)
 
         // Then
-        fakeBatches.forEach {
-            val expectedPayload =
-                payloadDecoration.prefixBytes + it.reduce { acc, bytes ->
-                    acc + payloadDecoration.separatorBytes + bytes
-                } + payloadDecoration.suffixBytes
-
-            verify(mockDataUploader).upload(expectedPayload)
+        val expectedPayloads = fakeBatches.map {
+            payloadDecoration.prefixBytes + it.reduce { acc, bytes ->
+                acc + payloadDecoration.separatorBytes + bytes
+            } + payloadDecoration.suffixBytes
         }
+        assertThat(uploadedPayloads).containsExactlyElementsOf(expectedPayloads)
     }
 
     @Test
@@ -10,6 +10,7 @@ import com.datadog.android.core.configuration.UploadFrequency
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.net.UploadStatus
 import com.datadog.android.core.internal.net.info.NetworkInfoProvider
+import com.datadog.android.core.internal.persistence.Backlog
 import com.datadog.android.core.internal.persistence.Batch
 import com.datadog.android.core.internal.persistence.DataReader
 import com.datadog.android.core.internal.system.SystemInfo
@@ -21,7 +22,9 @@ import com.nhaarman.mockitokotlin2.anyOrNull
 import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.doAnswer
 import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.doThrow
 import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.never
 import com.nhaarman.mockitokotlin2.same
 import com.nhaarman.mockitokotlin2.times
@@ -31,6 +34,7 @@ import com.nhaarman.mockitokotlin2.whenever
 import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.Forgery
 import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.annotation.LongForgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
 import fr.xgouchet.elmyr.junit5.ForgeExtension
 import org.assertj.core.api.Assertions.assertThat
@@ -44,6 +48,11 @@ import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Future
+import java.util.concurrent.FutureTask
+import java.util.concurrent.RejectedExecutionException
 import java.util.concurrent.ScheduledThreadPoolExecutor
 import java.util.concurrent.TimeUnit
 
@@ -70,6 +79,12 @@ internal class DataUploadRunnableTest {
     @Mock
     lateinit var mockSystemInfoProvider: SystemInfoProvider
 
+    @Mock
+    lateinit var mockDrainExecutor: ExecutorService
+
+    @Mock
+    lateinit var mockSchedulingStrategy: UploadSchedulingStrategy
+
     @Forgery
     lateinit var fakeUploadFrequency: UploadFrequency
 
@@ -92,6 +107,7 @@ internal class DataUploadRunnableTest {
             onExternalPowerSource = true
         )
         whenever(mockSystemInfoProvider.getLatestSystemInfo()) doReturn fakeSystemInfo
+        whenever(mockReader.getBacklog()) doReturn Backlog()
 
         testedRunnable = DataUploadRunnable(
             mockThreadPoolExecutor,
@@ -111,13 +127,13 @@ internal class DataUploadRunnableTest {
             )
         whenever(mockNetworkInfoProvider.getLatestNetworkInfo()) doReturn networkInfo
         whenever(mockReader.lockAndReadNext()) doReturn batch
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
 
         testedRunnable.run()
 
         verify(mockReader, never()).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader, never()).upload(batch.data)
+        verify(mockDataUploader, never()).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -138,13 +154,13 @@ internal class DataUploadRunnableTest {
         )
         whenever(mockReader.lockAndReadNext()) doReturn batch
         whenever(mockSystemInfoProvider.getLatestSystemInfo()) doReturn fakeSystemInfo
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
 
         testedRunnable.run()
 
         verify(mockReader).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader).upload(batch.data)
+        verify(mockDataUploader).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -165,13 +181,13 @@ internal class DataUploadRunnableTest {
         )
         whenever(mockReader.lockAndReadNext()) doReturn batch
         whenever(mockSystemInfoProvider.getLatestSystemInfo()) doReturn fakeSystemInfo
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
 
         testedRunnable.run()
 
         verify(mockReader).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader).upload(batch.data)
+        verify(mockDataUploader).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -192,13 +208,13 @@ internal class DataUploadRunnableTest {
         )
         whenever(mockReader.lockAndReadNext()) doReturn batch
         whenever(mockSystemInfoProvider.getLatestSystemInfo()) doReturn fakeSystemInfo
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
 
         testedRunnable.run()
 
         verify(mockReader).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader).upload(batch.data)
+        verify(mockDataUploader).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -219,13 +235,13 @@ internal class DataUploadRunnableTest {
         )
         whenever(mockReader.lockAndReadNext()) doReturn batch
         whenever(mockSystemInfoProvider.getLatestSystemInfo()) doReturn fakeSystemInfo
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
 
         testedRunnable.run()
 
         verify(mockReader, never()).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader, never()).upload(batch.data)
+        verify(mockDataUploader, never()).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -246,13 +262,13 @@ internal class DataUploadRunnableTest {
         )
         whenever(mockReader.lockAndReadNext()) doReturn batch
         whenever(mockSystemInfoProvider.getLatestSystemInfo()) doReturn fakeSystemInfo
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
 
         testedRunnable.run()
 
         verify(mockReader, never()).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader, never()).upload(batch.data)
+        verify(mockDataUploader, never()).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -273,13 +289,13 @@ internal class DataUploadRunnableTest {
         )
         whenever(mockReader.lockAndReadNext()) doReturn batch
         whenever(mockSystemInfoProvider.getLatestSystemInfo()) doReturn fakeSystemInfo
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
 
         testedRunnable.run()
 
         verify(mockReader, never()).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader, never()).upload(batch.data)
+        verify(mockDataUploader, never()).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -300,13 +316,13 @@ internal class DataUploadRunnableTest {
         )
         whenever(mockReader.lockAndReadNext()) doReturn batch
         whenever(mockSystemInfoProvider.getLatestSystemInfo()) doReturn fakeSystemInfo
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
 
         testedRunnable.run()
 
         verify(mockReader, never()).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader, never()).upload(batch.data)
+        verify(mockDataUploader, never()).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -322,7 +338,7 @@ internal class DataUploadRunnableTest {
 
         verify(mockReader, never()).drop(anyOrNull())
         verify(mockReader, never()).release(anyOrNull())
-        verifyZeroInteractions(mockDataUploader)
+        verify(mockDataUploader, never()).upload(any())
         verify(mockThreadPoolExecutor).schedule(
             eq(testedRunnable),
             any(),
@@ -333,13 +349,13 @@ internal class DataUploadRunnableTest {
     @Test
     fun `batch sent successfully`(@Forgery batch: Batch) {
         whenever(mockReader.lockAndReadNext()) doReturn batch
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
 
         testedRunnable.run()
 
         verify(mockReader).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader).upload(batch.data)
+        verify(mockDataUploader).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -350,13 +366,13 @@ internal class DataUploadRunnableTest {
     @Test
     fun `batch kept on Network Error`(@Forgery batch: Batch) {
         whenever(mockReader.lockAndReadNext()) doReturn batch
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.NETWORK_ERROR
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.NETWORK_ERROR
 
         testedRunnable.run()
 
         verify(mockReader, never()).drop(batch)
         verify(mockReader).release(batch)
-        verify(mockDataUploader).upload(batch.data)
+        verify(mockDataUploader).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -370,12 +386,12 @@ internal class DataUploadRunnableTest {
         @IntForgery(min = 3, max = 42) runCount: Int
     ) {
         whenever(mockReader.lockAndReadNext()) doReturn batch
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.NETWORK_ERROR
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.NETWORK_ERROR
 
         for (i in 0 until runCount) {
             testedRunnable.run()
         }
-        verify(mockDataUploader, times(runCount)).upload(batch.data)
+        verify(mockDataUploader, times(runCount)).upload(batch)
         verify(mockReader, never()).drop(batch)
         verify(mockReader, times(runCount)).release(batch)
         verify(mockThreadPoolExecutor, times(runCount)).schedule(
@@ -388,13 +404,13 @@ internal class DataUploadRunnableTest {
     @Test
     fun `batch dropped on Redirection`(@Forgery batch: Batch) {
         whenever(mockReader.lockAndReadNext()) doReturn batch
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.HTTP_REDIRECTION
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.HTTP_REDIRECTION
 
         testedRunnable.run()
 
         verify(mockReader).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader).upload(batch.data)
+        verify(mockDataUploader).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -405,13 +421,13 @@ internal class DataUploadRunnableTest {
     @Test
     fun `batch dropped on Client Error`(@Forgery batch: Batch) {
         whenever(mockReader.lockAndReadNext()) doReturn batch
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.HTTP_CLIENT_ERROR
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.HTTP_CLIENT_ERROR
 
         testedRunnable.run()
 
         verify(mockReader).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader).upload(batch.data)
+        verify(mockDataUploader).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -422,13 +438,13 @@ internal class DataUploadRunnableTest {
     @Test
     fun `batch dropped on Invalid Token Error`(@Forgery batch: Batch) {
         whenever(mockReader.lockAndReadNext()) doReturn batch
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.INVALID_TOKEN_ERROR
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.INVALID_TOKEN_ERROR
 
         testedRunnable.run()
 
         verify(mockReader).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader).upload(batch.data)
+        verify(mockDataUploader).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -439,13 +455,13 @@ internal class DataUploadRunnableTest {
     @Test
     fun `batch kept on Server Error`(@Forgery batch: Batch) {
         whenever(mockReader.lockAndReadNext()) doReturn batch
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.HTTP_SERVER_ERROR
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.HTTP_SERVER_ERROR
 
         testedRunnable.run()
 
         verify(mockReader, never()).drop(batch)
         verify(mockReader).release(batch)
-        verify(mockDataUploader).upload(batch.data)
+        verify(mockDataUploader).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -459,13 +475,13 @@ internal class DataUploadRunnableTest {
         @IntForgery(min = 3, max = 42) runCount: Int
     ) {
         whenever(mockReader.lockAndReadNext()) doReturn batch
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.HTTP_SERVER_ERROR
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.HTTP_SERVER_ERROR
 
         for (i in 0 until runCount) {
             testedRunnable.run()
         }
 
-        verify(mockDataUploader, times(runCount)).upload(batch.data)
+        verify(mockDataUploader, times(runCount)).upload(batch)
         verify(mockReader, never()).drop(batch)
         verify(mockReader, times(runCount)).release(batch)
         verify(mockThreadPoolExecutor, times(runCount)).schedule(
@@ -478,13 +494,13 @@ internal class DataUploadRunnableTest {
     @Test
     fun `batch dropped on Unknown error`(@Forgery batch: Batch) {
         whenever(mockReader.lockAndReadNext()) doReturn batch
-        whenever(mockDataUploader.upload(batch.data)) doReturn UploadStatus.UNKNOWN_ERROR
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.UNKNOWN_ERROR
 
         testedRunnable.run()
 
         verify(mockReader).drop(batch)
         verify(mockReader, never()).release(batch)
-        verify(mockDataUploader).upload(batch.data)
+        verify(mockDataUploader).upload(batch)
         verify(mockThreadPoolExecutor).schedule(
             same(testedRunnable),
             any(),
@@ -656,4 +672,392 @@ internal class DataUploadRunnableTest {
             }
         }
     }
+
+    // region parallel drain
+
+    @Test
+    fun `𝕄 upload batches in parallel 𝕎 run() {drain executor}`(
+        @IntForgery(2, 8) maxInFlightUploads: Int,
+        forge: Forge
+    ) {
+        // Given
+        val batches = forge.aList(maxInFlightUploads) { getForgery<Batch>() }
+        stubReader(batches)
+        whenever(mockDataUploader.upload(any())) doReturn UploadStatus.SUCCESS
+        stubDrainExecutor()
+        testedRunnable = createRunnableWithDrainExecutor(maxInFlightUploads)
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockDrainExecutor, times(maxInFlightUploads - 1)).submit(any<Callable<Boolean>>())
+        batches.forEach {
+            verify(mockDataUploader).upload(it)
+            verify(mockReader).drop(it)
+        }
+        verify(mockReader, never()).release(any())
+    }
+
+    @Test
+    fun `𝕄 lock at most maxInFlightUploads batches 𝕎 run() {drain executor}`(
+        @IntForgery(2, 8) maxInFlightUploads: Int,
+        forge: Forge
+    ) {
+        // Given
+        val batches = forge.aList(maxInFlightUploads * 2) { getForgery<Batch>() }
+        stubReader(batches)
+        whenever(mockDataUploader.upload(any())) doReturn UploadStatus.SUCCESS
+        stubDrainExecutor()
+        testedRunnable = createRunnableWithDrainExecutor(maxInFlightUploads)
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockReader, times(maxInFlightUploads)).lockAndReadNext()
+        verify(mockDataUploader, times(maxInFlightUploads)).upload(any())
+    }
+
+    @Test
+    fun `𝕄 release failed batches only 𝕎 run() {drain executor, some uploads fail}`(
+        @Forgery batch: Batch,
+        @Forgery failingBatch: Batch
+    ) {
+        // Given
+        stubReader(listOf(batch, failingBatch))
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
+        whenever(mockDataUploader.upload(failingBatch)) doReturn UploadStatus.NETWORK_ERROR
+        stubDrainExecutor()
+        testedRunnable = createRunnableWithDrainExecutor(2)
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockReader).drop(batch)
+        verify(mockReader).release(failingBatch)
+        verify(mockReader, never()).drop(failingBatch)
+    }
+
+    @Test
+    fun `𝕄 upload on current thread 𝕎 run() {drain executor rejects task}`(
+        @Forgery batch: Batch,
+        @Forgery otherBatch: Batch
+    ) {
+        // Given
+        stubReader(listOf(batch, otherBatch))
+        whenever(mockDataUploader.upload(any())) doReturn UploadStatus.SUCCESS
+        whenever(mockDrainExecutor.submit(any<Callable<Boolean>>()))
+            .doThrow(RejectedExecutionException())
+        testedRunnable = createRunnableWithDrainExecutor(2)
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockDataUploader).upload(batch)
+        verify(mockDataUploader).upload(otherBatch)
+        verify(mockReader).drop(batch)
+        verify(mockReader).drop(otherBatch)
+    }
+
+    @Test
+    fun `𝕄 cancel and release pending batch 𝕎 run() {drain wait interrupted}`(
+        @Forgery batch: Batch,
+        @Forgery otherBatch: Batch
+    ) {
+        // Given
+        stubReader(listOf(batch, otherBatch))
+        whenever(mockDataUploader.upload(any())) doReturn UploadStatus.SUCCESS
+        val mockFuture: Future<Boolean> = mock()
+        whenever(mockFuture.get()) doThrow InterruptedException()
+        whenever(mockDrainExecutor.submit(any<Callable<Boolean>>())) doReturn mockFuture
+        testedRunnable = createRunnableWithDrainExecutor(2)
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        assertThat(Thread.interrupted()).isTrue()
+        verify(mockFuture).cancel(true)
+        verify(mockReader).drop(batch)
+        verify(mockReader).release(otherBatch)
+        verify(mockDataUploader, never()).upload(otherBatch)
+    }
+
+    @Test
+    fun `𝕄 not release started batch 𝕎 run() {drain wait interrupted after upload started}`(
+        @Forgery batch: Batch,
+        @Forgery otherBatch: Batch
+    ) {
+        // Given
+        stubReader(listOf(batch, otherBatch))
+        whenever(mockDataUploader.upload(any())) doReturn UploadStatus.SUCCESS
+        val mockFuture: Future<Boolean> = mock()
+        whenever(mockDrainExecutor.submit(any<Callable<Boolean>>())) doAnswer {
+            val task = it.getArgument<Callable<Boolean>>(0)
+            whenever(mockFuture.get()) doAnswer {
+                task.call()
+                throw InterruptedException()
+            }
+            mockFuture
+        }
+        testedRunnable = createRunnableWithDrainExecutor(2)
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        assertThat(Thread.interrupted()).isTrue()
+        verify(mockFuture).cancel(true)
+        verify(mockReader).drop(batch)
+        verify(mockReader).drop(otherBatch)
+        verify(mockReader, never()).release(any())
+    }
+
+    @Test
+    fun `𝕄 upload a single batch 𝕎 run() {no drain executor}`(
+        forge: Forge
+    ) {
+        // Given
+        val batches = forge.aList(forge.anInt(2, 8)) { getForgery<Batch>() }
+        stubReader(batches)
+        whenever(mockDataUploader.upload(any())) doReturn UploadStatus.SUCCESS
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockReader).lockAndReadNext()
+        verify(mockDataUploader).upload(batches.first())
+        verifyZeroInteractions(mockDrainExecutor)
+    }
+
+    // endregion
+
+    // region Scheduling strategy
+
+    @Test
+    fun `𝕄 upload several rounds 𝕎 run() {strategy allows a burst}`(
+        @IntForgery(2, 8) burstSize: Int,
+        @LongForgery(min = 1) fakeBacklogBytes: Long,
+        forge: Forge
+    ) {
+        // Given
+        val batches = forge.aList(burstSize * 2) { getForgery<Batch>() }
+        val fakeBacklog = Backlog(batches.size, fakeBacklogBytes)
+        stubReader(batches)
+        whenever(mockReader.getBacklog()) doReturn fakeBacklog
+        whenever(mockDataUploader.upload(any())) doReturn UploadStatus.SUCCESS
+        whenever(mockSchedulingStrategy.requiresBacklog) doReturn true
+        whenever(mockSchedulingStrategy.getBurstSize(any(), eq(fakeBacklog))) doReturn burstSize
+        testedRunnable = createRunnableWithStrategy()
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockDataUploader, times(burstSize)).upload(any())
+        batches.take(burstSize).forEach {
+            verify(mockReader).drop(it)
+        }
+    }
+
+    @Test
+    fun `𝕄 not read the backlog 𝕎 run() {strategy doesn't require it}`(
+        @Forgery batch: Batch
+    ) {
+        // Given
+        stubReader(listOf(batch))
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
+        whenever(mockSchedulingStrategy.requiresBacklog) doReturn false
+        whenever(mockSchedulingStrategy.getBurstSize(any(), any())) doReturn 1
+        testedRunnable = createRunnableWithStrategy()
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockReader, never()).getBacklog()
+        verify(mockSchedulingStrategy).getBurstSize(any(), eq(Backlog()))
+        verify(mockReader).drop(batch)
+    }
+
+    @Test
+    fun `𝕄 stop the burst 𝕎 run() {batch needs to be retried}`(
+        @IntForgery(2, 8) burstSize: Int,
+        forge: Forge
+    ) {
+        // Given
+        val batches = forge.aList(burstSize) { getForgery<Batch>() }
+        stubReader(batches)
+        whenever(mockDataUploader.upload(any())) doReturn UploadStatus.NETWORK_ERROR
+        whenever(mockSchedulingStrategy.getBurstSize(any(), any())) doReturn burstSize
+        testedRunnable = createRunnableWithStrategy()
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockDataUploader).upload(batches.first())
+        verify(mockReader).release(batches.first())
+        verify(mockReader, never()).drop(any())
+    }
+
+    @Test
+    fun `𝕄 schedule next run with strategy delay 𝕎 run()`(
+        @Forgery batch: Batch,
+        @LongForgery(min = 1) fakeDelayMs: Long
+    ) {
+        // Given
+        stubReader(listOf(batch))
+        whenever(mockDataUploader.upload(batch)) doReturn UploadStatus.SUCCESS
+        whenever(mockSchedulingStrategy.getBurstSize(any(), any())) doReturn 1
+        whenever(mockSchedulingStrategy.getNextDelayMs(any(), any())) doReturn fakeDelayMs
+        testedRunnable = createRunnableWithStrategy()
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        argumentCaptor<UploadCycle> {
+            verify(mockSchedulingStrategy).getNextDelayMs(any(), capture())
+            assertThat(firstValue.results).containsExactly(false)
+        }
+        verify(mockThreadPoolExecutor).schedule(
+            same(testedRunnable),
+            eq(fakeDelayMs),
+            eq(TimeUnit.MILLISECONDS)
+        )
+    }
+
+    @Test
+    fun `𝕄 report an empty cycle 𝕎 run() {offline}`() {
+        // Given
+        val networkInfo = NetworkInfo(NetworkInfo.Connectivity.NETWORK_NOT_CONNECTED)
+        whenever(mockNetworkInfoProvider.getLatestNetworkInfo()) doReturn networkInfo
+        testedRunnable = createRunnableWithStrategy()
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockSchedulingStrategy).getNextDelayMs(any(), eq(UploadCycle(networkInfo)))
+        verify(mockReader, never()).getBacklog()
+        verifyZeroInteractions(mockDataUploader)
+    }
+
+    // endregion
+
+    // region Back-off
+
+    @Test
+    fun `𝕄 not upload 𝕎 run() {intake backed off}`(
+        @Forgery batch: Batch,
+        @LongForgery(min = 1) fakeBackOffMs: Long
+    ) {
+        // Given
+        stubReader(listOf(batch))
+        whenever(mockDataUploader.requestUpload()) doReturn fakeBackOffMs
+        testedRunnable = createRunnableWithStrategy()
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockReader, never()).lockAndReadNext()
+        verify(mockDataUploader, never()).upload(any())
+        argumentCaptor<UploadCycle> {
+            verify(mockSchedulingStrategy).getNextDelayMs(any(), capture())
+            assertThat(firstValue.results).isEmpty()
+        }
+    }
+
+    @Test
+    fun `𝕄 schedule next run after the back-off 𝕎 run() {back-off longer than delay}`(
+        @LongForgery(min = 1, max = 1000) fakeDelayMs: Long,
+        @LongForgery(min = 1001) fakeBackOffMs: Long
+    ) {
+        // Given
+        whenever(mockDataUploader.requestUpload()) doReturn fakeBackOffMs
+        whenever(mockSchedulingStrategy.getNextDelayMs(any(), any())) doReturn fakeDelayMs
+        testedRunnable = createRunnableWithStrategy()
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        assertThat(testedRunnable.currentDelayIntervalMs).isEqualTo(fakeDelayMs)
+        verify(mockThreadPoolExecutor).schedule(
+            same(testedRunnable),
+            eq(fakeBackOffMs),
+            eq(TimeUnit.MILLISECONDS)
+        )
+    }
+
+    @Test
+    fun `𝕄 schedule next run with strategy delay 𝕎 run() {back-off shorter than delay}`(
+        @LongForgery(min = 1001) fakeDelayMs: Long,
+        @LongForgery(min = 1, max = 1000) fakeBackOffMs: Long
+    ) {
+        // Given
+        whenever(mockDataUploader.requestUpload()) doReturn fakeBackOffMs
+        whenever(mockSchedulingStrategy.getNextDelayMs(any(), any())) doReturn fakeDelayMs
+        testedRunnable = createRunnableWithStrategy()
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockThreadPoolExecutor).schedule(
+            same(testedRunnable),
+            eq(fakeDelayMs),
+            eq(TimeUnit.MILLISECONDS)
+        )
+    }
+
+    // endregion
+
+    // region Internal
+
+    private fun stubDrainExecutor() {
+        whenever(mockDrainExecutor.submit(any<Callable<Boolean>>())) doAnswer {
+            FutureTask(it.getArgument<Callable<Boolean>>(0)).apply { run() }
+        }
+    }
+
+    private fun createRunnableWithDrainExecutor(maxInFlightUploads: Int): DataUploadRunnable {
+        return DataUploadRunnable(
+            mockThreadPoolExecutor,
+            mockReader,
+            mockDataUploader,
+            mockNetworkInfoProvider,
+            mockSystemInfoProvider,
+            fakeUploadFrequency,
+            mockDrainExecutor,
+            maxInFlightUploads
+        )
+    }
+
+    private fun createRunnableWithStrategy(): DataUploadRunnable {
+        return DataUploadRunnable(
+            mockThreadPoolExecutor,
+            mockReader,
+            mockDataUploader,
+            mockNetworkInfoProvider,
+            mockSystemInfoProvider,
+            fakeUploadFrequency,
+            schedulingStrategy = mockSchedulingStrategy
+        )
+    }
+
+    private fun stubReader(batches: List<Batch>) {
+        val remaining = batches.toMutableList()
+        whenever(mockReader.lockAndReadNext()) doAnswer {
+            if (remaining.isEmpty()) null else remaining.removeAt(0)
+        }
+    }
+
+    // endregion
 }
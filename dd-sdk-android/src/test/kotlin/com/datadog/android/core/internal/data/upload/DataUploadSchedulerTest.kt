@@ -60,7 +60,7 @@ internal class DataUploadSchedulerTest {
         // Then
         verify(mockExecutor).schedule(
             any(),
-            eq(fakeUploadFrequency.baseStepMs * DataUploadRunnable.DEFAULT_DELAY_FACTOR),
+            eq(fakeUploadFrequency.baseStepMs * FixedUploadSchedulingStrategy.DEFAULT_DELAY_FACTOR),
             eq(TimeUnit.MILLISECONDS)
         )
     }
@@ -77,7 +77,7 @@ internal class DataUploadSchedulerTest {
         val argumentCaptor = argumentCaptor<Runnable>()
         verify(mockExecutor).schedule(
             argumentCaptor.capture(),
-            eq(fakeUploadFrequency.baseStepMs * DataUploadRunnable.DEFAULT_DELAY_FACTOR),
+            eq(fakeUploadFrequency.baseStepMs * FixedUploadSchedulingStrategy.DEFAULT_DELAY_FACTOR),
             eq(TimeUnit.MILLISECONDS)
         )
         verify(mockExecutor).remove(argumentCaptor.firstValue)
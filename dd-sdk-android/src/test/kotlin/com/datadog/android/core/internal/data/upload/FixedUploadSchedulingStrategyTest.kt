@@ -0,0 +1,116 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.data.upload
+
+import com.datadog.android.core.configuration.UploadFrequency
+import com.datadog.android.core.internal.persistence.Backlog
+import com.datadog.android.core.model.NetworkInfo
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+internal class FixedUploadSchedulingStrategyTest {
+
+    lateinit var testedStrategy: FixedUploadSchedulingStrategy
+
+    @Forgery
+    lateinit var fakeUploadFrequency: UploadFrequency
+
+    @Forgery
+    lateinit var fakeNetworkInfo: NetworkInfo
+
+    @BeforeEach
+    fun `set up`() {
+        testedStrategy = FixedUploadSchedulingStrategy(fakeUploadFrequency)
+    }
+
+    @Test
+    fun `𝕄 use upload frequency 𝕎 init()`() {
+        // Then
+        assertThat(testedStrategy.initialDelayMs).isEqualTo(
+            fakeUploadFrequency.baseStepMs * FixedUploadSchedulingStrategy.DEFAULT_DELAY_FACTOR
+        )
+        assertThat(testedStrategy.minDelayMs).isEqualTo(
+            fakeUploadFrequency.baseStepMs * FixedUploadSchedulingStrategy.MIN_DELAY_FACTOR
+        )
+        assertThat(testedStrategy.maxDelayMs).isEqualTo(
+            fakeUploadFrequency.baseStepMs * FixedUploadSchedulingStrategy.MAX_DELAY_FACTOR
+        )
+    }
+
+    @Test
+    fun `𝕄 upload a single round 𝕎 getBurstSize()`(
+        @IntForgery(min = 0) batchCount: Int,
+        @LongForgery(min = 0) byteCount: Long
+    ) {
+        // When
+        val burstSize = testedStrategy.getBurstSize(fakeNetworkInfo, Backlog(batchCount, byteCount))
+
+        // Then
+        assertThat(burstSize).isEqualTo(1)
+    }
+
+    @Test
+    fun `𝕄 increase delay 𝕎 getNextDelayMs() {nothing uploaded}`() {
+        // Given
+        val currentDelayMs = testedStrategy.initialDelayMs
+        val cycle = UploadCycle(fakeNetworkInfo)
+
+        // When
+        val nextDelayMs = testedStrategy.getNextDelayMs(currentDelayMs, cycle)
+
+        // Then
+        assertThat(nextDelayMs).isEqualTo(
+            currentDelayMs * FixedUploadSchedulingStrategy.INCREASE_PERCENT / 100
+        )
+    }
+
+    @Test
+    fun `𝕄 decrease delay 𝕎 getNextDelayMs() {batch sent}`() {
+        // Given
+        val currentDelayMs = testedStrategy.initialDelayMs
+        val cycle = UploadCycle(fakeNetworkInfo, results = listOf(false))
+
+        // When
+        val nextDelayMs = testedStrategy.getNextDelayMs(currentDelayMs, cycle)
+
+        // Then
+        assertThat(nextDelayMs).isEqualTo(
+            currentDelayMs * FixedUploadSchedulingStrategy.DECREASE_PERCENT / 100
+        )
+    }
+
+    @Test
+    fun `𝕄 keep delay within bounds 𝕎 getNextDelayMs()`(
+        forge: Forge
+    ) {
+        // Given
+        var delayMs = testedStrategy.initialDelayMs
+
+        // When
+        repeat(forge.anInt(16, 64)) {
+            val cycle = UploadCycle(fakeNetworkInfo, results = forge.aList { aBool() })
+            delayMs = testedStrategy.getNextDelayMs(delayMs, cycle)
+
+            // Then
+            assertThat(delayMs).isBetween(testedStrategy.minDelayMs, testedStrategy.maxDelayMs)
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.data.upload
+
+import com.datadog.android.core.internal.net.info.NetworkInfoProvider
+import com.datadog.android.core.internal.persistence.Backlog
+import com.datadog.android.core.internal.system.SystemInfo
+import com.datadog.android.core.internal.system.SystemInfoProvider
+import com.datadog.android.core.model.NetworkInfo
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.inOrder
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.same
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
+import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+import java.util.concurrent.ScheduledThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ForgeConfiguration(Configurator::class)
+internal class MultiplexedUploadRunnableTest {
+
+    lateinit var testedRunnable: MultiplexedUploadRunnable
+
+    @Mock
+    lateinit var mockThreadPoolExecutor: ScheduledThreadPoolExecutor
+
+    @Mock
+    lateinit var mockNetworkInfoProvider: NetworkInfoProvider
+
+    @Mock
+    lateinit var mockSystemInfoProvider: SystemInfoProvider
+
+    @Mock
+    lateinit var mockSchedulingStrategy: UploadSchedulingStrategy
+
+    @LongForgery(min = 1L)
+    var fakeInitialDelayMs: Long = 0L
+
+    lateinit var fakeNetworkInfo: NetworkInfo
+
+    @StringForgery
+    lateinit var fakeLaneName: String
+
+    @BeforeEach
+    fun `set up`(forge: Forge) {
+        fakeNetworkInfo = NetworkInfo(
+            forge.aValueFrom(
+                enumClass = NetworkInfo.Connectivity::class.java,
+                exclude = listOf(NetworkInfo.Connectivity.NETWORK_NOT_CONNECTED)
+            )
+        )
+        whenever(mockNetworkInfoProvider.getLatestNetworkInfo()) doReturn fakeNetworkInfo
+        whenever(mockSystemInfoProvider.getLatestSystemInfo()) doReturn SystemInfo(
+            batteryFullOrCharging = true,
+            batteryLevel = forge.anInt(min = 20, max = 100),
+            powerSaveMode = false,
+            onExternalPowerSource = true
+        )
+        whenever(mockSchedulingStrategy.initialDelayMs) doReturn fakeInitialDelayMs
+        whenever(mockSchedulingStrategy.getNextDelayMs(any(), any())) doReturn fakeInitialDelayMs
+
+        testedRunnable = MultiplexedUploadRunnable(
+            mockThreadPoolExecutor,
+            mockNetworkInfoProvider,
+            mockSystemInfoProvider,
+            mockSchedulingStrategy
+        )
+    }
+
+    // region registerLane / unregisterLane
+
+    @Test
+    fun `𝕄 start the timer 𝕎 registerLane() {first lane}`() {
+        // When
+        testedRunnable.registerLane(mockLane(UploadPriority.LOGS))
+
+        // Then
+        verify(mockThreadPoolExecutor).schedule(
+            same(testedRunnable),
+            eq(fakeInitialDelayMs),
+            eq(TimeUnit.MILLISECONDS)
+        )
+    }
+
+    @Test
+    fun `𝕄 keep a single timer 𝕎 registerLane() {several lanes}`() {
+        // When
+        testedRunnable.registerLane(mockLane(UploadPriority.LOGS))
+        testedRunnable.registerLane(mockLane(UploadPriority.RUM))
+        testedRunnable.registerLane(mockLane(UploadPriority.TRACES))
+
+        // Then
+        verify(mockThreadPoolExecutor).schedule(
+            same(testedRunnable),
+            eq(fakeInitialDelayMs),
+            eq(TimeUnit.MILLISECONDS)
+        )
+    }
+
+    @Test
+    fun `𝕄 sort lanes by priority 𝕎 registerLane()`() {
+        // Given
+        val tracesLane = mockLane(UploadPriority.TRACES)
+        val logsLane = mockLane(UploadPriority.LOGS)
+        val rumLane = mockLane(UploadPriority.RUM)
+        val crashLane = mockLane(UploadPriority.CRASH_REPORTS)
+
+        // When
+        testedRunnable.registerLane(tracesLane)
+        testedRunnable.registerLane(logsLane)
+        testedRunnable.registerLane(rumLane)
+        testedRunnable.registerLane(crashLane)
+
+        // Then
+        assertThat(testedRunnable.lanes).containsExactly(crashLane, rumLane, logsLane, tracesLane)
+    }
+
+    @Test
+    fun `𝕄 stop the timer 𝕎 unregisterLane() {last lane}`() {
+        // Given
+        val logsLane = mockLane(UploadPriority.LOGS)
+        val rumLane = mockLane(UploadPriority.RUM)
+        testedRunnable.registerLane(logsLane)
+        testedRunnable.registerLane(rumLane)
+
+        // When
+        testedRunnable.unregisterLane(logsLane)
+        testedRunnable.unregisterLane(rumLane)
+
+        // Then
+        assertThat(testedRunnable.lanes).isEmpty()
+        // once when scheduling the first lane, once when the last lane is removed
+        verify(mockThreadPoolExecutor, times(2)).remove(testedRunnable)
+    }
+
+    // endregion
+
+    // region run
+
+    @Test
+    fun `𝕄 drain lanes by priority 𝕎 run()`() {
+        // Given
+        val tracesLane = mockLane(UploadPriority.TRACES)
+        val crashLane = mockLane(UploadPriority.CRASH_REPORTS)
+        val logsLane = mockLane(UploadPriority.LOGS)
+        testedRunnable.registerLane(tracesLane)
+        testedRunnable.registerLane(crashLane)
+        testedRunnable.registerLane(logsLane)
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        inOrder(crashLane.runnable, logsLane.runnable, tracesLane.runnable) {
+            verify(crashLane.runnable).uploadIfAllowed(fakeNetworkInfo)
+            verify(logsLane.runnable).uploadIfAllowed(fakeNetworkInfo)
+            verify(tracesLane.runnable).uploadIfAllowed(fakeNetworkInfo)
+        }
+    }
+
+    @Test
+    fun `𝕄 merge the lanes outcomes 𝕎 run()`() {
+        // Given
+        val rumLane = mockLane(
+            UploadPriority.RUM,
+            UploadCycle(fakeNetworkInfo, Backlog(3, 300L), listOf(false, false), 200L, 20L)
+        )
+        val logsLane = mockLane(
+            UploadPriority.LOGS,
+            UploadCycle(fakeNetworkInfo, Backlog(2, 100L), listOf(false), 50L, 10L)
+        )
+        testedRunnable.registerLane(rumLane)
+        testedRunnable.registerLane(logsLane)
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        argumentCaptor<UploadCycle> {
+            verify(mockSchedulingStrategy).getNextDelayMs(eq(fakeInitialDelayMs), capture())
+            assertThat(firstValue).isEqualTo(
+                UploadCycle(
+                    fakeNetworkInfo,
+                    Backlog(5, 400L),
+                    listOf(false, false, false),
+                    250L,
+                    30L
+                )
+            )
+        }
+    }
+
+    @Test
+    fun `𝕄 leave failing lane out of the shared delay 𝕎 run() {lane needs retry}`() {
+        // Given
+        val rumLane = mockLane(
+            UploadPriority.RUM,
+            UploadCycle(fakeNetworkInfo, Backlog(3, 300L), listOf(false, false), 200L, 20L)
+        )
+        val tracesLane = mockLane(
+            UploadPriority.TRACES,
+            UploadCycle(fakeNetworkInfo, Backlog(2, 100L), listOf(false, true), 50L, 10L)
+        )
+        testedRunnable.registerLane(rumLane)
+        testedRunnable.registerLane(tracesLane)
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        argumentCaptor<UploadCycle> {
+            verify(mockSchedulingStrategy).getNextDelayMs(eq(fakeInitialDelayMs), capture())
+            assertThat(firstValue).isEqualTo(
+                UploadCycle(
+                    fakeNetworkInfo,
+                    Backlog(5, 400L),
+                    listOf(false, false),
+                    200L,
+                    20L
+                )
+            )
+        }
+    }
+
+    @Test
+    fun `𝕄 schedule next run with strategy delay 𝕎 run()`(
+        @LongForgery(min = 1L) fakeDelayMs: Long
+    ) {
+        // Given
+        testedRunnable.registerLane(mockLane(UploadPriority.LOGS))
+        whenever(mockSchedulingStrategy.getNextDelayMs(any(), any())) doReturn fakeDelayMs
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        assertThat(testedRunnable.currentDelayIntervalMs).isEqualTo(fakeDelayMs)
+        verify(mockThreadPoolExecutor).schedule(
+            same(testedRunnable),
+            eq(fakeDelayMs),
+            eq(TimeUnit.MILLISECONDS)
+        )
+    }
+
+    @Test
+    fun `𝕄 not upload 𝕎 run() {offline}`() {
+        // Given
+        val networkInfo = NetworkInfo(NetworkInfo.Connectivity.NETWORK_NOT_CONNECTED)
+        whenever(mockNetworkInfoProvider.getLatestNetworkInfo()) doReturn networkInfo
+        val lane = mockLane(UploadPriority.LOGS)
+        testedRunnable.registerLane(lane)
+
+        // When
+        testedRunnable.run()
+
+        // Then
+        verifyZeroInteractions(lane.runnable)
+        verify(mockSchedulingStrategy).getNextDelayMs(any(), eq(UploadCycle(networkInfo)))
+    }
+
+    @Test
+    fun `𝕄 not schedule next run 𝕎 run() {no lane left}`() {
+        // When
+        testedRunnable.run()
+
+        // Then
+        verify(mockThreadPoolExecutor, never()).schedule(
+            any<Runnable>(),
+            any(),
+            any()
+        )
+    }
+
+    // endregion
+
+    // region Internal
+
+    private fun mockLane(
+        priority: UploadPriority,
+        cycle: UploadCycle = UploadCycle(fakeNetworkInfo)
+    ): MultiplexedUploadRunnable.Lane {
+        val mockRunnable: DataUploadRunnable = mock()
+        whenever(mockRunnable.uploadIfAllowed(any())) doReturn cycle
+        return MultiplexedUploadRunnable.Lane(fakeLaneName, priority, mockRunnable)
+    }
+
+    // endregion
+}
@@ -7,17 +7,23 @@
 package com.datadog.android.core.internal.data.upload
 
 import android.content.Context
+import androidx.work.Data
+import androidx.work.ExistingWorkPolicy
 import androidx.work.ListenableWorker
+import androidx.work.OneTimeWorkRequest
 import androidx.work.Worker
 import androidx.work.WorkerParameters
+import androidx.work.impl.WorkManagerImpl
 import com.datadog.android.Datadog
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.configuration.Credentials
+import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.net.DataUploader
 import com.datadog.android.core.internal.net.UploadStatus
 import com.datadog.android.core.internal.persistence.Batch
 import com.datadog.android.core.internal.persistence.DataReader
 import com.datadog.android.core.internal.persistence.PersistenceStrategy
+import com.datadog.android.core.internal.utils.UPLOAD_WORKER_NAME
 import com.datadog.android.error.internal.CrashReportsFeature
 import com.datadog.android.log.internal.LogsFeature
 import com.datadog.android.log.model.LogEvent
@@ -35,14 +41,21 @@ import com.datadog.opentracing.DDSpan
 import com.datadog.tools.unit.annotations.TestConfigurationsProvider
 import com.datadog.tools.unit.extensions.TestConfigurationExtension
 import com.datadog.tools.unit.extensions.config.TestConfiguration
+import com.datadog.tools.unit.setStaticValue
 import com.google.gson.JsonObject
 import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argThat
 import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.inOrder
+import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.never
 import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
 import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.LongForgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
 import fr.xgouchet.elmyr.junit5.ForgeExtension
 import org.assertj.core.api.Assertions.assertThat
@@ -53,6 +66,7 @@ import org.junit.jupiter.api.extension.ExtendWith
 import org.junit.jupiter.api.extension.Extensions
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.EnumSource
+import org.mockito.ArgumentMatchers.anyString
 import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
@@ -123,6 +137,9 @@ internal class UploadWorkerTest {
     @Mock
     lateinit var mockWebViewLogsUploader: DataUploader
 
+    @Mock
+    lateinit var mockWorkManager: WorkManagerImpl
+
     @Forgery
     lateinit var fakeWorkerParameters: WorkerParameters
 
@@ -163,6 +180,14 @@ internal class UploadWorkerTest {
         WebViewLogsFeature.persistenceStrategy = mockWebViewLogsStrategy
         WebViewLogsFeature.uploader = mockWebViewLogsUploader
 
+        whenever(
+            mockWorkManager.enqueueUniqueWork(
+                anyString(),
+                any(),
+                any<OneTimeWorkRequest>()
+            )
+        ) doReturn mock()
+
         testedWorker = UploadWorker(
             appContext.mockInstance,
             fakeWorkerParameters
@@ -172,6 +197,7 @@ internal class UploadWorkerTest {
     @AfterEach
     fun `tear down`() {
         Datadog.stop()
+        WorkManagerImpl::class.java.setStaticValue("sDefaultInstance", null)
     }
 
     @Test
@@ -185,17 +211,17 @@ internal class UploadWorkerTest {
     ) {
         // Given
         whenever(mockLogsReader.lockAndReadNext()).doReturn(logsBatch, null)
-        whenever(mockLogsUploader.upload(logsBatch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockLogsUploader.upload(logsBatch)) doReturn UploadStatus.SUCCESS
         whenever(mockTracesReader.lockAndReadNext()).doReturn(tracesBatch, null)
-        whenever(mockTracesUploader.upload(tracesBatch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockTracesUploader.upload(tracesBatch)) doReturn UploadStatus.SUCCESS
         whenever(mockRumReader.lockAndReadNext()).doReturn(rumBatch, null)
-        whenever(mockRumUploader.upload(rumBatch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockRumUploader.upload(rumBatch)) doReturn UploadStatus.SUCCESS
         whenever(mockCrashReader.lockAndReadNext()).doReturn(crashReportsBatch, null)
-        whenever(mockCrashUploader.upload(crashReportsBatch.data)).doReturn(UploadStatus.SUCCESS)
+        whenever(mockCrashUploader.upload(crashReportsBatch)).doReturn(UploadStatus.SUCCESS)
         whenever(mockWebViewRumReader.lockAndReadNext()).doReturn(webViewRumBatch, null)
-        whenever(mockWebViewRumUploader.upload(webViewRumBatch.data)) doReturn UploadStatus.SUCCESS
+        whenever(mockWebViewRumUploader.upload(webViewRumBatch)) doReturn UploadStatus.SUCCESS
         whenever(mockWebViewLogsReader.lockAndReadNext()).doReturn(webViewLogsBatch, null)
-        whenever(mockWebViewLogsUploader.upload(webViewLogsBatch.data)) doReturn
+        whenever(mockWebViewLogsUploader.upload(webViewLogsBatch)) doReturn
             UploadStatus.SUCCESS
 
         // When
@@ -219,7 +245,11 @@ internal class UploadWorkerTest {
     }
 
     @ParameterizedTest
-    @EnumSource(UploadStatus::class, names = ["SUCCESS"], mode = EnumSource.Mode.EXCLUDE)
+    @EnumSource(
+        UploadStatus::class,
+        names = ["SUCCESS", "INVALID_BATCH_ERROR"],
+        mode = EnumSource.Mode.EXCLUDE
+    )
     fun `𝕄 send and keep batches 𝕎 doWork() {single batch per feature with error}`(
         status: UploadStatus,
         @Forgery logsBatch: Batch,
@@ -230,17 +260,17 @@ internal class UploadWorkerTest {
         @Forgery webViewLogsBatch: Batch
     ) {
         whenever(mockLogsReader.lockAndReadNext()).doReturn(logsBatch, null)
-        whenever(mockLogsUploader.upload(logsBatch.data)) doReturn status
+        whenever(mockLogsUploader.upload(logsBatch)) doReturn status
         whenever(mockTracesReader.lockAndReadNext()).doReturn(tracesBatch, null)
-        whenever(mockTracesUploader.upload(tracesBatch.data)) doReturn status
+        whenever(mockTracesUploader.upload(tracesBatch)) doReturn status
         whenever(mockRumReader.lockAndReadNext()).doReturn(rumBatch, null)
-        whenever(mockRumUploader.upload(rumBatch.data)) doReturn status
+        whenever(mockRumUploader.upload(rumBatch)) doReturn status
         whenever(mockCrashReader.lockAndReadNext()).doReturn(crashReportsBatch, null)
-        whenever(mockCrashUploader.upload(crashReportsBatch.data)) doReturn status
+        whenever(mockCrashUploader.upload(crashReportsBatch)) doReturn status
         whenever(mockWebViewRumReader.lockAndReadNext()).doReturn(webViewRumBatch, null)
-        whenever(mockWebViewRumUploader.upload(webViewRumBatch.data)) doReturn status
+        whenever(mockWebViewRumUploader.upload(webViewRumBatch)) doReturn status
         whenever(mockWebViewLogsReader.lockAndReadNext()).doReturn(webViewLogsBatch, null)
-        whenever(mockWebViewLogsUploader.upload(webViewLogsBatch.data)) doReturn status
+        whenever(mockWebViewLogsUploader.upload(webViewLogsBatch)) doReturn status
 
         val result = testedWorker.doWork()
 
@@ -269,7 +299,7 @@ internal class UploadWorkerTest {
         }
         whenever(mockLogsReader.lockAndReadNext()).doReturn(firstBatch, *otherBatchesThenNull)
         batches.forEach {
-            whenever(mockLogsUploader.upload(it.data)) doReturn UploadStatus.SUCCESS
+            whenever(mockLogsUploader.upload(it)) doReturn UploadStatus.SUCCESS
         }
 
         val result = testedWorker.doWork()
@@ -301,7 +331,7 @@ internal class UploadWorkerTest {
         }
         whenever(mockTracesReader.lockAndReadNext()).doReturn(firstBatch, *otherBatchesThenNull)
         batches.forEach {
-            whenever(mockTracesUploader.upload(it.data)) doReturn UploadStatus.SUCCESS
+            whenever(mockTracesUploader.upload(it)) doReturn UploadStatus.SUCCESS
         }
 
         val result = testedWorker.doWork()
@@ -333,7 +363,7 @@ internal class UploadWorkerTest {
         }
         whenever(mockRumReader.lockAndReadNext()).doReturn(firstBatch, *otherBatchesThenNull)
         batches.forEach {
-            whenever(mockRumUploader.upload(it.data)) doReturn UploadStatus.SUCCESS
+            whenever(mockRumUploader.upload(it)) doReturn UploadStatus.SUCCESS
         }
 
         val result = testedWorker.doWork()
@@ -366,7 +396,7 @@ internal class UploadWorkerTest {
         whenever(mockCrashReader.lockAndReadNext())
             .doReturn(firstBatch, *otherBatchesThenNull)
         batches.forEach {
-            whenever(mockCrashUploader.upload(it.data)) doReturn UploadStatus.SUCCESS
+            whenever(mockCrashUploader.upload(it)) doReturn UploadStatus.SUCCESS
         }
 
         val result = testedWorker.doWork()
@@ -399,7 +429,7 @@ internal class UploadWorkerTest {
         whenever(mockWebViewRumReader.lockAndReadNext())
             .doReturn(firstBatch, *otherBatchesThenNull)
         batches.forEach {
-            whenever(mockWebViewRumUploader.upload(it.data)) doReturn UploadStatus.SUCCESS
+            whenever(mockWebViewRumUploader.upload(it)) doReturn UploadStatus.SUCCESS
         }
 
         val result = testedWorker.doWork()
@@ -432,7 +462,7 @@ internal class UploadWorkerTest {
         whenever(mockWebViewLogsReader.lockAndReadNext())
             .doReturn(firstBatch, *otherBatchesThenNull)
         batches.forEach {
-            whenever(mockWebViewLogsUploader.upload(it.data)) doReturn UploadStatus.SUCCESS
+            whenever(mockWebViewLogsUploader.upload(it)) doReturn UploadStatus.SUCCESS
         }
 
         val result = testedWorker.doWork()
@@ -456,7 +486,11 @@ internal class UploadWorkerTest {
     }
 
     @ParameterizedTest
-    @EnumSource(UploadStatus::class, names = ["SUCCESS"], mode = EnumSource.Mode.EXCLUDE)
+    @EnumSource(
+        UploadStatus::class,
+        names = ["SUCCESS", "INVALID_BATCH_ERROR"],
+        mode = EnumSource.Mode.EXCLUDE
+    )
     fun `𝕄 send batches 𝕎 doWork() {multiple Log batches, first fails}`(
         status: UploadStatus,
         forge: Forge
@@ -468,7 +502,7 @@ internal class UploadWorkerTest {
         }
         whenever(mockLogsReader.lockAndReadNext()).doReturn(firstBatch, *otherBatchesThenNull)
         whenever(mockLogsUploader.upload(any())) doReturn UploadStatus.SUCCESS
-        whenever(mockLogsUploader.upload(firstBatch.data)) doReturn status
+        whenever(mockLogsUploader.upload(firstBatch)) doReturn status
 
         val result = testedWorker.doWork()
 
@@ -496,7 +530,11 @@ internal class UploadWorkerTest {
     }
 
     @ParameterizedTest
-    @EnumSource(UploadStatus::class, names = ["SUCCESS"], mode = EnumSource.Mode.EXCLUDE)
+    @EnumSource(
+        UploadStatus::class,
+        names = ["SUCCESS", "INVALID_BATCH_ERROR"],
+        mode = EnumSource.Mode.EXCLUDE
+    )
     fun `𝕄 send batches 𝕎 doWork() {multiple Trace batches, first fails}`(
         status: UploadStatus,
         forge: Forge
@@ -508,7 +546,7 @@ internal class UploadWorkerTest {
         }
         whenever(mockTracesReader.lockAndReadNext()).doReturn(firstBatch, *otherBatchesThenNull)
         whenever(mockTracesUploader.upload(any())) doReturn UploadStatus.SUCCESS
-        whenever(mockTracesUploader.upload(firstBatch.data)) doReturn status
+        whenever(mockTracesUploader.upload(firstBatch)) doReturn status
 
         val result = testedWorker.doWork()
 
@@ -536,7 +574,11 @@ internal class UploadWorkerTest {
     }
 
     @ParameterizedTest
-    @EnumSource(UploadStatus::class, names = ["SUCCESS"], mode = EnumSource.Mode.EXCLUDE)
+    @EnumSource(
+        UploadStatus::class,
+        names = ["SUCCESS", "INVALID_BATCH_ERROR"],
+        mode = EnumSource.Mode.EXCLUDE
+    )
     fun `𝕄 send batches 𝕎 doWork() {multiple Rum batches, first fails}`(
         status: UploadStatus,
         forge: Forge
@@ -548,7 +590,7 @@ internal class UploadWorkerTest {
         }
         whenever(mockRumReader.lockAndReadNext()).doReturn(firstBatch, *otherBatchesThenNull)
         whenever(mockRumUploader.upload(any())) doReturn UploadStatus.SUCCESS
-        whenever(mockRumUploader.upload(firstBatch.data)) doReturn status
+        whenever(mockRumUploader.upload(firstBatch)) doReturn status
 
         val result = testedWorker.doWork()
 
@@ -576,7 +618,11 @@ internal class UploadWorkerTest {
     }
 
     @ParameterizedTest
-    @EnumSource(UploadStatus::class, names = ["SUCCESS"], mode = EnumSource.Mode.EXCLUDE)
+    @EnumSource(
+        UploadStatus::class,
+        names = ["SUCCESS", "INVALID_BATCH_ERROR"],
+        mode = EnumSource.Mode.EXCLUDE
+    )
     fun `𝕄 send batches 𝕎 doWork() {multiple Crash batches, first fails}`(
         status: UploadStatus,
         forge: Forge
@@ -589,7 +635,7 @@ internal class UploadWorkerTest {
         whenever(mockCrashReader.lockAndReadNext())
             .doReturn(firstBatch, *otherBatchesThenNull)
         whenever(mockCrashUploader.upload(any())) doReturn UploadStatus.SUCCESS
-        whenever(mockCrashUploader.upload(firstBatch.data)) doReturn status
+        whenever(mockCrashUploader.upload(firstBatch)) doReturn status
 
         val result = testedWorker.doWork()
 
@@ -617,7 +663,11 @@ internal class UploadWorkerTest {
     }
 
     @ParameterizedTest
-    @EnumSource(UploadStatus::class, names = ["SUCCESS"], mode = EnumSource.Mode.EXCLUDE)
+    @EnumSource(
+        UploadStatus::class,
+        names = ["SUCCESS", "INVALID_BATCH_ERROR"],
+        mode = EnumSource.Mode.EXCLUDE
+    )
     fun `𝕄 send batches 𝕎 doWork() {multiple WebView RUM batches, first fails}`(
         status: UploadStatus,
         forge: Forge
@@ -630,7 +680,7 @@ internal class UploadWorkerTest {
         whenever(mockWebViewRumReader.lockAndReadNext())
             .doReturn(firstBatch, *otherBatchesThenNull)
         whenever(mockWebViewRumUploader.upload(any())) doReturn UploadStatus.SUCCESS
-        whenever(mockWebViewRumUploader.upload(firstBatch.data)) doReturn status
+        whenever(mockWebViewRumUploader.upload(firstBatch)) doReturn status
 
         val result = testedWorker.doWork()
 
@@ -658,7 +708,11 @@ internal class UploadWorkerTest {
     }
 
     @ParameterizedTest
-    @EnumSource(UploadStatus::class, names = ["SUCCESS"], mode = EnumSource.Mode.EXCLUDE)
+    @EnumSource(
+        UploadStatus::class,
+        names = ["SUCCESS", "INVALID_BATCH_ERROR"],
+        mode = EnumSource.Mode.EXCLUDE
+    )
     fun `𝕄 send batches 𝕎 doWork() {multiple WebView Logs batches, first fails}`(
         status: UploadStatus,
         forge: Forge
@@ -671,7 +725,7 @@ internal class UploadWorkerTest {
         whenever(mockWebViewLogsReader.lockAndReadNext())
             .doReturn(firstBatch, *otherBatchesThenNull)
         whenever(mockWebViewLogsUploader.upload(any())) doReturn UploadStatus.SUCCESS
-        whenever(mockWebViewLogsUploader.upload(firstBatch.data)) doReturn status
+        whenever(mockWebViewLogsUploader.upload(firstBatch)) doReturn status
 
         val result = testedWorker.doWork()
 
@@ -698,6 +752,133 @@ internal class UploadWorkerTest {
             .isEqualTo(ListenableWorker.Result.success())
     }
 
+    @Test
+    fun `𝕄 drop unreadable batch 𝕎 doWork() {INVALID_BATCH_ERROR}`(
+        forge: Forge
+    ) {
+        val batches = forge.aBatchList()
+        val firstBatch = batches.first()
+        val otherBatchesThenNull = Array(batches.size) {
+            batches.getOrNull(it + 1)
+        }
+        whenever(mockLogsReader.lockAndReadNext()).doReturn(firstBatch, *otherBatchesThenNull)
+        whenever(mockLogsUploader.upload(any())) doReturn UploadStatus.SUCCESS
+        whenever(mockLogsUploader.upload(firstBatch)) doReturn UploadStatus.INVALID_BATCH_ERROR
+
+        testedWorker.doWork()
+
+        batches.forEach {
+            verify(mockLogsReader).drop(it)
+            verify(mockLogsReader, never()).release(it)
+        }
+    }
+
+    @Test
+    fun `𝕄 stop sending batches 𝕎 doWork() {Logs intake backed off}`(
+        forge: Forge,
+        @LongForgery(min = 1) fakeBackOffMs: Long
+    ) {
+        val batches = forge.aBatchList()
+        val firstBatch = batches.first()
+        val otherBatchesThenNull = Array(batches.size) {
+            batches.getOrNull(it + 1)
+        }
+        whenever(mockLogsReader.lockAndReadNext()).doReturn(firstBatch, *otherBatchesThenNull)
+        whenever(mockLogsUploader.upload(firstBatch)) doReturn UploadStatus.HTTP_SERVER_ERROR
+        whenever(mockLogsUploader.requestUpload()).doReturn(0L, fakeBackOffMs)
+
+        val result = testedWorker.doWork()
+
+        verify(mockLogsUploader).upload(firstBatch)
+        verify(mockLogsUploader, never()).upload(argThat { this != firstBatch })
+        verify(mockLogsReader).release(firstBatch)
+        verify(mockLogsReader, never()).drop(any())
+        assertThat(result)
+            .isEqualTo(ListenableWorker.Result.success())
+    }
+
+    @Test
+    fun `𝕄 stop sending batches and resume later 𝕎 doWork() {byte budget exhausted}`(
+        @Forgery nextBatch: Batch,
+        @LongForgery(min = 1L) fakeMaxBytes: Long
+    ) {
+        // Given
+        WorkManagerImpl::class.java.setStaticValue("sDefaultInstance", mockWorkManager)
+        CoreFeature.backgroundUploadMaxBytes = fakeMaxBytes
+        val largeBatch: Batch = mock()
+        whenever(largeBatch.size) doReturn fakeMaxBytes
+        whenever(mockCrashReader.lockAndReadNext()).doReturn(largeBatch, nextBatch, null)
+        whenever(mockCrashUploader.upload(any())) doReturn UploadStatus.SUCCESS
+
+        // When
+        val result = testedWorker.doWork()
+
+        // Then
+        verify(mockCrashReader).drop(largeBatch)
+        verify(mockCrashUploader, never()).upload(nextBatch)
+        verify(mockLogsReader, never()).lockAndReadNext()
+        verify(mockWorkManager).enqueueUniqueWork(
+            eq(UPLOAD_WORKER_NAME),
+            eq(ExistingWorkPolicy.APPEND_OR_REPLACE),
+            argThat<OneTimeWorkRequest> {
+                workSpec.input.getString(UploadWorker.KEY_NEXT_FEATURE) ==
+                    CrashReportsFeature.featureName
+            }
+        )
+        assertThat(result)
+            .isEqualTo(ListenableWorker.Result.success())
+    }
+
+    @Test
+    fun `𝕄 resume with the next feature 𝕎 doWork() {continuation}`(
+        @Forgery logsBatch: Batch,
+        @Forgery rumBatch: Batch
+    ) {
+        // Given
+        val mockWorkerParameters: WorkerParameters = mock()
+        whenever(mockWorkerParameters.inputData) doReturn Data.Builder()
+            .putString(UploadWorker.KEY_NEXT_FEATURE, RumFeature.featureName)
+            .build()
+        testedWorker = UploadWorker(appContext.mockInstance, mockWorkerParameters)
+        whenever(mockLogsReader.lockAndReadNext()).doReturn(logsBatch, null)
+        whenever(mockLogsUploader.upload(logsBatch)) doReturn UploadStatus.SUCCESS
+        whenever(mockRumReader.lockAndReadNext()).doReturn(rumBatch, null)
+        whenever(mockRumUploader.upload(rumBatch)) doReturn UploadStatus.SUCCESS
+
+        // When
+        val result = testedWorker.doWork()
+
+        // Then
+        inOrder(mockRumUploader, mockLogsUploader) {
+            verify(mockRumUploader).upload(rumBatch)
+            verify(mockLogsUploader).upload(logsBatch)
+        }
+        verify(mockRumReader).drop(rumBatch)
+        verify(mockLogsReader).drop(logsBatch)
+        assertThat(result)
+            .isEqualTo(ListenableWorker.Result.success())
+    }
+
+    @Test
+    fun `𝕄 stop sending batches 𝕎 doWork() {worker stopped}`(
+        @Forgery crashReportsBatch: Batch
+    ) {
+        // Given
+        WorkManagerImpl::class.java.setStaticValue("sDefaultInstance", mockWorkManager)
+        whenever(mockCrashReader.lockAndReadNext()).doReturn(crashReportsBatch, null)
+        testedWorker.stop()
+
+        // When
+        val result = testedWorker.doWork()
+
+        // Then
+        verify(mockCrashReader, never()).lockAndReadNext()
+        verify(mockCrashUploader, never()).upload(any())
+        verifyZeroInteractions(mockWorkManager)
+        assertThat(result)
+            .isEqualTo(ListenableWorker.Result.success())
+    }
+
     private fun Forge.aBatchList(): List<Batch> {
         val list = mutableListOf<Batch>()
         val ids = mutableListOf<String>()
@@ -708,7 +889,7 @@ internal class UploadWorkerTest {
                 ids.add(batch.id)
             }
         }
-        return list.distinctBy { it.data.asList() }
+        return list.distinctBy { it.id }
     }
 
     companion object {
@@ -0,0 +1,139 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.metrics
+
+import com.datadog.android.core.internal.net.UploadStatus
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.EnumSource
+import java.util.Locale
+import java.util.concurrent.TimeUnit
+
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+internal class DatadogFeatureMetricsTest {
+
+    lateinit var testedMetrics: DatadogFeatureMetrics
+
+    @BeforeEach
+    fun `set up`() {
+        testedMetrics = DatadogFeatureMetrics()
+    }
+
+    @Test
+    fun `𝕄 return zero metrics 𝕎 snapshot() {nothing recorded}`() {
+        // When
+        val snapshot = testedMetrics.snapshot()
+
+        // Then
+        assertThat(snapshot.values).isNotEmpty.containsOnly(0L)
+    }
+
+    @Test
+    fun `𝕄 count events 𝕎 onEventsEnqueued() + onEventsDropped()`(
+        @IntForgery(1, 100) enqueued: Int,
+        @IntForgery(1, 100) dropped: Int
+    ) {
+        // When
+        testedMetrics.onEventsEnqueued(enqueued)
+        testedMetrics.onEventsEnqueued(enqueued)
+        testedMetrics.onEventsDropped(dropped)
+
+        // Then
+        val snapshot = testedMetrics.snapshot()
+        assertThat(snapshot[DatadogFeatureMetrics.METRIC_EVENTS_ENQUEUED])
+            .isEqualTo(2L * enqueued)
+        assertThat(snapshot[DatadogFeatureMetrics.METRIC_EVENTS_DROPPED])
+            .isEqualTo(dropped.toLong())
+    }
+
+    @Test
+    fun `𝕄 sum serialization time 𝕎 onEventSerialized()`(
+        @LongForgery(0, 1_000_000) firstDurationNs: Long,
+        @LongForgery(0, 1_000_000) secondDurationNs: Long
+    ) {
+        // When
+        testedMetrics.onEventSerialized(firstDurationNs)
+        testedMetrics.onEventSerialized(secondDurationNs)
+
+        // Then
+        val snapshot = testedMetrics.snapshot()
+        assertThat(snapshot[DatadogFeatureMetrics.METRIC_EVENTS_SERIALIZED]).isEqualTo(2L)
+        assertThat(snapshot[DatadogFeatureMetrics.METRIC_SERIALIZATION_TIME_NS])
+            .isEqualTo(firstDurationNs + secondDurationNs)
+    }
+
+    @Test
+    fun `𝕄 count bytes and batches 𝕎 onBytesWritten() + onBatch*()`(
+        @LongForgery(1, 1_000_000) byteCount: Long
+    ) {
+        // When
+        testedMetrics.onBytesWritten(byteCount)
+        testedMetrics.onBatchCreated()
+        testedMetrics.onBatchCreated()
+        testedMetrics.onBatchDeleted()
+        testedMetrics.onBatchEvicted()
+
+        // Then
+        val snapshot = testedMetrics.snapshot()
+        assertThat(snapshot[DatadogFeatureMetrics.METRIC_BYTES_WRITTEN]).isEqualTo(byteCount)
+        assertThat(snapshot[DatadogFeatureMetrics.METRIC_BATCHES_CREATED]).isEqualTo(2L)
+        assertThat(snapshot[DatadogFeatureMetrics.METRIC_BATCHES_DELETED]).isEqualTo(1L)
+        assertThat(snapshot[DatadogFeatureMetrics.METRIC_BATCHES_EVICTED]).isEqualTo(1L)
+    }
+
+    @ParameterizedTest
+    @EnumSource(UploadStatus::class)
+    fun `𝕄 count upload status 𝕎 onBatchUploaded()`(
+        status: UploadStatus,
+        forge: Forge
+    ) {
+        // When
+        testedMetrics.onBatchUploaded(status, forge.aLong(0, 1_000_000))
+
+        // Then
+        val snapshot = testedMetrics.snapshot()
+        UploadStatus.values().forEach {
+            val key = DatadogFeatureMetrics.METRIC_UPLOAD_STATUS
+                .format(Locale.US, it.name.lowercase(Locale.US))
+            assertThat(snapshot[key]).isEqualTo(if (it == status) 1L else 0L)
+        }
+    }
+
+    @Test
+    fun `𝕄 fill latency histogram 𝕎 onBatchUploaded()`(
+        forge: Forge
+    ) {
+        // Given
+        val boundIndex = forge.anInt(0, DatadogFeatureMetrics.UPLOAD_LATENCY_BOUNDS_MS.size)
+        val boundMs = DatadogFeatureMetrics.UPLOAD_LATENCY_BOUNDS_MS[boundIndex]
+
+        // When
+        testedMetrics.onBatchUploaded(UploadStatus.SUCCESS, TimeUnit.MILLISECONDS.toNanos(boundMs))
+        testedMetrics.onBatchUploaded(UploadStatus.SUCCESS, TimeUnit.MINUTES.toNanos(1))
+
+        // Then
+        val snapshot = testedMetrics.snapshot()
+        DatadogFeatureMetrics.UPLOAD_LATENCY_BOUNDS_MS.forEach {
+            val key = DatadogFeatureMetrics.METRIC_UPLOAD_LATENCY_BUCKET.format(Locale.US, it)
+            assertThat(snapshot[key]).isEqualTo(if (it == boundMs) 1L else 0L)
+        }
+        assertThat(snapshot[DatadogFeatureMetrics.METRIC_UPLOAD_LATENCY_OVERFLOW]).isEqualTo(1L)
+    }
+}
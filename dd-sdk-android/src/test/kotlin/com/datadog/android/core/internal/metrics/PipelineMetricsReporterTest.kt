@@ -0,0 +1,102 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.metrics
+
+import com.datadog.android.telemetry.internal.Telemetry
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.inOrder
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
+import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ForgeConfiguration(Configurator::class)
+internal class PipelineMetricsReporterTest {
+
+    lateinit var testedReporter: PipelineMetricsReporter
+
+    @Mock
+    lateinit var mockPipelineMetrics: PipelineMetrics
+
+    @Mock
+    lateinit var mockExecutor: ScheduledExecutorService
+
+    @Mock
+    lateinit var mockTelemetry: Telemetry
+
+    @LongForgery(min = 1)
+    var fakeIntervalMs: Long = 0L
+
+    @BeforeEach
+    fun `set up`() {
+        testedReporter = PipelineMetricsReporter(
+            mockPipelineMetrics,
+            mockExecutor,
+            mockTelemetry,
+            fakeIntervalMs
+        )
+    }
+
+    @Test
+    fun `𝕄 schedule report 𝕎 schedule()`() {
+        // When
+        testedReporter.schedule()
+
+        // Then
+        verify(mockExecutor).schedule(testedReporter, fakeIntervalMs, TimeUnit.MILLISECONDS)
+        verifyZeroInteractions(mockTelemetry)
+    }
+
+    @Test
+    fun `𝕄 send telemetry and reschedule 𝕎 run()`(
+        @StringForgery message: String
+    ) {
+        // Given
+        whenever(mockPipelineMetrics.toTelemetryMessage()) doReturn message
+
+        // When
+        testedReporter.run()
+
+        // Then
+        inOrder(mockTelemetry, mockExecutor) {
+            verify(mockTelemetry).debug(message)
+            verify(mockExecutor).schedule(testedReporter, fakeIntervalMs, TimeUnit.MILLISECONDS)
+        }
+    }
+
+    @Test
+    fun `𝕄 only reschedule 𝕎 run() {no metrics}`() {
+        // Given
+        whenever(mockPipelineMetrics.toTelemetryMessage()) doReturn null
+
+        // When
+        testedReporter.run()
+
+        // Then
+        verifyZeroInteractions(mockTelemetry)
+        verify(mockExecutor).schedule(testedReporter, fakeIntervalMs, TimeUnit.MILLISECONDS)
+    }
+}
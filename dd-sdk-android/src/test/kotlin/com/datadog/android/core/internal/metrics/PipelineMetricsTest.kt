@@ -0,0 +1,111 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.metrics
+
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+internal class PipelineMetricsTest {
+
+    lateinit var testedMetrics: PipelineMetrics
+
+    @BeforeEach
+    fun `set up`() {
+        testedMetrics = PipelineMetrics()
+    }
+
+    @Test
+    fun `𝕄 return the same metrics 𝕎 forFeature() {same feature}`(
+        @StringForgery featureName: String
+    ) {
+        // When
+        val first = testedMetrics.forFeature(featureName)
+        val second = testedMetrics.forFeature(featureName)
+
+        // Then
+        assertThat(first).isSameAs(second)
+    }
+
+    @Test
+    fun `𝕄 return metrics per feature 𝕎 snapshot()`(
+        @StringForgery(regex = "a[a-z]+") firstFeature: String,
+        @StringForgery(regex = "b[a-z]+") secondFeature: String,
+        @IntForgery(1, 100) count: Int
+    ) {
+        // Given
+        testedMetrics.forFeature(firstFeature).onEventsEnqueued(count)
+        testedMetrics.forFeature(secondFeature).onEventsDropped(count)
+
+        // When
+        val snapshot = testedMetrics.snapshot()
+
+        // Then
+        assertThat(snapshot.keys).containsExactlyInAnyOrder(firstFeature, secondFeature)
+        assertThat(snapshot[firstFeature]?.get(DatadogFeatureMetrics.METRIC_EVENTS_ENQUEUED))
+            .isEqualTo(count.toLong())
+        assertThat(snapshot[secondFeature]?.get(DatadogFeatureMetrics.METRIC_EVENTS_DROPPED))
+            .isEqualTo(count.toLong())
+    }
+
+    @Test
+    fun `𝕄 remove all features 𝕎 clear()`(
+        @StringForgery featureName: String
+    ) {
+        // Given
+        testedMetrics.forFeature(featureName).onBatchCreated()
+
+        // When
+        testedMetrics.clear()
+
+        // Then
+        assertThat(testedMetrics.snapshot()).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 return null 𝕎 toTelemetryMessage() {all metrics are zero}`(
+        @StringForgery featureName: String
+    ) {
+        // Given
+        testedMetrics.forFeature(featureName)
+
+        // When
+        val message = testedMetrics.toTelemetryMessage()
+
+        // Then
+        assertThat(message).isNull()
+    }
+
+    @Test
+    fun `𝕄 list non zero metrics 𝕎 toTelemetryMessage()`(
+        @StringForgery(regex = "[a-z]+") featureName: String,
+        @IntForgery(1, 100) count: Int
+    ) {
+        // Given
+        testedMetrics.forFeature(featureName).onEventsEnqueued(count)
+
+        // When
+        val message = testedMetrics.toTelemetryMessage()
+
+        // Then
+        assertThat(message).isEqualTo(
+            PipelineMetrics.TELEMETRY_MESSAGE_PREFIX +
+                "$featureName=${DatadogFeatureMetrics.METRIC_EVENTS_ENQUEUED}:$count"
+        )
+    }
+}
@@ -6,6 +6,8 @@
 
 package com.datadog.android.core.internal.net
 
+import com.datadog.android.core.internal.persistence.Batch
+import com.datadog.android.core.internal.persistence.InvalidBatchException
 import com.datadog.android.core.internal.system.AndroidInfoProvider
 import com.datadog.android.utils.forge.Configurator
 import com.nhaarman.mockitokotlin2.any
@@ -18,6 +20,7 @@ import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.whenever
 import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.LongForgery
 import fr.xgouchet.elmyr.annotation.StringForgery
 import fr.xgouchet.elmyr.annotation.StringForgeryType
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
@@ -29,6 +32,7 @@ import okhttp3.Protocol
 import okhttp3.Request
 import okhttp3.RequestBody
 import okhttp3.Response
+import okio.Buffer
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.RepeatedTest
@@ -41,6 +45,7 @@ import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
 import java.io.IOException
 import java.util.UUID
+import java.util.concurrent.TimeUnit
 
 @Extensions(
     ExtendWith(MockitoExtension::class),
@@ -67,6 +72,8 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
     @StringForgery
     lateinit var fakeData: String
 
+    lateinit var fakeBatch: Batch
+
     @StringForgery(StringForgeryType.HEXADECIMAL)
     lateinit var fakeClientToken: String
 
@@ -93,6 +100,10 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
     @BeforeEach
     open fun `set up`(forge: Forge) {
         whenever(mockCallFactory.newCall(any())) doReturn mockCall
+        fakeBatch = Batch.fromBytes(
+            forge.anHexadecimalString(),
+            fakeData.toByteArray(Charsets.UTF_8)
+        )
 
         whenever(mockAndroidInfoProvider.osVersion) doReturn fakeDeviceVersion
         whenever(mockAndroidInfoProvider.deviceModel) doReturn fakeDeviceModel
@@ -123,7 +134,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(202, message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.SUCCESS)
@@ -139,7 +150,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(400, message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.HTTP_CLIENT_ERROR)
@@ -155,7 +166,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(401, message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.INVALID_TOKEN_ERROR)
@@ -171,7 +182,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(403, message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.INVALID_TOKEN_ERROR)
@@ -187,7 +198,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(408, message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.HTTP_CLIENT_RATE_LIMITING)
@@ -203,7 +214,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(413, message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.HTTP_CLIENT_ERROR)
@@ -219,7 +230,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(429, message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.HTTP_CLIENT_RATE_LIMITING)
@@ -235,7 +246,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(500, message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.HTTP_SERVER_ERROR)
@@ -251,7 +262,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(503, message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.HTTP_SERVER_ERROR)
@@ -276,7 +287,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(statusCode, message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.UNKNOWN_ERROR)
@@ -292,7 +303,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doThrow IOException(message)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.NETWORK_ERROR)
@@ -307,13 +318,29 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doThrow throwable
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.NETWORK_ERROR)
         verifyRequest()
     }
 
+    @Test
+    fun `𝕄 return invalid batch error 𝕎 upload() {batch can't be read}`(
+        @StringForgery message: String
+    ) {
+        // Given
+        whenever(mockCall.execute()) doThrow InvalidBatchException(message)
+
+        // When
+        val result = testedUploader.upload(fakeBatch)
+
+        // Then
+        assertThat(result).isEqualTo(UploadStatus.INVALID_BATCH_ERROR)
+        assertThat(result.shouldRetry).isFalse()
+        verifyRequest()
+    }
+
     // endregion
 
     // region Invalid Headers
@@ -327,7 +354,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         testedUploader = buildTestedInstance(mockCallFactory)
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.INVALID_TOKEN_ERROR)
@@ -345,7 +372,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(202, "{}")
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.SUCCESS)
@@ -370,7 +397,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(202, "{}")
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.SUCCESS)
@@ -393,7 +420,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(202, "{}")
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.SUCCESS)
@@ -420,7 +447,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(202, "{}")
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.SUCCESS)
@@ -441,7 +468,7 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
         whenever(mockCall.execute()) doReturn mockResponse(202, "{}")
 
         // When
-        val result = testedUploader.upload(fakeData.toByteArray(Charsets.UTF_8))
+        val result = testedUploader.upload(fakeBatch)
 
         // Then
         assertThat(result).isEqualTo(UploadStatus.SUCCESS)
@@ -453,12 +480,176 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
 
     // endregion
 
+    // region Compression
+
+    @Test
+    fun `𝕄 send gzip content encoding header 𝕎 upload() {compressed batch}`(
+        @StringForgery message: String
+    ) {
+        // Given
+        val data = fakeData.toByteArray(Charsets.UTF_8)
+        val compressedBatch = Batch(fakeBatch.id, isCompressed = true) { sink ->
+            sink.write(data)
+            data.size.toLong()
+        }
+        whenever(mockCall.execute()) doReturn mockResponse(202, message)
+
+        // When
+        val result = testedUploader.upload(compressedBatch)
+
+        // Then
+        assertThat(result).isEqualTo(UploadStatus.SUCCESS)
+        verifyRequest(
+            expectedHeaders() + (
+                DataOkHttpUploaderV2.HEADER_CONTENT_ENCODING to
+                    DataOkHttpUploaderV2.CONTENT_ENCODING_GZIP
+                )
+        )
+        verifyResponseIsClosed()
+    }
+
+    @Test
+    fun `𝕄 not send content encoding header 𝕎 upload() {uncompressed batch}`(
+        @StringForgery message: String
+    ) {
+        // Given
+        whenever(mockCall.execute()) doReturn mockResponse(202, message)
+
+        // When
+        testedUploader.upload(fakeBatch)
+
+        // Then
+        argumentCaptor<Request> {
+            verify(mockCallFactory).newCall(capture())
+            assertThat(firstValue.header(DataOkHttpUploaderV2.HEADER_CONTENT_ENCODING)).isNull()
+        }
+    }
+
+    // endregion
+
+    // region Back-off
+
+    @Test
+    fun `𝕄 allow uploads 𝕎 requestUpload() {no failure}`() {
+        // When
+        val backOffMs = testedUploader.requestUpload()
+
+        // Then
+        assertThat(backOffMs).isZero()
+    }
+
+    @Test
+    fun `𝕄 back off for the requested delay 𝕎 upload() {429 with Retry-After}`(
+        @LongForgery(min = 600, max = 3600) retryAfterSeconds: Long,
+        @StringForgery message: String
+    ) {
+        // Given
+        whenever(mockCall.execute()) doReturn mockResponse(
+            429,
+            message,
+            Headers.of(UploadBackOffController.HEADER_RETRY_AFTER, retryAfterSeconds.toString())
+        )
+
+        // When
+        testedUploader.upload(fakeBatch)
+        val backOffMs = testedUploader.requestUpload()
+
+        // Then
+        assertThat(backOffMs)
+            .isGreaterThan(TimeUnit.SECONDS.toMillis(retryAfterSeconds) - BACK_OFF_TOLERANCE_MS)
+            .isLessThanOrEqualTo(TimeUnit.SECONDS.toMillis(retryAfterSeconds))
+    }
+
+    @Test
+    fun `𝕄 back off 𝕎 upload() {IOException}`() {
+        // Given
+        whenever(mockCall.execute()) doThrow IOException()
+
+        // When
+        testedUploader.upload(fakeBatch)
+        val backOffMs = testedUploader.requestUpload()
+
+        // Then
+        assertThat(backOffMs).isPositive()
+    }
+
+    @Test
+    fun `𝕄 not back off 𝕎 upload() {local failure}`(
+        @StringForgery message: String
+    ) {
+        // Given
+        whenever(mockCall.execute()) doThrow IllegalStateException(message)
+
+        // When
+        val result = testedUploader.upload(fakeBatch)
+        val backOffMs = testedUploader.requestUpload()
+
+        // Then
+        assertThat(result).isEqualTo(UploadStatus.NETWORK_ERROR)
+        assertThat(backOffMs).isZero()
+    }
+
+    @Test
+    fun `𝕄 not back off 𝕎 upload() {batch can't be read}`(
+        @StringForgery message: String
+    ) {
+        // Given
+        whenever(mockCall.execute()) doThrow InvalidBatchException(message)
+
+        // When
+        testedUploader.upload(fakeBatch)
+        val backOffMs = testedUploader.requestUpload()
+
+        // Then
+        assertThat(backOffMs).isZero()
+    }
+
+    @Test
+    fun `𝕄 not back off 𝕎 upload() {400 bad request status}`(
+        @StringForgery message: String
+    ) {
+        // Given
+        whenever(mockCall.execute()) doReturn mockResponse(400, message)
+
+        // When
+        testedUploader.upload(fakeBatch)
+        val backOffMs = testedUploader.requestUpload()
+
+        // Then
+        assertThat(backOffMs).isZero()
+    }
+
+    @Test
+    fun `𝕄 stop backing off 𝕎 upload() {202 accepted after 503 unavailable status}`(
+        @StringForgery message: String
+    ) {
+        // Given
+        whenever(mockCall.execute())
+            .doReturn(mockResponse(503, message))
+            .doReturn(mockResponse(202, message))
+        testedUploader.upload(fakeBatch)
+
+        // When
+        testedUploader.upload(fakeBatch)
+        val backOffMs = testedUploader.requestUpload()
+
+        // Then
+        assertThat(backOffMs).isZero()
+    }
+
+    // endregion
+
     // region Internal
 
-    private fun mockResponse(statusCode: Int, message: String): Response {
+    private fun mockResponse(
+        statusCode: Int,
+        message: String,
+        headers: Headers = Headers.of()
+    ): Response {
         fakeResponse = Response.Builder()
             .request(Request.Builder().url(fakeEndpoint).get().build())
             .code(statusCode)
+            .headers(headers)
             .message(message)
             .protocol(Protocol.HTTP_2)
             .body(mock())
@@ -503,7 +694,10 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
     private fun verifyRequestBody(body: RequestBody?) {
         checkNotNull(body)
         assertThat(body.contentType()).isNull()
-        assertThat(body.contentLength()).isEqualTo(fakeData.length.toLong())
+        assertThat(body.contentLength()).isEqualTo(-1L)
+        val buffer = Buffer()
+        body.writeTo(buffer)
+        assertThat(buffer.readUtf8()).isEqualTo(fakeData)
     }
 
     private fun verifyRequestHeaders(
@@ -541,4 +735,8 @@ internal abstract class DataOkHttpUploaderV2Test<T : DataOkHttpUploaderV2> {
     }
 
     // endregion
+
+    companion object {
+        private const val BACK_OFF_TOLERANCE_MS = 1000L
+    }
 }
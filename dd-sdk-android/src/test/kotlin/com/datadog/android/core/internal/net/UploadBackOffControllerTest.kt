@@ -0,0 +1,352 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.net
+
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.EnumSource
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+import java.text.SimpleDateFormat
+import java.util.Date
+import java.util.Locale
+import java.util.Random
+import java.util.TimeZone
+import java.util.concurrent.TimeUnit
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ForgeConfiguration(Configurator::class)
+internal class UploadBackOffControllerTest {
+
+    lateinit var testedController: UploadBackOffController
+
+    @Mock
+    lateinit var mockRandom: Random
+
+    @StringForgery(regex = "[a-z]+\\.[a-z]+\\.com")
+    lateinit var fakeHost: String
+
+    @LongForgery(min = 0L, max = 1_000_000_000L)
+    var fakeNowMs: Long = 0L
+
+    @BeforeEach
+    fun `set up`() {
+        whenever(mockRandom.nextDouble()) doReturn 1.0
+        testedController = UploadBackOffController(mockRandom) { fakeNowMs }
+    }
+
+    // region requestUpload
+
+    @Test
+    fun `𝕄 allow upload 𝕎 requestUpload() {unknown host}`() {
+        // When
+        val backOffMs = testedController.requestUpload(fakeHost)
+
+        // Then
+        assertThat(backOffMs).isZero()
+    }
+
+    @Test
+    fun `𝕄 return remaining back-off 𝕎 requestUpload() {after failure}`(
+        @LongForgery(min = 1L, max = UploadBackOffController.BASE_BACK_OFF_MS) elapsedMs: Long
+    ) {
+        // Given
+        testedController.onUploadResult(fakeHost, UploadStatus.HTTP_SERVER_ERROR, null)
+        fakeNowMs += elapsedMs
+
+        // When
+        val backOffMs = testedController.requestUpload(fakeHost)
+
+        // Then
+        assertThat(backOffMs).isEqualTo(UploadBackOffController.BASE_BACK_OFF_MS - elapsedMs)
+    }
+
+    @Test
+    fun `𝕄 allow upload 𝕎 requestUpload() {back-off is over}`() {
+        // Given
+        testedController.onUploadResult(fakeHost, UploadStatus.HTTP_SERVER_ERROR, null)
+        fakeNowMs += UploadBackOffController.BASE_BACK_OFF_MS
+
+        // When
+        val backOffMs = testedController.requestUpload(fakeHost)
+
+        // Then
+        assertThat(backOffMs).isZero()
+    }
+
+    @Test
+    fun `𝕄 not back off other hosts 𝕎 requestUpload()`(
+        @StringForgery(regex = "[a-z]+\\.[a-z]+\\.org") otherHost: String
+    ) {
+        // Given
+        testedController.onUploadResult(fakeHost, UploadStatus.HTTP_SERVER_ERROR, null)
+
+        // When
+        val backOffMs = testedController.requestUpload(otherHost)
+
+        // Then
+        assertThat(backOffMs).isZero()
+    }
+
+    @Test
+    fun `𝕄 let a single probe through 𝕎 requestUpload() {circuit open, back-off is over}`() {
+        // Given
+        repeat(UploadBackOffController.CIRCUIT_BREAKER_THRESHOLD) {
+            testedController.onUploadResult(fakeHost, UploadStatus.NETWORK_ERROR, null)
+        }
+        fakeNowMs += UploadBackOffController.MAX_BACK_OFF_MS
+
+        // When
+        val probeBackOffMs = testedController.requestUpload(fakeHost)
+        val otherBackOffMs = testedController.requestUpload(fakeHost)
+
+        // Then
+        assertThat(probeBackOffMs).isZero()
+        assertThat(otherBackOffMs).isEqualTo(UploadBackOffController.PROBE_TIMEOUT_MS)
+    }
+
+    // endregion
+
+    // region onUploadResult
+
+    @Test
+    fun `𝕄 back off exponentially 𝕎 onUploadResult() {consecutive failures}`() {
+        // Given
+        val failures = UploadBackOffController.CIRCUIT_BREAKER_THRESHOLD - 1
+
+        // When
+        val backOffs = (0 until failures).map {
+            testedController.onUploadResult(fakeHost, UploadStatus.HTTP_SERVER_ERROR, null)
+            testedController.requestUpload(fakeHost)
+        }
+
+        // Then
+        assertThat(backOffs).isEqualTo(
+            (0 until failures).map { UploadBackOffController.BASE_BACK_OFF_MS shl it }
+        )
+    }
+
+    @Test
+    fun `𝕄 add jitter to the back-off 𝕎 onUploadResult()`(
+        forge: Forge
+    ) {
+        // Given
+        val jitter = forge.aDouble(0.0, 1.0)
+        whenever(mockRandom.nextDouble()) doReturn jitter
+        val halfBackOffMs = UploadBackOffController.BASE_BACK_OFF_MS / 2
+
+        // When
+        testedController.onUploadResult(fakeHost, UploadStatus.NETWORK_ERROR, null)
+
+        // Then
+        assertThat(testedController.requestUpload(fakeHost))
+            .isEqualTo(halfBackOffMs + (jitter * halfBackOffMs).toLong())
+    }
+
+    @Test
+    fun `𝕄 open the circuit 𝕎 onUploadResult() {too many consecutive failures}`() {
+        // When
+        repeat(UploadBackOffController.CIRCUIT_BREAKER_THRESHOLD) {
+            testedController.onUploadResult(fakeHost, UploadStatus.HTTP_SERVER_ERROR, null)
+        }
+
+        // Then
+        assertThat(testedController.requestUpload(fakeHost))
+            .isEqualTo(UploadBackOffController.MAX_BACK_OFF_MS)
+    }
+
+    @Test
+    fun `𝕄 honor the server delay 𝕎 onUploadResult() {Retry-After longer than back-off}`(
+        @LongForgery(
+            min = UploadBackOffController.BASE_BACK_OFF_MS,
+            max = UploadBackOffController.MAX_RETRY_AFTER_MS
+        ) retryAfterMs: Long
+    ) {
+        // When
+        testedController.onUploadResult(
+            fakeHost,
+            UploadStatus.HTTP_CLIENT_RATE_LIMITING,
+            retryAfterMs
+        )
+
+        // Then
+        assertThat(testedController.requestUpload(fakeHost)).isEqualTo(retryAfterMs)
+    }
+
+    @Test
+    fun `𝕄 cap the server delay 𝕎 onUploadResult() {Retry-After too long}`(
+        @LongForgery(min = UploadBackOffController.MAX_RETRY_AFTER_MS) retryAfterMs: Long
+    ) {
+        // When
+        testedController.onUploadResult(
+            fakeHost,
+            UploadStatus.HTTP_CLIENT_RATE_LIMITING,
+            retryAfterMs
+        )
+
+        // Then
+        assertThat(testedController.requestUpload(fakeHost))
+            .isEqualTo(UploadBackOffController.MAX_RETRY_AFTER_MS)
+    }
+
+    @Test
+    fun `𝕄 reset the back-off 𝕎 onUploadResult() {success}`() {
+        // Given
+        repeat(UploadBackOffController.CIRCUIT_BREAKER_THRESHOLD) {
+            testedController.onUploadResult(fakeHost, UploadStatus.HTTP_SERVER_ERROR, null)
+        }
+
+        // When
+        testedController.onUploadResult(fakeHost, UploadStatus.SUCCESS, null)
+
+        // Then
+        assertThat(testedController.requestUpload(fakeHost)).isZero()
+        testedController.onUploadResult(fakeHost, UploadStatus.HTTP_SERVER_ERROR, null)
+        assertThat(testedController.requestUpload(fakeHost))
+            .isEqualTo(UploadBackOffController.BASE_BACK_OFF_MS)
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+        UploadStatus::class,
+        names = ["INVALID_TOKEN_ERROR", "HTTP_REDIRECTION", "HTTP_CLIENT_ERROR", "UNKNOWN_ERROR"]
+    )
+    fun `𝕄 not back off 𝕎 onUploadResult() {batch dropped}`(
+        status: UploadStatus
+    ) {
+        // When
+        testedController.onUploadResult(fakeHost, status, null)
+
+        // Then
+        assertThat(testedController.requestUpload(fakeHost)).isZero()
+    }
+
+    @Test
+    fun `𝕄 forget all hosts 𝕎 clear()`() {
+        // Given
+        testedController.onUploadResult(fakeHost, UploadStatus.HTTP_SERVER_ERROR, null)
+
+        // When
+        testedController.clear()
+
+        // Then
+        assertThat(testedController.requestUpload(fakeHost)).isZero()
+    }
+
+    // endregion
+
+    // region parseRetryAfterMs
+
+    @Test
+    fun `𝕄 read delay in seconds 𝕎 parseRetryAfterMs()`(
+        @LongForgery(min = 0L, max = 86400L) retryAfterSeconds: Long
+    ) {
+        // When
+        val result = UploadBackOffController.parseRetryAfterMs(
+            " $retryAfterSeconds ",
+            null,
+            null,
+            fakeNowMs
+        )
+
+        // Then
+        assertThat(result).isEqualTo(TimeUnit.SECONDS.toMillis(retryAfterSeconds))
+    }
+
+    @Test
+    fun `𝕄 read HTTP date 𝕎 parseRetryAfterMs()`(
+        @LongForgery(min = 0L, max = 86400L) retryAfterSeconds: Long
+    ) {
+        // Given
+        val currentTimeMs = TimeUnit.SECONDS.toMillis(System.currentTimeMillis() / 1000)
+        val dateFormat = SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US)
+        dateFormat.timeZone = TimeZone.getTimeZone("GMT")
+        val retryAfter = dateFormat.format(
+            Date(currentTimeMs + TimeUnit.SECONDS.toMillis(retryAfterSeconds))
+        )
+
+        // When
+        val result = UploadBackOffController.parseRetryAfterMs(
+            retryAfter,
+            null,
+            null,
+            currentTimeMs
+        )
+
+        // Then
+        assertThat(result).isEqualTo(TimeUnit.SECONDS.toMillis(retryAfterSeconds))
+    }
+
+    @Test
+    fun `𝕄 return null 𝕎 parseRetryAfterMs() {invalid Retry-After}`(
+        @StringForgery retryAfter: String
+    ) {
+        // When
+        val result = UploadBackOffController.parseRetryAfterMs(
+            retryAfter,
+            null,
+            null,
+            fakeNowMs
+        )
+
+        // Then
+        assertThat(result).isNull()
+    }
+
+    @Test
+    fun `𝕄 read rate limit reset 𝕎 parseRetryAfterMs() {quota exhausted}`(
+        @LongForgery(min = 0L, max = 86400L) resetSeconds: Long
+    ) {
+        // When
+        val result = UploadBackOffController.parseRetryAfterMs(
+            null,
+            "0",
+            resetSeconds.toString(),
+            fakeNowMs
+        )
+
+        // Then
+        assertThat(result).isEqualTo(TimeUnit.SECONDS.toMillis(resetSeconds))
+    }
+
+    @Test
+    fun `𝕄 return null 𝕎 parseRetryAfterMs() {quota left}`(
+        @LongForgery(min = 1L) remaining: Long,
+        @LongForgery(min = 0L, max = 86400L) resetSeconds: Long
+    ) {
+        // When
+        val result = UploadBackOffController.parseRetryAfterMs(
+            null,
+            remaining.toString(),
+            resetSeconds.toString(),
+            fakeNowMs
+        )
+
+        // Then
+        assertThat(result).isNull()
+    }
+
+    // endregion
+}
@@ -290,4 +290,63 @@ internal class UploadStatusTest {
                     "because of an unknown error; the batch was dropped."
             )
     }
+
+    @Test
+    fun `𝕄 log without telemetry INVALID_BATCH_ERROR 𝕎 logStatus() {sendToTelemetry=false}`() {
+        // When
+        UploadStatus.INVALID_BATCH_ERROR.logStatus(
+            fakeContext,
+            null,
+            mockLogger,
+            ignoreInfo = fakeIgnoreInfo,
+            sendToTelemetry = false
+        )
+
+        // Then
+        verify(mockLogHandler)
+            .handleLog(
+                Log.ERROR,
+                "Batch ($fakeContext) failed because its content couldn't be read; " +
+                    "the batch was dropped."
+            )
+    }
+
+    @Test
+    fun `𝕄 log with telemetry INVALID_BATCH_ERROR 𝕎 logStatus() {sendToTelemetry=true}`() {
+        // When
+        UploadStatus.INVALID_BATCH_ERROR.logStatus(
+            fakeContext,
+            null,
+            mockLogger,
+            ignoreInfo = fakeIgnoreInfo,
+            sendToTelemetry = true
+        )
+
+        // Then
+        verify(mockLogHandler)
+            .handleLog(
+                ERROR_WITH_TELEMETRY_LEVEL,
+                "Batch ($fakeContext) failed because its content couldn't be read; " +
+                    "the batch was dropped."
+            )
+    }
+
+    @Test
+    fun `𝕄 log without byte size 𝕎 logStatus() {unknown size}`() {
+        // When
+        UploadStatus.NETWORK_ERROR.logStatus(
+            fakeContext,
+            null,
+            mockLogger,
+            ignoreInfo = fakeIgnoreInfo,
+            sendToTelemetry = fakeSendToTelemetry
+        )
+
+        // Then
+        verify(mockLogHandler)
+            .handleLog(
+                Log.ERROR,
+                "Batch ($fakeContext) failed because of a network error; we will retry later."
+            )
+    }
 }
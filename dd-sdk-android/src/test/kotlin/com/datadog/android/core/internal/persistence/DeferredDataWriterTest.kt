@@ -0,0 +1,92 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence
+
+import com.datadog.android.core.internal.PreInitQueue
+import com.datadog.android.log.Logger
+import com.datadog.android.log.internal.logger.LogHandler
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.inOrder
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ForgeConfiguration(Configurator::class)
+internal class DeferredDataWriterTest {
+
+    lateinit var testedWriter: DeferredDataWriter<String>
+
+    lateinit var preInitQueue: PreInitQueue
+
+    @Mock
+    lateinit var mockDelegateWriter: DataWriter<String>
+
+    @Mock
+    lateinit var mockLogHandler: LogHandler
+
+    @BeforeEach
+    fun `set up`() {
+        preInitQueue = PreInitQueue(Logger(mockLogHandler))
+    }
+
+    @Test
+    fun `𝕄 forward data 𝕎 write(T) {queue ready}`(
+        @StringForgery data: String
+    ) {
+        // Given
+        testedWriter = DeferredDataWriter(preInitQueue) { mockDelegateWriter }
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        assertThat(testedWriter.delegate).isSameAs(mockDelegateWriter)
+        verify(mockDelegateWriter).write(data)
+    }
+
+    @Test
+    fun `𝕄 keep data until ready 𝕎 write() {queue pending}`(
+        @StringForgery data: String,
+        forge: Forge
+    ) {
+        // Given
+        val dataList = forge.aList(forge.anInt(1, 32)) { anAlphabeticalString() }
+        val mutableDataList = dataList.toMutableList()
+        preInitQueue.start()
+        testedWriter = DeferredDataWriter(preInitQueue) { mockDelegateWriter }
+
+        // When
+        testedWriter.write(data)
+        testedWriter.write(mutableDataList)
+        mutableDataList.clear()
+
+        // Then
+        verifyZeroInteractions(mockDelegateWriter)
+        preInitQueue.markReady()
+        inOrder(mockDelegateWriter) {
+            verify(mockDelegateWriter).write(data)
+            verify(mockDelegateWriter).write(dataList)
+        }
+    }
+}
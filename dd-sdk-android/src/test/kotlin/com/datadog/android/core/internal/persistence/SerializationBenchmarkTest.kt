@@ -0,0 +1,103 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence
+
+import com.datadog.android.core.internal.utils.buildJsonString
+import com.datadog.android.log.model.LogEvent
+import com.datadog.android.rum.model.ViewEvent
+import com.datadog.android.utils.benchmark.BenchmarkResult
+import com.datadog.android.utils.benchmark.measureOperations
+import com.datadog.android.utils.benchmark.publishBenchmark
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestReporter
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+
+/**
+ * A JVM microbenchmark comparing the Gson tree based serialization of the generated models
+ * (`toJson().toString()`) with the streaming one (`writeTo(JsonWriter)`).
+ *
+ * Run it with the `DD_BENCHMARK=true` environment variable set.
+ */
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+@EnabledIfEnvironmentVariable(named = "DD_BENCHMARK", matches = "true")
+internal class SerializationBenchmarkTest {
+
+    @Test
+    fun `benchmark ViewEvent serialization`(forge: Forge, testReporter: TestReporter) {
+        val events = List(EVENT_COUNT) { forge.getForgery<ViewEvent>() }
+
+        benchmark(
+            testReporter,
+            "ViewEvent",
+            events,
+            { it.toJson().toString() },
+            { event -> buildJsonString { event.writeTo(it) } }
+        )
+    }
+
+    @Test
+    fun `benchmark LogEvent serialization`(forge: Forge, testReporter: TestReporter) {
+        val events = List(EVENT_COUNT) { forge.getForgery<LogEvent>() }
+
+        benchmark(
+            testReporter,
+            "LogEvent",
+            events,
+            { it.toJson().toString() },
+            { event -> buildJsonString { event.writeTo(it) } }
+        )
+    }
+
+    // region Internal
+
+    private fun <T> benchmark(
+        testReporter: TestReporter,
+        name: String,
+        events: List<T>,
+        treeSerialization: (T) -> String,
+        streamingSerialization: (T) -> String
+    ) {
+        events.forEach {
+            assertThat(streamingSerialization(it)).isEqualTo(treeSerialization(it))
+        }
+
+        repeat(WARMUP_ROUNDS) {
+            events.forEach(treeSerialization)
+            events.forEach(streamingSerialization)
+        }
+
+        val treeResult = measure(events, treeSerialization)
+        val streamingResult = measure(events, streamingSerialization)
+
+        testReporter.publishBenchmark("$name tree serialization", treeResult)
+        testReporter.publishBenchmark("$name streaming serialization", streamingResult)
+    }
+
+    private fun <T> measure(events: List<T>, serialization: (T) -> String): BenchmarkResult {
+        return measureOperations(MEASURE_ROUNDS, events.size) {
+            events.forEach(serialization)
+        }
+    }
+
+    // endregion
+
+    companion object {
+        private const val EVENT_COUNT = 64
+        private const val WARMUP_ROUNDS = 200
+        private const val MEASURE_ROUNDS = 500
+    }
+}
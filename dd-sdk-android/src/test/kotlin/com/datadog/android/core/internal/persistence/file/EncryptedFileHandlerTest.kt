@@ -15,6 +15,7 @@ import com.datadog.tools.unit.annotations.TestConfigurationsProvider
 import com.datadog.tools.unit.extensions.TestConfigurationExtension
 import com.datadog.tools.unit.extensions.config.TestConfiguration
 import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.doAnswer
 import com.nhaarman.mockitokotlin2.doReturn
 import com.nhaarman.mockitokotlin2.eq
@@ -64,6 +65,7 @@ internal class EncryptedFileHandlerTest {
     @BeforeEach
     fun setUp() {
         whenever(mockFileHandlerDelegate.writeData(any(), any(), any())) doReturn true
+        whenever(mockFileHandlerDelegate.writeAllData(any(), any(), any())) doReturn true
 
         whenever(mockEncryption.encrypt(any())) doAnswer {
             val bytes = it.getArgument<ByteArray>(0)
@@ -132,6 +134,52 @@ internal class EncryptedFileHandlerTest {
         verifyZeroInteractions(mockFileHandlerDelegate)
     }
 
+    @Test
+    fun `𝕄 encrypt all data and return true 𝕎 writeAllData()`(
+        @StringForgery data: List<String>,
+        @BoolForgery append: Boolean
+    ) {
+        // Given
+        val dataBytes = data.map { it.toByteArray() }
+
+        // When
+        val result = testedFileHandler.writeAllData(mockFile, dataBytes, append = append)
+
+        // Then
+        assertThat(result).isTrue()
+        argumentCaptor<List<ByteArray>> {
+            verify(mockFileHandlerDelegate).writeAllData(eq(mockFile), capture(), eq(append))
+            assertThat(firstValue).containsExactlyElementsOf(dataBytes.map { encrypt(it) })
+        }
+
+        verifyZeroInteractions(mockInternalLogger)
+        verifyZeroInteractions(logger.mockDevLogHandler)
+    }
+
+    @Test
+    fun `𝕄 log internal error and return false 𝕎 writeAllData() { bad encryption result }`(
+        @StringForgery data: List<String>,
+        @BoolForgery append: Boolean,
+        forge: Forge
+    ) {
+        // Given
+        val dataBytes = data.map { it.toByteArray() }
+        whenever(mockEncryption.encrypt(forge.anElementFrom(dataBytes))) doReturn ByteArray(0)
+
+        // When
+        val result = testedFileHandler.writeAllData(mockFile, dataBytes, append = append)
+
+        // Then
+        assertThat(result).isFalse()
+
+        verify(logger.mockDevLogHandler).handleLog(
+            Log.ERROR,
+            EncryptedFileHandler.BAD_ENCRYPTION_RESULT_MESSAGE
+        )
+        verifyZeroInteractions(mockInternalLogger)
+        verifyZeroInteractions(mockFileHandlerDelegate)
+    }
+
     // endregion
 
     // region FileHandler#readData tests
@@ -160,6 +208,32 @@ internal class EncryptedFileHandlerTest {
 
     // region writeData + readData
 
+    @Test
+    fun `𝕄 decrypt data 𝕎 streamData()`(
+        forge: Forge
+    ) {
+        // Given
+        val events = forge.aList {
+            forge.aString().toByteArray()
+        }
+
+        whenever(
+            mockFileHandlerDelegate.streamData(eq(mockFile), any())
+        ) doAnswer {
+            val consumer = it.getArgument<(ByteArray) -> Unit>(1)
+            events.forEach { event -> consumer(encrypt(event)) }
+            true
+        }
+
+        // When
+        val result = mutableListOf<ByteArray>()
+        val isRead = testedFileHandler.streamData(mockFile) { result.add(it) }
+
+        // Then
+        assertThat(isRead).isTrue()
+        assertThat(result).containsExactlyElementsOf(events)
+    }
+
     @Test
     fun `𝕄 return valid data 𝕎 writeData() + readData()`(
         forge: Forge
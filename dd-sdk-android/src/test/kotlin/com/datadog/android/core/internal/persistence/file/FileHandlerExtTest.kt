@@ -0,0 +1,135 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file
+
+import com.datadog.android.core.internal.persistence.InvalidBatchException
+import com.datadog.android.core.internal.persistence.PayloadDecoration
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.doThrow
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import okio.Buffer
+import okio.BufferedSink
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+import java.io.File
+import java.io.IOException
+
+@Extensions(
+    ExtendWith(
+        MockitoExtension::class,
+        ForgeExtension::class
+    )
+)
+@ForgeConfiguration(value = Configurator::class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+internal class FileHandlerExtTest {
+
+    @Mock
+    lateinit var mockFileHandler: FileHandler
+
+    @Mock
+    lateinit var mockFile: File
+
+    @Forgery
+    lateinit var fakeDecoration: PayloadDecoration
+
+    @Test
+    fun `𝕄 write decorated events 𝕎 writeDecoratedData()`(
+        forge: Forge
+    ) {
+        // Given
+        val events = forge.aList { aString().toByteArray() }
+        stubStreamData(events)
+        val buffer = Buffer()
+
+        // When
+        val result = mockFileHandler.writeDecoratedData(mockFile, fakeDecoration, buffer)
+
+        // Then
+        val expectedContent = fakeDecoration.prefixBytes +
+            events.reduce { acc, bytes -> acc + fakeDecoration.separatorBytes + bytes } +
+            fakeDecoration.suffixBytes
+        assertThat(buffer.readByteArray()).isEqualTo(expectedContent)
+        assertThat(result).isEqualTo(expectedContent.size.toLong())
+    }
+
+    @Test
+    fun `𝕄 write decoration only 𝕎 writeDecoratedData() {no event}`() {
+        // Given
+        stubStreamData(emptyList())
+        val buffer = Buffer()
+
+        // When
+        val result = mockFileHandler.writeDecoratedData(mockFile, fakeDecoration, buffer)
+
+        // Then
+        val expectedContent = fakeDecoration.prefixBytes + fakeDecoration.suffixBytes
+        assertThat(buffer.readByteArray()).isEqualTo(expectedContent)
+        assertThat(result).isEqualTo(expectedContent.size.toLong())
+    }
+
+    @Test
+    fun `𝕄 throw InvalidBatchException 𝕎 writeDecoratedData() {file can't be read}`() {
+        // Given
+        whenever(mockFileHandler.streamData(eq(mockFile), any())) doReturn false
+
+        // When + Then
+        assertThrows<InvalidBatchException> {
+            mockFileHandler.writeDecoratedData(mockFile, fakeDecoration, Buffer())
+        }
+    }
+
+    @Test
+    fun `𝕄 rethrow IOException 𝕎 writeDecoratedData() {sink can't be written}`(
+        @StringForgery message: String,
+        forge: Forge
+    ) {
+        // Given
+        val events = forge.aList { aString().toByteArray() }
+        stubStreamData(events)
+        val exception = IOException(message)
+        val mockSink = mock<BufferedSink>()
+        whenever(mockSink.write(any<ByteArray>())) doThrow exception
+
+        // When
+        val thrown = assertThrows<IOException> {
+            mockFileHandler.writeDecoratedData(mockFile, fakeDecoration, mockSink)
+        }
+
+        // Then
+        assertThat(thrown).isSameAs(exception)
+        assertThat(thrown).isNotInstanceOf(InvalidBatchException::class.java)
+    }
+
+    // region Internal
+
+    private fun stubStreamData(events: List<ByteArray>) {
+        whenever(mockFileHandler.streamData(eq(mockFile), any())) doAnswer {
+            events.forEach(it.getArgument<(ByteArray) -> Unit>(1))
+            true
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,138 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.advanced
+
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+internal class BoundedRingBufferTest {
+
+    @Test
+    fun `𝕄 round capacity to power of two 𝕎 init`(
+        @IntForgery(1, 4096) requestedCapacity: Int
+    ) {
+        // When
+        val testedBuffer = BoundedRingBuffer<String>(requestedCapacity)
+
+        // Then
+        assertThat(testedBuffer.capacity).isGreaterThanOrEqualTo(requestedCapacity)
+        assertThat(testedBuffer.capacity).isLessThan(requestedCapacity * 2)
+        assertThat(Integer.bitCount(testedBuffer.capacity)).isEqualTo(1)
+    }
+
+    @Test
+    fun `𝕄 return null 𝕎 poll() {empty buffer}`() {
+        // Given
+        val testedBuffer = BoundedRingBuffer<String>(FAKE_CAPACITY)
+
+        // When
+        val result = testedBuffer.poll()
+
+        // Then
+        assertThat(result).isNull()
+        assertThat(testedBuffer.isEmpty()).isTrue()
+    }
+
+    @Test
+    fun `𝕄 return elements in order 𝕎 offer() + poll()`(
+        forge: Forge
+    ) {
+        // Given
+        val testedBuffer = BoundedRingBuffer<String>(FAKE_CAPACITY)
+        val data = forge.aList(forge.anInt(1, FAKE_CAPACITY)) { anAlphabeticalString() }
+
+        // When
+        val offered = data.map { testedBuffer.offer(it) }
+        val polled = List(data.size) { testedBuffer.poll() }
+
+        // Then
+        assertThat(offered).containsOnly(true)
+        assertThat(polled).containsExactlyElementsOf(data)
+        assertThat(testedBuffer.poll()).isNull()
+    }
+
+    @Test
+    fun `𝕄 reject element 𝕎 offer() {buffer full}`(
+        forge: Forge
+    ) {
+        // Given
+        val testedBuffer = BoundedRingBuffer<String>(FAKE_CAPACITY)
+        repeat(FAKE_CAPACITY) { testedBuffer.offer(forge.anAlphabeticalString()) }
+
+        // When
+        val result = testedBuffer.offer(forge.anAlphabeticalString())
+
+        // Then
+        assertThat(result).isFalse()
+        assertThat(testedBuffer.isEmpty()).isFalse()
+    }
+
+    @Test
+    fun `𝕄 reuse slots 𝕎 offer() + poll() {multiple laps}`(
+        forge: Forge
+    ) {
+        // Given
+        val testedBuffer = BoundedRingBuffer<String>(FAKE_CAPACITY)
+        val data = List(FAKE_CAPACITY * forge.anInt(2, 10)) { forge.anAlphabeticalString() }
+
+        // When
+        val polled = data.map {
+            testedBuffer.offer(it)
+            testedBuffer.poll()
+        }
+
+        // Then
+        assertThat(polled).containsExactlyElementsOf(data)
+        assertThat(testedBuffer.isEmpty()).isTrue()
+    }
+
+    @Test
+    fun `𝕄 keep all elements 𝕎 offer() {multiple producers}`(
+        @IntForgery(2, 8) threadCount: Int
+    ) {
+        // Given
+        val testedBuffer = BoundedRingBuffer<String>(threadCount * ELEMENTS_PER_THREAD)
+        val countDownLatch = CountDownLatch(threadCount)
+
+        // When
+        repeat(threadCount) { threadIndex ->
+            Thread {
+                repeat(ELEMENTS_PER_THREAD) { testedBuffer.offer("$threadIndex:$it") }
+                countDownLatch.countDown()
+            }.start()
+        }
+        countDownLatch.await(10, TimeUnit.SECONDS)
+
+        // Then
+        val polled = generateSequence { testedBuffer.poll() }.toList()
+        assertThat(polled).hasSize(threadCount * ELEMENTS_PER_THREAD)
+        assertThat(polled).doesNotHaveDuplicates()
+        repeat(threadCount) { threadIndex ->
+            val threadElements = polled.filter { it.startsWith("$threadIndex:") }
+            assertThat(threadElements)
+                .containsExactlyElementsOf(List(ELEMENTS_PER_THREAD) { "$threadIndex:$it" })
+        }
+    }
+
+    companion object {
+        private const val FAKE_CAPACITY = 32
+        private const val ELEMENTS_PER_THREAD = 1000
+    }
+}
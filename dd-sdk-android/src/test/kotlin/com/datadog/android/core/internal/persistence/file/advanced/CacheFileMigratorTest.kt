@@ -105,6 +105,35 @@ internal class CacheFileMigratorTest {
         }
     }
 
+    @Test
+    fun `𝕄 forward the duration listener 𝕎 migrateData() {any to true}`(
+        @Forgery previousDir: File,
+        @Forgery newDir: File
+    ) {
+        // Given
+        val durationListener: (Long) -> Unit = {}
+        testedMigrator = CacheFileMigrator(
+            mockFileHandler,
+            mockExecutorService,
+            Logger(mockLogHander),
+            durationListener
+        )
+        whenever(mockPreviousOrchestrator.getRootDir()) doReturn previousDir
+        whenever(mockNewOrchestrator.getRootDir()) doReturn newDir
+
+        // When
+        testedMigrator.migrateData(null, mockPreviousOrchestrator, true, mockNewOrchestrator)
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService, times(2)).submit(capture())
+            val moveOperation = firstValue as MoveDataMigrationOperation
+            assertThat(moveOperation.durationListener).isSameAs(durationListener)
+            val wipeOperation = secondValue as WipeDataMigrationOperation
+            assertThat(wipeOperation.durationListener).isSameAs(durationListener)
+        }
+    }
+
     @Test
     fun `𝕄 move and wipe files dir 𝕎 migrateData() {any to false}`(
         @BoolForgery previousState: Boolean,
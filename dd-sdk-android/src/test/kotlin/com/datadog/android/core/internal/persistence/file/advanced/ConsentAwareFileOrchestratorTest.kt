@@ -6,6 +6,7 @@
 
 package com.datadog.android.core.internal.persistence.file.advanced
 
+import com.datadog.android.core.internal.persistence.EventPriority
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
 import com.datadog.android.core.internal.privacy.ConsentProvider
 import com.datadog.android.privacy.TrackingConsent
@@ -189,6 +190,63 @@ internal class ConsentAwareFileOrchestratorTest {
         verifyZeroInteractions(mockPendingOrchestrator)
     }
 
+    @Test
+    fun `𝕄 return granted writable file 𝕎 getWritableFileForItems() {consent=GRANTED}`(
+        @Forgery file: File,
+        @IntForgery(min = 1) dataSizes: List<Int>,
+        @IntForgery(min = 1) itemCount: Int
+    ) {
+        // Given
+        instantiateTestedOrchestrator(TrackingConsent.GRANTED)
+        whenever(mockGrantedOrchestrator.getWritableFileForItems(dataSizes)) doReturn
+            (file to itemCount)
+
+        // When
+        val result = testedOrchestrator.getWritableFileForItems(dataSizes)
+
+        // Then
+        assertThat(result).isEqualTo(file to itemCount)
+        verifyZeroInteractions(mockPendingOrchestrator)
+    }
+
+    @Test
+    fun `𝕄 return granted writable file 𝕎 getWritableFile() {consent=GRANTED, with priority}`(
+        @Forgery file: File,
+        @IntForgery(min = 1) dataSize: Int,
+        @Forgery priority: EventPriority
+    ) {
+        // Given
+        instantiateTestedOrchestrator(TrackingConsent.GRANTED)
+        whenever(mockGrantedOrchestrator.getWritableFile(dataSize, priority)) doReturn file
+
+        // When
+        val result = testedOrchestrator.getWritableFile(dataSize, priority)
+
+        // Then
+        assertThat(result).isSameAs(file)
+        verifyZeroInteractions(mockPendingOrchestrator)
+    }
+
+    @Test
+    fun `𝕄 return granted writable file 𝕎 getWritableFileForItems() {GRANTED, with priority}`(
+        @Forgery file: File,
+        @IntForgery(min = 1) dataSizes: List<Int>,
+        @IntForgery(min = 1) itemCount: Int,
+        @Forgery priority: EventPriority
+    ) {
+        // Given
+        instantiateTestedOrchestrator(TrackingConsent.GRANTED)
+        whenever(mockGrantedOrchestrator.getWritableFileForItems(dataSizes, priority)) doReturn
+            (file to itemCount)
+
+        // When
+        val result = testedOrchestrator.getWritableFileForItems(dataSizes, priority)
+
+        // Then
+        assertThat(result).isEqualTo(file to itemCount)
+        verifyZeroInteractions(mockPendingOrchestrator)
+    }
+
     @Test
     fun `𝕄 return granted writable file 𝕎 getWritableFile() {consent=NOT_GRANTED then GRANTED}`(
         @Forgery file: File,
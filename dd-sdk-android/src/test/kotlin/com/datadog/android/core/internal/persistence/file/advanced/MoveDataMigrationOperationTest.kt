@@ -29,6 +29,7 @@ import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
 import java.io.File
+import kotlin.system.measureNanoTime
 import kotlin.system.measureTimeMillis
 
 @Extensions(
@@ -117,6 +118,28 @@ internal class MoveDataMigrationOperationTest {
         verify(mockFileHandler).moveFiles(fakeFromDirectory, fakeToDirectory)
     }
 
+    @Test
+    fun `𝕄 notify the operation duration 𝕎 run()`() {
+        // Given
+        val durations = mutableListOf<Long>()
+        testedOperation = MoveDataMigrationOperation(
+            fakeFromDirectory,
+            fakeToDirectory,
+            mockFileHandler,
+            Logger(mockLogHander)
+        ) { durations.add(it) }
+        whenever(mockFileHandler.moveFiles(fakeFromDirectory, fakeToDirectory)) doReturn true
+
+        // When
+        val duration = measureNanoTime {
+            testedOperation.run()
+        }
+
+        // Then
+        Assertions.assertThat(durations).hasSize(1)
+        Assertions.assertThat(durations.first()).isBetween(0L, duration)
+    }
+
     @Test
     fun `𝕄 retry 𝕎 run() {move fails once}`() {
         // Given
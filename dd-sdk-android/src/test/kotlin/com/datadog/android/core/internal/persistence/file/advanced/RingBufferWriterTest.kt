@@ -0,0 +1,361 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.advanced
+
+import android.util.Log
+import com.datadog.android.core.configuration.BufferOverflowPolicy
+import com.datadog.android.core.internal.persistence.DataWriter
+import com.datadog.android.log.Logger
+import com.datadog.android.log.internal.logger.LogHandler
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.atLeastOnce
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.doThrow
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
+import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+import java.util.Locale
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.RejectedExecutionException
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ForgeConfiguration(Configurator::class)
+internal class RingBufferWriterTest {
+
+    lateinit var testedWriter: RingBufferWriter<String>
+
+    @Mock
+    lateinit var mockDelegateWriter: DataWriter<String>
+
+    @Mock
+    lateinit var mockExecutorService: ExecutorService
+
+    @Mock
+    lateinit var mockLogHandler: LogHandler
+
+    @Test
+    fun `𝕄 schedule drain 𝕎 write(T)`(
+        @StringForgery data: String,
+        @Forgery fakePolicy: BufferOverflowPolicy
+    ) {
+        // Given
+        testedWriter = createWriter(fakePolicy)
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        verifyZeroInteractions(mockDelegateWriter)
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+            verify(mockDelegateWriter).write(listOf(data))
+        }
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 schedule drain once 𝕎 write(T) {multiple elements}`(
+        @Forgery fakePolicy: BufferOverflowPolicy,
+        forge: Forge
+    ) {
+        // Given
+        testedWriter = createWriter(fakePolicy)
+        val data = forge.aList(forge.anInt(2, FAKE_CAPACITY)) { anAlphabeticalString() }
+
+        // When
+        data.forEach { testedWriter.write(it) }
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+        }
+        verify(mockDelegateWriter).write(data)
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 schedule drain once 𝕎 write(List)`(
+        @Forgery fakePolicy: BufferOverflowPolicy,
+        forge: Forge
+    ) {
+        // Given
+        testedWriter = createWriter(fakePolicy)
+        val data = forge.aList(forge.anInt(1, FAKE_CAPACITY)) { anAlphabeticalString() }
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+        }
+        verify(mockDelegateWriter).write(data)
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 write in batches 𝕎 write() {more elements than batch size}`(
+        forge: Forge
+    ) {
+        // Given
+        testedWriter = createWriter(BufferOverflowPolicy.DROP_NEWEST)
+        val data = List(RingBufferWriter.DRAIN_BATCH_SIZE + forge.anInt(1, 10)) {
+            forge.anAlphabeticalString()
+        }
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+        }
+        verify(mockDelegateWriter).write(data.take(RingBufferWriter.DRAIN_BATCH_SIZE))
+        verify(mockDelegateWriter).write(data.drop(RingBufferWriter.DRAIN_BATCH_SIZE))
+        verifyNoMoreInteractions(mockDelegateWriter)
+    }
+
+    @Test
+    fun `𝕄 schedule drain again 𝕎 write(T) {after drain}`(
+        @StringForgery data: String,
+        @StringForgery otherData: String
+    ) {
+        // Given
+        testedWriter = createWriter(BufferOverflowPolicy.DROP_NEWEST)
+        testedWriter.write(data)
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+        }
+
+        // When
+        testedWriter.write(otherData)
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService, times(2)).execute(capture())
+            secondValue.run()
+        }
+        verify(mockDelegateWriter).write(listOf(data))
+        verify(mockDelegateWriter).write(listOf(otherData))
+    }
+
+    @Test
+    fun `𝕄 drop newest elements 𝕎 write() {buffer full, DROP_NEWEST}`(
+        forge: Forge
+    ) {
+        // Given
+        testedWriter = createWriter(BufferOverflowPolicy.DROP_NEWEST)
+        val data = List(FAKE_CAPACITY + forge.anInt(1, 10)) { forge.anAlphabeticalString() }
+
+        // When
+        data.forEach { testedWriter.write(it) }
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+        }
+        verify(mockDelegateWriter).write(data.take(FAKE_CAPACITY))
+        assertThat(testedWriter.droppedElements).isEqualTo(data.size - FAKE_CAPACITY.toLong())
+        verify(mockLogHandler).handleLog(
+            Log.WARN,
+            RingBufferWriter.WARNING_DROPPED_ELEMENTS.format(
+                Locale.US,
+                data.size - FAKE_CAPACITY,
+                BufferOverflowPolicy.DROP_NEWEST
+            )
+        )
+    }
+
+    @Test
+    fun `𝕄 drop oldest elements 𝕎 write() {buffer full, DROP_OLDEST}`(
+        forge: Forge
+    ) {
+        // Given
+        testedWriter = createWriter(BufferOverflowPolicy.DROP_OLDEST)
+        val data = List(FAKE_CAPACITY + forge.anInt(1, 10)) { forge.anAlphabeticalString() }
+
+        // When
+        data.forEach { testedWriter.write(it) }
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+        }
+        verify(mockDelegateWriter).write(data.takeLast(FAKE_CAPACITY))
+        assertThat(testedWriter.droppedElements).isEqualTo(data.size - FAKE_CAPACITY.toLong())
+    }
+
+    @Test
+    fun `𝕄 drop element after waiting 𝕎 write() {buffer full, BLOCK, not drained}`(
+        forge: Forge
+    ) {
+        // Given
+        testedWriter = createWriter(BufferOverflowPolicy.BLOCK)
+        val data = List(FAKE_CAPACITY + 1) { forge.anAlphabeticalString() }
+
+        // When
+        val startNs = System.nanoTime()
+        data.forEach { testedWriter.write(it) }
+        val durationNs = System.nanoTime() - startNs
+
+        // Then
+        assertThat(durationNs).isGreaterThanOrEqualTo(RingBufferWriter.MAX_BLOCKING_DURATION_NS)
+        assertThat(testedWriter.droppedElements).isEqualTo(1L)
+    }
+
+    @Test
+    fun `𝕄 write element once drained 𝕎 write() {buffer full, BLOCK}`(
+        forge: Forge
+    ) {
+        // Given
+        testedWriter = createWriter(BufferOverflowPolicy.BLOCK)
+        val data = List(FAKE_CAPACITY + 1) { forge.anAlphabeticalString() }
+        whenever(mockExecutorService.execute(any())) doAnswer {
+            Thread(it.getArgument<Runnable>(0)).start()
+        }
+
+        // When
+        data.forEach { testedWriter.write(it) }
+        Thread.sleep(DRAIN_WAIT_MS)
+
+        // Then
+        assertThat(testedWriter.droppedElements).isEqualTo(0L)
+        argumentCaptor<List<String>> {
+            verify(mockDelegateWriter, atLeastOnce()).write(capture())
+            assertThat(allValues.flatten()).containsExactlyElementsOf(data)
+        }
+    }
+
+    @Test
+    fun `𝕄 log error and drain again 𝕎 write() {delegate throws}`(
+        @StringForgery data: String,
+        @StringForgery otherData: String,
+        @StringForgery errorMessage: String
+    ) {
+        // Given
+        testedWriter = createWriter(BufferOverflowPolicy.DROP_NEWEST)
+        val exception = IllegalStateException(errorMessage)
+        whenever(mockDelegateWriter.write(listOf(data))) doThrow exception
+        testedWriter.write(data)
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+        }
+
+        // When
+        testedWriter.write(otherData)
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService, times(2)).execute(capture())
+            secondValue.run()
+        }
+        verify(mockDelegateWriter).write(listOf(otherData))
+        verify(mockLogHandler).handleLog(
+            Log.ERROR,
+            RingBufferWriter.ERROR_WRITE_FAILED.format(Locale.US, 1),
+            throwable = exception
+        )
+    }
+
+    @Test
+    fun `𝕄 drain again 𝕎 write() {delegate throws an error}`(
+        @StringForgery data: String,
+        @StringForgery otherData: String,
+        @StringForgery errorMessage: String
+    ) {
+        // Given
+        testedWriter = createWriter(BufferOverflowPolicy.DROP_NEWEST)
+        val error = StackOverflowError(errorMessage)
+        whenever(mockDelegateWriter.write(listOf(data))) doThrow error
+        testedWriter.write(data)
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            assertThrows<StackOverflowError> { firstValue.run() }
+        }
+
+        // When
+        testedWriter.write(otherData)
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService, times(2)).execute(capture())
+            secondValue.run()
+        }
+        verify(mockDelegateWriter).write(listOf(otherData))
+    }
+
+    @Test
+    fun `𝕄 log error 𝕎 write() {execute rejected}`(
+        @StringForgery data: String,
+        @StringForgery errorMessage: String
+    ) {
+        // Given
+        testedWriter = createWriter(BufferOverflowPolicy.DROP_NEWEST)
+        val exception = RejectedExecutionException(errorMessage)
+        whenever(mockExecutorService.execute(any())) doThrow exception
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        verifyZeroInteractions(mockDelegateWriter)
+        verify(mockLogHandler).handleLog(
+            Log.ERROR,
+            ScheduledWriter.ERROR_REJECTED,
+            throwable = exception
+        )
+    }
+
+    // region Internal
+
+    private fun createWriter(policy: BufferOverflowPolicy): RingBufferWriter<String> {
+        return RingBufferWriter(
+            mockDelegateWriter,
+            mockExecutorService,
+            Logger(mockLogHandler),
+            policy,
+            FAKE_CAPACITY
+        )
+    }
+
+    // endregion
+
+    companion object {
+        private const val FAKE_CAPACITY = 16
+        private const val DRAIN_WAIT_MS = 500L
+    }
+}
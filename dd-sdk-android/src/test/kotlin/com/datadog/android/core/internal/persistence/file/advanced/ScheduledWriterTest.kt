@@ -7,6 +7,7 @@
 package com.datadog.android.core.internal.persistence.file.advanced
 
 import android.util.Log
+import com.datadog.android.core.internal.metrics.FeatureMetrics
 import com.datadog.android.core.internal.persistence.DataWriter
 import com.datadog.android.log.Logger
 import com.datadog.android.log.internal.logger.LogHandler
@@ -51,12 +52,16 @@ internal class ScheduledWriterTest {
     @Mock
     lateinit var mockLogHandler: LogHandler
 
+    @Mock
+    lateinit var mockFeatureMetrics: FeatureMetrics
+
     @BeforeEach
     fun `set up`() {
         testedWriter = ScheduledWriter<String>(
             mockDelegateWriter,
             mockExecutorService,
-            Logger(mockLogHandler)
+            Logger(mockLogHandler),
+            mockFeatureMetrics
         )
     }
 
@@ -141,4 +146,32 @@ internal class ScheduledWriterTest {
             throwable = exception
         )
     }
+
+    @Test
+    fun `𝕄 count enqueued event 𝕎 write(T)`(
+        @StringForgery data: String
+    ) {
+        // When
+        testedWriter.write(data)
+
+        // Then
+        verify(mockFeatureMetrics).onEventsEnqueued(1)
+        verifyNoMoreInteractions(mockFeatureMetrics)
+    }
+
+    @Test
+    fun `𝕄 count dropped events 𝕎 write(List) {submit rejected}`(
+        @StringForgery data: List<String>,
+        @StringForgery errorMessage: String
+    ) {
+        // Given
+        whenever(mockExecutorService.submit(any())) doThrow RejectedExecutionException(errorMessage)
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        verify(mockFeatureMetrics).onEventsEnqueued(data.size)
+        verify(mockFeatureMetrics).onEventsDropped(data.size)
+    }
 }
@@ -8,6 +8,7 @@ package com.datadog.android.core.internal.persistence.file.advanced
 
 import com.datadog.android.core.internal.persistence.file.single.SingleFileOrchestrator
 import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.IntForgery
 import fr.xgouchet.elmyr.annotation.StringForgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
@@ -74,6 +75,21 @@ internal class SingleFileOrchestratorTest {
         assertThat(result).isSameAs(fakeFile)
     }
 
+    @Test
+    fun `𝕄 return file for all items 𝕎 getWritableFileForItems()`(
+        forge: Forge
+    ) {
+        // Given
+        val dataSizes = forge.aList(forge.anInt(1, 32)) { anInt(min = 1) }
+
+        // When
+        val result = testedOrchestrator.getWritableFileForItems(dataSizes)
+
+        // Then
+        assertThat(fakeFile.parentFile).exists()
+        assertThat(result).isEqualTo(fakeFile to dataSizes.size)
+    }
+
     // endregion
 
     // region getReadableFile
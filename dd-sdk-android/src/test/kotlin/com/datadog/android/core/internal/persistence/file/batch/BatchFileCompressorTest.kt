@@ -0,0 +1,203 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.batch
+
+import com.datadog.android.core.internal.persistence.PayloadDecoration
+import com.datadog.android.core.internal.persistence.file.FileHandler
+import com.datadog.android.log.Logger
+import com.datadog.android.log.internal.utils.ERROR_WITH_TELEMETRY_LEVEL
+import com.datadog.android.utils.config.LoggerTestConfiguration
+import com.datadog.android.utils.forge.Configurator
+import com.datadog.tools.unit.annotations.TestConfigurationsProvider
+import com.datadog.tools.unit.extensions.TestConfigurationExtension
+import com.datadog.tools.unit.extensions.config.TestConfiguration
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.isA
+import com.nhaarman.mockitokotlin2.isNull
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
+import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import okio.GzipSource
+import okio.Okio
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+import java.io.File
+import java.io.IOException
+import java.util.Locale
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class),
+    ExtendWith(TestConfigurationExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+internal class BatchFileCompressorTest {
+
+    lateinit var testedCompressor: BatchFileCompressor
+
+    lateinit var fileHandler: BatchFileHandler
+
+    @Forgery
+    lateinit var fakeDecoration: PayloadDecoration
+
+    @TempDir
+    lateinit var fakeRootDirectory: File
+
+    @StringForgery(regex = "\\d{8,12}")
+    lateinit var fakeFileName: String
+
+    lateinit var fakeFile: File
+
+    @BeforeEach
+    fun `set up`() {
+        fakeFile = File(fakeRootDirectory, fakeFileName)
+        val internalLogger = Logger(logger.mockSdkLogHandler)
+        fileHandler = BatchFileHandler(internalLogger)
+        testedCompressor = BatchFileCompressor(fileHandler, fakeDecoration, internalLogger)
+    }
+
+    // region getOrCompress
+
+    @Test
+    fun `𝕄 compress decorated batch 𝕎 getOrCompress()`(
+        @StringForgery events: List<String>
+    ) {
+        // Given
+        events.forEach { fileHandler.writeData(fakeFile, it.toByteArray(), append = true) }
+
+        // When
+        val result = testedCompressor.getOrCompress(fakeFile)
+
+        // Then
+        checkNotNull(result)
+        assertThat(result).isEqualTo(BatchFileCompressor.compressedFileOf(fakeFile))
+        assertThat(result.uncompressedContent()).isEqualTo(
+            fakeDecoration.prefixBytes +
+                events.map { it.toByteArray() }
+                    .reduce { acc, bytes -> acc + fakeDecoration.separatorBytes + bytes } +
+                fakeDecoration.suffixBytes
+        )
+        assertThat(fakeFile).exists()
+        assertThat(File(fakeRootDirectory, result.name + BatchFileCompressor.TMP_SUFFIX))
+            .doesNotExist()
+    }
+
+    @Test
+    fun `𝕄 compress batch only once 𝕎 getOrCompress() {called twice}`(
+        @StringForgery events: List<String>
+    ) {
+        // Given
+        val mockFileHandler = mock<FileHandler>()
+        events.forEach { fileHandler.writeData(fakeFile, it.toByteArray(), append = true) }
+        testedCompressor.getOrCompress(fakeFile)
+        testedCompressor = BatchFileCompressor(
+            mockFileHandler,
+            fakeDecoration,
+            Logger(logger.mockSdkLogHandler)
+        )
+
+        // When
+        val result = testedCompressor.getOrCompress(fakeFile)
+
+        // Then
+        assertThat(result).isEqualTo(BatchFileCompressor.compressedFileOf(fakeFile))
+        verifyZeroInteractions(mockFileHandler)
+    }
+
+    @Test
+    fun `𝕄 return null 𝕎 getOrCompress() {batch file doesn't exist}`() {
+        // When
+        val result = testedCompressor.getOrCompress(fakeFile)
+
+        // Then
+        assertThat(result).isNull()
+        assertThat(fakeRootDirectory.listFiles()).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 return null and warn 𝕎 getOrCompress() {batch file can't be read}`() {
+        // Given
+        val mockFileHandler = mock<FileHandler>()
+        fakeFile.writeText("")
+        whenever(mockFileHandler.streamData(eq(fakeFile), any())) doReturn false
+        testedCompressor = BatchFileCompressor(
+            mockFileHandler,
+            fakeDecoration,
+            Logger(logger.mockSdkLogHandler)
+        )
+
+        // When
+        val result = testedCompressor.getOrCompress(fakeFile)
+
+        // Then
+        assertThat(result).isNull()
+        assertThat(fakeRootDirectory.listFiles()).containsOnly(fakeFile)
+        verify(logger.mockSdkLogHandler).handleLog(
+            eq(ERROR_WITH_TELEMETRY_LEVEL),
+            eq(BatchFileCompressor.ERROR_COMPRESS.format(Locale.US, fakeFile.path)),
+            isA<IOException>(),
+            eq(emptyMap()),
+            eq(emptySet()),
+            isNull()
+        )
+    }
+
+    // endregion
+
+    // region delete
+
+    @Test
+    fun `𝕄 delete compressed file 𝕎 delete()`(
+        @StringForgery events: List<String>
+    ) {
+        // Given
+        events.forEach { fileHandler.writeData(fakeFile, it.toByteArray(), append = true) }
+        val compressedFile = checkNotNull(testedCompressor.getOrCompress(fakeFile))
+
+        // When
+        testedCompressor.delete(fakeFile)
+
+        // Then
+        assertThat(compressedFile).doesNotExist()
+        assertThat(fakeFile).exists()
+    }
+
+    // endregion
+
+    // region private
+
+    private fun File.uncompressedContent(): ByteArray {
+        return Okio.buffer(GzipSource(Okio.source(this))).use { it.readByteArray() }
+    }
+
+    // endregion
+
+    companion object {
+        val logger = LoggerTestConfiguration()
+
+        @TestConfigurationsProvider
+        @JvmStatic
+        fun getTestConfigurations(): List<TestConfiguration> {
+            return listOf(logger)
+        }
+    }
+}
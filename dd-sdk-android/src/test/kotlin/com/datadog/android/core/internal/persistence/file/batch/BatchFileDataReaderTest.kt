@@ -7,6 +7,7 @@
 package com.datadog.android.core.internal.persistence.file.batch
 
 import android.util.Log
+import com.datadog.android.core.internal.persistence.Backlog
 import com.datadog.android.core.internal.persistence.Batch
 import com.datadog.android.core.internal.persistence.DataReader
 import com.datadog.android.core.internal.persistence.PayloadDecoration
@@ -18,24 +19,31 @@ import com.datadog.android.utils.forge.Configurator
 import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.doAnswer
 import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.never
 import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
 import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.Forgery
 import fr.xgouchet.elmyr.annotation.StringForgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
 import fr.xgouchet.elmyr.junit5.ForgeExtension
+import okio.Buffer
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
 import org.junit.jupiter.api.extension.ExtendWith
 import org.junit.jupiter.api.extension.Extensions
+import org.junit.jupiter.api.io.TempDir
 import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
 import java.io.File
+import java.io.IOException
 import java.util.Locale
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.TimeUnit
@@ -82,9 +90,7 @@ internal class BatchFileDataReaderTest {
         // Given
         val readData = forge.aList { aString().toByteArray(Charsets.UTF_8) }
         whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
-        whenever(
-            mockFileHandler.readData(file)
-        ) doReturn readData
+        stubStreamData(file, readData)
 
         // When
         val result = testedReader.lockAndReadNext()
@@ -92,7 +98,7 @@ internal class BatchFileDataReaderTest {
         // Then
         checkNotNull(result)
         assertThat(result.id).isEqualTo(file.name)
-        assertThat(result.data).isEqualTo(
+        assertThat(result.readContent()).isEqualTo(
             readData.join(
                 fakeDecoration.separatorBytes,
                 fakeDecoration.prefixBytes,
@@ -101,6 +107,43 @@ internal class BatchFileDataReaderTest {
         )
     }
 
+    @Test
+    fun `𝕄 not read the file content 𝕎 lockAndReadNext() {batch not written}`(
+        @Forgery file: File,
+        forge: Forge
+    ) {
+        // Given
+        val readData = forge.aList { aString().toByteArray(Charsets.UTF_8) }
+        whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
+        stubStreamData(file, readData)
+
+        // When
+        val result = testedReader.lockAndReadNext()
+
+        // Then
+        checkNotNull(result)
+        assertThat(result.id).isEqualTo(file.name)
+        verifyZeroInteractions(mockFileHandler)
+    }
+
+    @Test
+    fun `𝕄 throw IOException 𝕎 lockAndReadNext() + writeTo() {file can't be read}`(
+        @Forgery file: File
+    ) {
+        // Given
+        whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
+        whenever(mockFileHandler.streamData(eq(file), any())) doReturn false
+
+        // When
+        val result = testedReader.lockAndReadNext()
+
+        // Then
+        checkNotNull(result)
+        assertThrows<IOException> {
+            result.readContent()
+        }
+    }
+
     @Test
     fun `𝕄 return null 𝕎 lockAndReadNext() {no file}`() {
         // Given
@@ -125,9 +168,7 @@ internal class BatchFileDataReaderTest {
         // Given
         val readData = forge.aList { aString().toByteArray(Charsets.UTF_8) }
         whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
-        whenever(
-            mockFileHandler.readData(file)
-        ) doReturn readData
+        stubStreamData(file, readData)
 
         // When
         val result1 = testedReader.lockAndReadNext()
@@ -138,7 +179,7 @@ internal class BatchFileDataReaderTest {
         // Then
         checkNotNull(result2)
         assertThat(result2.id).isEqualTo(file.name)
-        assertThat(result2.data).isEqualTo(
+        assertThat(result2.readContent()).isEqualTo(
             readData.join(
                 fakeDecoration.separatorBytes,
                 fakeDecoration.prefixBytes,
@@ -156,9 +197,7 @@ internal class BatchFileDataReaderTest {
         // Given
         val readData = forge.aList { aString().toByteArray(Charsets.UTF_8) }
         whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
-        whenever(
-            mockFileHandler.readData(file)
-        ) doReturn readData
+        stubStreamData(file, readData)
         val countDownLatch = CountDownLatch(2)
 
         // When
@@ -180,7 +219,7 @@ internal class BatchFileDataReaderTest {
         val result2 = threadResult
         checkNotNull(result2)
         assertThat(result2.id).isEqualTo(file.name)
-        assertThat(result2.data).isEqualTo(
+        assertThat(result2.readContent()).isEqualTo(
             readData.join(
                 fakeDecoration.separatorBytes,
                 fakeDecoration.prefixBytes,
@@ -198,19 +237,17 @@ internal class BatchFileDataReaderTest {
         // Given
         val readData = forge.aList { aString().toByteArray(Charsets.UTF_8) }
         whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
-        whenever(
-            mockFileHandler.readData(file)
-        ) doReturn readData
+        stubStreamData(file, readData)
 
         // When
         val result1 = testedReader.lockAndReadNext()
-        testedReader.release(Batch(file.name.reversed() + "0", ByteArray(0)))
+        testedReader.release(Batch.fromBytes(file.name.reversed() + "0", ByteArray(0)))
         val result2 = testedReader.lockAndReadNext()
 
         // Then
         checkNotNull(result1)
         assertThat(result1.id).isEqualTo(file.name)
-        assertThat(result1.data).isEqualTo(
+        assertThat(result1.readContent()).isEqualTo(
             readData.join(
                 fakeDecoration.separatorBytes,
                 fakeDecoration.prefixBytes,
@@ -237,7 +274,10 @@ internal class BatchFileDataReaderTest {
             val set = invocation.getArgument<Set<String>>(0)
             files.first { it.name !in set }
         }
-        whenever(mockFileHandler.readData(any())) doReturn readData
+        whenever(mockFileHandler.streamData(any(), any())) doAnswer {
+            readData.forEach(it.getArgument<(ByteArray) -> Unit>(1))
+            true
+        }
         val countDownLatch = CountDownLatch(4)
 
         // When
@@ -267,7 +307,7 @@ internal class BatchFileDataReaderTest {
         @StringForgery fileName: String
     ) {
         // Given
-        val data = Batch(fileName, ByteArray(0))
+        val data = Batch.fromBytes(fileName, ByteArray(0))
 
         // When
         testedReader.release(data)
@@ -291,9 +331,7 @@ internal class BatchFileDataReaderTest {
         // Given
         val readData = forge.aList { aString().toByteArray(Charsets.UTF_8) }
         whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
-        whenever(
-            mockFileHandler.readData(file)
-        ) doReturn readData
+        stubStreamData(file, readData)
         whenever(mockFileHandler.delete(file)) doReturn true
 
         // Then
@@ -313,9 +351,7 @@ internal class BatchFileDataReaderTest {
         // Given
         val readData = forge.aList { aString().toByteArray(Charsets.UTF_8) }
         whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
-        whenever(
-            mockFileHandler.readData(file)
-        ) doReturn readData
+        stubStreamData(file, readData)
         whenever(mockFileHandler.delete(file)) doReturn false
 
         // Then
@@ -336,7 +372,7 @@ internal class BatchFileDataReaderTest {
         @StringForgery fileName: String
     ) {
         // Given
-        val data = Batch(fileName, ByteArray(0))
+        val data = Batch.fromBytes(fileName, ByteArray(0))
 
         // When
         testedReader.drop(data)
@@ -361,9 +397,7 @@ internal class BatchFileDataReaderTest {
         val readData = forge.aList { aString().toByteArray(Charsets.UTF_8) }
         whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
         whenever(mockOrchestrator.getAllFiles()) doReturn emptyList()
-        whenever(
-            mockFileHandler.readData(file)
-        ) doReturn readData
+        stubStreamData(file, readData)
         whenever(mockFileHandler.delete(file)) doReturn true
 
         // Then
@@ -398,8 +432,150 @@ internal class BatchFileDataReaderTest {
 
     // endregion
 
+    // region getBacklog
+
+    @Test
+    fun `𝕄 return files count and size 𝕎 getBacklog()`(
+        @TempDir tempDir: File,
+        forge: Forge
+    ) {
+        // Given
+        val files = forge.aList(forge.anInt(1, 8)) {
+            File(tempDir, anAlphabeticalString()).apply { writeBytes(aString().toByteArray()) }
+        }.distinctBy { it.name }
+        whenever(mockOrchestrator.getAllFiles()) doReturn files
+
+        // When
+        val backlog = testedReader.getBacklog()
+
+        // Then
+        assertThat(backlog).isEqualTo(Backlog(files.size, files.sumOf { it.length() }))
+    }
+
+    @Test
+    fun `𝕄 return empty backlog 𝕎 getBacklog() {no file}`() {
+        // Given
+        whenever(mockOrchestrator.getAllFiles()) doReturn emptyList()
+
+        // When
+        val backlog = testedReader.getBacklog()
+
+        // Then
+        assertThat(backlog).isEqualTo(Backlog())
+    }
+
+    // endregion
+
+    // region compression
+
+    @Test
+    fun `𝕄 read compressed batch 𝕎 lockAndReadNext() {pre-compressed batch}`(
+        @Forgery file: File,
+        @TempDir tempDir: File,
+        @StringForgery content: String
+    ) {
+        // Given
+        val mockCompressor = mock<BatchFileCompressor>()
+        val compressedFile = File(tempDir, file.name + BatchFileCompressor.COMPRESSED_FILE_SUFFIX)
+        compressedFile.writeText(content)
+        whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
+        whenever(mockCompressor.getOrCompress(file)) doReturn compressedFile
+        testedReader = BatchFileDataReader(
+            mockOrchestrator,
+            fakeDecoration,
+            mockFileHandler,
+            Logger(mockLogHandler),
+            mockCompressor
+        )
+
+        // When
+        val result = testedReader.lockAndReadNext()
+
+        // Then
+        checkNotNull(result)
+        assertThat(result.id).isEqualTo(file.name)
+        assertThat(result.isCompressed).isTrue()
+        assertThat(result.readContent()).isEqualTo(content.toByteArray())
+        verifyZeroInteractions(mockFileHandler)
+    }
+
+    @Test
+    fun `𝕄 read raw batch 𝕎 lockAndReadNext() {batch can't be compressed}`(
+        @Forgery file: File,
+        forge: Forge
+    ) {
+        // Given
+        val mockCompressor = mock<BatchFileCompressor>()
+        val readData = forge.aList { aString().toByteArray(Charsets.UTF_8) }
+        whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
+        whenever(mockCompressor.getOrCompress(file)) doReturn null
+        stubStreamData(file, readData)
+        testedReader = BatchFileDataReader(
+            mockOrchestrator,
+            fakeDecoration,
+            mockFileHandler,
+            Logger(mockLogHandler),
+            mockCompressor
+        )
+
+        // When
+        val result = testedReader.lockAndReadNext()
+
+        // Then
+        checkNotNull(result)
+        assertThat(result.isCompressed).isFalse()
+        assertThat(result.readContent()).isEqualTo(
+            readData.join(
+                fakeDecoration.separatorBytes,
+                fakeDecoration.prefixBytes,
+                fakeDecoration.suffixBytes
+            )
+        )
+    }
+
+    @Test
+    fun `𝕄 delete compressed file 𝕎 lockAndReadNext() + drop()`(
+        @Forgery file: File
+    ) {
+        // Given
+        val mockCompressor = mock<BatchFileCompressor>()
+        whenever(mockOrchestrator.getReadableFile(emptySet())) doReturn file
+        whenever(mockFileHandler.delete(file)) doReturn true
+        testedReader = BatchFileDataReader(
+            mockOrchestrator,
+            fakeDecoration,
+            mockFileHandler,
+            Logger(mockLogHandler),
+            mockCompressor
+        )
+
+        // When
+        val result = testedReader.lockAndReadNext()
+        checkNotNull(result)
+        testedReader.drop(result)
+
+        // Then
+        verify(mockCompressor).delete(file)
+        verify(mockFileHandler).delete(file)
+    }
+
+    // endregion
+
     // region private
 
+    private fun stubStreamData(file: File, data: List<ByteArray>) {
+        whenever(mockFileHandler.streamData(eq(file), any())) doAnswer {
+            data.forEach(it.getArgument<(ByteArray) -> Unit>(1))
+            true
+        }
+    }
+
+    private fun Batch.readContent(): ByteArray {
+        val buffer = Buffer()
+        writeTo(buffer)
+        return buffer.readByteArray()
+    }
+
     private fun List<ByteArray>.join(
         separator: ByteArray,
         prefix: ByteArray,
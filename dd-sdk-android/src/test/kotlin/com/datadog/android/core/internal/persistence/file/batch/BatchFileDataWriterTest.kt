@@ -7,6 +7,7 @@
 package com.datadog.android.core.internal.persistence.file.batch
 
 import com.datadog.android.core.internal.persistence.DataWriter
+import com.datadog.android.core.internal.persistence.EventPriority
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.Serializer
 import com.datadog.android.core.internal.persistence.file.FileHandler
@@ -22,10 +23,11 @@ import com.nhaarman.mockitokotlin2.doReturn
 import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.isNull
 import com.nhaarman.mockitokotlin2.same
-import com.nhaarman.mockitokotlin2.times
 import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.Forgery
 import fr.xgouchet.elmyr.annotation.StringForgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
@@ -73,6 +75,7 @@ internal class BatchFileDataWriterTest {
     lateinit var fakeThrowable: Throwable
 
     private val successfulData: MutableList<String> = mutableListOf()
+    private val highPriorityData: MutableSet<String> = mutableSetOf()
     private val failedData: MutableList<String> = mutableListOf()
 
     private val stubReverseSerializerAnswer = Answer<String?> { invocation ->
@@ -96,6 +99,10 @@ internal class BatchFileDataWriterTest {
             mockFileHandler,
             Logger(mockLogHandler)
         ) {
+            override fun getPriority(data: String): EventPriority {
+                return if (data in highPriorityData) EventPriority.HIGH else EventPriority.NORMAL
+            }
+
             override fun onDataWritten(data: String, rawData: ByteArray) {
                 successfulData.add(data)
             }
@@ -109,6 +116,7 @@ internal class BatchFileDataWriterTest {
     @AfterEach
     fun `tear down`() {
         successfulData.clear()
+        highPriorityData.clear()
         failedData.clear()
     }
 
@@ -119,7 +127,7 @@ internal class BatchFileDataWriterTest {
     ) {
         // Given
         val serialized = data.reversed().toByteArray(Charsets.UTF_8)
-        whenever(mockOrchestrator.getWritableFile(any())) doReturn file
+        whenever(mockOrchestrator.getWritableFile(any(), any())) doReturn file
 
         // When
         testedWriter.write(data)
@@ -134,31 +142,194 @@ internal class BatchFileDataWriterTest {
     }
 
     @Test
-    fun `𝕄 write elements to file 𝕎 write(list)`(
-        @StringForgery data: List<String>,
+    fun `𝕄 write serialized element to file 𝕎 write(element, rawData)`(
+        @StringForgery data: String,
+        @StringForgery rawData: String,
+        @Forgery file: File
+    ) {
+        // Given
+        val serialized = rawData.toByteArray(Charsets.UTF_8)
+        whenever(mockOrchestrator.getWritableFile(any(), any())) doReturn file
+        whenever(mockFileHandler.writeData(file, serialized, true)) doReturn true
+
+        // When
+        testedWriter.write(data, serialized)
+
+        // Then
+        verify(mockFileHandler)
+            .writeData(
+                file,
+                serialized,
+                append = true
+            )
+        assertThat(successfulData).containsExactly(data)
+    }
+
+    @Test
+    fun `𝕄 write elements to file in a single write 𝕎 write(list)`(
+        @Forgery file: File,
+        forge: Forge
+    ) {
+        // Given
+        val data = forge.aList(forge.anInt(1, 32)) { anAlphabeticalString() }
+        val serialized = data.map { it.reversed().toByteArray(Charsets.UTF_8) }
+        whenever(mockOrchestrator.getWritableFileForItems(any(), any())) doReturn (file to data.size)
+        whenever(mockFileHandler.writeAllData(any(), any(), any())) doReturn true
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        verify(mockOrchestrator).getWritableFileForItems(
+            serialized.map { it.size },
+            EventPriority.NORMAL
+        )
+        argumentCaptor<List<ByteArray>> {
+            verify(mockFileHandler).writeAllData(same(file), capture(), append = eq(true))
+            assertThat(firstValue).containsExactlyElementsOf(serialized)
+        }
+        verifyNoMoreInteractions(mockOrchestrator, mockFileHandler)
+        assertThat(successfulData).containsExactlyElementsOf(data)
+        assertThat(failedData).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 rotate file mid list 𝕎 write(list) {batch limit crossed}`(
+        @Forgery file: File,
+        @Forgery otherFile: File,
+        forge: Forge
+    ) {
+        // Given
+        val data = forge.aList(forge.anInt(2, 32)) { anAlphabeticalString() }
+        val serialized = data.map { it.reversed().toByteArray(Charsets.UTF_8) }
+        val firstCount = forge.anInt(1, data.size)
+        whenever(mockOrchestrator.getWritableFileForItems(any(), any()))
+            .doReturn(file to firstCount, otherFile to data.size - firstCount)
+        whenever(mockFileHandler.writeAllData(any(), any(), any())) doReturn true
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        verify(mockOrchestrator).getWritableFileForItems(
+            serialized.map { it.size },
+            EventPriority.NORMAL
+        )
+        verify(mockOrchestrator).getWritableFileForItems(
+            serialized.drop(firstCount).map { it.size },
+            EventPriority.NORMAL
+        )
+        argumentCaptor<List<ByteArray>> {
+            verify(mockFileHandler).writeAllData(same(file), capture(), append = eq(true))
+            verify(mockFileHandler).writeAllData(same(otherFile), capture(), append = eq(true))
+            assertThat(firstValue).containsExactlyElementsOf(serialized.take(firstCount))
+            assertThat(secondValue).containsExactlyElementsOf(serialized.drop(firstCount))
+        }
+        assertThat(successfulData).containsExactlyElementsOf(data)
+        assertThat(failedData).isEmpty()
+    }
+
+    @Test
+    fun `𝕄 skip first element 𝕎 write(list) {no writable file for first element}`(
+        @Forgery file: File,
+        forge: Forge
+    ) {
+        // Given
+        val data = forge.aList(forge.anInt(2, 32)) { anAlphabeticalString() }
+        val serialized = data.map { it.reversed().toByteArray(Charsets.UTF_8) }
+        whenever(mockOrchestrator.getWritableFileForItems(any(), any()))
+            .doReturn(null, file to data.size - 1)
+        whenever(mockFileHandler.writeAllData(any(), any(), any())) doReturn true
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        argumentCaptor<List<ByteArray>> {
+            verify(mockFileHandler).writeAllData(same(file), capture(), append = eq(true))
+            assertThat(firstValue).containsExactlyElementsOf(serialized.drop(1))
+        }
+        assertThat(successfulData).containsExactlyElementsOf(data.drop(1))
+        assertThat(failedData).containsExactly(data.first())
+    }
+
+    @Test
+    fun `𝕄 notify failure 𝕎 write(list) { writing failure }`(
+        @Forgery file: File,
+        forge: Forge
+    ) {
+        // Given
+        val data = forge.aList(forge.anInt(1, 32)) { anAlphabeticalString() }
+        whenever(mockOrchestrator.getWritableFileForItems(any(), any())) doReturn (file to data.size)
+        whenever(mockFileHandler.writeAllData(any(), any(), any())) doReturn false
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        assertThat(successfulData).isEmpty()
+        assertThat(failedData).containsExactlyElementsOf(data)
+    }
+
+    @Test
+    fun `𝕄 write element to a high priority file 𝕎 write(element) {high priority}`(
+        @StringForgery data: String,
         @Forgery file: File
     ) {
         // Given
-        whenever(mockOrchestrator.getWritableFile(any())) doReturn file
+        highPriorityData.add(data)
+        val serialized = data.reversed().toByteArray(Charsets.UTF_8)
+        whenever(mockOrchestrator.getWritableFile(any(), any())) doReturn file
 
         // When
         testedWriter.write(data)
 
         // Then
-        argumentCaptor<ByteArray> {
-            verify(mockFileHandler, times(data.size))
-                .writeData(
-                    same(file),
-                    capture(),
-                    append = eq(true)
-                )
-            assertThat(allValues)
-                .containsExactlyElementsOf(
-                    data.map {
-                        it.reversed().toByteArray(Charsets.UTF_8)
-                    }
-                )
+        verify(mockOrchestrator).getWritableFile(serialized.size, EventPriority.HIGH)
+        verify(mockFileHandler).writeData(file, serialized, append = true)
+    }
+
+    @Test
+    fun `𝕄 write elements to separate files by priority 𝕎 write(list) {mixed priorities}`(
+        @Forgery highPriorityFile: File,
+        @Forgery normalPriorityFile: File,
+        forge: Forge
+    ) {
+        // Given
+        val normalData = forge.aList(forge.anInt(1, 16)) { "n" + anAlphabeticalString() }
+        val highData = forge.aList(forge.anInt(1, 16)) { "h" + anAlphabeticalString() }
+        highPriorityData.addAll(highData)
+        val data = (normalData + highData).shuffled()
+        val serializedNormal = data.filter { it !in highPriorityData }
+            .map { it.reversed().toByteArray(Charsets.UTF_8) }
+        val serializedHigh = data.filter { it in highPriorityData }
+            .map { it.reversed().toByteArray(Charsets.UTF_8) }
+        whenever(mockOrchestrator.getWritableFileForItems(any(), eq(EventPriority.HIGH)))
+            .doReturn(highPriorityFile to highData.size)
+        whenever(mockOrchestrator.getWritableFileForItems(any(), eq(EventPriority.NORMAL)))
+            .doReturn(normalPriorityFile to normalData.size)
+        whenever(mockFileHandler.writeAllData(any(), any(), any())) doReturn true
+
+        // When
+        testedWriter.write(data)
+
+        // Then
+        argumentCaptor<List<ByteArray>> {
+            verify(mockFileHandler).writeAllData(
+                same(highPriorityFile),
+                capture(),
+                append = eq(true)
+            )
+            verify(mockFileHandler).writeAllData(
+                same(normalPriorityFile),
+                capture(),
+                append = eq(true)
+            )
+            assertThat(firstValue).containsExactlyElementsOf(serializedHigh)
+            assertThat(secondValue).containsExactlyElementsOf(serializedNormal)
         }
+        assertThat(successfulData).containsExactlyInAnyOrderElementsOf(data)
+        assertThat(failedData).isEmpty()
     }
 
     @Test
@@ -168,7 +339,7 @@ internal class BatchFileDataWriterTest {
     ) {
         // Given
         whenever(mockFileHandler.writeData(any(), any(), any())) doReturn true
-        whenever(mockOrchestrator.getWritableFile(any())) doReturn file
+        whenever(mockOrchestrator.getWritableFile(any(), any())) doReturn file
 
         // When
         testedWriter.write(data)
@@ -185,7 +356,7 @@ internal class BatchFileDataWriterTest {
     ) {
         // Given
         whenever(mockFileHandler.writeData(any(), any(), any())) doReturn false
-        whenever(mockOrchestrator.getWritableFile(any())) doReturn file
+        whenever(mockOrchestrator.getWritableFile(any(), any())) doReturn file
 
         // When
         testedWriter.write(data)
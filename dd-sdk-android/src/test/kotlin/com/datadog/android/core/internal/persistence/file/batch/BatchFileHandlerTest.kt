@@ -42,6 +42,7 @@ import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
 import java.io.File
+import java.nio.ByteBuffer
 import java.util.Locale
 
 @Extensions(
@@ -230,42 +231,6 @@ internal class BatchFileHandlerTest {
         )
     }
 
-    @Test
-    fun `𝕄 return false and warn 𝕎 writeData() { meta is too big }`(
-        @StringForgery fileName: String,
-        @StringForgery content: String,
-        @BoolForgery append: Boolean,
-        forge: Forge
-    ) {
-        // Given
-        testedFileHandler = BatchFileHandler(
-            Logger(logger.mockSdkLogHandler),
-            metaGenerator = {
-                ByteArray(BatchFileHandler.MAX_META_SIZE_BYTES + forge.aTinyInt())
-            }
-        )
-        val file = File(fakeRootDirectory, fileName)
-        file.createNewFile()
-
-        // When
-        val result = testedFileHandler.writeData(
-            file,
-            content.toByteArray(),
-            append = append
-        )
-
-        // Then
-        assertThat(result).isFalse()
-        verify(logger.mockSdkLogHandler).handleLog(
-            eq(ERROR_WITH_TELEMETRY_LEVEL),
-            eq(BatchFileHandler.ERROR_WRITE.format(Locale.US, file.path)),
-            isA<BatchFileHandler.MetaTooBigException>(),
-            eq(emptyMap()),
-            eq(emptySet()),
-            isNull()
-        )
-    }
-
     // endregion
 
     // region readData
@@ -384,14 +349,14 @@ internal class BatchFileHandlerTest {
 
         file.writeBytes(
             events.map {
-                headerBytes(it) + it
+                legacyHeaderBytes(it) + it
             }.reduce { acc, bytes -> acc + bytes }
         )
 
         val malformedMetaIndex = forge.anInt(min = 0, max = events.size)
         testedFileHandler = BatchFileHandler(
             Logger(logger.mockSdkLogHandler),
-            metaParser = object : (ByteArray) -> EventMeta {
+            legacyMetaParser = object : (ByteArray) -> EventMeta {
                 var invocations = 0
 
                 override fun invoke(metaBytes: ByteArray): EventMeta {
@@ -485,6 +450,229 @@ internal class BatchFileHandlerTest {
         assertThat(result).containsExactlyElementsOf(events)
     }
 
+    @Test
+    fun `𝕄 return file content 𝕎 readData() { legacy header }`(
+        @StringForgery fileName: String,
+        forge: Forge
+    ) {
+        // Given
+        val file = File(fakeRootDirectory, fileName)
+        val events = forge.aList {
+            aString().toByteArray()
+        }
+        file.writeBytes(
+            events.map { legacyHeaderBytes(it) + it }.reduce { acc, bytes -> acc + bytes }
+        )
+
+        // When
+        val result = testedFileHandler.readData(file)
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(events)
+    }
+
+    @Test
+    fun `𝕄 return file content 𝕎 readData() { mixed header versions }`(
+        @StringForgery fileName: String,
+        forge: Forge
+    ) {
+        // Given
+        val file = File(fakeRootDirectory, fileName)
+        val legacyEvents = forge.aList {
+            aString().toByteArray()
+        }
+        val events = forge.aList {
+            aString().toByteArray()
+        }
+        file.writeBytes(
+            legacyEvents.map { legacyHeaderBytes(it) + it }.reduce { acc, bytes -> acc + bytes }
+        )
+
+        // When
+        events.forEach { testedFileHandler.writeData(file, it, append = true) }
+        val result = testedFileHandler.readData(file)
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(legacyEvents + events)
+    }
+
+    @Test
+    fun `𝕄 return valid events read so far and warn 𝕎 readData() { unknown header version }`(
+        @StringForgery fileName: String,
+        @IntForgery(min = 3, max = 256) unknownVersion: Int,
+        forge: Forge
+    ) {
+        // Given
+        val file = File(fakeRootDirectory, fileName)
+        val events = forge.aList {
+            aString().toByteArray()
+        }
+        val unknownEvent = forge.aString().toByteArray()
+        val unknownHeader = headerBytes(unknownEvent).apply { set(0, unknownVersion.toByte()) }
+        file.writeBytes(
+            events.map { headerBytes(it) + it }.reduce { acc, bytes -> acc + bytes } +
+                unknownHeader + unknownEvent
+        )
+
+        // When
+        val result = testedFileHandler.readData(file)
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(events)
+        verify(logger.mockSdkLogHandler).handleLog(
+            Log.ERROR,
+            BatchFileHandler.ERROR_UNKNOWN_HEADER_VERSION.format(Locale.US, unknownVersion)
+        )
+    }
+
+    @Test
+    fun `𝕄 return valid events read so far and warn 𝕎 readData() { negative event size }`(
+        @StringForgery fileName: String,
+        @IntForgery(max = 0) invalidSize: Int,
+        forge: Forge
+    ) {
+        // Given
+        val file = File(fakeRootDirectory, fileName)
+        val events = forge.aList {
+            aString().toByteArray()
+        }
+        val invalidHeader = ByteBuffer.allocate(BatchFileHandler.HEADER_SIZE_BYTES)
+            .put(BatchFileHandler.HEADER_VERSION)
+            .putInt(invalidSize)
+            .array()
+        file.writeBytes(
+            events.map { headerBytes(it) + it }.reduce { acc, bytes -> acc + bytes } +
+                invalidHeader + forge.aString().toByteArray()
+        )
+
+        // When
+        val result = testedFileHandler.readData(file)
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(events)
+        verify(logger.mockSdkLogHandler).handleLog(
+            Log.ERROR,
+            BatchFileHandler.ERROR_INVALID_EVENT_SIZE.format(Locale.US, invalidSize)
+        )
+    }
+
+    @Test
+    fun `𝕄 return valid events read so far and warn 𝕎 readData() { event size exceeds file }`(
+        @StringForgery fileName: String,
+        @IntForgery(min = 1024) invalidSize: Int,
+        forge: Forge
+    ) {
+        // Given
+        val file = File(fakeRootDirectory, fileName)
+        val events = forge.aList {
+            aString().toByteArray()
+        }
+        val invalidHeader = ByteBuffer.allocate(BatchFileHandler.HEADER_SIZE_BYTES)
+            .put(BatchFileHandler.HEADER_VERSION)
+            .putInt(invalidSize)
+            .array()
+        val trailingBytes = forge.aString(size = forge.anInt(0, 512)).toByteArray()
+        file.writeBytes(
+            events.map { headerBytes(it) + it }.reduce { acc, bytes -> acc + bytes } +
+                invalidHeader + trailingBytes
+        )
+
+        // When
+        val result = testedFileHandler.readData(file)
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(events)
+        verify(logger.mockSdkLogHandler).handleLog(
+            Log.ERROR,
+            BatchFileHandler.ERROR_EVENT_SIZE_EXCEEDS_FILE
+                .format(Locale.US, invalidSize, trailingBytes.size)
+        )
+        verify(logger.mockSdkLogHandler).handleLog(
+            ERROR_WITH_TELEMETRY_LEVEL,
+            BatchFileHandler.WARNING_NOT_ALL_DATA_READ.format(Locale.US, file.path)
+        )
+    }
+
+    @Test
+    fun `𝕄 return valid events read so far 𝕎 readData() { legacy event size exceeds file }`(
+        @StringForgery fileName: String,
+        @IntForgery(min = 1024) invalidSize: Int,
+        forge: Forge
+    ) {
+        // Given
+        val file = File(fakeRootDirectory, fileName)
+        val events = forge.aList {
+            aString().toByteArray()
+        }
+        val invalidMeta = EventMeta(eventSize = invalidSize).asBytes
+        val invalidHeader = byteArrayOf(
+            BatchFileHandler.LEGACY_HEADER_VERSION,
+            invalidMeta.size.toByte()
+        ) + invalidMeta
+        val trailingBytes = forge.aString(size = forge.anInt(0, 512)).toByteArray()
+        file.writeBytes(
+            events.map { legacyHeaderBytes(it) + it }.reduce { acc, bytes -> acc + bytes } +
+                invalidHeader + trailingBytes
+        )
+
+        // When
+        val result = testedFileHandler.readData(file)
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(events)
+        verify(logger.mockSdkLogHandler).handleLog(
+            Log.ERROR,
+            BatchFileHandler.ERROR_EVENT_SIZE_EXCEEDS_FILE
+                .format(Locale.US, invalidSize, trailingBytes.size)
+        )
+    }
+
+    @Test
+    fun `𝕄 stream file content 𝕎 streamData()`(
+        @StringForgery fileName: String,
+        forge: Forge
+    ) {
+        // Given
+        val file = File(fakeRootDirectory, fileName)
+        val events = forge.aList {
+            aString().toByteArray()
+        }
+        file.writeBytes(events.map { headerBytes(it) + it }.reduce { acc, bytes -> acc + bytes })
+
+        // When
+        val result = mutableListOf<ByteArray>()
+        val isRead = testedFileHandler.streamData(file) { result.add(it) }
+
+        // Then
+        assertThat(isRead).isTrue()
+        assertThat(result).containsExactlyElementsOf(events)
+    }
+
+    @Test
+    fun `𝕄 return false and warn 𝕎 streamData() {file does not exist}`(
+        @StringForgery fileName: String
+    ) {
+        // Given
+        val file = File(fakeRootDirectory, fileName)
+        assumeFalse(file.exists())
+
+        // When
+        val result = mutableListOf<ByteArray>()
+        val isRead = testedFileHandler.streamData(file) { result.add(it) }
+
+        // Then
+        assertThat(isRead).isFalse()
+        assertThat(result).isEmpty()
+        verify(logger.mockSdkLogHandler).handleLog(
+            eq(ERROR_WITH_TELEMETRY_LEVEL),
+            eq(BatchFileHandler.ERROR_READ.format(Locale.US, file.path)),
+            any(),
+            eq(emptyMap()),
+            eq(emptySet()),
+            isNull()
+        )
+    }
+
     // endregion
 
     // region writeData + readData
@@ -528,6 +716,51 @@ internal class BatchFileHandlerTest {
         assertThat(readResult).containsExactlyElementsOf(data)
     }
 
+    @Test
+    fun `𝕄 return file content 𝕎 writeAllData + readData() { append = true }`(
+        @StringForgery fileName: String,
+        @StringForgery previousContent: String,
+        forge: Forge
+    ) {
+        // Given
+        val file = File(fakeRootDirectory, fileName)
+        testedFileHandler.writeData(file, previousContent.toByteArray(), true)
+        val data = forge.aList {
+            aString().toByteArray()
+        }
+
+        // When
+        val writeResult = testedFileHandler.writeAllData(file, data, true)
+        val readResult = testedFileHandler.readData(file)
+
+        // Then
+        assertThat(writeResult).isTrue()
+        assertThat(readResult)
+            .containsExactlyElementsOf(listOf(previousContent.toByteArray()) + data)
+    }
+
+    @Test
+    fun `𝕄 return file content 𝕎 writeAllData + readData() { append = false }`(
+        @StringForgery fileName: String,
+        @StringForgery previousContent: String,
+        forge: Forge
+    ) {
+        // Given
+        val file = File(fakeRootDirectory, fileName)
+        testedFileHandler.writeData(file, previousContent.toByteArray(), true)
+        val data = forge.aList {
+            aString().toByteArray()
+        }
+
+        // When
+        val writeResult = testedFileHandler.writeAllData(file, data, false)
+        val readResult = testedFileHandler.readData(file)
+
+        // Then
+        assertThat(writeResult).isTrue()
+        assertThat(readResult).containsExactlyElementsOf(data)
+    }
+
     // endregion
 
     // region delete
@@ -749,15 +982,56 @@ internal class BatchFileHandlerTest {
         }
     }
 
+    @Test
+    fun `𝕄 create PersistentChannelFileHandler 𝕎 create() { persistent channel }`() {
+        // When
+        val fileHandler = BatchFileHandler.create(
+            Logger(logger.mockSdkLogHandler),
+            null,
+            persistentChannel = true
+        )
+
+        // Then
+        assertThat(fileHandler)
+            .isInstanceOf(PersistentChannelFileHandler::class.java)
+    }
+
+    @Test
+    fun `𝕄 create PersistentChannelFileHandler 𝕎 create() { persistent channel, encryption }`() {
+        // When
+        val mockEncryption = mock<Encryption>()
+        val fileHandler = BatchFileHandler.create(
+            Logger(logger.mockSdkLogHandler),
+            mockEncryption,
+            persistentChannel = true
+        )
+
+        // Then
+        assertThat(fileHandler)
+            .isInstanceOf(EncryptedFileHandler::class.java)
+
+        (fileHandler as EncryptedFileHandler).let {
+            assertThat(it.delegate).isInstanceOf(PersistentChannelFileHandler::class.java)
+            assertThat(it.encryption).isEqualTo(mockEncryption)
+        }
+    }
+
     // endregion
 
     // region private
 
     private fun headerBytes(data: ByteArray): ByteArray {
+        return ByteBuffer.allocate(BatchFileHandler.HEADER_SIZE_BYTES)
+            .put(BatchFileHandler.HEADER_VERSION)
+            .putInt(data.size)
+            .array()
+    }
+
+    private fun legacyHeaderBytes(data: ByteArray): ByteArray {
         val meta = EventMeta(eventSize = data.size).asBytes
 
         return ByteArray(2).apply {
-            set(0, BatchFileHandler.HEADER_VERSION)
+            set(0, BatchFileHandler.LEGACY_HEADER_VERSION)
             set(1, meta.size.toByte())
         } + meta
     }
@@ -6,6 +6,7 @@
 
 package com.datadog.android.core.internal.persistence.file.batch
 
+import com.datadog.android.core.internal.persistence.EventPriority
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
 import com.datadog.android.core.internal.persistence.file.FilePersistenceConfig
 import com.datadog.android.log.Logger
@@ -443,6 +444,249 @@ internal class BatchFileOrchestratorTest {
         )
     }
 
+    @Test
+    fun `𝕄 not discard File 𝕎 getWritableFile() {previous files were deleted by another component}`(
+        @StringForgery(size = MAX_BATCH_SIZE) previousData: String,
+        @IntForgery(min = 1, max = MAX_ITEM_SIZE) dataSize: Int
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val filesCount = MAX_DISK_SPACE / MAX_BATCH_SIZE
+        val files = (0..filesCount).map {
+            val file = testedOrchestrator.getWritableFile(1)
+            checkNotNull(file)
+            file.writeText(previousData)
+            Thread.sleep(1)
+            file
+        }
+        files.take(2).forEach { it.delete() }
+
+        // When
+        val result = testedOrchestrator.getWritableFile(dataSize)
+
+        // Then
+        checkNotNull(result)
+        assertThat(result)
+            .doesNotExist()
+            .hasParent(fakeRootDir)
+        files.drop(2).forEach { assertThat(it).exists() }
+        verifyZeroInteractions(mockLogHandler)
+    }
+
+    @Test
+    fun `𝕄 discard File 𝕎 getWritableFile() {previous files and sidecars take too much space}`(
+        @StringForgery(size = MAX_BATCH_SIZE) previousData: String,
+        @StringForgery(size = MAX_BATCH_SIZE / 2) sidecarData: String,
+        @IntForgery(min = 1, max = MAX_ITEM_SIZE) dataSize: Int
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val filesCount = (MAX_DISK_SPACE / MAX_BATCH_SIZE) - 1
+        val now = System.currentTimeMillis()
+        val files = (1..filesCount).map {
+            val file = File(fakeRootDir, (now - RECENT_DELAY_MS + it).toString())
+            file.writeText(previousData)
+            BatchFileCompressor.compressedFileOf(file).writeText(sidecarData)
+            file
+        }
+        val sizeOnDisk = files.size * (previousData.length + sidecarData.length)
+
+        // When
+        val result = testedOrchestrator.getWritableFile(dataSize)
+
+        // Then
+        checkNotNull(result)
+        assertThat(files.first()).doesNotExist()
+        assertThat(BatchFileCompressor.compressedFileOf(files.first())).doesNotExist()
+        files.drop(1).forEach { assertThat(it).exists() }
+        verify(mockLogHandler).handleLog(
+            ERROR_WITH_TELEMETRY_LEVEL,
+            BatchFileOrchestrator.ERROR_DISK_FULL.format(
+                Locale.US,
+                sizeOnDisk,
+                MAX_DISK_SPACE,
+                sizeOnDisk - MAX_DISK_SPACE
+            )
+        )
+    }
+
+    @Test
+    fun `𝕄 purge orphan sidecars 𝕎 getWritableFile() {first call}`(
+        @IntForgery(min = 1, max = MAX_ITEM_SIZE) dataSize: Int
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val now = System.currentTimeMillis()
+        val batchFile = File(fakeRootDir, (now - RECENT_DELAY_MS).toString())
+        batchFile.createNewFile()
+        val sidecar = BatchFileCompressor.compressedFileOf(batchFile)
+        sidecar.createNewFile()
+        val orphanSidecars = listOf(
+            File(fakeRootDir, "${now - RECENT_DELAY_MS - 1}.gz"),
+            File(fakeRootDir, "${now - RECENT_DELAY_MS - 2}_high.gz"),
+            File(fakeRootDir, "${batchFile.name}.gz.tmp"),
+            File(fakeRootDir, "${now - RECENT_DELAY_MS - 3}_high.gz.tmp")
+        )
+        orphanSidecars.forEach { it.createNewFile() }
+
+        // When
+        testedOrchestrator.getWritableFile(dataSize)
+
+        // Then
+        assertThat(batchFile).exists()
+        assertThat(sidecar).exists()
+        orphanSidecars.forEach { assertThat(it).doesNotExist() }
+    }
+
+    @Test
+    fun `𝕄 delete obsolete files 𝕎 getWritableFile() {files written in this session}`(
+        @StringForgery(size = SMALL_ITEM_SIZE) previousData: String,
+        @IntForgery(min = 1, max = SMALL_ITEM_SIZE) dataSize: Int
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val previousFile = testedOrchestrator.getWritableFile(previousData.length)
+        checkNotNull(previousFile)
+        previousFile.writeText(previousData)
+        Thread.sleep(OLD_FILE_THRESHOLD + 1)
+
+        // When
+        val result = testedOrchestrator.getWritableFile(dataSize)
+
+        // Then
+        checkNotNull(result)
+        assertThat(result).isNotEqualTo(previousFile)
+        assertThat(previousFile).doesNotExist()
+    }
+
+    // endregion
+
+    // region getWritableFileForItems
+
+    @Test
+    fun `𝕄 return null 𝕎 getWritableFileForItems() {empty list}`() {
+        // When
+        val result = testedOrchestrator.getWritableFileForItems(emptyList())
+
+        // Then
+        assertThat(result).isNull()
+    }
+
+    @Test
+    fun `𝕄 warn 𝕎 getWritableFileForItems() {first item is too big}`(
+        @IntForgery(min = MAX_ITEM_SIZE + 1, max = MAX_BATCH_SIZE) dataSize: Int,
+        forge: Forge
+    ) {
+        // Given
+        val dataSizes = listOf(dataSize) + forge.aList { anInt(1, SMALL_ITEM_SIZE) }
+
+        // When
+        val result = testedOrchestrator.getWritableFileForItems(dataSizes)
+
+        // Then
+        assertThat(result).isNull()
+        verify(mockLogHandler).handleLog(
+            ERROR_WITH_TELEMETRY_LEVEL,
+            BatchFileOrchestrator.ERROR_LARGE_DATA.format(Locale.US, dataSize, MAX_ITEM_SIZE)
+        )
+    }
+
+    @Test
+    fun `𝕄 return new File for all items 𝕎 getWritableFileForItems() {no available file}`(
+        forge: Forge
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val dataSizes = forge.aList(forge.anInt(1, MAX_ITEM_PER_BATCH)) {
+            anInt(1, SMALL_ITEM_SIZE)
+        }
+
+        // When
+        val start = System.currentTimeMillis()
+        val result = testedOrchestrator.getWritableFileForItems(dataSizes)
+        val end = System.currentTimeMillis()
+
+        // Then
+        checkNotNull(result)
+        val (file, itemCount) = result
+        assertThat(itemCount).isEqualTo(dataSizes.size)
+        assertThat(file)
+            .doesNotExist()
+            .hasParent(fakeRootDir)
+        assertThat(file.name.toLong())
+            .isBetween(start, end)
+    }
+
+    @Test
+    fun `𝕄 return existing File 𝕎 getWritableFileForItems() {recent file with spare space}`(
+        @StringForgery(size = SMALL_ITEM_SIZE) previousData: String,
+        forge: Forge
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val previousFile = testedOrchestrator.getWritableFile(previousData.length)
+        checkNotNull(previousFile)
+        previousFile.writeText(previousData)
+        val dataSizes = forge.aList(forge.anInt(1, MAX_ITEM_PER_BATCH - 1)) {
+            anInt(1, SMALL_ITEM_SIZE)
+        }
+        Thread.sleep(1)
+
+        // When
+        val result = testedOrchestrator.getWritableFileForItems(dataSizes)
+
+        // Then
+        checkNotNull(result)
+        assertThat(result.first).isEqualTo(previousFile)
+        assertThat(result.second).isEqualTo(dataSizes.size)
+    }
+
+    @Test
+    fun `𝕄 return partial item count 𝕎 getWritableFileForItems() {too many items}`(
+        forge: Forge
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val dataSizes = forge.aList(MAX_ITEM_PER_BATCH + forge.anInt(1, MAX_ITEM_PER_BATCH)) {
+            anInt(1, SMALL_ITEM_SIZE)
+        }
+
+        // When
+        val result = testedOrchestrator.getWritableFileForItems(dataSizes)
+        checkNotNull(result).first.writeText("a".repeat(dataSizes.take(result.second).sum()))
+        Thread.sleep(1)
+        val nextResult = testedOrchestrator.getWritableFileForItems(
+            dataSizes.drop(result.second)
+        )
+
+        // Then
+        assertThat(result.second).isEqualTo(MAX_ITEM_PER_BATCH)
+        checkNotNull(nextResult)
+        assertThat(nextResult.first).isNotEqualTo(result.first)
+        assertThat(nextResult.second).isEqualTo(dataSizes.size - MAX_ITEM_PER_BATCH)
+    }
+
+    @Test
+    fun `𝕄 stop before too big item 𝕎 getWritableFileForItems() {item too big mid list}`(
+        @IntForgery(min = MAX_ITEM_SIZE + 1, max = MAX_BATCH_SIZE) bigDataSize: Int,
+        forge: Forge
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val leadingSizes = forge.aList(forge.anInt(1, MAX_ITEM_PER_BATCH / 2)) {
+            anInt(1, SMALL_ITEM_SIZE)
+        }
+
+        // When
+        val result = testedOrchestrator.getWritableFileForItems(
+            leadingSizes + bigDataSize + forge.aList { anInt(1, SMALL_ITEM_SIZE) }
+        )
+
+        // Then
+        checkNotNull(result)
+        assertThat(result.second).isEqualTo(leadingSizes.size)
+    }
+
     // endregion
 
     // region getReadableFile
@@ -614,6 +858,144 @@ internal class BatchFileOrchestratorTest {
         assertThat(result).isNull()
     }
 
+    @Test
+    fun `𝕄 skip deleted files 𝕎 getReadableFile() {indexed file deleted}`() {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val timestamp = System.currentTimeMillis() - (RECENT_DELAY_MS * 2)
+        val firstFile = File(fakeRootDir, (timestamp - 1).toString())
+        firstFile.createNewFile()
+        val secondFile = File(fakeRootDir, timestamp.toString())
+        secondFile.createNewFile()
+        testedOrchestrator.getReadableFile(emptySet())
+        firstFile.delete()
+
+        // When
+        val result = testedOrchestrator.getReadableFile(emptySet())
+
+        // Then
+        assertThat(result).isEqualTo(secondFile)
+    }
+
+    @Test
+    fun `𝕄 use the index 𝕎 getReadableFile() {index synced recently}`() {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        testedOrchestrator.getReadableFile(emptySet())
+        val timestamp = System.currentTimeMillis() - (RECENT_DELAY_MS * 2)
+        val file = File(fakeRootDir, timestamp.toString())
+        file.createNewFile()
+
+        // When
+        val result = testedOrchestrator.getReadableFile(emptySet())
+
+        // Then
+        // the file appeared behind the orchestrator's back, it'll be found on the next sync
+        assertThat(result).isNull()
+    }
+
+    // endregion
+
+    // region priority lanes
+
+    @Test
+    fun `𝕄 return new high priority File 𝕎 getWritableFile() {high priority}`(
+        @IntForgery(min = 1, max = SMALL_ITEM_SIZE) dataSize: Int
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+
+        // When
+        val start = System.currentTimeMillis()
+        val result = testedOrchestrator.getWritableFile(dataSize, EventPriority.HIGH)
+        val end = System.currentTimeMillis()
+
+        // Then
+        checkNotNull(result)
+        assertThat(result)
+            .doesNotExist()
+            .hasParent(fakeRootDir)
+        assertThat(result.name).endsWith(BatchFileOrchestrator.HIGH_PRIORITY_SUFFIX)
+        assertThat(result.name.removeSuffix(BatchFileOrchestrator.HIGH_PRIORITY_SUFFIX).toLong())
+            .isBetween(start, end)
+    }
+
+    @Test
+    fun `𝕄 write each priority in its own File 𝕎 getWritableFile() {interleaved priorities}`(
+        @StringForgery(size = SMALL_ITEM_SIZE) previousData: String,
+        @IntForgery(min = 1, max = SMALL_ITEM_SIZE) dataSize: Int
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val normalFile = testedOrchestrator.getWritableFile(dataSize, EventPriority.NORMAL)
+        checkNotNull(normalFile)
+        normalFile.writeText(previousData)
+        val highFile = testedOrchestrator.getWritableFile(dataSize, EventPriority.HIGH)
+        checkNotNull(highFile)
+        highFile.writeText(previousData)
+
+        // When
+        val nextNormalFile = testedOrchestrator.getWritableFile(dataSize, EventPriority.NORMAL)
+        val nextHighFile = testedOrchestrator.getWritableFile(dataSize, EventPriority.HIGH)
+
+        // Then
+        assertThat(highFile).isNotEqualTo(normalFile)
+        assertThat(nextNormalFile).isEqualTo(normalFile)
+        assertThat(nextHighFile).isEqualTo(highFile)
+    }
+
+    @Test
+    fun `𝕄 return high priority file first 𝕎 getReadableFile()`() {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val timestamp = System.currentTimeMillis() - (RECENT_DELAY_MS * 2)
+        val normalFile = File(fakeRootDir, (timestamp - 1).toString())
+        normalFile.createNewFile()
+        val highFile = File(
+            fakeRootDir,
+            timestamp.toString() + BatchFileOrchestrator.HIGH_PRIORITY_SUFFIX
+        )
+        highFile.createNewFile()
+
+        // When
+        val result = testedOrchestrator.getReadableFile(emptySet())
+        val nextResult = testedOrchestrator.getReadableFile(setOf(highFile))
+
+        // Then
+        assertThat(result).isEqualTo(highFile)
+        assertThat(nextResult).isEqualTo(normalFile)
+    }
+
+    @Test
+    fun `𝕄 discard normal priority Files first 𝕎 getWritableFile() {too much disk space}`(
+        @StringForgery(size = MAX_BATCH_SIZE) previousData: String,
+        @IntForgery(min = 1, max = MAX_ITEM_SIZE) dataSize: Int
+    ) {
+        // Given
+        assumeTrue(fakeRootDir.listFiles().isNullOrEmpty())
+        val highFile = testedOrchestrator.getWritableFile(1, EventPriority.HIGH)
+        checkNotNull(highFile)
+        highFile.writeText(previousData)
+        Thread.sleep(1)
+        val filesCount = MAX_DISK_SPACE / MAX_BATCH_SIZE
+        val normalFiles = (1..filesCount).map {
+            val file = testedOrchestrator.getWritableFile(1, EventPriority.NORMAL)
+            checkNotNull(file)
+            file.writeText(previousData)
+            Thread.sleep(1)
+            file
+        }
+
+        // When
+        val result = testedOrchestrator.getWritableFile(dataSize, EventPriority.NORMAL)
+
+        // Then
+        checkNotNull(result)
+        assertThat(highFile).exists()
+        assertThat(normalFiles.first()).doesNotExist()
+        normalFiles.drop(1).forEach { assertThat(it).exists() }
+    }
+
     // endregion
 
     // region getAllFiles
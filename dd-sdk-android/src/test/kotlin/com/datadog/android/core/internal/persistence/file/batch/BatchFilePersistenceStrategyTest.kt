@@ -6,18 +6,25 @@
 
 package com.datadog.android.core.internal.persistence.file.batch
 
+import com.datadog.android.core.configuration.BufferOverflowPolicy
 import com.datadog.android.core.internal.data.upload.DataFlusher
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.PersistenceStrategy
 import com.datadog.android.core.internal.persistence.Serializer
 import com.datadog.android.core.internal.persistence.file.FileHandler
 import com.datadog.android.core.internal.persistence.file.FileOrchestrator
-import com.datadog.android.core.internal.persistence.file.advanced.ScheduledWriter
+import com.datadog.android.core.internal.persistence.file.advanced.RingBufferWriter
+import com.datadog.android.core.internal.privacy.ConsentProvider
 import com.datadog.android.log.Logger
 import com.datadog.android.log.internal.logger.LogHandler
+import com.datadog.android.privacy.TrackingConsent
 import com.datadog.android.utils.forge.Configurator
 import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
 import fr.xgouchet.elmyr.annotation.Forgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
@@ -32,6 +39,7 @@ import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.ScheduledExecutorService
 
 @Extensions(
     ExtendWith(MockitoExtension::class),
@@ -55,6 +63,9 @@ internal class BatchFilePersistenceStrategyTest {
     @Mock
     lateinit var mockExecutorService: ExecutorService
 
+    @Mock
+    lateinit var mockCompressionExecutorService: ScheduledExecutorService
+
     @Mock
     lateinit var mockFileHandler: FileHandler
 
@@ -83,10 +94,34 @@ internal class BatchFilePersistenceStrategyTest {
         val writer = testedStrategy.getWriter()
 
         // Then
-        assertThat(writer).isInstanceOf(ScheduledWriter::class.java)
-        val scheduledWriter = writer as ScheduledWriter
-        assertThat(scheduledWriter.delegateWriter).isInstanceOf(BatchFileDataWriter::class.java)
-        assertThat(scheduledWriter.executorService).isSameAs(mockExecutorService)
+        assertThat(writer).isInstanceOf(RingBufferWriter::class.java)
+        val ringBufferWriter = writer as RingBufferWriter
+        assertThat(ringBufferWriter.delegateWriter).isInstanceOf(BatchFileDataWriter::class.java)
+        assertThat(ringBufferWriter.executorService).isSameAs(mockExecutorService)
+        assertThat(ringBufferWriter.overflowPolicy).isEqualTo(BufferOverflowPolicy.DROP_NEWEST)
+    }
+
+    @Test
+    fun `𝕄 use buffer overflow policy 𝕎 getWriter()`(
+        @Forgery fakeBufferOverflowPolicy: BufferOverflowPolicy
+    ) {
+        // Given
+        testedStrategy = BatchFilePersistenceStrategy(
+            mockFileOrchestrator,
+            mockExecutorService,
+            mockSerializer,
+            fakePayloadDecoration,
+            Logger(mockLogHandler),
+            mockFileHandler,
+            bufferOverflowPolicy = fakeBufferOverflowPolicy
+        )
+
+        // When
+        val writer = testedStrategy.getWriter()
+
+        // Then
+        check(writer is RingBufferWriter)
+        assertThat(writer.overflowPolicy).isEqualTo(fakeBufferOverflowPolicy)
     }
 
     @Test
@@ -139,7 +174,7 @@ internal class BatchFilePersistenceStrategyTest {
         val reader = testedStrategy.getReader()
 
         // Then
-        check(writer is ScheduledWriter)
+        check(writer is RingBufferWriter)
         check(reader is BatchFileDataReader)
         val delegateWriter = writer.delegateWriter
         check(delegateWriter is BatchFileDataWriter)
@@ -155,7 +190,7 @@ internal class BatchFilePersistenceStrategyTest {
         val reader = testedStrategy.getReader()
 
         // Then
-        check(writer is ScheduledWriter)
+        check(writer is RingBufferWriter)
         check(reader is BatchFileDataReader)
         val delegateWriter = writer.delegateWriter
         check(delegateWriter is BatchFileDataWriter)
@@ -171,10 +206,89 @@ internal class BatchFilePersistenceStrategyTest {
         val reader = testedStrategy.getReader()
 
         // Then
-        check(writer is ScheduledWriter)
+        check(writer is RingBufferWriter)
         check(reader is BatchFileDataReader)
         val delegateWriter = writer.delegateWriter
         check(delegateWriter is BatchFileDataWriter)
         assertThat(delegateWriter.handler).isSameAs(reader.handler)
     }
+
+    @Test
+    fun `𝕄 share compressor 𝕎 getWriter() + getReader() {pre-compression enabled}`() {
+        // Given
+        testedStrategy = BatchFilePersistenceStrategy(
+            mockFileOrchestrator,
+            mockExecutorService,
+            mockSerializer,
+            fakePayloadDecoration,
+            Logger(mockLogHandler),
+            mockFileHandler,
+            compressionExecutorService = mockCompressionExecutorService
+        )
+
+        // When
+        val writer = testedStrategy.getWriter()
+        val reader = testedStrategy.getReader()
+
+        // Then
+        check(writer is RingBufferWriter)
+        check(reader is BatchFileDataReader)
+        val delegateWriter = writer.delegateWriter
+        check(delegateWriter is BatchFileDataWriter)
+        val sealingOrchestrator = delegateWriter.fileOrchestrator
+        check(sealingOrchestrator is SealingFileOrchestrator)
+        assertThat(sealingOrchestrator.delegate).isSameAs(mockFileOrchestrator)
+        assertThat(sealingOrchestrator.compressor).isSameAs(reader.compressor)
+        assertThat(sealingOrchestrator.executorService).isSameAs(mockCompressionExecutorService)
+        assertThat(reader.fileOrchestrator).isSameAs(mockFileOrchestrator)
+    }
+
+    @Test
+    fun `𝕄 not compress batches 𝕎 getReader() {pre-compression disabled}`() {
+        // When
+        val reader = testedStrategy.getReader()
+
+        // Then
+        check(reader is BatchFileDataReader)
+        assertThat(reader.compressor).isNull()
+    }
+
+    @Test
+    fun `𝕄 close the file handler 𝕎 close()`() {
+        // When
+        testedStrategy.close()
+
+        // Then
+        verify(mockFileHandler).close()
+    }
+
+    @Test
+    fun `𝕄 close the file handler on the executor 𝕎 onConsentUpdated()`(
+        @Forgery fakePreviousConsent: TrackingConsent,
+        @Forgery fakeNewConsent: TrackingConsent
+    ) {
+        // Given
+        val mockConsentProvider: ConsentProvider = mock()
+        val strategy = BatchFilePersistenceStrategy(
+            mockFileOrchestrator,
+            mockExecutorService,
+            mockSerializer,
+            fakePayloadDecoration,
+            Logger(mockLogHandler),
+            mockFileHandler,
+            consentProvider = mockConsentProvider
+        )
+        verify(mockConsentProvider).registerCallback(strategy)
+
+        // When
+        strategy.onConsentUpdated(fakePreviousConsent, fakeNewConsent)
+
+        // Then
+        verifyZeroInteractions(mockFileHandler)
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+        }
+        verify(mockFileHandler).close()
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.batch
+
+import com.datadog.android.core.internal.persistence.file.FileHandler
+import com.datadog.android.log.Logger
+import com.datadog.android.log.internal.logger.NoOpLogHandler
+import com.datadog.android.utils.benchmark.BenchmarkResult
+import com.datadog.android.utils.benchmark.measureOperations
+import com.datadog.android.utils.benchmark.publishBenchmark
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestReporter
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+
+/**
+ * A JVM microbenchmark comparing the batch file write path of the [BatchFileHandler] (one
+ * open/lock/write/close cycle per event) with the [PersistentChannelFileHandler] (the batch
+ * file channel is kept open until the next file).
+ *
+ * Run it with the `DD_BENCHMARK=true` environment variable set.
+ */
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+@EnabledIfEnvironmentVariable(named = "DD_BENCHMARK", matches = "true")
+internal class PersistentChannelFileHandlerBenchmarkTest {
+
+    @TempDir
+    lateinit var tempDir: File
+
+    private val internalLogger = Logger(NoOpLogHandler())
+
+    @Test
+    fun `benchmark batch file writes`(forge: Forge, testReporter: TestReporter) {
+        val events = List(EVENTS_PER_BATCH) {
+            forge.anAlphabeticalString(size = forge.anInt(EVENT_MIN_SIZE, EVENT_MAX_SIZE))
+                .toByteArray()
+        }
+        val fileHandler = BatchFileHandler(internalLogger)
+        val persistentChannelFileHandler = PersistentChannelFileHandler(
+            BatchFileHandler(internalLogger),
+            internalLogger
+        )
+
+        val expectedFile = File(tempDir, "expected")
+        val actualFile = File(tempDir, "actual")
+        writeBatch(fileHandler, expectedFile, events)
+        writeBatch(persistentChannelFileHandler, actualFile, events)
+        persistentChannelFileHandler.close()
+        assertThat(actualFile.readBytes()).isEqualTo(expectedFile.readBytes())
+
+        repeat(WARMUP_ROUNDS) {
+            val file = File(tempDir, "warmup_$it")
+            writeBatch(fileHandler, file, events)
+            fileHandler.delete(file)
+            writeBatch(persistentChannelFileHandler, file, events)
+            persistentChannelFileHandler.delete(file)
+        }
+
+        val result = measure(fileHandler, events)
+        val persistentChannelResult = measure(persistentChannelFileHandler, events)
+        persistentChannelFileHandler.close()
+
+        testReporter.publishBenchmark(
+            "Batch file write (${events.size} events per file) BatchFileHandler",
+            result
+        )
+        testReporter.publishBenchmark(
+            "Batch file write (${events.size} events per file) PersistentChannelFileHandler",
+            persistentChannelResult
+        )
+    }
+
+    // region Internal
+
+    /**
+     * Writes the events one by one in the given batch file, like the BatchFileDataWriter does.
+     */
+    private fun writeBatch(fileHandler: FileHandler, file: File, events: List<ByteArray>) {
+        events.forEach {
+            fileHandler.writeData(file, it, append = true)
+        }
+    }
+
+    private fun measure(fileHandler: FileHandler, events: List<ByteArray>): BenchmarkResult {
+        return measureOperations(MEASURE_ROUNDS, events.size) {
+            val file = File(tempDir, "batch_$it")
+            writeBatch(fileHandler, file, events)
+            fileHandler.delete(file)
+        }
+    }
+
+    // endregion
+
+    companion object {
+        private const val EVENTS_PER_BATCH = 256
+        private const val EVENT_MIN_SIZE = 256
+        private const val EVENT_MAX_SIZE = 2048
+        private const val WARMUP_ROUNDS = 20
+        private const val MEASURE_ROUNDS = 50
+    }
+}
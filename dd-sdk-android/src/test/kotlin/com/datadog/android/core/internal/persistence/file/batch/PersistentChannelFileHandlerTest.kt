@@ -0,0 +1,369 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.batch
+
+import com.datadog.android.log.Logger
+import com.datadog.android.log.internal.utils.ERROR_WITH_TELEMETRY_LEVEL
+import com.datadog.android.utils.config.LoggerTestConfiguration
+import com.datadog.android.utils.forge.Configurator
+import com.datadog.tools.unit.annotations.TestConfigurationsProvider
+import com.datadog.tools.unit.extensions.TestConfigurationExtension
+import com.datadog.tools.unit.extensions.config.TestConfiguration
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.isA
+import com.nhaarman.mockitokotlin2.isNull
+import com.nhaarman.mockitokotlin2.verify
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+import java.io.File
+import java.io.FileNotFoundException
+import java.nio.ByteBuffer
+import java.util.Locale
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class),
+    ExtendWith(TestConfigurationExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+internal class PersistentChannelFileHandlerTest {
+
+    lateinit var testedFileHandler: PersistentChannelFileHandler
+
+    @TempDir
+    lateinit var fakeRootDirectory: File
+
+    @StringForgery(regex = "[a-z]+")
+    lateinit var fakeFileName: String
+
+    lateinit var fakeFile: File
+
+    @BeforeEach
+    fun `set up`() {
+        fakeFile = File(fakeRootDirectory, fakeFileName)
+        val internalLogger = Logger(logger.mockSdkLogHandler)
+        testedFileHandler = PersistentChannelFileHandler(
+            BatchFileHandler(internalLogger),
+            internalLogger
+        )
+    }
+
+    @AfterEach
+    fun `tear down`() {
+        testedFileHandler.close()
+    }
+
+    // region writeData
+
+    @Test
+    fun `𝕄 write data in new file 𝕎 writeData() {append=true}`(
+        @StringForgery content: String
+    ) {
+        // Given
+        val contentBytes = content.toByteArray()
+
+        // When
+        val result = testedFileHandler.writeData(fakeFile, contentBytes, append = true)
+
+        // Then
+        assertThat(result).isTrue()
+        assertThat(fakeFile).exists().hasBinaryContent(headerBytes(contentBytes) + contentBytes)
+    }
+
+    @Test
+    fun `𝕄 append all data to the same file 𝕎 writeData() {append=true, multiple times}`(
+        @StringForgery contents: List<String>
+    ) {
+        // Given
+        val contentBytes = contents.map { it.toByteArray() }
+
+        // When
+        val results = contentBytes.map {
+            testedFileHandler.writeData(fakeFile, it, append = true)
+        }
+
+        // Then
+        assertThat(results).containsOnly(true)
+        assertThat(fakeFile).exists().hasBinaryContent(
+            contentBytes.fold(ByteArray(0)) { acc, bytes -> acc + headerBytes(bytes) + bytes }
+        )
+    }
+
+    @Test
+    fun `𝕄 append all data to the same file 𝕎 writeAllData() {append=true}`(
+        @StringForgery previousContent: String,
+        @StringForgery contents: List<String>
+    ) {
+        // Given
+        val previousBytes = previousContent.toByteArray()
+        testedFileHandler.writeData(fakeFile, previousBytes, append = true)
+        val contentBytes = contents.map { it.toByteArray() }
+
+        // When
+        val result = testedFileHandler.writeAllData(fakeFile, contentBytes, append = true)
+
+        // Then
+        assertThat(result).isTrue()
+        assertThat(fakeFile).exists().hasBinaryContent(
+            contentBytes.fold(headerBytes(previousBytes) + previousBytes) { acc, bytes ->
+                acc + headerBytes(bytes) + bytes
+            }
+        )
+    }
+
+    @Test
+    fun `𝕄 append data to the previous file 𝕎 writeData() {append=true, existing content}`(
+        @StringForgery previousContent: String,
+        @StringForgery content: String
+    ) {
+        // Given
+        val previousData = previousContent.toByteArray()
+        fakeFile.writeBytes(headerBytes(previousData) + previousData)
+        val contentBytes = content.toByteArray()
+
+        // When
+        val result = testedFileHandler.writeData(fakeFile, contentBytes, append = true)
+
+        // Then
+        assertThat(result).isTrue()
+        assertThat(fakeFile).exists().hasBinaryContent(
+            headerBytes(previousData) + previousData + headerBytes(contentBytes) + contentBytes
+        )
+    }
+
+    @Test
+    fun `𝕄 write to the new file 𝕎 writeData() {file rotated}`(
+        @StringForgery(regex = "[A-Z]+") otherFileName: String,
+        @StringForgery content: String,
+        @StringForgery otherContent: String
+    ) {
+        // Given
+        val otherFile = File(fakeRootDirectory, otherFileName)
+        val contentBytes = content.toByteArray()
+        val otherContentBytes = otherContent.toByteArray()
+
+        // When
+        val result = testedFileHandler.writeData(fakeFile, contentBytes, append = true)
+        val otherResult = testedFileHandler.writeData(otherFile, otherContentBytes, append = true)
+
+        // Then
+        assertThat(result).isTrue()
+        assertThat(otherResult).isTrue()
+        assertThat(fakeFile).exists().hasBinaryContent(headerBytes(contentBytes) + contentBytes)
+        assertThat(otherFile).exists()
+            .hasBinaryContent(headerBytes(otherContentBytes) + otherContentBytes)
+    }
+
+    @Test
+    fun `𝕄 append to each file 𝕎 writeData() {alternating files}`(
+        @StringForgery(regex = "[A-Z]+") otherFileName: String,
+        @StringForgery contents: List<String>,
+        @StringForgery otherContents: List<String>
+    ) {
+        // Given
+        val otherFile = File(fakeRootDirectory, otherFileName)
+        val count = minOf(contents.size, otherContents.size)
+
+        // When
+        repeat(count) {
+            testedFileHandler.writeData(fakeFile, contents[it].toByteArray(), append = true)
+            testedFileHandler.writeData(otherFile, otherContents[it].toByteArray(), append = true)
+        }
+
+        // Then
+        assertThat(testedFileHandler.readData(fakeFile).map { String(it) })
+            .isEqualTo(contents.take(count))
+        assertThat(testedFileHandler.readData(otherFile).map { String(it) })
+            .isEqualTo(otherContents.take(count))
+    }
+
+    @Test
+    fun `𝕄 append to each file 𝕎 writeData() {more files than open channels}`(
+        @StringForgery content: String,
+        @StringForgery otherContent: String
+    ) {
+        // Given
+        val files = (0..PersistentChannelFileHandler.MAX_OPEN_CHANNELS).map {
+            File(fakeRootDirectory, "$fakeFileName$it")
+        }
+        val contentBytes = content.toByteArray()
+        val otherContentBytes = otherContent.toByteArray()
+
+        // When
+        files.forEach { testedFileHandler.writeData(it, contentBytes, append = true) }
+        files.forEach { testedFileHandler.writeData(it, otherContentBytes, append = true) }
+
+        // Then
+        files.forEach {
+            assertThat(it).exists().hasBinaryContent(
+                headerBytes(contentBytes) + contentBytes +
+                    headerBytes(otherContentBytes) + otherContentBytes
+            )
+        }
+    }
+
+    @Test
+    fun `𝕄 overwrite data 𝕎 writeData() {append=false}`(
+        @StringForgery previousContent: String,
+        @StringForgery content: String
+    ) {
+        // Given
+        testedFileHandler.writeData(fakeFile, previousContent.toByteArray(), append = true)
+        val contentBytes = content.toByteArray()
+
+        // When
+        val result = testedFileHandler.writeData(fakeFile, contentBytes, append = false)
+
+        // Then
+        assertThat(result).isTrue()
+        assertThat(fakeFile).exists().hasBinaryContent(headerBytes(contentBytes) + contentBytes)
+    }
+
+    @Test
+    fun `𝕄 recreate the file 𝕎 writeData() {file deleted in between}`(
+        @StringForgery previousContent: String,
+        @StringForgery content: String
+    ) {
+        // Given
+        testedFileHandler.writeData(fakeFile, previousContent.toByteArray(), append = true)
+        testedFileHandler.delete(fakeFile)
+        val contentBytes = content.toByteArray()
+
+        // When
+        val result = testedFileHandler.writeData(fakeFile, contentBytes, append = true)
+
+        // Then
+        assertThat(result).isTrue()
+        assertThat(fakeFile).exists().hasBinaryContent(headerBytes(contentBytes) + contentBytes)
+    }
+
+    @Test
+    fun `𝕄 return false and warn 𝕎 writeData() {parent dir does not exist}`(
+        @StringForgery(regex = "[a-z]+") dirName: String,
+        @StringForgery content: String
+    ) {
+        // Given
+        val file = File(File(fakeRootDirectory, dirName), fakeFileName)
+
+        // When
+        val result = testedFileHandler.writeData(file, content.toByteArray(), append = true)
+
+        // Then
+        assertThat(result).isFalse()
+        assertThat(file).doesNotExist()
+        verify(logger.mockSdkLogHandler).handleLog(
+            eq(ERROR_WITH_TELEMETRY_LEVEL),
+            eq(BatchFileHandler.ERROR_WRITE.format(Locale.US, file.path)),
+            isA<FileNotFoundException>(),
+            eq(emptyMap()),
+            eq(emptySet()),
+            isNull()
+        )
+    }
+
+    // endregion
+
+    // region readData
+
+    @Test
+    fun `𝕄 return written events 𝕎 readData()`(
+        @StringForgery contents: List<String>
+    ) {
+        // Given
+        contents.forEach {
+            testedFileHandler.writeData(fakeFile, it.toByteArray(), append = true)
+        }
+
+        // When
+        val result = testedFileHandler.readData(fakeFile)
+
+        // Then
+        assertThat(result.map { String(it) }).isEqualTo(contents)
+    }
+
+    // endregion
+
+    // region delete
+
+    @Test
+    fun `𝕄 delete the file being written 𝕎 delete()`(
+        @StringForgery content: String
+    ) {
+        // Given
+        testedFileHandler.writeData(fakeFile, content.toByteArray(), append = true)
+
+        // When
+        val result = testedFileHandler.delete(fakeFile)
+
+        // Then
+        assertThat(result).isTrue()
+        assertThat(fakeFile).doesNotExist()
+    }
+
+    // endregion
+
+    // region moveFiles
+
+    @Test
+    fun `𝕄 move the file being written 𝕎 moveFiles()`(
+        @StringForgery(regex = "dest-[a-z]+") destDirName: String,
+        @StringForgery content: String,
+        @StringForgery otherContent: String
+    ) {
+        // Given
+        val srcDir = File(fakeRootDirectory, "src")
+        srcDir.mkdirs()
+        val destDir = File(fakeRootDirectory, destDirName)
+        val file = File(srcDir, fakeFileName)
+        val contentBytes = content.toByteArray()
+        testedFileHandler.writeData(file, contentBytes, append = true)
+
+        // When
+        val result = testedFileHandler.moveFiles(srcDir, destDir)
+        testedFileHandler.writeData(file, otherContent.toByteArray(), append = true)
+
+        // Then
+        assertThat(result).isTrue()
+        assertThat(File(destDir, fakeFileName)).exists()
+            .hasBinaryContent(headerBytes(contentBytes) + contentBytes)
+    }
+
+    // endregion
+
+    // region private
+
+    private fun headerBytes(data: ByteArray): ByteArray {
+        return ByteBuffer.allocate(BatchFileHandler.HEADER_SIZE_BYTES)
+            .put(BatchFileHandler.HEADER_VERSION)
+            .putInt(data.size)
+            .array()
+    }
+
+    // endregion
+
+    companion object {
+        val logger = LoggerTestConfiguration()
+
+        @TestConfigurationsProvider
+        @JvmStatic
+        fun getTestConfigurations(): List<TestConfiguration> {
+            return listOf(logger)
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.core.internal.persistence.file.batch
+
+import com.datadog.android.core.internal.persistence.EventPriority
+import com.datadog.android.core.internal.persistence.file.FileOrchestrator
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
+import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+import java.io.File
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+internal class SealingFileOrchestratorTest {
+
+    lateinit var testedOrchestrator: SealingFileOrchestrator
+
+    @Mock
+    lateinit var mockDelegate: FileOrchestrator
+
+    @Mock
+    lateinit var mockCompressor: BatchFileCompressor
+
+    @Mock
+    lateinit var mockExecutorService: ScheduledExecutorService
+
+    @BeforeEach
+    fun `set up`() {
+        whenever(mockExecutorService.execute(any())) doAnswer {
+            (it.arguments[0] as Runnable).run()
+        }
+
+        testedOrchestrator = SealingFileOrchestrator(
+            mockDelegate,
+            mockCompressor,
+            mockExecutorService
+        )
+    }
+
+    @Test
+    fun `𝕄 return delegate file 𝕎 getWritableFile()`(
+        @Forgery file: File,
+        @IntForgery(min = 1) dataSize: Int
+    ) {
+        // Given
+        whenever(mockDelegate.getWritableFile(dataSize)) doReturn file
+
+        // When
+        val result = testedOrchestrator.getWritableFile(dataSize)
+
+        // Then
+        assertThat(result).isSameAs(file)
+        verifyZeroInteractions(mockCompressor)
+    }
+
+    @Test
+    fun `𝕄 not compress 𝕎 getWritableFile() {same file}`(
+        @Forgery file: File,
+        @IntForgery(min = 1) dataSize: Int
+    ) {
+        // Given
+        whenever(mockDelegate.getWritableFile(dataSize)) doReturn file
+
+        // When
+        testedOrchestrator.getWritableFile(dataSize)
+        testedOrchestrator.getWritableFile(dataSize)
+
+        // Then
+        verifyZeroInteractions(mockCompressor)
+    }
+
+    @Test
+    fun `𝕄 compress previous file 𝕎 getWritableFile() {file rotated}`(
+        @Forgery file: File,
+        @Forgery nextFile: File,
+        @IntForgery(min = 1) dataSize: Int
+    ) {
+        // Given
+        whenever(mockDelegate.getWritableFile(dataSize)).doReturn(file, nextFile)
+
+        // When
+        testedOrchestrator.getWritableFile(dataSize)
+        val result = testedOrchestrator.getWritableFile(dataSize)
+
+        // Then
+        assertThat(result).isSameAs(nextFile)
+        verify(mockCompressor).getOrCompress(file)
+    }
+
+    @Test
+    fun `𝕄 compress previous file in a separate task 𝕎 getWritableFile() {file rotated}`(
+        @Forgery file: File,
+        @Forgery nextFile: File,
+        @IntForgery(min = 1) dataSize: Int
+    ) {
+        // Given
+        val mockExecutorService: ScheduledExecutorService = mock()
+        testedOrchestrator = SealingFileOrchestrator(
+            mockDelegate,
+            mockCompressor,
+            mockExecutorService
+        )
+        whenever(mockDelegate.getWritableFile(dataSize)).doReturn(file, nextFile)
+
+        // When
+        testedOrchestrator.getWritableFile(dataSize)
+        testedOrchestrator.getWritableFile(dataSize)
+
+        // Then
+        verifyZeroInteractions(mockCompressor)
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+        }
+        verify(mockCompressor).getOrCompress(file)
+    }
+
+    @Test
+    fun `𝕄 compress file once idle 𝕎 getWritableFile() {file not rotated}`(
+        @Forgery file: File,
+        @IntForgery(min = 1) dataSize: Int,
+        @LongForgery(min = 1L) sealDelayMs: Long
+    ) {
+        // Given
+        testedOrchestrator = SealingFileOrchestrator(
+            mockDelegate,
+            mockCompressor,
+            mockExecutorService,
+            sealDelayMs
+        )
+        whenever(mockDelegate.getWritableFile(dataSize)) doReturn file
+
+        // When
+        testedOrchestrator.getWritableFile(dataSize)
+        testedOrchestrator.getWritableFile(dataSize)
+
+        // Then
+        verifyZeroInteractions(mockCompressor)
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).schedule(
+                capture(),
+                eq(sealDelayMs),
+                eq(TimeUnit.MILLISECONDS)
+            )
+            firstValue.run()
+        }
+        verify(mockCompressor).getOrCompress(file)
+    }
+
+    @Test
+    fun `𝕄 return null 𝕎 getWritableFile() {delegate returns null}`(
+        @IntForgery(min = 1) dataSize: Int
+    ) {
+        // Given
+        whenever(mockDelegate.getWritableFile(dataSize)) doReturn null
+
+        // When
+        val result = testedOrchestrator.getWritableFile(dataSize)
+
+        // Then
+        assertThat(result).isNull()
+        verifyZeroInteractions(mockCompressor)
+    }
+
+    @Test
+    fun `𝕄 return delegate file 𝕎 getWritableFileForItems()`(
+        @Forgery file: File,
+        @IntForgery(min = 1) dataSizes: List<Int>,
+        @IntForgery(min = 1) itemCount: Int
+    ) {
+        // Given
+        whenever(mockDelegate.getWritableFileForItems(dataSizes)) doReturn (file to itemCount)
+
+        // When
+        val result = testedOrchestrator.getWritableFileForItems(dataSizes)
+
+        // Then
+        assertThat(result).isEqualTo(file to itemCount)
+        verifyZeroInteractions(mockCompressor)
+    }
+
+    @Test
+    fun `𝕄 compress previous file 𝕎 getWritableFileForItems() {file rotated}`(
+        @Forgery file: File,
+        @Forgery nextFile: File,
+        @IntForgery(min = 1) dataSize: Int,
+        @IntForgery(min = 1) dataSizes: List<Int>,
+        @IntForgery(min = 1) itemCount: Int
+    ) {
+        // Given
+        whenever(mockDelegate.getWritableFile(dataSize)) doReturn file
+        whenever(mockDelegate.getWritableFileForItems(dataSizes)) doReturn (nextFile to itemCount)
+
+        // When
+        testedOrchestrator.getWritableFile(dataSize)
+        val result = testedOrchestrator.getWritableFileForItems(dataSizes)
+
+        // Then
+        assertThat(result).isEqualTo(nextFile to itemCount)
+        verify(mockCompressor).getOrCompress(file)
+    }
+
+    @Test
+    fun `𝕄 compress previous file 𝕎 getWritableFile() {same priority file rotated}`(
+        @Forgery file: File,
+        @Forgery nextFile: File,
+        @IntForgery(min = 1) dataSize: Int,
+        @Forgery priority: EventPriority
+    ) {
+        // Given
+        whenever(mockDelegate.getWritableFile(dataSize, priority)).doReturn(file, nextFile)
+
+        // When
+        testedOrchestrator.getWritableFile(dataSize, priority)
+        val result = testedOrchestrator.getWritableFile(dataSize, priority)
+
+        // Then
+        assertThat(result).isSameAs(nextFile)
+        verify(mockCompressor).getOrCompress(file)
+    }
+
+    @Test
+    fun `𝕄 not compress 𝕎 getWritableFile() {files of different priorities}`(
+        @Forgery highPriorityFile: File,
+        @Forgery normalPriorityFile: File,
+        @IntForgery(min = 1) dataSize: Int
+    ) {
+        // Given
+        whenever(mockDelegate.getWritableFile(dataSize, EventPriority.HIGH))
+            .doReturn(highPriorityFile)
+        whenever(mockDelegate.getWritableFile(dataSize, EventPriority.NORMAL))
+            .doReturn(normalPriorityFile)
+
+        // When
+        testedOrchestrator.getWritableFile(dataSize, EventPriority.NORMAL)
+        testedOrchestrator.getWritableFile(dataSize, EventPriority.HIGH)
+        testedOrchestrator.getWritableFile(dataSize, EventPriority.NORMAL)
+
+        // Then
+        verifyZeroInteractions(mockCompressor)
+    }
+
+    @Test
+    fun `𝕄 delegate 𝕎 getReadableFile()`(
+        @Forgery file: File
+    ) {
+        // Given
+        whenever(mockDelegate.getReadableFile(any())) doReturn file
+
+        // When
+        val result = testedOrchestrator.getReadableFile(emptySet())
+
+        // Then
+        assertThat(result).isSameAs(file)
+    }
+}
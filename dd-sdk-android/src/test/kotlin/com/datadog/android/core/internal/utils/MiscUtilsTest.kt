@@ -122,6 +122,35 @@ internal class MiscUtilsTest {
         }
     }
 
+    @Test
+    fun `M write the same json as toJsonElement W writeJson { on Kotlin object }`(forge: Forge) {
+        // GIVEN
+        val attributes = forge.exhaustiveAttributes().toMutableMap()
+        attributes[forge.aString()] = NULL_MAP_VALUE
+        attributes[forge.aString()] = JsonNull.INSTANCE
+
+        // WHEN
+        attributes.forEach {
+            val json = buildJsonString { writer -> it.value.writeJson(writer) }
+
+            // THEN
+            assertThat(json).isEqualTo(it.value.toJsonElement().toString())
+        }
+    }
+
+    @Test
+    fun `M write the same json as toJsonElement W writeJson { on Map }`(forge: Forge) {
+        // GIVEN
+        val attributes = forge.exhaustiveAttributes().toMutableMap()
+        attributes[forge.aString()] = NULL_MAP_VALUE
+
+        // WHEN
+        val json = buildJsonString { attributes.writeJson(it) }
+
+        // THEN
+        assertThat(json).isEqualTo(attributes.toJsonElement().toString())
+    }
+
     // endregion
 
     // region Internal
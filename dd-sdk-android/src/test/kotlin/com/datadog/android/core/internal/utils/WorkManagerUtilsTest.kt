@@ -32,6 +32,7 @@ import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
 import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.StringForgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
 import fr.xgouchet.elmyr.junit5.ForgeExtension
 import org.assertj.core.api.Assertions.assertThat
@@ -144,6 +145,41 @@ internal class WorkManagerUtilsTest {
         verifyZeroInteractions(mockWorkManager)
     }
 
+    @Test
+    fun `it will schedule the worker continuation if WorkManager was correctly instantiated`(
+        @StringForgery fakeFeatureName: String
+    ) {
+        // Given
+        WorkManagerImpl::class.java.setStaticValue("sDefaultInstance", mockWorkManager)
+
+        // When
+        scheduleUploadWorkerContinuation(appContext.mockInstance, fakeFeatureName)
+
+        // Then
+        verify(mockWorkManager).enqueueUniqueWork(
+            eq(UPLOAD_WORKER_NAME),
+            eq(ExistingWorkPolicy.APPEND_OR_REPLACE),
+            argThat<OneTimeWorkRequest> {
+                this.workSpec.workerClassName == UploadWorker::class.java.canonicalName &&
+                    this.tags.contains(TAG_DATADOG_UPLOAD) &&
+                    this.workSpec.constraints.requiresBatteryNotLow() &&
+                    this.workSpec.input.getString(UploadWorker.KEY_NEXT_FEATURE) ==
+                    fakeFeatureName
+            }
+        )
+    }
+
+    @Test
+    fun `it will handle the continuation exception if WorkManager was not correctly instantiated`(
+        @StringForgery fakeFeatureName: String
+    ) {
+        // When
+        scheduleUploadWorkerContinuation(appContext.mockInstance, fakeFeatureName)
+
+        // Then
+        verifyZeroInteractions(mockWorkManager)
+    }
+
     @Test
     fun `it will return false if WorkManager was not correctly instantiated`() {
         // Given
@@ -120,10 +120,10 @@ internal class DatadogExceptionHandlerTest {
     @StringForgery(StringForgeryType.HEXADECIMAL)
     lateinit var fakeToken: String
 
-    @StringForgery(regex = "[a-zA-Z0-9_:./-]{0,195}[a-zA-Z0-9_./-]")
+    @StringForgery(regex = "[a-z0-9_:./-]{0,195}[a-z0-9_./-]")
     lateinit var fakeEnvName: String
 
-    @StringForgery
+    @StringForgery(regex = "[a-z]+")
     lateinit var fakeVariant: String
 
     @BeforeEach
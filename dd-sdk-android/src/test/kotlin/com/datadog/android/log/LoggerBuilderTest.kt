@@ -9,8 +9,11 @@ package com.datadog.android.log
 import android.content.Context
 import com.datadog.android.Datadog
 import com.datadog.android.core.configuration.Configuration
+import com.datadog.android.core.internal.persistence.file.advanced.RingBufferWriter
+import com.datadog.android.core.internal.persistence.file.batch.BatchFileDataWriter
 import com.datadog.android.core.internal.sampling.RateBasedSampler
 import com.datadog.android.log.internal.LogsFeature
+import com.datadog.android.log.internal.domain.LogRecordWriter
 import com.datadog.android.log.internal.logger.CombinedLogHandler
 import com.datadog.android.log.internal.logger.DatadogLogHandler
 import com.datadog.android.log.internal.logger.LogHandler
@@ -91,6 +94,7 @@ internal class LoggerBuilderTest {
         assertThat(handler.sampler).isInstanceOf(RateBasedSampler::class.java)
         assertThat((handler.sampler as RateBasedSampler).sampleRate).isEqualTo(1.0f)
         assertThat(handler.minLogPriority).isEqualTo(-1)
+        assertThat(handler.recordWriter).isNull()
     }
 
     @Test
@@ -213,6 +217,28 @@ internal class LoggerBuilderTest {
         assertThat((sampler as RateBasedSampler).sampleRate).isEqualTo(expectedSampleRate)
     }
 
+    @Test
+    fun `builder can enable async logging`() {
+        val logger = Logger.Builder()
+            .setAsyncLoggingEnabled(true)
+            .build()
+
+        val handler: DatadogLogHandler = logger.handler as DatadogLogHandler
+        val recordWriter = handler.recordWriter
+        assertThat(recordWriter).isInstanceOf(RingBufferWriter::class.java)
+        recordWriter as RingBufferWriter
+        assertThat(recordWriter.executorService).isSameAs(coreFeature.mockPersistenceExecutor)
+        val delegateWriter = recordWriter.delegateWriter
+        assertThat(delegateWriter).isInstanceOf(LogRecordWriter::class.java)
+        delegateWriter as LogRecordWriter
+        assertThat(delegateWriter.logGenerator).isSameAs(handler.logGenerator)
+        val logWriter = handler.writer
+        assertThat(logWriter).isInstanceOf(RingBufferWriter::class.java)
+        logWriter as RingBufferWriter
+        assertThat(delegateWriter.delegateWriter).isSameAs(logWriter.delegateWriter)
+        assertThat(delegateWriter.delegateWriter).isInstanceOf(BatchFileDataWriter::class.java)
+    }
+
     companion object {
         val appContext = ApplicationContextTestConfiguration(Context::class.java)
         val coreFeature = CoreFeatureTestConfiguration(appContext)
@@ -12,7 +12,9 @@ import com.datadog.android.log.internal.logger.LogHandler
 import com.datadog.android.utils.forge.Configurator
 import com.google.gson.JsonArray
 import com.google.gson.JsonObject
+import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.anyOrNull
+import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.inOrder
 import com.nhaarman.mockitokotlin2.isNull
@@ -24,6 +26,7 @@ import fr.xgouchet.elmyr.annotation.StringForgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
 import fr.xgouchet.elmyr.junit5.ForgeExtension
 import org.json.JSONArray
+import org.assertj.core.api.Assertions.assertThat
 import org.json.JSONObject
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
@@ -918,6 +921,85 @@ internal class LoggerTest {
 
     // endregion
 
+    // region Snapshots
+
+    @Test
+    fun `M reuse the same tags snapshot W log() {tags unchanged}`(forge: Forge) {
+        // Given
+        testedLogger.addTag(forge.anAlphabeticalString())
+
+        // When
+        testedLogger.i(fakeMessage)
+        testedLogger.w(fakeMessage)
+
+        // Then
+        argumentCaptor<Set<String>> {
+            verify(mockLogHandler, times(2)).handleLog(
+                any(),
+                anyOrNull(),
+                anyOrNull<Throwable>(),
+                anyOrNull(),
+                capture(),
+                anyOrNull()
+            )
+            assertThat(secondValue).isSameAs(firstValue)
+        }
+    }
+
+    @Test
+    fun `M reuse the same attributes snapshot W log() {no local attributes}`(forge: Forge) {
+        // Given
+        testedLogger.addAttribute(forge.anAlphabeticalString(), forge.anInt())
+
+        // When
+        testedLogger.i(fakeMessage)
+        testedLogger.w(fakeMessage)
+
+        // Then
+        argumentCaptor<Map<String, Any?>> {
+            verify(mockLogHandler, times(2)).handleLog(
+                any(),
+                anyOrNull(),
+                anyOrNull<Throwable>(),
+                capture(),
+                anyOrNull(),
+                anyOrNull()
+            )
+            assertThat(secondValue).isSameAs(firstValue)
+        }
+    }
+
+    @Test
+    fun `M not alter the previous snapshots W addAttribute() + addTag()`(forge: Forge) {
+        // Given
+        val key = forge.anAlphabeticalString()
+        val tag = forge.anAlphabeticalString()
+        testedLogger.i(fakeMessage)
+
+        // When
+        testedLogger.addAttribute(key, forge.anInt())
+        testedLogger.addTag(tag)
+        testedLogger.w(fakeMessage)
+
+        // Then
+        val attributesCaptor = argumentCaptor<Map<String, Any?>>()
+        val tagsCaptor = argumentCaptor<Set<String>>()
+        verify(mockLogHandler, times(2)).handleLog(
+            any(),
+            anyOrNull(),
+            anyOrNull<Throwable>(),
+            attributesCaptor.capture(),
+            tagsCaptor.capture(),
+            anyOrNull()
+        )
+        assertThat(attributesCaptor.firstValue).isEmpty()
+        assertThat(attributesCaptor.secondValue).containsOnlyKeys(key)
+        assertThat(tagsCaptor.firstValue).isEmpty()
+        assertThat(tagsCaptor.secondValue).containsExactly(tag)
+    }
+
+    // endregion
+
     // region Multi Thread Access
 
     @Test
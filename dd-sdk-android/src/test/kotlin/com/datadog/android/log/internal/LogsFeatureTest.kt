@@ -9,7 +9,7 @@ package com.datadog.android.log.internal
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.SdkFeatureTest
-import com.datadog.android.core.internal.persistence.file.advanced.ScheduledWriter
+import com.datadog.android.core.internal.persistence.file.advanced.RingBufferWriter
 import com.datadog.android.core.internal.persistence.file.batch.BatchFileDataWriter
 import com.datadog.android.event.MapperSerializer
 import com.datadog.android.log.internal.domain.LogFilePersistenceStrategy
@@ -83,7 +83,7 @@ internal class LogsFeatureTest :
 
         // Then
         val batchFileDataWriter =
-            (testedFeature.persistenceStrategy.getWriter() as? ScheduledWriter)
+            (testedFeature.persistenceStrategy.getWriter() as? RingBufferWriter)
                 ?.delegateWriter as? BatchFileDataWriter
         val logMapperSerializer = batchFileDataWriter?.serializer as? MapperSerializer<LogEvent>
         val logEventMapperWrapper = logMapperSerializer?.eventMapper as? LogEventMapperWrapper
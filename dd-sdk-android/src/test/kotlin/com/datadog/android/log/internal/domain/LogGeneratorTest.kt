@@ -6,6 +6,7 @@
 
 package com.datadog.android.log.internal.domain
 
+import com.datadog.android.core.internal.constraints.DataConstraints
 import com.datadog.android.core.internal.net.info.NetworkInfoProvider
 import com.datadog.android.core.internal.system.AndroidInfoProvider
 import com.datadog.android.core.internal.system.AppVersionProvider
@@ -28,10 +29,15 @@ import com.datadog.tools.unit.extensions.config.TestConfiguration
 import com.datadog.tools.unit.forge.aThrowable
 import com.datadog.tools.unit.setStaticValue
 import com.datadog.trace.api.interceptor.MutableSpan
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
 import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.whenever
 import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.IntForgery
 import fr.xgouchet.elmyr.annotation.StringForgery
 import fr.xgouchet.elmyr.annotation.StringForgeryType
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
@@ -49,6 +55,7 @@ import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
+import java.util.Locale
 
 @Extensions(
     ExtendWith(MockitoExtension::class),
@@ -124,10 +131,10 @@ internal class LogGeneratorTest {
         fakeLogMessage = forge.anAlphabeticalString()
         fakeLevel = forge.anInt(2, 8)
         fakeAttributes = forge.aMap { anAlphabeticalString() to anInt() }
-        fakeTags = forge.aList { anAlphabeticalString() }.toSet()
+        fakeTags = forge.aList { aStringMatching("[a-z][a-z0-9_]*") }.toSet()
         fakeAppVersion = forge.aStringMatching("^[0-9]\\.[0-9]\\.[0-9]")
-        fakeEnvName = forge.aStringMatching("[a-zA-Z0-9_:./-]{0,195}[a-zA-Z0-9_./-]")
-        fakeVariant = forge.anAlphabeticalString()
+        fakeEnvName = forge.aStringMatching("[a-z0-9_:./-]{0,195}[a-z0-9_./-]")
+        fakeVariant = forge.aStringMatching("[a-z]+")
         fakeThrowable = forge.aThrowable()
         fakeTimestamp = System.currentTimeMillis()
         fakeThreadName = forge.anAlphabeticalString()
@@ -606,6 +613,120 @@ internal class LogGeneratorTest {
         assertThat(log).hasExactlyTags(expectedTags)
     }
 
+    @Test
+    fun `M drop the reserved tags W creating the Log`(forge: Forge) {
+        // GIVEN
+        val key = forge.anElementFrom("host", "device", "source", "service")
+        val reservedTag = "$key:${forge.aNumericalString()}"
+
+        // WHEN
+        val log = testedLogGenerator.generateLog(
+            fakeLevel,
+            fakeLogMessage,
+            fakeThrowable,
+            fakeAttributes,
+            fakeTags + reservedTag,
+            fakeTimestamp
+        )
+
+        // THEN
+        Assertions.assertThat(log.ddtags.split(",")).doesNotContain(reservedTag)
+    }
+
+    @Test
+    fun `M sanitize the tags W creating the Log`(
+        @StringForgery(regex = "[a-z]{3,10}") fakeTag: String
+    ) {
+        // WHEN
+        val log = testedLogGenerator.generateLog(
+            fakeLevel,
+            fakeLogMessage,
+            fakeThrowable,
+            fakeAttributes,
+            setOf(fakeTag.uppercase(Locale.US)),
+            fakeTimestamp
+        )
+
+        // THEN
+        Assertions.assertThat(log.ddtags.split(",")).contains(fakeTag)
+    }
+
+    @Test
+    fun `M validate the tags once W creating several Logs {same LogTags snapshot}`(
+        @IntForgery(min = 2, max = 10) logCount: Int
+    ) {
+        // GIVEN
+        val mockDataConstraints: DataConstraints = mock()
+        whenever(mockDataConstraints.validateTags(any())) doAnswer { it.getArgument(0) }
+        testedLogGenerator = LogGenerator(
+            fakeServiceName,
+            fakeLoggerName,
+            mockNetworkInfoProvider,
+            mockUserInfoProvider,
+            mockTimeProvider,
+            fakeSdkVersion,
+            fakeEnvName,
+            fakeVariant,
+            mockAppVersionProvider,
+            mockAndroidInfoProvider,
+            mockDataConstraints
+        )
+        val tags = fakeTags.fold(LogTags.EMPTY) { snapshot, tag -> snapshot.plus(tag) }
+
+        // WHEN
+        val logs = (0 until logCount).map {
+            testedLogGenerator.generateLog(
+                fakeLevel,
+                fakeLogMessage,
+                fakeThrowable,
+                fakeAttributes,
+                tags,
+                fakeTimestamp
+            )
+        }
+
+        // THEN
+        verify(mockDataConstraints).validateTags(any())
+        val expectedTags = fakeTags +
+            "${LogAttributes.ENV}:$fakeEnvName" +
+            "${LogAttributes.APPLICATION_VERSION}:$fakeAppVersion" +
+            "${LogAttributes.VARIANT}:$fakeVariant"
+        logs.forEach {
+            assertThat(it).hasExactlyTags(expectedTags)
+        }
+    }
+
+    @Test
+    fun `M validate the tags again W creating a Log {app version changed}`(
+        @StringForgery(regex = "[0-9]\\.[0-9]\\.[0-9]-[a-z]+") fakeNewAppVersion: String
+    ) {
+        // GIVEN
+        val tags = fakeTags.fold(LogTags.EMPTY) { snapshot, tag -> snapshot.plus(tag) }
+        testedLogGenerator.generateLog(
+            fakeLevel,
+            fakeLogMessage,
+            fakeThrowable,
+            fakeAttributes,
+            tags,
+            fakeTimestamp
+        )
+        whenever(mockAppVersionProvider.version) doReturn fakeNewAppVersion
+
+        // WHEN
+        val log = testedLogGenerator.generateLog(
+            fakeLevel,
+            fakeLogMessage,
+            fakeThrowable,
+            fakeAttributes,
+            tags,
+            fakeTimestamp
+        )
+
+        // THEN
+        Assertions.assertThat(log.ddtags.split(","))
+            .contains("${LogAttributes.APPLICATION_VERSION}:$fakeNewAppVersion")
+    }
+
     @Test
     fun `M add architecture W created a log`() {
         // WHEN
@@ -917,6 +1038,166 @@ internal class LogGeneratorTest {
         assertThat(log).hasStatus(LogEvent.Status.DEBUG)
     }
 
+    // region LogRecord
+
+    @Test
+    fun `M capture the log context W captureRecord()`() {
+        // WHEN
+        val record = testedLogGenerator.captureRecord(
+            fakeLevel,
+            fakeLogMessage,
+            fakeThrowable,
+            null,
+            null,
+            null,
+            fakeAttributes,
+            fakeTags,
+            fakeTimestamp
+        )
+
+        // THEN
+        Assertions.assertThat(record.level).isEqualTo(fakeLevel)
+        Assertions.assertThat(record.message).isEqualTo(fakeLogMessage)
+        Assertions.assertThat(record.throwable).isSameAs(fakeThrowable)
+        Assertions.assertThat(record.attributes).isSameAs(fakeAttributes)
+        Assertions.assertThat(record.tags).isSameAs(fakeTags)
+        Assertions.assertThat(record.timestamp).isEqualTo(fakeTimestamp)
+        Assertions.assertThat(record.threadName).isEqualTo(Thread.currentThread().name)
+        Assertions.assertThat(record.spanContext).isSameAs(mockSpanContext)
+        Assertions.assertThat(record.rumContext).isEqualTo(rumMonitor.context)
+        Assertions.assertThat(record.userInfo).isSameAs(fakeUserInfo)
+    }
+
+    @Test
+    fun `M not capture the trace and RUM context W captureRecord() {bundling disabled}`() {
+        // WHEN
+        val record = testedLogGenerator.captureRecord(
+            fakeLevel,
+            fakeLogMessage,
+            fakeThrowable,
+            null,
+            null,
+            null,
+            fakeAttributes,
+            fakeTags,
+            fakeTimestamp,
+            bundleWithTraces = false,
+            bundleWithRum = false
+        )
+
+        // THEN
+        Assertions.assertThat(record.spanContext).isNull()
+        Assertions.assertThat(record.rumContext).isNull()
+    }
+
+    @Test
+    fun `M build the same log W generateLog() {from a LogRecord}`() {
+        // GIVEN
+        val record = testedLogGenerator.captureRecord(
+            fakeLevel,
+            fakeLogMessage,
+            fakeThrowable,
+            null,
+            null,
+            null,
+            fakeAttributes,
+            fakeTags,
+            fakeTimestamp
+        )
+
+        // WHEN
+        val log = testedLogGenerator.generateLog(record)
+
+        // THEN
+        Assertions.assertThat(log).isEqualTo(
+            testedLogGenerator.generateLog(
+                fakeLevel,
+                fakeLogMessage,
+                fakeThrowable,
+                fakeAttributes,
+                fakeTags,
+                fakeTimestamp
+            )
+        )
+    }
+
+    @Test
+    fun `M build the log with the error strings W generateLog() {from a LogRecord}`(
+        @StringForgery fakeErrorKind: String,
+        @StringForgery fakeErrorMessage: String,
+        @StringForgery fakeErrorStack: String
+    ) {
+        // GIVEN
+        val record = testedLogGenerator.captureRecord(
+            fakeLevel,
+            fakeLogMessage,
+            null,
+            fakeErrorKind,
+            fakeErrorMessage,
+            fakeErrorStack,
+            fakeAttributes,
+            fakeTags,
+            fakeTimestamp
+        )
+
+        // WHEN
+        val log = testedLogGenerator.generateLog(record)
+
+        // THEN
+        assertThat(log).hasError(
+            LogEvent.Error(
+                kind = fakeErrorKind,
+                message = fakeErrorMessage,
+                stack = fakeErrorStack
+            )
+        )
+    }
+
+    @Test
+    fun `M use the captured context W generateLog() {from a LogRecord, context changed}`() {
+        // GIVEN
+        val record = testedLogGenerator.captureRecord(
+            fakeLevel,
+            fakeLogMessage,
+            fakeThrowable,
+            null,
+            null,
+            null,
+            fakeAttributes,
+            fakeTags,
+            fakeTimestamp
+        )
+        whenever(mockTracer.activeSpan()).doReturn(null)
+        GlobalRum.isRegistered.set(false)
+        whenever(mockUserInfoProvider.getUserInfo()) doReturn UserInfo()
+        val currentThreadName = Thread.currentThread().name
+
+        // WHEN
+        Thread.currentThread().name = fakeThreadName
+        val log = try {
+            testedLogGenerator.generateLog(record)
+        } finally {
+            Thread.currentThread().name = currentThreadName
+        }
+
+        // THEN
+        assertThat(log)
+            .hasThreadName(currentThreadName)
+            .hasUserInfo(fakeUserInfo)
+            .hasExactlyAttributes(
+                fakeAttributes + mapOf(
+                    LogAttributes.DD_TRACE_ID to fakeTraceId,
+                    LogAttributes.DD_SPAN_ID to fakeSpanId,
+                    LogAttributes.RUM_APPLICATION_ID to rumMonitor.context.applicationId,
+                    LogAttributes.RUM_SESSION_ID to rumMonitor.context.sessionId,
+                    LogAttributes.RUM_VIEW_ID to rumMonitor.context.viewId,
+                    LogAttributes.RUM_ACTION_ID to rumMonitor.context.actionId
+                )
+            )
+    }
+
+    // endregion
+
     companion object {
         val rumMonitor = GlobalRumMonitorTestConfiguration()
 
@@ -0,0 +1,83 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.log.internal.domain
+
+import com.datadog.android.core.internal.persistence.DataWriter
+import com.datadog.android.log.model.LogEvent
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ForgeConfiguration(Configurator::class)
+internal class LogRecordWriterTest {
+
+    lateinit var testedWriter: LogRecordWriter
+
+    @Mock
+    lateinit var mockLogGenerator: LogGenerator
+
+    @Mock
+    lateinit var mockDelegateWriter: DataWriter<LogEvent>
+
+    @BeforeEach
+    fun `set up`() {
+        testedWriter = LogRecordWriter(mockLogGenerator, mockDelegateWriter)
+    }
+
+    @Test
+    fun `𝕄 write the generated log 𝕎 write() {single record}`(
+        @Forgery fakeLogEvent: LogEvent
+    ) {
+        // Given
+        val record: LogRecord = mock()
+        whenever(mockLogGenerator.generateLog(record)) doReturn fakeLogEvent
+
+        // When
+        testedWriter.write(record)
+
+        // Then
+        verify(mockDelegateWriter).write(fakeLogEvent)
+    }
+
+    @Test
+    fun `𝕄 write the generated logs in order 𝕎 write() {list of records}`(
+        forge: Forge
+    ) {
+        // Given
+        val records = forge.aList { mock<LogRecord>() }
+        val logEvents = records.map { record ->
+            forge.getForgery<LogEvent>().also {
+                whenever(mockLogGenerator.generateLog(record)) doReturn it
+            }
+        }
+
+        // When
+        testedWriter.write(records)
+
+        // Then
+        verify(mockDelegateWriter).write(logEvents)
+    }
+}
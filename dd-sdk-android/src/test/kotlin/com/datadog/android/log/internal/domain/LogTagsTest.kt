@@ -0,0 +1,87 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.log.internal.domain
+
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+internal class LogTagsTest {
+
+    lateinit var fakeTags: List<String>
+
+    lateinit var testedTags: LogTags
+
+    @BeforeEach
+    fun `set up`(forge: Forge) {
+        fakeTags = forge.aList { aStringMatching("[a-z]+:[a-z0-9]+") }.distinct()
+        testedTags = fakeTags.fold(LogTags.EMPTY) { snapshot, tag -> snapshot.plus(tag) }
+    }
+
+    @Test
+    fun `𝕄 contain the added tags in order 𝕎 plus()`() {
+        // Then
+        assertThat(testedTags).containsExactlyElementsOf(fakeTags)
+        assertThat(testedTags).isEqualTo(fakeTags.toSet())
+    }
+
+    @Test
+    fun `𝕄 return a new snapshot 𝕎 plus() {new tag}`(
+        @StringForgery(regex = "[a-z]+_[a-z]+") fakeTag: String
+    ) {
+        // When
+        val result = testedTags.plus(fakeTag)
+
+        // Then
+        assertThat(result).isNotSameAs(testedTags)
+        assertThat(result).containsExactlyElementsOf(fakeTags + fakeTag)
+        assertThat(testedTags).containsExactlyElementsOf(fakeTags)
+    }
+
+    @Test
+    fun `𝕄 return the same snapshot 𝕎 plus() {known tag}`(forge: Forge) {
+        // When
+        val result = testedTags.plus(forge.anElementFrom(fakeTags))
+
+        // Then
+        assertThat(result).isSameAs(testedTags)
+    }
+
+    @Test
+    fun `𝕄 return a new snapshot 𝕎 minus() {matching tags}`(forge: Forge) {
+        // Given
+        val removedTag = forge.anElementFrom(fakeTags)
+
+        // When
+        val result = testedTags.minus { it == removedTag }
+
+        // Then
+        assertThat(result).isNotSameAs(testedTags)
+        assertThat(result).containsExactlyElementsOf(fakeTags - removedTag)
+        assertThat(testedTags).containsExactlyElementsOf(fakeTags)
+    }
+
+    @Test
+    fun `𝕄 return the same snapshot 𝕎 minus() {no matching tag}`() {
+        // When
+        val result = testedTags.minus { false }
+
+        // Then
+        assertThat(result).isSameAs(testedTags)
+    }
+}
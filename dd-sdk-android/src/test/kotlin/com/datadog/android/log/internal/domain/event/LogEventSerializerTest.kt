@@ -78,6 +78,25 @@ internal class LogEventSerializerTest {
         assertSerializedLogMatchesInputLog(serialized, logWithoutTags)
     }
 
+    @Test
+    fun `M sanitise the tags W serialize() {tags changed after a previous log}`(
+        @Forgery fakeLog: LogEvent,
+        forge: Forge
+    ) {
+        // Given
+        val key = forge.anElementFrom("host", "device", "source", "service")
+        val value = forge.aNumericalString()
+        testedSerializer.serialize(fakeLog)
+        val mappedLog = fakeLog.copy()
+        mappedLog.ddtags = fakeLog.ddtags + ",$key:$value"
+
+        // When
+        val serialized = testedSerializer.serialize(mappedLog)
+
+        // Then
+        assertSerializedLogMatchesInputLog(serialized, fakeLog)
+    }
+
     @Test
     fun `M sanitise the user extra info keys W level deeper than 8`(
         @Forgery fakeLog: LogEvent,
@@ -22,6 +22,8 @@ import com.datadog.android.core.model.UserInfo
 import com.datadog.android.log.LogAttributes
 import com.datadog.android.log.assertj.LogEventAssert.Companion.assertThat
 import com.datadog.android.log.internal.domain.LogGenerator
+import com.datadog.android.log.internal.domain.LogRecord
+import com.datadog.android.log.internal.domain.LogTags
 import com.datadog.android.log.internal.user.UserInfoProvider
 import com.datadog.android.log.model.LogEvent
 import com.datadog.android.privacy.TrackingConsent
@@ -116,6 +118,9 @@ internal class DatadogLogHandlerTest {
     @Mock
     lateinit var mockSampler: Sampler
 
+    @Mock
+    lateinit var mockRecordWriter: DataWriter<LogRecord>
+
     lateinit var fakeAppVersion: String
 
     lateinit var fakeEnvName: String
@@ -139,14 +144,14 @@ internal class DatadogLogHandlerTest {
             }
         )
         fakeAppVersion = forge.aStringMatching("^[0-9]\\.[0-9]\\.[0-9]")
-        fakeEnvName = forge.aStringMatching("[a-zA-Z0-9_:./-]{0,195}[a-zA-Z0-9_./-]")
-        fakeVariant = forge.anAlphabeticalString()
+        fakeEnvName = forge.aStringMatching("[a-z0-9_:./-]{0,195}[a-z0-9_./-]")
+        fakeVariant = forge.aStringMatching("[a-z]+")
         fakeServiceName = forge.anAlphabeticalString()
         fakeLoggerName = forge.anAlphabeticalString()
         fakeMessage = forge.anAlphabeticalString()
         fakeLevel = forge.anInt(2, 8)
         fakeAttributes = forge.aMap { anAlphabeticalString() to anInt() }
-        fakeTags = forge.aList { anAlphabeticalString() }.toSet()
+        fakeTags = forge.aList { aStringMatching("[a-z][a-z0-9_]*") }.toSet()
         fakeSdkVersion = forge.anAlphabeticalString()
         fakeArchitecture = forge.anAlphaNumericalString()
 
@@ -908,6 +913,178 @@ internal class DatadogLogHandlerTest {
         }
     }
 
+    @Test
+    fun `M write a LogRecord W handleLog() {async}`() {
+        // Given
+        val now = System.currentTimeMillis()
+        testedHandler = DatadogLogHandler(
+            LogGenerator(
+                fakeServiceName,
+                fakeLoggerName,
+                mockNetworkInfoProvider,
+                mockUserInfoProvider,
+                mockTimeProvider,
+                fakeSdkVersion,
+                fakeEnvName,
+                fakeVariant,
+                mockAppVersionProvider,
+                mockAndroidInfoProvider
+            ),
+            mockWriter,
+            recordWriter = mockRecordWriter
+        )
+
+        // When
+        testedHandler.handleLog(
+            fakeLevel,
+            fakeMessage,
+            fakeThrowable,
+            fakeAttributes,
+            fakeTags
+        )
+
+        // Then
+        argumentCaptor<LogRecord>().apply {
+            verify(mockRecordWriter).write(capture())
+
+            assertThat(lastValue.level).isEqualTo(fakeLevel)
+            assertThat(lastValue.message).isEqualTo(fakeMessage)
+            assertThat(lastValue.throwable).isSameAs(fakeThrowable)
+            assertThat(lastValue.attributes).isEqualTo(fakeAttributes)
+            assertThat(lastValue.tags).isEqualTo(fakeTags)
+            assertThat(lastValue.timestamp).isBetween(now, System.currentTimeMillis())
+            assertThat(lastValue.threadName).isEqualTo(Thread.currentThread().name)
+            assertThat(lastValue.rumContext).isEqualTo(rumMonitor.context)
+        }
+        verifyZeroInteractions(mockWriter)
+    }
+
+    @Test
+    fun `M write a LogRecord W handleLog() {async, error strings}`(
+        @StringForgery fakeErrorKind: String,
+        @StringForgery fakeErrorMessage: String,
+        @StringForgery fakeErrorStack: String
+    ) {
+        // Given
+        testedHandler = DatadogLogHandler(
+            LogGenerator(
+                fakeServiceName,
+                fakeLoggerName,
+                mockNetworkInfoProvider,
+                mockUserInfoProvider,
+                mockTimeProvider,
+                fakeSdkVersion,
+                fakeEnvName,
+                fakeVariant,
+                mockAppVersionProvider,
+                mockAndroidInfoProvider
+            ),
+            mockWriter,
+            recordWriter = mockRecordWriter
+        )
+
+        // When
+        testedHandler.handleLog(
+            fakeLevel,
+            fakeMessage,
+            fakeErrorKind,
+            fakeErrorMessage,
+            fakeErrorStack,
+            fakeAttributes,
+            fakeTags
+        )
+
+        // Then
+        argumentCaptor<LogRecord>().apply {
+            verify(mockRecordWriter).write(capture())
+
+            assertThat(lastValue.throwable).isNull()
+            assertThat(lastValue.errorKind).isEqualTo(fakeErrorKind)
+            assertThat(lastValue.errorMessage).isEqualTo(fakeErrorMessage)
+            assertThat(lastValue.errorStacktrace).isEqualTo(fakeErrorStack)
+        }
+        verifyZeroInteractions(mockWriter)
+    }
+
+    @Test
+    fun `M snapshot the tags W handleLog() {async}`(
+        @StringForgery fakeTag: String
+    ) {
+        // Given
+        val mutableTags = fakeTags.toMutableSet()
+        testedHandler = DatadogLogHandler(
+            LogGenerator(
+                fakeServiceName,
+                fakeLoggerName,
+                mockNetworkInfoProvider,
+                mockUserInfoProvider,
+                mockTimeProvider,
+                fakeSdkVersion,
+                fakeEnvName,
+                fakeVariant,
+                mockAppVersionProvider,
+                mockAndroidInfoProvider
+            ),
+            mockWriter,
+            recordWriter = mockRecordWriter
+        )
+
+        // When
+        testedHandler.handleLog(
+            fakeLevel,
+            fakeMessage,
+            null,
+            fakeAttributes,
+            mutableTags
+        )
+        mutableTags.add(fakeTag)
+
+        // Then
+        argumentCaptor<LogRecord>().apply {
+            verify(mockRecordWriter).write(capture())
+
+            assertThat(lastValue.tags).isEqualTo(fakeTags)
+        }
+    }
+
+    @Test
+    fun `M not copy a LogTags snapshot W handleLog() {async}`() {
+        // Given
+        val tags = fakeTags.fold(LogTags.EMPTY) { snapshot, tag -> snapshot.plus(tag) }
+        testedHandler = DatadogLogHandler(
+            LogGenerator(
+                fakeServiceName,
+                fakeLoggerName,
+                mockNetworkInfoProvider,
+                mockUserInfoProvider,
+                mockTimeProvider,
+                fakeSdkVersion,
+                fakeEnvName,
+                fakeVariant,
+                mockAppVersionProvider,
+                mockAndroidInfoProvider
+            ),
+            mockWriter,
+            recordWriter = mockRecordWriter
+        )
+
+        // When
+        testedHandler.handleLog(
+            fakeLevel,
+            fakeMessage,
+            null,
+            fakeAttributes,
+            tags
+        )
+
+        // Then
+        argumentCaptor<LogRecord>().apply {
+            verify(mockRecordWriter).write(capture())
+
+            assertThat(lastValue.tags).isSameAs(tags)
+        }
+    }
+
     companion object {
         val appContext = ApplicationContextTestConfiguration(Context::class.java)
         val rumMonitor = GlobalRumMonitorTestConfiguration()
@@ -0,0 +1,163 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.log.internal.logger
+
+import com.datadog.android.core.internal.PreInitQueue
+import com.datadog.android.log.Logger
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ForgeConfiguration(Configurator::class)
+internal class DeferredLogHandlerTest {
+
+    lateinit var testedHandler: DeferredLogHandler
+
+    lateinit var preInitQueue: PreInitQueue
+
+    @Mock
+    lateinit var mockDelegateHandler: LogHandler
+
+    @Mock
+    lateinit var mockInternalLogHandler: LogHandler
+
+    lateinit var fakeMessage: String
+    lateinit var fakeTags: Set<String>
+    lateinit var fakeAttributes: Map<String, Any?>
+
+    var fakeLevel: Int = 0
+
+    @Forgery
+    lateinit var fakeThrowable: Throwable
+
+    @BeforeEach
+    fun `set up`(forge: Forge) {
+        fakeMessage = forge.anAlphabeticalString()
+        fakeLevel = forge.anInt(2, 8)
+        fakeAttributes = forge.aMap { anAlphabeticalString() to anInt() }
+        fakeTags = forge.aList { anAlphabeticalString() }.toSet()
+
+        preInitQueue = PreInitQueue(Logger(mockInternalLogHandler))
+    }
+
+    @Test
+    fun `𝕄 forward log 𝕎 handleLog() {queue ready}`(
+        @LongForgery fakeTimestamp: Long
+    ) {
+        // Given
+        testedHandler = DeferredLogHandler(preInitQueue) { mockDelegateHandler }
+
+        // When
+        testedHandler.handleLog(
+            fakeLevel,
+            fakeMessage,
+            fakeThrowable,
+            fakeAttributes,
+            fakeTags,
+            fakeTimestamp
+        )
+
+        // Then
+        assertThat(testedHandler.delegate).isSameAs(mockDelegateHandler)
+        verify(mockDelegateHandler).handleLog(
+            fakeLevel,
+            fakeMessage,
+            fakeThrowable,
+            fakeAttributes,
+            fakeTags,
+            fakeTimestamp
+        )
+    }
+
+    @Test
+    fun `𝕄 keep log until ready 𝕎 handleLog() {queue pending}`() {
+        // Given
+        preInitQueue.start()
+        testedHandler = DeferredLogHandler(preInitQueue) { mockDelegateHandler }
+        val startMs = System.currentTimeMillis()
+
+        // When
+        testedHandler.handleLog(fakeLevel, fakeMessage, fakeThrowable, fakeAttributes, fakeTags)
+        val endMs = System.currentTimeMillis()
+        Thread.sleep(10)
+
+        // Then
+        verifyZeroInteractions(mockDelegateHandler)
+        preInitQueue.markReady()
+        argumentCaptor<Long> {
+            verify(mockDelegateHandler).handleLog(
+                eq(fakeLevel),
+                eq(fakeMessage),
+                eq(fakeThrowable),
+                eq(fakeAttributes),
+                eq(fakeTags),
+                capture()
+            )
+            assertThat(firstValue).isBetween(startMs, endMs)
+        }
+    }
+
+    @Test
+    fun `𝕄 keep error log until ready 𝕎 handleLog() {strings, queue pending}`(
+        @LongForgery fakeTimestamp: Long,
+        forge: Forge
+    ) {
+        // Given
+        val fakeErrorKind = forge.aNullable { anAlphabeticalString() }
+        val fakeErrorMessage = forge.aNullable { anAlphabeticalString() }
+        val fakeErrorStack = forge.aNullable { anAlphabeticalString() }
+        preInitQueue.start()
+        testedHandler = DeferredLogHandler(preInitQueue) { mockDelegateHandler }
+
+        // When
+        testedHandler.handleLog(
+            fakeLevel,
+            fakeMessage,
+            fakeErrorKind,
+            fakeErrorMessage,
+            fakeErrorStack,
+            fakeAttributes,
+            fakeTags,
+            fakeTimestamp
+        )
+
+        // Then
+        verifyZeroInteractions(mockDelegateHandler)
+        preInitQueue.markReady()
+        verify(mockDelegateHandler).handleLog(
+            fakeLevel,
+            fakeMessage,
+            fakeErrorKind,
+            fakeErrorMessage,
+            fakeErrorStack,
+            fakeAttributes,
+            fakeTags,
+            fakeTimestamp
+        )
+    }
+}
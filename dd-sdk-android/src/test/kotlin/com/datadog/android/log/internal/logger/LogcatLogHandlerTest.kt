@@ -8,6 +8,7 @@ package com.datadog.android.log.internal.logger
 
 import com.datadog.android.BuildConfig
 import com.datadog.android.Datadog
+import com.datadog.android.log.Logger
 import fr.xgouchet.elmyr.Case
 import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.StringForgery
@@ -102,6 +103,90 @@ internal class LogcatLogHandlerTest {
             )
     }
 
+    @Test
+    fun `resolves tag from service name without stack trace element`(
+        @StringForgery(regex = "[a-z]{1,22}") serviceName: String
+    ) {
+        // Given
+        testedHandler = LogcatLogHandler(serviceName, true)
+
+        // When
+        val tag = testedHandler.resolveTag(null)
+
+        // Then
+        assertThat(tag).isEqualTo(serviceName)
+    }
+
+    @Test
+    fun `resolves tag from simple class name`(
+        @StringForgery(regex = "([a-z]{1,8}\\.){1,4}") packageName: String,
+        @StringForgery(regex = "[A-Z][a-zA-Z0-9]{0,20}") className: String,
+        forge: Forge
+    ) {
+        // Given
+        val element = StackTraceElement(
+            "$packageName$className",
+            forge.anAlphabeticalString(),
+            forge.anAlphabeticalString(),
+            forge.aSmallInt()
+        )
+
+        // When
+        val tag = testedHandler.resolveTag(element)
+
+        // Then
+        assertThat(tag).isEqualTo(className)
+    }
+
+    @Test
+    fun `resolves tag without anonymous classes suffix`(
+        @StringForgery(regex = "([a-z]{1,8}\\.){1,4}") packageName: String,
+        @StringForgery(regex = "[A-Z][a-zA-Z0-9]{0,8}(\\$[A-Z][a-zA-Z]{0,4})?") className: String,
+        @StringForgery(regex = "(\\$[0-9]{1,3}){1,3}") anonymousSuffix: String,
+        forge: Forge
+    ) {
+        // Given
+        val element = StackTraceElement(
+            "$packageName$className$anonymousSuffix",
+            forge.anAlphabeticalString(),
+            forge.anAlphabeticalString(),
+            forge.aSmallInt()
+        )
+
+        // When
+        val tag = testedHandler.resolveTag(element)
+
+        // Then
+        assertThat(tag).isEqualTo(className)
+    }
+
+    @Test
+    fun `resolves the same tag for the same class name`(
+        @StringForgery(regex = "([a-z]{1,8}\\.){1,4}[A-Z][a-zA-Z]{0,8}") className: String,
+        forge: Forge
+    ) {
+        // Given
+        val element = StackTraceElement(
+            className,
+            forge.anAlphabeticalString(),
+            forge.anAlphabeticalString(),
+            forge.aSmallInt()
+        )
+        val otherElement = StackTraceElement(
+            className,
+            forge.anAlphabeticalString(),
+            forge.anAlphabeticalString(),
+            forge.aSmallInt()
+        )
+
+        // When
+        val tag = testedHandler.resolveTag(element)
+        val otherTag = testedHandler.resolveTag(otherElement)
+
+        // Then
+        assertThat(otherTag).isSameAs(tag)
+    }
+
     @RepeatedTest(4)
     fun `resolves valid stack trace element when wrapped in timber`(forge: Forge) {
         // Given
@@ -159,4 +244,22 @@ internal class LogcatLogHandlerTest {
         assertThat(element.className)
             .isEqualTo(validElements.first().className)
     }
+
+    @Test
+    fun `resolves no stack trace element when the caller is too deep`(
+        @StringForgery(regex = "com\\.[a-z]{5}\\.[A-Z][a-zA-Z]{8}") validClassName: String
+    ) {
+        // Given
+        val ignoredElements = List(LogcatLogHandler.MAX_CALLER_STACK_DEPTH) {
+            StackTraceElement(Logger::class.java.canonicalName, "log", "Logger.kt", it)
+        }
+        val validElement = StackTraceElement(validClassName, "run", "Main.kt", 42)
+        val stackTrace = (ignoredElements + validElement).toTypedArray()
+
+        // When
+        val element = testedHandler.findValidCallStackElement(stackTrace)
+
+        // Then
+        assertThat(element).isNull()
+    }
 }
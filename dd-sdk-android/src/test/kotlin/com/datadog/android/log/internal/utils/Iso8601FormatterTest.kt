@@ -0,0 +1,157 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.log.internal.utils
+
+import com.datadog.android.utils.extension.toIsoFormattedTimestamp
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(Configurator::class)
+internal class Iso8601FormatterTest {
+
+    lateinit var testedFormatter: Iso8601Formatter
+
+    @BeforeEach
+    fun `set up`() {
+        testedFormatter = Iso8601Formatter()
+    }
+
+    @Test
+    fun `𝕄 format the timestamp 𝕎 format()`(
+        @LongForgery(min = 0L, max = MAX_TIMESTAMP_MS) fakeTimestamp: Long
+    ) {
+        // When
+        val result = testedFormatter.format(fakeTimestamp)
+
+        // Then
+        assertThat(result).isEqualTo(fakeTimestamp.toIsoFormattedTimestamp())
+    }
+
+    @Test
+    fun `𝕄 format the timestamps 𝕎 format() {successive timestamps}`(
+        forge: Forge
+    ) {
+        // Given
+        val fakeTimestamps = forge.aList(size = 256) { aLong(min = 0L, max = MAX_TIMESTAMP_MS) }
+
+        // When
+        val results = fakeTimestamps.map { testedFormatter.format(it) }
+
+        // Then
+        assertThat(results).isEqualTo(fakeTimestamps.map { it.toIsoFormattedTimestamp() })
+    }
+
+    @Test
+    fun `𝕄 only update the milliseconds 𝕎 format() {same second}`(
+        @LongForgery(min = 0L, max = MAX_TIMESTAMP_MS) fakeSecond: Long,
+        @IntForgery(min = 0, max = 1000) fakeMillis: Int
+    ) {
+        // Given
+        val timestamp = (fakeSecond / 1000L) * 1000L
+        testedFormatter.format(timestamp)
+
+        // When
+        val result = testedFormatter.format(timestamp + fakeMillis)
+
+        // Then
+        assertThat(result).isEqualTo((timestamp + fakeMillis).toIsoFormattedTimestamp())
+    }
+
+    @Test
+    fun `𝕄 format the day boundaries 𝕎 format()`() {
+        // Given
+        val timestamps = listOf(
+            0L,
+            MILLIS_PER_DAY - 1,
+            // 2000-02-29T23:59:59.999Z
+            951868799999L,
+            // 2000-03-01T00:00:00.000Z
+            951868800000L,
+            // 2100-02-28T23:59:59.999Z
+            4107542399999L,
+            // 2100-03-01T00:00:00.000Z
+            4107542400000L,
+            MAX_TIMESTAMP_MS - 1
+        )
+
+        // When
+        val results = timestamps.map { testedFormatter.format(it) }
+
+        // Then
+        assertThat(results).isEqualTo(timestamps.map { it.toIsoFormattedTimestamp() })
+    }
+
+    @Test
+    fun `𝕄 format the timestamp 𝕎 format() {before epoch}`(
+        @LongForgery(min = -MAX_TIMESTAMP_MS, max = 0L) fakeTimestamp: Long
+    ) {
+        // When
+        val result = testedFormatter.format(fakeTimestamp)
+
+        // Then
+        assertThat(result).isEqualTo(fakeTimestamp.toIsoFormattedTimestamp())
+    }
+
+    @Test
+    fun `𝕄 format the timestamp 𝕎 format() {after year 9999}`(
+        @LongForgery(min = MAX_TIMESTAMP_MS, max = MAX_TIMESTAMP_MS * 2) fakeTimestamp: Long
+    ) {
+        // When
+        val result = testedFormatter.format(fakeTimestamp)
+
+        // Then
+        assertThat(result).isEqualTo(fakeTimestamp.toIsoFormattedTimestamp())
+    }
+
+    @Test
+    fun `𝕄 format the timestamps 𝕎 format() {multiple threads}`(
+        forge: Forge
+    ) {
+        // Given
+        val threadCount = forge.anInt(2, 8)
+        val fakeTimestamps = List(threadCount) {
+            forge.aList(size = 128) { aLong(min = 0L, max = MAX_TIMESTAMP_MS) }
+        }
+        val results = Array<List<String>>(threadCount) { emptyList() }
+        val countDownLatch = CountDownLatch(threadCount)
+
+        // When
+        fakeTimestamps.forEachIndexed { index, timestamps ->
+            Thread {
+                results[index] = timestamps.map { testedFormatter.format(it) }
+                countDownLatch.countDown()
+            }.start()
+        }
+        countDownLatch.await(5, TimeUnit.SECONDS)
+
+        // Then
+        fakeTimestamps.forEachIndexed { index, timestamps ->
+            assertThat(results[index]).isEqualTo(timestamps.map { it.toIsoFormattedTimestamp() })
+        }
+    }
+
+    companion object {
+        private const val MILLIS_PER_DAY = 86400000L
+
+        // 10000-01-01T00:00:00.000Z
+        private const val MAX_TIMESTAMP_MS = 253402300800000L
+    }
+}
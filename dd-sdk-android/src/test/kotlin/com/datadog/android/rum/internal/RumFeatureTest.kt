@@ -13,7 +13,9 @@ import com.datadog.android.core.configuration.VitalsUpdateFrequency
 import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.SdkFeatureTest
 import com.datadog.android.core.internal.event.NoOpEventMapper
+import com.datadog.android.core.internal.persistence.PersistenceStrategy
 import com.datadog.android.core.internal.thread.NoOpScheduledExecutorService
+import com.datadog.android.rum.internal.domain.CoalescingViewEventWriter
 import com.datadog.android.rum.internal.domain.RumFilePersistenceStrategy
 import com.datadog.android.rum.internal.net.RumOkHttpUploaderV2
 import com.datadog.android.rum.internal.tracking.NoOpUserActionTrackingStrategy
@@ -31,6 +33,7 @@ import com.datadog.tools.unit.extensions.TestConfigurationExtension
 import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.doNothing
+import com.nhaarman.mockitokotlin2.doReturn
 import com.nhaarman.mockitokotlin2.doThrow
 import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.verify
@@ -428,6 +431,38 @@ internal class RumFeatureTest : SdkFeatureTest<Any, Configuration.Feature.RUM, R
             .isInstanceOf(NoOpScheduledExecutorService::class.java)
     }
 
+    @Test
+    fun `𝕄 shut down view event flush executor 𝕎 stop()`() {
+        // Given
+        testedFeature.initialize(appContext.mockInstance, fakeConfigurationFeature)
+        val mockFlushExecutorService: ScheduledThreadPoolExecutor = mock()
+        RumFeature.viewEventFlushExecutorService = mockFlushExecutorService
+
+        // When
+        testedFeature.stop()
+
+        // Then
+        verify(mockFlushExecutorService).shutdownNow()
+        assertThat(RumFeature.viewEventFlushExecutorService)
+            .isInstanceOf(NoOpScheduledExecutorService::class.java)
+    }
+
+    @Test
+    fun `𝕄 flush pending view events 𝕎 flushPendingViewEvents()`() {
+        // Given
+        testedFeature.initialize(appContext.mockInstance, fakeConfigurationFeature)
+        val mockWriter: CoalescingViewEventWriter = mock()
+        testedFeature.persistenceStrategy = mock<PersistenceStrategy<Any>>().apply {
+            whenever(getWriter()) doReturn mockWriter
+        }
+
+        // When
+        testedFeature.flushPendingViewEvents()
+
+        // Then
+        verify(mockWriter).flush()
+    }
+
     @Test
     fun `𝕄 reset vital monitors 𝕎 stop()`() {
         // Given
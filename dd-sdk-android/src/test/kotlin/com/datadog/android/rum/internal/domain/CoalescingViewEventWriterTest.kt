@@ -0,0 +1,475 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.rum.internal.domain
+
+import android.util.Log
+import com.datadog.android.core.internal.persistence.file.advanced.ScheduledWriter
+import com.datadog.android.log.Logger
+import com.datadog.android.log.internal.logger.LogHandler
+import com.datadog.android.rum.model.ActionEvent
+import com.datadog.android.rum.model.ErrorEvent
+import com.datadog.android.rum.model.ViewEvent
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.doThrow
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.inOrder
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
+import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.Forgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ForgeConfiguration(Configurator::class)
+internal class CoalescingViewEventWriterTest {
+
+    lateinit var testedWriter: CoalescingViewEventWriter
+
+    private var ranTaskCount = 0
+
+    @Mock
+    lateinit var mockDelegateWriter: RumDataWriter
+
+    @Mock
+    lateinit var mockExecutorService: ExecutorService
+
+    @Mock
+    lateinit var mockFlushScheduler: ScheduledExecutorService
+
+    @Mock
+    lateinit var mockLogHandler: LogHandler
+
+    @BeforeEach
+    fun `set up`() {
+        whenever(
+            mockFlushScheduler.schedule(any<Runnable>(), any(), any())
+        ) doReturn mock<ScheduledFuture<*>>()
+
+        testedWriter = CoalescingViewEventWriter(
+            mockDelegateWriter,
+            mockExecutorService,
+            mockFlushScheduler,
+            Logger(mockLogHandler)
+        )
+    }
+
+    @Test
+    fun `𝕄 schedule write 𝕎 write() {non view event}`(
+        @Forgery fakeEvent: ActionEvent
+    ) {
+        // When
+        testedWriter.write(fakeEvent)
+
+        // Then
+        verifyZeroInteractions(mockDelegateWriter, mockFlushScheduler)
+        runBufferDrain()
+        verify(mockDelegateWriter).write(listOf(fakeEvent))
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 buffer non view events 𝕎 write() {several non view events}`(
+        forge: Forge
+    ) {
+        // Given
+        val fakeEvents = forge.aList(forge.anInt(2, 16)) { getForgery<ActionEvent>() }
+
+        // When
+        fakeEvents.forEach { testedWriter.write(it) }
+
+        // Then
+        runBufferDrain()
+        verify(mockDelegateWriter).write(fakeEvents)
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 schedule write after the coalescing window 𝕎 write() {view event}`(
+        @Forgery fakeEvent: ViewEvent
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+
+        // When
+        testedWriter.write(activeEvent)
+
+        // Then
+        runSubmittedTasks()
+        verify(mockDelegateWriter).writeLastViewEvent(activeEvent)
+        verifyNoMoreInteractions(mockDelegateWriter)
+        runScheduledFlushes()
+        runSubmittedTasks(times = 2)
+        verify(mockDelegateWriter).write(activeEvent)
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 reuse the serialized view 𝕎 write() {last view event written}`(
+        @Forgery fakeEvent: ViewEvent,
+        @StringForgery fakeContent: String
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        val rawData = fakeContent.toByteArray()
+        whenever(mockDelegateWriter.writeLastViewEvent(activeEvent)) doReturn rawData
+
+        // When
+        testedWriter.write(activeEvent)
+
+        // Then
+        runSubmittedTasks()
+        runScheduledFlushes()
+        runSubmittedTasks(times = 2)
+        verify(mockDelegateWriter).writeLastViewEvent(activeEvent)
+        verify(mockDelegateWriter).write(activeEvent, rawData)
+        verifyNoMoreInteractions(mockDelegateWriter)
+    }
+
+    @Test
+    fun `𝕄 write only latest version 𝕎 write() {same view updated within the window}`(
+        @Forgery fakeEvent: ViewEvent,
+        forge: Forge
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        val updates = List(forge.anInt(2, 10)) { index ->
+            activeEvent.copy(dd = activeEvent.dd.copy(documentVersion = index + 1L))
+        }
+
+        // When
+        updates.forEach { testedWriter.write(it) }
+
+        // Then
+        runScheduledFlushes()
+        runSubmittedTasks(times = updates.size + 1)
+        updates.forEach {
+            verify(mockDelegateWriter).writeLastViewEvent(it)
+        }
+        verify(mockDelegateWriter).write(updates.last())
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 write each version 𝕎 write() {same view updated after write}`(
+        @Forgery fakeEvent: ViewEvent
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        val update = activeEvent.copy(dd = activeEvent.dd.copy(documentVersion = 2L))
+
+        // When
+        testedWriter.write(activeEvent)
+        runScheduledFlushes()
+        runSubmittedTasks(times = 2)
+        testedWriter.write(update)
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockFlushScheduler, times(2))
+                .schedule(capture(), eq(COALESCING_WINDOW_MS), eq(TimeUnit.MILLISECONDS))
+            secondValue.run()
+        }
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService, times(4)).submit(capture())
+            allValues.drop(2).forEach { it.run() }
+        }
+        verify(mockDelegateWriter).write(activeEvent)
+        verify(mockDelegateWriter).write(update)
+    }
+
+    @Test
+    fun `𝕄 write each view 𝕎 write() {distinct views}`(
+        @Forgery fakeEvent: ViewEvent,
+        @Forgery otherEvent: ViewEvent
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        val otherActiveEvent = otherEvent.active()
+
+        // When
+        testedWriter.write(activeEvent)
+        testedWriter.write(otherActiveEvent)
+
+        // Then
+        runScheduledFlushes(times = 2)
+        runSubmittedTasks(times = 4)
+        verify(mockDelegateWriter).write(activeEvent)
+        verify(mockDelegateWriter).write(otherActiveEvent)
+    }
+
+    @Test
+    fun `𝕄 coalesce view events 𝕎 write(List)`(
+        @Forgery fakeEvent: ViewEvent,
+        @Forgery fakeActionEvents: List<ActionEvent>
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        val update = activeEvent.copy(dd = activeEvent.dd.copy(documentVersion = 2L))
+
+        // When
+        testedWriter.write(listOf(activeEvent) + fakeActionEvents + update)
+
+        // Then
+        runBufferDrain()
+        runScheduledFlushes()
+        runSubmittedTasks(times = 3)
+        verify(mockDelegateWriter).write(fakeActionEvents)
+        verify(mockDelegateWriter).writeLastViewEvent(activeEvent)
+        verify(mockDelegateWriter).writeLastViewEvent(update)
+        verify(mockDelegateWriter).write(update)
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 schedule write immediately 𝕎 write() {view stopped}`(
+        @Forgery fakeEvent: ViewEvent
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        val stoppedEvent = activeEvent.copy(
+            dd = activeEvent.dd.copy(documentVersion = 2L),
+            view = activeEvent.view.copy(isActive = false)
+        )
+        testedWriter.write(activeEvent)
+
+        // When
+        testedWriter.write(stoppedEvent)
+
+        // Then
+        runSubmittedTasks(times = 3)
+        verify(mockDelegateWriter).write(stoppedEvent)
+
+        // the scheduled flush has nothing left to write
+        runScheduledFlushes()
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService, times(4)).submit(capture())
+            lastValue.run()
+        }
+        verify(mockDelegateWriter).writeLastViewEvent(activeEvent)
+        verify(mockDelegateWriter).writeLastViewEvent(stoppedEvent)
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 schedule pending view writes 𝕎 write() {crash}`(
+        @Forgery fakeEvent: ViewEvent,
+        @Forgery fakeErrorEvent: ErrorEvent
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        val crashEvent = fakeErrorEvent.copy(error = fakeErrorEvent.error.copy(isCrash = true))
+        testedWriter.write(activeEvent)
+
+        // When
+        testedWriter.write(crashEvent)
+
+        // Then
+        runSubmittedTasks(times = 2)
+        runBufferDrain()
+        verify(mockDelegateWriter).writeLastViewEvent(activeEvent)
+        verify(mockDelegateWriter).write(activeEvent)
+        verify(mockDelegateWriter).write(listOf(crashEvent))
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 schedule view write immediately 𝕎 write() {view updated after crash}`(
+        @Forgery fakeEvent: ViewEvent,
+        @Forgery fakeErrorEvent: ErrorEvent
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        val crashEvent = fakeErrorEvent.copy(error = fakeErrorEvent.error.copy(isCrash = true))
+        testedWriter.write(crashEvent)
+
+        // When
+        testedWriter.write(activeEvent)
+
+        // Then
+        verifyZeroInteractions(mockFlushScheduler)
+        runBufferDrain()
+        runSubmittedTasks(times = 2)
+        inOrder(mockDelegateWriter) {
+            verify(mockDelegateWriter).write(listOf(crashEvent))
+            verify(mockDelegateWriter).writeLastViewEvent(activeEvent)
+            verify(mockDelegateWriter).write(activeEvent)
+        }
+        verifyNoMoreInteractions(mockDelegateWriter, mockExecutorService)
+    }
+
+    @Test
+    fun `𝕄 schedule view write immediately 𝕎 write() {view updated after crash in list}`(
+        @Forgery fakeEvent: ViewEvent,
+        @Forgery fakeErrorEvent: ErrorEvent
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        val crashEvent = fakeErrorEvent.copy(error = fakeErrorEvent.error.copy(isCrash = true))
+        testedWriter.write(listOf(crashEvent))
+
+        // When
+        testedWriter.write(listOf(activeEvent))
+
+        // Then
+        verifyZeroInteractions(mockFlushScheduler)
+        runBufferDrain()
+        runSubmittedTasks(times = 2)
+        verify(mockDelegateWriter).write(listOf(crashEvent))
+        verify(mockDelegateWriter).write(activeEvent)
+    }
+
+    @Test
+    fun `𝕄 schedule pending view writes 𝕎 flush()`(
+        @Forgery fakeEvent: ViewEvent,
+        @Forgery otherEvent: ViewEvent
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        val otherActiveEvent = otherEvent.active()
+        testedWriter.write(activeEvent)
+        testedWriter.write(otherActiveEvent)
+
+        // When
+        testedWriter.flush()
+
+        // Then
+        runSubmittedTasks(times = 4)
+        verify(mockDelegateWriter).write(activeEvent)
+        verify(mockDelegateWriter).write(otherActiveEvent)
+    }
+
+    @Test
+    fun `𝕄 schedule write immediately 𝕎 write() {flush scheduling rejected}`(
+        @Forgery fakeEvent: ViewEvent,
+        @StringForgery errorMessage: String
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        whenever(mockFlushScheduler.schedule(any<Runnable>(), any(), any())) doThrow
+            RejectedExecutionException(errorMessage)
+
+        // When
+        testedWriter.write(activeEvent)
+
+        // Then
+        runSubmittedTasks(times = 2)
+        verify(mockDelegateWriter).write(activeEvent)
+    }
+
+    @Test
+    fun `𝕄 drop data and warn 𝕎 write() {submit rejected}`(
+        @Forgery fakeEvent: ViewEvent,
+        @StringForgery errorMessage: String
+    ) {
+        // Given
+        val exception = RejectedExecutionException(errorMessage)
+        whenever(mockExecutorService.submit(any())) doThrow exception
+        testedWriter.write(fakeEvent.active())
+
+        // When
+        runScheduledFlushes()
+
+        // Then
+        verifyZeroInteractions(mockDelegateWriter)
+        verify(mockLogHandler, times(2)).handleLog(
+            Log.ERROR,
+            ScheduledWriter.ERROR_REJECTED,
+            throwable = exception
+        )
+    }
+
+    @Test
+    fun `𝕄 schedule write again 𝕎 write() {previous submit rejected}`(
+        @Forgery fakeEvent: ViewEvent,
+        @StringForgery errorMessage: String
+    ) {
+        // Given
+        val activeEvent = fakeEvent.active()
+        whenever(mockExecutorService.submit(any()))
+            .thenReturn(null)
+            .doThrow(RejectedExecutionException(errorMessage))
+            .thenReturn(null)
+        testedWriter.write(activeEvent)
+        runScheduledFlushes()
+
+        // When
+        testedWriter.write(activeEvent)
+
+        // Then
+        argumentCaptor<Runnable> {
+            verify(mockFlushScheduler, times(2))
+                .schedule(capture(), eq(COALESCING_WINDOW_MS), eq(TimeUnit.MILLISECONDS))
+            secondValue.run()
+        }
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService, times(4)).submit(capture())
+            lastValue.run()
+        }
+        verify(mockDelegateWriter).write(activeEvent)
+    }
+
+    // region Internal
+
+    private fun ViewEvent.active(): ViewEvent {
+        return copy(view = view.copy(isActive = true))
+    }
+
+    private fun runSubmittedTasks(times: Int = 1) {
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService, times(times)).submit(capture())
+            allValues.drop(ranTaskCount).forEach { it.run() }
+        }
+        ranTaskCount = times
+    }
+
+    private fun runBufferDrain() {
+        argumentCaptor<Runnable> {
+            verify(mockExecutorService).execute(capture())
+            firstValue.run()
+        }
+    }
+
+    private fun runScheduledFlushes(times: Int = 1) {
+        argumentCaptor<Runnable> {
+            verify(mockFlushScheduler, times(times))
+                .schedule(capture(), eq(COALESCING_WINDOW_MS), eq(TimeUnit.MILLISECONDS))
+            allValues.forEach { it.run() }
+        }
+    }
+
+    // endregion
+
+    companion object {
+        private const val COALESCING_WINDOW_MS = CoalescingViewEventWriter.COALESCING_WINDOW_MS
+    }
+}
@@ -7,6 +7,7 @@
 package com.datadog.android.rum.internal.domain
 
 import android.util.Log
+import com.datadog.android.core.internal.persistence.EventPriority
 import com.datadog.android.core.internal.persistence.PayloadDecoration
 import com.datadog.android.core.internal.persistence.Serializer
 import com.datadog.android.core.internal.persistence.file.FileHandler
@@ -33,10 +34,12 @@ import com.nhaarman.mockitokotlin2.never
 import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
+import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.annotation.Forgery
 import fr.xgouchet.elmyr.annotation.StringForgery
 import fr.xgouchet.elmyr.junit5.ForgeConfiguration
 import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
@@ -107,35 +110,50 @@ internal class RumDataWriterTest {
     }
 
     @Test
-    fun `𝕄 persist the event into the NDK crash folder 𝕎 onDataWritten(){ViewEvent+dir exists}`(
+    fun `𝕄 not persist the event into the NDK crash folder 𝕎 onDataWritten() { ViewEvent }`(
+        @Forgery viewEvent: ViewEvent
+    ) {
+        // When
+        testedWriter.onDataWritten(viewEvent, fakeSerializedData)
+
+        // Then
+        verifyZeroInteractions(mockFileHandler)
+    }
+
+    @Test
+    fun `𝕄 persist the event into the NDK crash folder 𝕎 writeLastViewEvent(){dir exists}`(
         @Forgery viewEvent: ViewEvent
     ) {
         // Given
         val ndkReportsFolder = mock<File>()
         whenever(ndkReportsFolder.exists()) doReturn true
         whenever(fakeLastViewEventFile.parentFile) doReturn ndkReportsFolder
+        whenever(mockSerializer.serialize(viewEvent)) doReturn fakeSerializedEvent
 
         // When
-        testedWriter.onDataWritten(viewEvent, fakeSerializedData)
+        val result = testedWriter.writeLastViewEvent(viewEvent)
 
         // Then
+        assertThat(result).isEqualTo(fakeSerializedData)
         verify(mockFileHandler)
             .writeData(fakeLastViewEventFile, fakeSerializedData, false)
         verifyZeroInteractions(logger.mockSdkLogHandler)
     }
 
     @Test
-    fun `𝕄 log info when writing last view event 𝕎 onDataWritten(){ ViewEvent+no crash dir }`(
+    fun `𝕄 log info when writing last view event 𝕎 writeLastViewEvent() { no crash dir }`(
         @Forgery viewEvent: ViewEvent
     ) {
         // Given
         whenever(fakeLastViewEventFile.parentFile) doReturn null
+        whenever(mockSerializer.serialize(viewEvent)) doReturn fakeSerializedEvent
 
         // When
-        testedWriter.onDataWritten(viewEvent, fakeSerializedData)
+        val result = testedWriter.writeLastViewEvent(viewEvent)
 
         // Then
-        verifyZeroInteractions(mockFileHandler)
+        assertThat(result).isNull()
+        verifyZeroInteractions(mockFileHandler, mockSerializer)
         verify(logger.mockSdkLogHandler)
             .handleLog(
                 Log.INFO,
@@ -146,6 +164,24 @@ internal class RumDataWriterTest {
             )
     }
 
+    @Test
+    fun `𝕄 do nothing 𝕎 writeLastViewEvent() { serialization failed }`(
+        @Forgery viewEvent: ViewEvent
+    ) {
+        // Given
+        val ndkReportsFolder = mock<File>()
+        whenever(ndkReportsFolder.exists()) doReturn true
+        whenever(fakeLastViewEventFile.parentFile) doReturn ndkReportsFolder
+        whenever(mockSerializer.serialize(viewEvent)) doReturn null
+
+        // When
+        val result = testedWriter.writeLastViewEvent(viewEvent)
+
+        // Then
+        assertThat(result).isNull()
+        verifyZeroInteractions(mockFileHandler)
+    }
+
     @Test
     fun `𝕄 do not notify the RumMonitor 𝕎 onDataWriteFailed() { ViewEvent }`(
         @Forgery viewEvent: ViewEvent
@@ -303,6 +339,36 @@ internal class RumDataWriterTest {
         verifyZeroInteractions(rumMonitor.mockInstance, mockFileHandler)
     }
 
+    @Test
+    fun `𝕄 use high priority 𝕎 getPriority() { ErrorEvent }`(
+        @Forgery fakeEvent: ErrorEvent
+    ) {
+        // When
+        val priority = testedWriter.getPriority(fakeEvent)
+
+        // Then
+        assertThat(priority).isEqualTo(EventPriority.HIGH)
+    }
+
+    @Test
+    fun `𝕄 use normal priority 𝕎 getPriority() { other events }`(
+        forge: Forge
+    ) {
+        // Given
+        val fakeEvent = forge.anElementFrom(
+            forge.getForgery<ViewEvent>(),
+            forge.getForgery<ActionEvent>(),
+            forge.getForgery<ResourceEvent>(),
+            forge.getForgery<LongTaskEvent>()
+        )
+
+        // When
+        val priority = testedWriter.getPriority(fakeEvent)
+
+        // Then
+        assertThat(priority).isEqualTo(EventPriority.NORMAL)
+    }
+
     companion object {
         val rumMonitor = GlobalRumMonitorTestConfiguration()
         val logger = LoggerTestConfiguration()
@@ -788,6 +788,38 @@ internal class RumEventSerializerTest {
             .hasField(key, value)
     }
 
+    @Test
+    fun `𝕄 move known custom attributes to the root 𝕎 serialize() {nested values}`(
+        forge: Forge
+    ) {
+        // GIVEN
+        val knownKey = forge.anElementFrom(RumEventSerializer.knownAttributes)
+        val nestedKey = forge.anElementFrom(RumEventSerializer.knownAttributes - knownKey)
+        val knownValue = forge.anAlphabeticalString()
+        val innerKey = forge.anAlphabeticalString()
+        val innerValue = forge.aLong()
+        val nestedValue = mapOf(innerKey to innerValue)
+        val customKey = forge.anAlphabeticalString()
+        val customValue = forge.anAlphabeticalString()
+        val event = forge.forgeRumEvent(
+            mutableMapOf(knownKey to knownValue, nestedKey to nestedValue, customKey to customValue)
+        )
+
+        // WHEN
+        val serialized = testedSerializer.serialize(event)
+
+        // THEN
+        val jsonObject = JsonParser.parseString(serialized).asJsonObject
+        assertThat(jsonObject)
+            .hasField(knownKey, knownValue)
+            .hasField(nestedKey) { hasField(innerKey, innerValue) }
+        val contextObject = jsonObject.getAsJsonObject(RumEventSerializer.GLOBAL_ATTRIBUTE_PREFIX)
+        assertThat(contextObject)
+            .doesNotHaveField(knownKey)
+            .doesNotHaveField(nestedKey)
+            .hasField(customKey, customValue)
+    }
+
     @Test
     fun `M sanitise the custom attributes keys W level deeper than 9`(forge: Forge) {
         // GIVEN
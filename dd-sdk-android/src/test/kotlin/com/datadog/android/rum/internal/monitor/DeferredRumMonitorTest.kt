@@ -0,0 +1,154 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.rum.internal.monitor
+
+import com.datadog.android.core.internal.PreInitQueue
+import com.datadog.android.log.Logger
+import com.datadog.android.log.internal.logger.LogHandler
+import com.datadog.android.rum.NoOpRumMonitor
+import com.datadog.android.rum.RumActionType
+import com.datadog.android.rum.RumAttributes
+import com.datadog.android.rum.RumMonitor
+import com.datadog.android.utils.forge.Configurator
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyZeroInteractions
+import fr.xgouchet.elmyr.Forge
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.mockito.junit.jupiter.MockitoSettings
+import org.mockito.quality.Strictness
+
+@Extensions(
+    ExtendWith(MockitoExtension::class),
+    ExtendWith(ForgeExtension::class)
+)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ForgeConfiguration(Configurator::class)
+internal class DeferredRumMonitorTest {
+
+    lateinit var testedMonitor: DeferredRumMonitor
+
+    lateinit var preInitQueue: PreInitQueue
+
+    @Mock
+    lateinit var mockDelegateMonitor: AdvancedRumMonitor
+
+    @Mock
+    lateinit var mockLogHandler: LogHandler
+
+    lateinit var fakeAttributes: Map<String, Any?>
+
+    @BeforeEach
+    fun `set up`(forge: Forge) {
+        fakeAttributes = forge.aMap { anAlphabeticalString() to anInt() }
+        preInitQueue = PreInitQueue(Logger(mockLogHandler))
+    }
+
+    @Test
+    fun `𝕄 forward event 𝕎 startView() {queue ready}`(
+        @StringForgery key: String,
+        @StringForgery name: String
+    ) {
+        // Given
+        testedMonitor = DeferredRumMonitor(preInitQueue) { mockDelegateMonitor }
+
+        // When
+        testedMonitor.startView(key, name, fakeAttributes)
+
+        // Then
+        assertThat(testedMonitor.delegate).isSameAs(mockDelegateMonitor)
+        verify(mockDelegateMonitor).startView(key, name, fakeAttributes)
+    }
+
+    @Test
+    fun `𝕄 keep event with its timestamp 𝕎 addUserAction() {queue pending}`(
+        @StringForgery name: String,
+        forge: Forge
+    ) {
+        // Given
+        val type = forge.aValueFrom(RumActionType::class.java)
+        preInitQueue.start()
+        testedMonitor = DeferredRumMonitor(preInitQueue) { mockDelegateMonitor }
+        val startMs = System.currentTimeMillis()
+
+        // When
+        testedMonitor.addUserAction(type, name, fakeAttributes)
+        val endMs = System.currentTimeMillis()
+
+        // Then
+        verifyZeroInteractions(mockDelegateMonitor)
+        preInitQueue.markReady()
+        argumentCaptor<Map<String, Any?>> {
+            verify(mockDelegateMonitor).addUserAction(eq(type), eq(name), capture())
+            assertThat(firstValue).containsAllEntriesOf(fakeAttributes)
+            assertThat(firstValue[RumAttributes.INTERNAL_TIMESTAMP] as Long)
+                .isBetween(startMs, endMs)
+        }
+    }
+
+    @Test
+    fun `𝕄 keep provided timestamp 𝕎 stopView() {queue pending}`(
+        @StringForgery key: String,
+        @LongForgery fakeTimestamp: Long
+    ) {
+        // Given
+        val attributes = fakeAttributes + (RumAttributes.INTERNAL_TIMESTAMP to fakeTimestamp)
+        preInitQueue.start()
+        testedMonitor = DeferredRumMonitor(preInitQueue) { mockDelegateMonitor }
+
+        // When
+        testedMonitor.stopView(key, attributes)
+
+        // Then
+        preInitQueue.markReady()
+        verify(mockDelegateMonitor).stopView(key, attributes)
+    }
+
+    @Test
+    fun `𝕄 keep event until ready 𝕎 addLongTask() {queue pending}`(
+        @LongForgery durationNs: Long,
+        @StringForgery target: String
+    ) {
+        // Given
+        preInitQueue.start()
+        testedMonitor = DeferredRumMonitor(preInitQueue) { mockDelegateMonitor }
+
+        // When
+        testedMonitor.addLongTask(durationNs, target)
+
+        // Then
+        verifyZeroInteractions(mockDelegateMonitor)
+        preInitQueue.markReady()
+        verify(mockDelegateMonitor).addLongTask(durationNs, target)
+    }
+
+    @Test
+    fun `𝕄 drop events 𝕎 addTiming() {delegate is not an AdvancedRumMonitor}`(
+        @StringForgery name: String
+    ) {
+        // Given
+        val basicMonitor: RumMonitor = NoOpRumMonitor()
+        testedMonitor = DeferredRumMonitor(preInitQueue) { basicMonitor }
+
+        // When
+        testedMonitor.addTiming(name)
+
+        // Then
+        assertThat(testedMonitor.delegate).isInstanceOf(NoOpAdvancedRumMonitor::class.java)
+    }
+}
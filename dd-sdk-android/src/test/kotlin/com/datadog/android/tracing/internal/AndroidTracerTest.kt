@@ -22,6 +22,7 @@ import com.datadog.android.utils.config.LoggerTestConfiguration
 import com.datadog.android.utils.config.MainLooperTestConfiguration
 import com.datadog.android.utils.extension.mockChoreographerInstance
 import com.datadog.android.utils.forge.Configurator
+import com.datadog.opentracing.DDId
 import com.datadog.opentracing.DDSpan
 import com.datadog.opentracing.LogHandler
 import com.datadog.opentracing.scopemanager.ScopeTestHelper
@@ -29,6 +30,7 @@ import com.datadog.tools.unit.annotations.TestConfigurationsProvider
 import com.datadog.tools.unit.extensions.TestConfigurationExtension
 import com.datadog.tools.unit.extensions.config.TestConfiguration
 import com.datadog.trace.api.Config
+import com.datadog.trace.api.IdGenerationStrategy
 import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.inOrder
 import com.nhaarman.mockitokotlin2.mock
@@ -53,7 +55,6 @@ import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
-import java.math.BigInteger
 import java.util.Random
 import java.util.UUID
 import java.util.concurrent.CountDownLatch
@@ -148,8 +149,8 @@ internal class AndroidTracerTest {
 
         val span = tracer.buildSpan(operationName).start() as DDSpan
 
-        assertThat(span.traceId)
-            .isGreaterThan(BigInteger.valueOf(0L))
+        assertThat(span.traceDDId.toLong())
+            .isGreaterThan(0L)
     }
 
     @Test
@@ -157,17 +158,34 @@ internal class AndroidTracerTest {
         @StringForgery(type = StringForgeryType.ALPHA_NUMERICAL) operationName: String,
         @LongForgery seed: Long
     ) {
-        val expectedSpanId = BigInteger(AndroidTracer.TRACE_ID_BIT_SIZE, Random(seed))
+        val expectedSpanId = DDId.from(Random(seed).nextLong() ushr 1)
         val tracer = testedTracerBuilder
             .withRandom(Random(seed))
             .build()
 
         val span = tracer.buildSpan(operationName).start() as DDSpan
 
-        assertThat(span.spanId)
+        assertThat(span.spanDDId)
             .isEqualTo(expectedSpanId)
     }
 
+    @Test
+    fun `M generate positive 63 bits ids W buildSpan { FAST_RANDOM id generation strategy }`(
+        @StringForgery(type = StringForgeryType.ALPHA_NUMERICAL) operationName: String
+    ) {
+        // Given
+        val tracer = testedTracerBuilder
+            .setIdGenerationStrategy(IdGenerationStrategy.FAST_RANDOM)
+            .build()
+
+        // When
+        val span = tracer.buildSpan(operationName).start() as DDSpan
+
+        // Then
+        assertThat(span.spanDDId.toLong()).isGreaterThan(0L)
+        assertThat(span.traceDDId.toLong()).isGreaterThan(0L)
+    }
+
     @Test
     fun `buildSpan will not inject a parent context if one exists`(
         @StringForgery(type = StringForgeryType.ALPHA_NUMERICAL) operationName: String
@@ -179,9 +197,9 @@ internal class AndroidTracerTest {
         tracer.activateSpan(span)
         val subSpan = tracer.buildSpan(operationName).start() as DDSpan
 
-        val traceId = subSpan.traceId
+        val traceId = subSpan.traceDDId
         assertThat(traceId)
-            .isEqualTo(span.traceId)
+            .isEqualTo(span.traceDDId)
     }
 
     @Test
@@ -379,6 +397,23 @@ internal class AndroidTracerTest {
         assertThat(span.serviceName).isEqualTo(coreFeature.fakeServiceName)
         assertThat(properties.getProperty(Config.PARTIAL_FLUSH_MIN_SPANS).toInt())
             .isEqualTo(AndroidTracer.DEFAULT_PARTIAL_MIN_FLUSH)
+        assertThat(properties.getProperty(Config.ID_GENERATION_STRATEGY))
+            .isEqualTo(IdGenerationStrategy.SECURE_RANDOM.name)
+    }
+
+    @Test
+    fun `M use the id generation strategy W setIdGenerationStrategy()`(forge: Forge) {
+        // Given
+        val strategy = forge.aValueFrom(IdGenerationStrategy::class.java)
+
+        // When
+        testedTracerBuilder.setIdGenerationStrategy(strategy)
+        val properties = testedTracerBuilder.properties()
+
+        // Then
+        assertThat(properties.getProperty(Config.ID_GENERATION_STRATEGY))
+            .isEqualTo(strategy.name)
+        assertThat(Config.get(properties).idGenerationStrategy).isEqualTo(strategy)
     }
 
     @Test
@@ -472,8 +507,8 @@ internal class AndroidTracerTest {
         countDownLatch.await(10, TimeUnit.SECONDS)
 
         // Then
-        val traceIdSpan1 = span1.traceId
-        val traceIdSpan2 = span2.traceId
+        val traceIdSpan1 = span1.traceDDId
+        val traceIdSpan2 = span2.traceDDId
         assertThat(traceIdSpan1).isNotEqualTo(traceIdSpan2)
     }
 
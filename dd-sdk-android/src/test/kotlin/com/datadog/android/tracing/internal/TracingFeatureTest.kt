@@ -9,7 +9,7 @@ package com.datadog.android.tracing.internal
 import com.datadog.android.core.configuration.Configuration
 import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.SdkFeatureTest
-import com.datadog.android.core.internal.persistence.file.advanced.ScheduledWriter
+import com.datadog.android.core.internal.persistence.file.advanced.RingBufferWriter
 import com.datadog.android.core.internal.persistence.file.batch.BatchFileDataWriter
 import com.datadog.android.tracing.internal.domain.TracesFilePersistenceStrategy
 import com.datadog.android.tracing.internal.domain.event.SpanEventMapperWrapper
@@ -70,7 +70,7 @@ internal class TracingFeatureTest :
 
         // Then
         val batchFileDataWriter =
-            (testedFeature.persistenceStrategy.getWriter() as? ScheduledWriter)
+            (testedFeature.persistenceStrategy.getWriter() as? RingBufferWriter)
                 ?.delegateWriter as? BatchFileDataWriter
         val spanSerializer = batchFileDataWriter?.serializer as? SpanMapperSerializer
         val spanEventMapperWrapper = spanSerializer?.spanEventMapper as? SpanEventMapperWrapper
@@ -10,12 +10,12 @@ import com.datadog.android.core.internal.CoreFeature
 import com.datadog.android.core.internal.net.info.NetworkInfoProvider
 import com.datadog.android.core.internal.system.AppVersionProvider
 import com.datadog.android.core.internal.time.TimeProvider
-import com.datadog.android.core.internal.utils.toHexString
 import com.datadog.android.core.model.NetworkInfo
 import com.datadog.android.core.model.UserInfo
 import com.datadog.android.log.internal.user.UserInfoProvider
 import com.datadog.android.tracing.assertj.SpanEventAssert.Companion.assertThat
 import com.datadog.android.utils.forge.Configurator
+import com.datadog.opentracing.DDId
 import com.datadog.opentracing.DDSpan
 import com.datadog.tools.unit.setFieldValue
 import com.nhaarman.mockitokotlin2.doReturn
@@ -35,7 +35,6 @@ import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
-import java.math.BigInteger
 
 @Extensions(
     ExtendWith(MockitoExtension::class),
@@ -107,9 +106,9 @@ internal class DdSpanToSpanEventMapperTest {
 
         // THEN
         assertThat(event)
-            .hasSpanId(fakeSpan.spanId.toHexString())
-            .hasTraceId(fakeSpan.traceId.toHexString())
-            .hasParentId(fakeSpan.parentId.toHexString())
+            .hasSpanId(fakeSpan.spanDDId.toHexString())
+            .hasTraceId(fakeSpan.traceDDId.toHexString())
+            .hasParentId(fakeSpan.parentDDId.toHexString())
             .hasServiceName(fakeSpan.serviceName)
             .hasOperationName(fakeSpan.operationName)
             .hasResourceName(fakeSpan.resourceName)
@@ -147,7 +146,7 @@ internal class DdSpanToSpanEventMapperTest {
         @Forgery fakeSpan: DDSpan
     ) {
         // GIVEN
-        fakeSpan.context().setFieldValue("parentId", BigInteger.valueOf(forge.aLong(min = 1)))
+        fakeSpan.context().setFieldValue("parentId", DDId.from(forge.aLong(min = 1)))
 
         // WHEN
         val event = testedMapper.map(fakeSpan)
@@ -11,6 +11,7 @@ import com.datadog.android.core.internal.utils.loggableStackTrace
 import com.datadog.android.log.LogAttributes
 import com.datadog.android.log.Logger
 import com.datadog.android.utils.forge.Configurator
+import com.datadog.opentracing.DDId
 import com.datadog.opentracing.DDSpan
 import com.datadog.trace.api.DDTags
 import com.nhaarman.mockitokotlin2.doReturn
@@ -31,7 +32,6 @@ import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
-import java.math.BigInteger
 import java.util.concurrent.TimeUnit
 
 @Extensions(
@@ -58,8 +58,8 @@ internal class AndroidSpanLogsHandlerTest {
 
     @BeforeEach
     fun `set up`() {
-        whenever(mockSpan.traceId) doReturn BigInteger.valueOf(fakeTraceId)
-        whenever(mockSpan.spanId) doReturn BigInteger.valueOf(fakeSpanId)
+        whenever(mockSpan.traceDDId) doReturn DDId.from(fakeTraceId)
+        whenever(mockSpan.spanDDId) doReturn DDId.from(fakeSpanId)
 
         testedLogHandler = AndroidSpanLogsHandler(
             mockLogger
@@ -57,8 +57,8 @@ class TracerExtensionsTest {
         tracer.activateSpan(span)
 
         // Then
-        assertThat(tracer.traceId()).isEqualTo(span.traceId.toString())
-        assertThat(tracer.spanId()).isEqualTo(span.spanId.toString())
+        assertThat(tracer.traceId()).isEqualTo(span.traceDDId.toString())
+        assertThat(tracer.spanId()).isEqualTo(span.spanDDId.toString())
     }
 
     @Test
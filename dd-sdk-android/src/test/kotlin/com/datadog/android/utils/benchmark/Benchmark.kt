@@ -0,0 +1,64 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.android.utils.benchmark
+
+import org.junit.jupiter.api.TestReporter
+import java.lang.management.ManagementFactory
+import java.util.Locale
+import com.sun.management.ThreadMXBean as SunThreadMXBean
+
+/**
+ * The average cost of a single operation measured by a JVM microbenchmark.
+ * @param nsPerOperation the time spent per operation
+ * @param bytesPerOperation the memory allocated per operation, or null if not measured
+ */
+internal data class BenchmarkResult(
+    val nsPerOperation: Long,
+    val bytesPerOperation: Long? = null
+) {
+    fun format(): String {
+        return if (bytesPerOperation == null) {
+            "%d ns/op".format(Locale.US, nsPerOperation)
+        } else {
+            "%d ns/op, %d B/op".format(Locale.US, nsPerOperation, bytesPerOperation)
+        }
+    }
+}
+
+/**
+ * Runs the given block [rounds] times on the current thread, and measures the time spent and
+ * the memory allocated by each of the [operationsPerRound] operations it performs.
+ * @param rounds the number of times to run the block
+ * @param operationsPerRound the number of operations performed by each run of the block
+ * @param block the block to measure, receiving the round index
+ */
+internal fun measureOperations(
+    rounds: Int,
+    operationsPerRound: Int = 1,
+    block: (Int) -> Unit
+): BenchmarkResult {
+    val threadMXBean = ManagementFactory.getThreadMXBean() as SunThreadMXBean
+    val threadId = Thread.currentThread().id
+    val operations = rounds.toLong() * operationsPerRound
+
+    val startBytes = threadMXBean.getThreadAllocatedBytes(threadId)
+    val startNs = System.nanoTime()
+    repeat(rounds, block)
+    val durationNs = System.nanoTime() - startNs
+    val allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - startBytes
+
+    return BenchmarkResult(durationNs / operations, allocatedBytes / operations)
+}
+
+/**
+ * Publishes the given benchmark result as a report entry of the running test.
+ * @param name the name of the measured operation
+ * @param result the benchmark result
+ */
+internal fun TestReporter.publishBenchmark(name: String, result: BenchmarkResult) {
+    publishEntry(name, result.format())
+}
@@ -12,7 +12,7 @@ import fr.xgouchet.elmyr.ForgeryFactory
 
 internal class BatchForgeryFactory : ForgeryFactory<Batch> {
     override fun getForgery(forge: Forge): Batch {
-        return Batch(
+        return Batch.fromBytes(
             forge.anHexadecimalString(),
             forge.anAlphabeticalString().toByteArray(Charsets.UTF_8)
         )
@@ -6,7 +6,9 @@
 
 package com.datadog.android.utils.forge
 
+import com.datadog.android.core.configuration.BufferOverflowPolicy
 import com.datadog.android.core.configuration.Configuration
+import com.datadog.android.core.configuration.UploadSchedulingPolicy
 import com.nhaarman.mockitokotlin2.mock
 import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.ForgeryFactory
@@ -32,7 +34,16 @@ internal class ConfigurationCoreForgeryFactory :
             proxy = proxy,
             proxyAuth = auth,
             securityConfig = forge.getForgery(),
-            webViewTrackingHosts = forge.aList { getForgery<URL>().host }
+            webViewTrackingHosts = forge.aList { getForgery<URL>().host },
+            persistentFileChannel = forge.aBool(),
+            batchPreCompression = forge.aBool(),
+            maxInFlightUploads = forge.anInt(1, 8),
+            bufferOverflowPolicy = forge.aValueFrom(BufferOverflowPolicy::class.java),
+            asyncInitialization = forge.aBool(),
+            uploadSchedulingPolicy = forge.aValueFrom(UploadSchedulingPolicy::class.java),
+            multiplexedUploads = forge.aBool(),
+            backgroundUploadMaxDurationMs = forge.aLong(min = 1L),
+            backgroundUploadMaxBytes = forge.aLong(min = 1L)
         )
     }
 }
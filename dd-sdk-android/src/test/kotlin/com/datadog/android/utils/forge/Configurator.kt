@@ -63,7 +63,7 @@ internal class Configurator :
         forge.addFactory(NdkCrashLogForgeryFactory())
 
         // MISC
-        forge.addFactory(BigIntegerFactory())
+        forge.addFactory(DDIdForgeryFactory())
         forge.addFactory(CharsetForgeryFactory())
         forge.addFactory(GsonJsonArrayForgeryFactory())
         forge.addFactory(GsonJsonObjectForgeryFactory())
@@ -6,12 +6,12 @@
 
 package com.datadog.android.utils.forge
 
+import com.datadog.opentracing.DDId
 import fr.xgouchet.elmyr.Forge
 import fr.xgouchet.elmyr.ForgeryFactory
-import java.math.BigInteger
 
-internal class BigIntegerFactory : ForgeryFactory<BigInteger> {
-    override fun getForgery(forge: Forge): BigInteger {
-        return BigInteger.valueOf(forge.aLong())
+internal class DDIdForgeryFactory : ForgeryFactory<DDId> {
+    override fun getForgery(forge: Forge): DDId {
+        return DDId.from(forge.aLong())
     }
 }
@@ -0,0 +1,156 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.opentracing
+
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.annotation.StringForgery
+import fr.xgouchet.elmyr.annotation.StringForgeryType
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import java.math.BigInteger
+
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(value = Configurator::class)
+internal class DDIdTest {
+
+    @Test
+    fun `𝕄 return unsigned decimal string 𝕎 toString()`(
+        @LongForgery value: Long
+    ) {
+        // Given
+        val testedId = DDId.from(value)
+
+        // When
+        val result = testedId.toString()
+
+        // Then
+        assertThat(result).isEqualTo(value.toUnsignedBigInteger().toString())
+        assertThat(testedId.toString()).isSameAs(result)
+    }
+
+    @Test
+    fun `𝕄 return unsigned hex string 𝕎 toHexString()`(
+        @LongForgery value: Long
+    ) {
+        // Given
+        val testedId = DDId.from(value)
+
+        // When
+        val result = testedId.toHexString()
+
+        // Then
+        assertThat(result).isEqualTo(value.toUnsignedBigInteger().toString(16))
+        assertThat(testedId.toHexString()).isSameAs(result)
+    }
+
+    @Test
+    fun `𝕄 return unsigned value 𝕎 toBigInteger()`(
+        @LongForgery value: Long
+    ) {
+        // When
+        val result = DDId.from(value).toBigInteger()
+
+        // Then
+        assertThat(result).isEqualTo(value.toUnsignedBigInteger())
+    }
+
+    @Test
+    fun `𝕄 parse decimal string 𝕎 from(String)`(
+        @LongForgery value: Long
+    ) {
+        // Given
+        val decimal = value.toUnsignedBigInteger().toString()
+
+        // When
+        val result = DDId.from(decimal)
+
+        // Then
+        assertThat(result).isEqualTo(DDId.from(value))
+        assertThat(result.toLong()).isEqualTo(value)
+        assertThat(result.toString()).isEqualTo(decimal)
+    }
+
+    @Test
+    fun `𝕄 parse hex string 𝕎 fromHex()`(
+        @LongForgery value: Long
+    ) {
+        // Given
+        val hex = value.toUnsignedBigInteger().toString(16)
+
+        // When
+        val result = DDId.fromHex(hex)
+
+        // Then
+        assertThat(result).isEqualTo(DDId.from(value))
+        assertThat(result.toLong()).isEqualTo(value)
+    }
+
+    @Test
+    fun `𝕄 ignore leading zeros 𝕎 from(String)`(
+        @LongForgery(min = 1) value: Long
+    ) {
+        // When
+        val result = DDId.from("000$value")
+
+        // Then
+        assertThat(result.toLong()).isEqualTo(value)
+        assertThat(result.toString()).isEqualTo(value.toString())
+    }
+
+    @Test
+    fun `𝕄 parse max value 𝕎 from(String)`() {
+        // When
+        val result = DDId.from(MAX_UNSIGNED_LONG)
+
+        // Then
+        assertThat(result).isEqualTo(DDId.MAX)
+        assertThat(result.toLong()).isEqualTo(-1L)
+        assertThat(DDId.MAX.toString()).isEqualTo(MAX_UNSIGNED_LONG)
+        assertThat(DDId.fromHex("ffffffffffffffff")).isEqualTo(DDId.MAX)
+    }
+
+    @Test
+    fun `𝕄 throw NumberFormatException 𝕎 from(String) {value overflows}`() {
+        assertThrows<NumberFormatException> {
+            DDId.from("18446744073709551616")
+        }
+        assertThrows<NumberFormatException> {
+            DDId.fromHex("10000000000000000")
+        }
+    }
+
+    @Test
+    fun `𝕄 throw NumberFormatException 𝕎 from(String) {invalid value}`(
+        @StringForgery(type = StringForgeryType.ALPHABETICAL) value: String
+    ) {
+        assertThrows<NumberFormatException> {
+            DDId.from(value)
+        }
+        assertThrows<NumberFormatException> {
+            DDId.from("-1")
+        }
+        assertThrows<NumberFormatException> {
+            DDId.fromHex("")
+        }
+    }
+
+    private fun Long.toUnsignedBigInteger(): BigInteger {
+        return BigInteger.valueOf(this).mod(BigInteger.ONE.shiftLeft(Long.SIZE_BITS))
+    }
+
+    companion object {
+        private const val MAX_UNSIGNED_LONG = "18446744073709551615"
+    }
+}
@@ -31,7 +31,6 @@ import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import org.mockito.junit.jupiter.MockitoSettings
 import org.mockito.quality.Strictness
-import java.math.BigInteger
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.TimeUnit
 
@@ -44,13 +43,13 @@ import java.util.concurrent.TimeUnit
 internal class DDSpanContextTest {
 
     @Forgery
-    lateinit var fakeTraceId: BigInteger
+    lateinit var fakeTraceId: DDId
 
     @Forgery
-    lateinit var fakeSpanId: BigInteger
+    lateinit var fakeSpanId: DDId
 
     @Forgery
-    lateinit var fakeParentId: BigInteger
+    lateinit var fakeParentId: DDId
 
     @StringForgery
     lateinit var fakeServiceName: String
@@ -139,6 +138,14 @@ internal class DDSpanContextTest {
             .containsTags(fakeTags)
     }
 
+    @Suppress("DEPRECATION")
+    @Test
+    fun `M convert the ids to BigInteger W getTraceId(), getSpanId(), getParentId()`() {
+        assertThat(testedContext.traceId).isEqualTo(fakeTraceId.toBigInteger())
+        assertThat(testedContext.spanId).isEqualTo(fakeSpanId.toBigInteger())
+        assertThat(testedContext.parentId).isEqualTo(fakeParentId.toBigInteger())
+    }
+
     @Test
     fun `M add the threadName and threadId as tags W initialized`() {
         assertThat(testedContext).containsTags(
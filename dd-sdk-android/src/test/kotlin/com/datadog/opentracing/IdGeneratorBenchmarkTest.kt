@@ -0,0 +1,76 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.opentracing
+
+import com.datadog.android.utils.benchmark.BenchmarkResult
+import com.datadog.android.utils.benchmark.publishBenchmark
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestReporter
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable
+import java.security.SecureRandom
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CyclicBarrier
+
+/**
+ * A multi-threaded JVM microbenchmark comparing the span/trace id generators, with all the
+ * threads generating ids at the same time.
+ *
+ * Run it with the `DD_BENCHMARK=true` environment variable set.
+ */
+@EnabledIfEnvironmentVariable(named = "DD_BENCHMARK", matches = "true")
+internal class IdGeneratorBenchmarkTest {
+
+    @Test
+    fun `benchmark id generation`(testReporter: TestReporter) {
+        THREAD_COUNTS.forEach { threadCount ->
+            val sharedResult = measure(SharedRandomIdGenerator(SecureRandom()), threadCount)
+            val threadLocalResult = measure(ThreadLocalIdGenerator(SecureRandom()), threadCount)
+
+            testReporter.publishBenchmark(
+                "$threadCount threads, shared SecureRandom",
+                sharedResult
+            )
+            testReporter.publishBenchmark(
+                "$threadCount threads, thread local generator",
+                threadLocalResult
+            )
+        }
+    }
+
+    // region Internal
+
+    private fun measure(generator: IdGenerator, threadCount: Int): BenchmarkResult {
+        // warm up
+        repeat(WARMUP_IDS) { generator.generateId() }
+
+        val barrier = CyclicBarrier(threadCount + 1)
+        val countDownLatch = CountDownLatch(threadCount)
+        repeat(threadCount) {
+            Thread {
+                barrier.await()
+                repeat(IDS_PER_THREAD) { generator.generateId() }
+                countDownLatch.countDown()
+            }.start()
+        }
+
+        barrier.await()
+        val startNs = System.nanoTime()
+        countDownLatch.await()
+        val durationNs = System.nanoTime() - startNs
+
+        // wall clock time per id, all threads included (allocations are spread across threads)
+        return BenchmarkResult(durationNs / (IDS_PER_THREAD.toLong() * threadCount))
+    }
+
+    // endregion
+
+    companion object {
+        private val THREAD_COUNTS = listOf(1, 2, 4, 8)
+        private const val WARMUP_IDS = 100_000
+        private const val IDS_PER_THREAD = 200_000
+    }
+}
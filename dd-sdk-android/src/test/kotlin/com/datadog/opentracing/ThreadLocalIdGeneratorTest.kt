@@ -0,0 +1,131 @@
+/*
+ * Unless explicitly stated otherwise all files in this repository are licensed under the Apache License Version 2.0.
+ * This product includes software developed at Datadog (https://www.datadoghq.com/).
+ * Copyright 2016-Present Datadog, Inc.
+ */
+
+package com.datadog.opentracing
+
+import com.datadog.android.utils.forge.Configurator
+import fr.xgouchet.elmyr.annotation.IntForgery
+import fr.xgouchet.elmyr.annotation.LongForgery
+import fr.xgouchet.elmyr.junit5.ForgeConfiguration
+import fr.xgouchet.elmyr.junit5.ForgeExtension
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.api.extension.Extensions
+import java.security.SecureRandom
+import java.util.Collections
+import java.util.Random
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@Extensions(
+    ExtendWith(ForgeExtension::class)
+)
+@ForgeConfiguration(value = Configurator::class)
+internal class ThreadLocalIdGeneratorTest {
+
+    @Test
+    fun `𝕄 generate positive 63 bits ids 𝕎 generateId()`(
+        @LongForgery seed: Long,
+        @IntForgery(100, 1000) count: Int
+    ) {
+        // Given
+        val testedGenerator = ThreadLocalIdGenerator(Random(seed))
+
+        // When
+        val ids = List(count) { testedGenerator.generateId() }
+
+        // Then
+        ids.forEach {
+            assertThat(it.toLong()).isGreaterThan(0L)
+        }
+        assertThat(ids).doesNotHaveDuplicates()
+    }
+
+    @Test
+    fun `𝕄 generate the same ids 𝕎 generateId() {same seed}`(
+        @LongForgery seed: Long,
+        @IntForgery(10, 100) count: Int
+    ) {
+        // Given
+        val testedGenerator = ThreadLocalIdGenerator(Random(seed))
+        val otherGenerator = ThreadLocalIdGenerator(Random(seed))
+
+        // When
+        val ids = List(count) { testedGenerator.generateId() }
+        val otherIds = List(count) { otherGenerator.generateId() }
+
+        // Then
+        assertThat(ids).isEqualTo(otherIds)
+    }
+
+    @Test
+    fun `𝕄 reseed the generator 𝕎 generateId() {reseed interval reached}`(
+        @LongForgery seed: Long
+    ) {
+        // Given
+        var seedCount = 0
+        val seedSource = object : Random(seed) {
+            override fun nextLong(): Long {
+                seedCount++
+                return super.nextLong()
+            }
+        }
+        val testedGenerator = ThreadLocalIdGenerator(seedSource)
+
+        // When
+        repeat(ThreadLocalIdGenerator.RESEED_INTERVAL) { testedGenerator.generateId() }
+        val seedCountBeforeReseed = seedCount
+        testedGenerator.generateId()
+
+        // Then
+        assertThat(seedCountBeforeReseed).isEqualTo(1)
+        assertThat(seedCount).isEqualTo(2)
+    }
+
+    @Test
+    fun `𝕄 cache the string value 𝕎 generateId()`(
+        @LongForgery seed: Long
+    ) {
+        // Given
+        val testedGenerator = ThreadLocalIdGenerator(Random(seed))
+
+        // When
+        val id = testedGenerator.generateId()
+
+        // Then
+        assertThat(id.toString()).isEqualTo(id.toLong().toString())
+        assertThat(id.toString()).isSameAs(id.toString())
+    }
+
+    @Test
+    fun `𝕄 generate distinct ids 𝕎 generateId() {multiple threads}`(
+        @IntForgery(2, 8) threadCount: Int
+    ) {
+        // Given
+        val testedGenerator = ThreadLocalIdGenerator(SecureRandom())
+        val ids = Collections.synchronizedList(mutableListOf<DDId>())
+        val countDownLatch = CountDownLatch(threadCount)
+
+        // When
+        repeat(threadCount) {
+            Thread {
+                val threadIds = List(IDS_PER_THREAD) { testedGenerator.generateId() }
+                ids.addAll(threadIds)
+                countDownLatch.countDown()
+            }.start()
+        }
+        countDownLatch.await(10, TimeUnit.SECONDS)
+
+        // Then
+        assertThat(ids).hasSize(threadCount * IDS_PER_THREAD)
+        assertThat(ids).doesNotHaveDuplicates()
+    }
+
+    companion object {
+        private const val IDS_PER_THREAD = 1000
+    }
+}
@@ -6,10 +6,10 @@
 
 package com.datadog.opentracing.assertj
 
+import com.datadog.opentracing.DDId
 import com.datadog.opentracing.DDSpanContext
 import org.assertj.core.api.AbstractObjectAssert
 import org.assertj.core.api.Assertions.assertThat
-import java.math.BigInteger
 
 internal class DDSpanContextAssert(actual: DDSpanContext) :
     AbstractObjectAssert<DDSpanContextAssert, DDSpanContext>(
@@ -17,31 +17,31 @@ internal class DDSpanContextAssert(actual: DDSpanContext) :
         DDSpanContextAssert::class.java
     ) {
 
-    fun hasSpanId(spanId: BigInteger): DDSpanContextAssert {
-        assertThat(actual.spanId)
+    fun hasSpanId(spanId: DDId): DDSpanContextAssert {
+        assertThat(actual.spanDDId)
             .overridingErrorMessage(
                 "Expected span context to have spanId: $spanId" +
-                    " but instead was: ${actual.spanId}"
+                    " but instead was: ${actual.spanDDId}"
             )
             .isEqualTo(spanId)
         return this
     }
 
-    fun hasTraceId(traceId: BigInteger): DDSpanContextAssert {
-        assertThat(actual.traceId)
+    fun hasTraceId(traceId: DDId): DDSpanContextAssert {
+        assertThat(actual.traceDDId)
             .overridingErrorMessage(
                 "Expected span context to have traceId: $traceId" +
-                    " but instead was: ${actual.traceId}"
+                    " but instead was: ${actual.traceDDId}"
             )
             .isEqualTo(traceId)
         return this
     }
 
-    fun hasParentId(parentId: BigInteger): DDSpanContextAssert {
-        assertThat(actual.parentId)
+    fun hasParentId(parentId: DDId): DDSpanContextAssert {
+        assertThat(actual.parentDDId)
             .overridingErrorMessage(
                 "Expected span context to have parentId: $parentId" +
-                    " but instead was: ${actual.parentId}"
+                    " but instead was: ${actual.parentDDId}"
             )
             .isEqualTo(parentId)
         return this